@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import io.micronaut.gcp.pubsub.annotation.OrderingKey;
+import io.micronaut.gcp.pubsub.annotation.PubSubClient;
+import io.micronaut.gcp.pubsub.annotation.Topic;
+import io.micronaut.messaging.annotation.MessageHeader;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The client method shapes measured by {@link PublishBenchmark}.
+ */
+@PubSubClient
+public interface BenchmarkClient {
+
+    @Topic("animals")
+    void send(Animal animal);
+
+    @Topic("animals")
+    String sendAndReturnId(Animal animal);
+
+    @Topic("animals")
+    CompletableFuture<String> sendAsync(Animal animal);
+
+    @Topic("animals")
+    Mono<String> sendReactive(Animal animal);
+
+    @Topic("animals")
+    @MessageHeader(name = "source", value = "benchmark")
+    void sendWithHeaders(Animal animal, @MessageHeader("type") String type);
+
+    @Topic("animals")
+    void sendOrdered(Animal animal, @OrderingKey String key);
+
+    @Topic("raw")
+    void sendBytes(byte[] data);
+}
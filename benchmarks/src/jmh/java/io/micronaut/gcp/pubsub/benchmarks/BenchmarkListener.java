@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import io.micronaut.gcp.pubsub.annotation.PubSubListener;
+import io.micronaut.gcp.pubsub.annotation.Subscription;
+import io.micronaut.messaging.Acknowledgement;
+import io.micronaut.messaging.annotation.MessageHeader;
+
+/**
+ * The listener method shapes measured by {@link ReceiveBenchmark}.
+ */
+@PubSubListener
+public class BenchmarkListener {
+
+    private volatile Object last;
+
+    @Subscription("body")
+    public void onBody(Animal animal) {
+        last = animal;
+    }
+
+    @Subscription("headers")
+    public void onHeaders(Animal animal, @MessageHeader("type") String type) {
+        last = type;
+    }
+
+    @Subscription("ack")
+    public void onAck(Animal animal, Acknowledgement acknowledgement) {
+        last = animal;
+        acknowledgement.ack();
+    }
+
+    @Subscription("raw")
+    public void onBytes(byte[] data) {
+        last = data;
+    }
+
+    /**
+     * @return the last received value, so that the listener invocations cannot be optimized away
+     */
+    public Object getLast() {
+        return last;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import com.google.api.core.AbstractApiService;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.cloud.pubsub.v1.SubscriberInterface;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.gcp.pubsub.bind.DefaultSubscriberFactory;
+import io.micronaut.gcp.pubsub.bind.SubscriberFactory;
+import io.micronaut.gcp.pubsub.bind.SubscriberFactoryConfig;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link SubscriberFactory} that does not pull messages but exposes the receivers built for the listener methods, so that
+ * benchmarks can invoke them directly.
+ */
+@Singleton
+@Replaces(DefaultSubscriberFactory.class)
+public class CapturingSubscriberFactory implements SubscriberFactory {
+
+    private final Map<String, MessageReceiver> receivers = new ConcurrentHashMap<>();
+
+    @Override
+    public SubscriberInterface createSubscriber(SubscriberFactoryConfig config) {
+        receivers.put(config.getSubscriptionName().getSubscription(), config.getReceiver());
+        return new IdleSubscriber();
+    }
+
+    /**
+     * @param subscription the simple subscription name
+     * @return the receiver of the subscription
+     */
+    public MessageReceiver getReceiver(String subscription) {
+        MessageReceiver receiver = receivers.get(subscription);
+        if (receiver == null) {
+            throw new IllegalStateException("No receiver for subscription " + subscription);
+        }
+        return receiver;
+    }
+
+    /**
+     * A subscriber that never receives messages.
+     */
+    private static final class IdleSubscriber extends AbstractApiService implements SubscriberInterface {
+
+        @Override
+        protected void doStart() {
+            notifyStarted();
+        }
+
+        @Override
+        protected void doStop() {
+            notifyStopped();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.pubsub.v1.PublisherInterface;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.gcp.pubsub.support.DefaultPublisherFactory;
+import io.micronaut.gcp.pubsub.support.PublisherFactory;
+import io.micronaut.gcp.pubsub.support.PublisherFactoryConfig;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link PublisherFactory} whose publishers complete immediately, so that benchmarks measure the framework only.
+ */
+@Singleton
+@Replaces(DefaultPublisherFactory.class)
+public class ImmediatePublisherFactory implements PublisherFactory {
+
+    private final AtomicLong published = new AtomicLong();
+
+    @Override
+    public PublisherInterface createPublisher(PublisherFactoryConfig config) {
+        return new ImmediatePublisher();
+    }
+
+    /**
+     * @return the number of published messages
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * A publisher completing every message immediately.
+     */
+    private final class ImmediatePublisher implements PublisherInterface {
+
+        @Override
+        public ApiFuture<String> publish(PubsubMessage message) {
+            return ApiFutures.immediateFuture(Long.toString(published.incrementAndGet()));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Measures {@code PubSubClientIntroductionAdvice} for the supported client method shapes, with publishers that complete
+ * immediately.
+ */
+@State(Scope.Benchmark)
+public class PublishBenchmark {
+
+    private ApplicationContext context;
+    private BenchmarkClient client;
+    private Animal animal;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        context = ApplicationContext.run(Map.of("gcp.projectId", "benchmark-project"));
+        client = context.getBean(BenchmarkClient.class);
+        animal = new Animal(1L, "dog", List.of("mammal", "pet"));
+        data = "{\"id\":1,\"name\":\"dog\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void send() {
+        client.send(animal);
+    }
+
+    @Benchmark
+    public String sendAndReturnId() {
+        return client.sendAndReturnId(animal);
+    }
+
+    @Benchmark
+    public String sendAsync() throws ExecutionException, InterruptedException {
+        return client.sendAsync(animal).get();
+    }
+
+    @Benchmark
+    public String sendReactive() {
+        return client.sendReactive(animal).block();
+    }
+
+    @Benchmark
+    public void sendWithHeaders() {
+        client.sendWithHeaders(animal, "dog");
+    }
+
+    @Benchmark
+    public void sendOrdered() {
+        client.sendOrdered(animal, "key");
+    }
+
+    @Benchmark
+    public void sendBytes() {
+        client.sendBytes(data);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+
+/**
+ * Measures the message receivers built for {@link BenchmarkListener}, binding and invoking the listener method for a message
+ * with body, header and acknowledgement arguments.
+ */
+@State(Scope.Benchmark)
+public class ReceiveBenchmark {
+
+    private ApplicationContext context;
+    private MessageReceiver bodyReceiver;
+    private MessageReceiver headersReceiver;
+    private MessageReceiver ackReceiver;
+    private MessageReceiver bytesReceiver;
+    private PubsubMessage message;
+
+    @Setup
+    public void setUp() {
+        context = ApplicationContext.run(Map.of("gcp.projectId", "benchmark-project"));
+        CapturingSubscriberFactory subscriberFactory = context.getBean(CapturingSubscriberFactory.class);
+        bodyReceiver = subscriberFactory.getReceiver("body");
+        headersReceiver = subscriberFactory.getReceiver("headers");
+        ackReceiver = subscriberFactory.getReceiver("ack");
+        bytesReceiver = subscriberFactory.getReceiver("raw");
+        message = PubsubMessage.newBuilder()
+            .setMessageId("1")
+            .setData(ByteString.copyFromUtf8("{\"id\":1,\"name\":\"dog\",\"tags\":[\"mammal\",\"pet\"]}"))
+            .putAttributes("Content-Type", "application/json")
+            .putAttributes("type", "dog")
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void receiveBody(Blackhole blackhole) {
+        bodyReceiver.receiveMessage(message, new BlackholeAckReplyConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void receiveWithHeaders(Blackhole blackhole) {
+        headersReceiver.receiveMessage(message, new BlackholeAckReplyConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void receiveWithAcknowledgement(Blackhole blackhole) {
+        ackReceiver.receiveMessage(message, new BlackholeAckReplyConsumer(blackhole));
+    }
+
+    @Benchmark
+    public void receiveBytes(Blackhole blackhole) {
+        bytesReceiver.receiveMessage(message, new BlackholeAckReplyConsumer(blackhole));
+    }
+
+    /**
+     * Consumes the acknowledgements, so that they cannot be optimized away.
+     *
+     * @param blackhole the blackhole
+     */
+    private record BlackholeAckReplyConsumer(Blackhole blackhole) implements AckReplyConsumer {
+
+        @Override
+        public void ack() {
+            blackhole.consume(true);
+        }
+
+        @Override
+        public void nack() {
+            blackhole.consume(false);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.benchmarks;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.gcp.pubsub.serdes.JsonPubSubMessageSerDes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link JsonPubSubMessageSerDes} for small and large message bodies.
+ */
+@State(Scope.Benchmark)
+public class SerDesBenchmark {
+
+    @Param({"1", "1000"})
+    public int tags;
+
+    private static final Argument<Animal> ANIMAL = Argument.of(Animal.class);
+
+    private ApplicationContext context;
+    private JsonPubSubMessageSerDes serDes;
+    private Animal animal;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        context = ApplicationContext.run(Map.of("gcp.projectId", "benchmark-project"));
+        serDes = context.getBean(JsonPubSubMessageSerDes.class);
+        animal = new Animal(1L, "dog", IntStream.range(0, tags).mapToObj(i -> "tag-" + i).toList());
+        serialized = serDes.serialize(animal);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serDes.serialize(animal);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serDes.deserialize(serialized, ANIMAL);
+    }
+}
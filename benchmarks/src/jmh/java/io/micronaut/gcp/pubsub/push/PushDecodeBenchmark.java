@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Measures the decoding of push request envelopes by {@link PushRequestDecoder}, compared to binding them to a
+ * {@link PushRequest} with the application {@link JsonMapper}.
+ */
+@State(Scope.Benchmark)
+public class PushDecodeBenchmark {
+
+    @Param({"64", "65536"})
+    public int dataSize;
+
+    private ApplicationContext context;
+    private JsonMapper jsonMapper;
+    private byte[] envelope;
+
+    @Setup
+    public void setUp() {
+        context = ApplicationContext.run(Map.of("gcp.projectId", "benchmark-project"));
+        jsonMapper = context.getBean(JsonMapper.class);
+        byte[] data = new byte[dataSize];
+        for (int i = 0; i < dataSize; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+        envelope = ("{\"message\":{\"attributes\":{\"Content-Type\":\"application/json\",\"type\":\"dog\"},"
+            + "\"data\":\"" + Base64.getEncoder().encodeToString(data) + "\","
+            + "\"messageId\":\"2070443601311540\",\"message_id\":\"2070443601311540\","
+            + "\"publishTime\":\"2021-02-26T19:13:55.749Z\",\"publish_time\":\"2021-02-26T19:13:55.749Z\"},"
+            + "\"subscription\":\"projects/benchmark-project/subscriptions/animals\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PubsubMessage decode() {
+        return PushRequestDecoder.decode(envelope).message();
+    }
+
+    @Benchmark
+    public PubsubMessage bind() throws IOException {
+        return jsonMapper.readValue(envelope, Argument.of(PushRequest.class)).message().asPubsubMessage();
+    }
+}
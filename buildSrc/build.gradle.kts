@@ -11,4 +11,5 @@ dependencies {
     implementation(libs.gradle.micronaut)
     implementation(libs.kotlin.gradle.plugin)
     implementation(libs.kotlin.gradle.allopen)
+    implementation(libs.jmh.gradle.plugin)
 }
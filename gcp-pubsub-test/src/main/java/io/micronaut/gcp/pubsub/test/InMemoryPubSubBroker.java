@@ -0,0 +1,450 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.test;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.protobuf.Timestamp;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.ProjectTopicName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.gcp.GoogleCloudConfiguration;
+import io.micronaut.gcp.pubsub.support.PubSubSubscriptionUtils;
+import io.micronaut.gcp.pubsub.support.PubSubTopicUtils;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory PubSub broker, backing the publishers and subscribers created by {@link InMemoryPublisherFactory} and
+ * {@link InMemorySubscriberFactory}. It allows exercising publishers and listeners at full speed without the PubSub emulator
+ * or network access.
+ * <p>
+ * Published messages are copied to every subscription of their topic, and delivered to the subscriber of each subscription
+ * within its flow control limits. Messages that are not acknowledged within the acknowledgement deadline, or that are nacked,
+ * are redelivered. Messages sharing an ordering key are delivered one at a time, in publishing order.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Requires(beans = InMemoryPubSubConfigurationProperties.class)
+public class InMemoryPubSubBroker implements AutoCloseable {
+
+    static final String DELIVERY_ATTEMPT_ATTRIBUTE = "googclient_deliveryattempt";
+
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryPubSubBroker.class);
+
+    private final InMemoryPubSubConfigurationProperties configuration;
+    private final long ackDeadlineNanos;
+    private final ConcurrentHashMap<ProjectTopicName, List<Subscription>> topics = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ProjectSubscriptionName, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong messageIds = new AtomicLong();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService deadlineScheduler;
+
+    public InMemoryPubSubBroker(InMemoryPubSubConfigurationProperties configuration, GoogleCloudConfiguration googleCloudConfiguration) {
+        this.configuration = configuration;
+        this.ackDeadlineNanos = configuration.getAckDeadline().toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, configuration.getExecutorThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "pubsub-in-memory-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlineScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pubsub-in-memory-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepInterval = Math.max(Duration.ofMillis(10).toNanos(), Math.min(ackDeadlineNanos / 4, Duration.ofSeconds(1).toNanos()));
+        deadlineScheduler.scheduleWithFixedDelay(this::expireDeadlines, sweepInterval, sweepInterval, TimeUnit.NANOSECONDS);
+        configuration.getSubscriptions().forEach((subscription, topic) ->
+            createSubscription(PubSubTopicUtils.toProjectTopicName(topic, googleCloudConfiguration.getProjectId()),
+                PubSubSubscriptionUtils.toProjectSubscriptionName(subscription, googleCloudConfiguration.getProjectId())));
+    }
+
+    /**
+     * Creates a subscription of a topic, which receives the messages published to the topic from now on. Subscriptions
+     * that are not created explicitly receive the messages of the topic with the same name once their subscriber starts.
+     *
+     * @param topic the topic
+     * @param subscription the subscription
+     */
+    public void createSubscription(@NonNull ProjectTopicName topic, @NonNull ProjectSubscriptionName subscription) {
+        subscriptions.computeIfAbsent(subscription, name -> {
+            Subscription newSubscription = new Subscription(name);
+            topics.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(newSubscription);
+            return newSubscription;
+        });
+    }
+
+    /**
+     * Publishes a message to all subscriptions of a topic.
+     *
+     * @param topic the topic
+     * @param message the message
+     * @return the id assigned to the message
+     */
+    public @NonNull String publish(@NonNull ProjectTopicName topic, @NonNull PubsubMessage message) {
+        String messageId = Long.toString(messageIds.incrementAndGet());
+        Instant now = Instant.now();
+        PubsubMessage publishedMessage = message.toBuilder()
+            .setMessageId(messageId)
+            .setPublishTime(Timestamp.newBuilder().setSeconds(now.getEpochSecond()).setNanos(now.getNano()))
+            .build();
+        List<Subscription> topicSubscriptions = topics.get(topic);
+        if (topicSubscriptions != null) {
+            for (Subscription subscription : topicSubscriptions) {
+                subscription.enqueue(publishedMessage);
+            }
+        }
+        return messageId;
+    }
+
+    /**
+     * @param subscription the subscription
+     * @return the number of messages of the subscription waiting to be delivered
+     */
+    public int getBacklog(@NonNull ProjectSubscriptionName subscription) {
+        Subscription state = subscriptions.get(subscription);
+        return state == null ? 0 : state.backlog();
+    }
+
+    /**
+     * @param subscription the subscription
+     * @return the number of messages of the subscription delivered and not acknowledged yet
+     */
+    public int getOutstanding(@NonNull ProjectSubscriptionName subscription) {
+        Subscription state = subscriptions.get(subscription);
+        return state == null ? 0 : state.outstandingCount();
+    }
+
+    /**
+     * @param subscription the subscription
+     * @return the number of messages of the subscription that have been acknowledged
+     */
+    public long getAcknowledgedCount(@NonNull ProjectSubscriptionName subscription) {
+        Subscription state = subscriptions.get(subscription);
+        return state == null ? 0 : state.acknowledged.get();
+    }
+
+    /**
+     * @param subscription the subscription
+     * @return the number of messages of the subscription that have been redelivered
+     */
+    public long getRedeliveredCount(@NonNull ProjectSubscriptionName subscription) {
+        Subscription state = subscriptions.get(subscription);
+        return state == null ? 0 : state.redelivered.get();
+    }
+
+    /**
+     * @param subscription the subscription
+     * @return the number of messages of the subscription dropped after {@link InMemoryPubSubConfigurationProperties#getMaxDeliveryAttempts()}
+     */
+    public long getDeadLetteredCount(@NonNull ProjectSubscriptionName subscription) {
+        Subscription state = subscriptions.get(subscription);
+        return state == null ? 0 : state.deadLettered.get();
+    }
+
+    /**
+     * Starts delivering the messages of a subscription to a receiver.
+     *
+     * @param subscription the subscription
+     * @param receiver the receiver
+     * @param maxOutstandingElementCount the maximum number of outstanding messages
+     * @param maxOutstandingRequestBytes the maximum number of outstanding bytes
+     */
+    void attach(ProjectSubscriptionName subscription, MessageReceiver receiver, long maxOutstandingElementCount, long maxOutstandingRequestBytes) {
+        ProjectTopicName topic = ProjectTopicName.of(subscription.getProject(), subscription.getSubscription());
+        createSubscription(topic, subscription);
+        subscriptions.get(subscription).attach(receiver, maxOutstandingElementCount, maxOutstandingRequestBytes);
+    }
+
+    /**
+     * Stops delivering the messages of a subscription to a receiver. Outstanding messages are redelivered once their deadline
+     * expires.
+     *
+     * @param subscription the subscription
+     * @param receiver the receiver
+     */
+    void detach(ProjectSubscriptionName subscription, MessageReceiver receiver) {
+        Subscription state = subscriptions.get(subscription);
+        if (state != null) {
+            state.detach(receiver);
+        }
+    }
+
+    /**
+     * Changes the flow control limits of a subscription.
+     *
+     * @param subscription the subscription
+     * @param maxOutstandingElementCount the maximum number of outstanding messages
+     * @param maxOutstandingRequestBytes the maximum number of outstanding bytes
+     */
+    void updateFlowControl(ProjectSubscriptionName subscription, long maxOutstandingElementCount, long maxOutstandingRequestBytes) {
+        Subscription state = subscriptions.get(subscription);
+        if (state != null) {
+            state.updateFlowControl(maxOutstandingElementCount, maxOutstandingRequestBytes);
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        deadlineScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void expireDeadlines() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.expireDeadlines(now);
+        }
+    }
+
+    /**
+     * A message of a subscription, with its delivery state.
+     */
+    private static final class Delivery {
+
+        private final PubsubMessage message;
+        private final long sequence;
+        private int attempts;
+        private long deadline;
+
+        private Delivery(PubsubMessage message, long sequence) {
+            this.message = message;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * The state of a subscription. All fields but the counters are guarded by the subscription monitor.
+     */
+    private final class Subscription {
+
+        private final ProjectSubscriptionName name;
+        private final Deque<Delivery> ready = new ArrayDeque<>();
+        // ordering keys with a message ready or outstanding, mapped to the messages waiting for it to be acknowledged
+        private final Map<String, Deque<Delivery>> orderingKeys = new HashMap<>();
+        private final Map<Long, Delivery> outstanding = new HashMap<>();
+        private final AtomicLong acknowledged = new AtomicLong();
+        private final AtomicLong redelivered = new AtomicLong();
+        private final AtomicLong deadLettered = new AtomicLong();
+        private long sequence;
+        private long outstandingBytes;
+        private int waiting;
+        private MessageReceiver receiver;
+        private long maxOutstandingElementCount;
+        private long maxOutstandingRequestBytes;
+
+        private Subscription(ProjectSubscriptionName name) {
+            this.name = name;
+        }
+
+        void enqueue(PubsubMessage message) {
+            synchronized (this) {
+                Delivery delivery = new Delivery(message, ++sequence);
+                String orderingKey = message.getOrderingKey();
+                if (orderingKey.isEmpty()) {
+                    ready.addLast(delivery);
+                } else {
+                    Deque<Delivery> pending = orderingKeys.get(orderingKey);
+                    if (pending == null) {
+                        orderingKeys.put(orderingKey, new ArrayDeque<>());
+                        ready.addLast(delivery);
+                    } else {
+                        pending.addLast(delivery);
+                        waiting++;
+                    }
+                }
+            }
+            drain();
+        }
+
+        void attach(MessageReceiver newReceiver, long maxElements, long maxBytes) {
+            synchronized (this) {
+                receiver = newReceiver;
+                maxOutstandingElementCount = maxElements;
+                maxOutstandingRequestBytes = maxBytes;
+            }
+            drain();
+        }
+
+        void detach(MessageReceiver oldReceiver) {
+            synchronized (this) {
+                if (receiver == oldReceiver) {
+                    receiver = null;
+                }
+            }
+        }
+
+        void updateFlowControl(long maxElements, long maxBytes) {
+            synchronized (this) {
+                maxOutstandingElementCount = maxElements;
+                maxOutstandingRequestBytes = maxBytes;
+            }
+            drain();
+        }
+
+        synchronized int backlog() {
+            return ready.size() + waiting;
+        }
+
+        synchronized int outstandingCount() {
+            return outstanding.size();
+        }
+
+        void drain() {
+            List<Delivery> deliveries;
+            MessageReceiver currentReceiver;
+            synchronized (this) {
+                currentReceiver = receiver;
+                if (currentReceiver == null || ready.isEmpty()) {
+                    return;
+                }
+                deliveries = new ArrayList<>();
+                long deadline = System.nanoTime() + ackDeadlineNanos;
+                while (!ready.isEmpty()
+                    && (maxOutstandingElementCount <= 0 || outstanding.size() < maxOutstandingElementCount)
+                    && (maxOutstandingRequestBytes <= 0 || outstandingBytes < maxOutstandingRequestBytes)) {
+                    Delivery delivery = ready.pollFirst();
+                    delivery.attempts++;
+                    delivery.deadline = deadline;
+                    outstanding.put(delivery.sequence, delivery);
+                    outstandingBytes += delivery.message.getSerializedSize();
+                    deliveries.add(delivery);
+                }
+            }
+            for (Delivery delivery : deliveries) {
+                deliver(currentReceiver, delivery, delivery.attempts);
+            }
+        }
+
+        private void deliver(MessageReceiver currentReceiver, Delivery delivery, int attempt) {
+            PubsubMessage message = delivery.message;
+            if (configuration.getMaxDeliveryAttempts() > 0) {
+                message = message.toBuilder().putAttributes(DELIVERY_ATTEMPT_ATTRIBUTE, Integer.toString(attempt)).build();
+            }
+            PubsubMessage deliveredMessage = message;
+            executor.execute(() -> {
+                try {
+                    currentReceiver.receiveMessage(deliveredMessage, new AckReplyConsumer() {
+                        @Override
+                        public void ack() {
+                            settle(delivery, attempt, true);
+                        }
+
+                        @Override
+                        public void nack() {
+                            settle(delivery, attempt, false);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    LOG.warn("Receiver of subscription {} failed to process message {}", name, deliveredMessage.getMessageId(), e);
+                    settle(delivery, attempt, false);
+                }
+            });
+        }
+
+        void settle(Delivery delivery, int attempt, boolean ack) {
+            synchronized (this) {
+                // acknowledgements of expired deliveries are ignored, the message has been redelivered
+                if (delivery.attempts != attempt || outstanding.remove(delivery.sequence) == null) {
+                    return;
+                }
+                outstandingBytes -= delivery.message.getSerializedSize();
+                if (ack) {
+                    acknowledged.incrementAndGet();
+                    releaseOrderingKey(delivery);
+                } else {
+                    redeliver(delivery);
+                }
+            }
+            drain();
+        }
+
+        void expireDeadlines(long now) {
+            boolean expired = false;
+            synchronized (this) {
+                var iterator = outstanding.values().iterator();
+                while (iterator.hasNext()) {
+                    Delivery delivery = iterator.next();
+                    if (delivery.deadline - now < 0) {
+                        iterator.remove();
+                        outstandingBytes -= delivery.message.getSerializedSize();
+                        redeliver(delivery);
+                        expired = true;
+                    }
+                }
+            }
+            if (expired) {
+                drain();
+            }
+        }
+
+        private void redeliver(Delivery delivery) {
+            int maxDeliveryAttempts = configuration.getMaxDeliveryAttempts();
+            if (maxDeliveryAttempts > 0 && delivery.attempts >= maxDeliveryAttempts) {
+                deadLettered.incrementAndGet();
+                releaseOrderingKey(delivery);
+                return;
+            }
+            redelivered.incrementAndGet();
+            if (delivery.message.getOrderingKey().isEmpty()) {
+                ready.addLast(delivery);
+            } else {
+                // keeps the ordering key blocked until the message is acknowledged
+                ready.addFirst(delivery);
+            }
+        }
+
+        private void releaseOrderingKey(Delivery delivery) {
+            String orderingKey = delivery.message.getOrderingKey();
+            if (orderingKey.isEmpty()) {
+                return;
+            }
+            Deque<Delivery> pending = orderingKeys.get(orderingKey);
+            Delivery next = pending == null ? null : pending.pollFirst();
+            if (next == null) {
+                orderingKeys.remove(orderingKey);
+            } else {
+                waiting--;
+                ready.addLast(next);
+            }
+        }
+    }
+}
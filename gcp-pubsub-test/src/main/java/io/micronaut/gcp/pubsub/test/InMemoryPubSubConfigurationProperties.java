@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.test;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties of the {@link InMemoryPubSubBroker}. Setting {@code gcp.pubsub.in-memory.enabled} to {@code true}
+ * replaces the publishers and subscribers of the application with in-memory ones backed by the broker.
+ *
+ * @since 5.8.0
+ */
+@Requires(property = InMemoryPubSubConfigurationProperties.PREFIX + ".enabled", value = StringUtils.TRUE)
+@ConfigurationProperties(InMemoryPubSubConfigurationProperties.PREFIX)
+public class InMemoryPubSubConfigurationProperties {
+
+    public static final String PREFIX = "gcp.pubsub.in-memory";
+
+    private boolean enabled;
+
+    private Duration ackDeadline = Duration.ofSeconds(10);
+
+    private int maxDeliveryAttempts;
+
+    private long maxOutstandingElementCount = 1000L;
+
+    private long maxOutstandingRequestBytes = 100L * 1024L * 1024L;
+
+    private int executorThreads = Runtime.getRuntime().availableProcessors();
+
+    private Map<String, String> subscriptions = new HashMap<>();
+
+    /**
+     * Whether the in-memory broker replaces PubSub. Defaults to {@code false}.
+     * @return whether the in-memory broker is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled whether the in-memory broker replaces PubSub
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The time after which a delivered message that has not been acknowledged is redelivered. Defaults to {@code 10s}.
+     * @return the acknowledgement deadline
+     */
+    public @NonNull Duration getAckDeadline() {
+        return ackDeadline;
+    }
+
+    /**
+     * @param ackDeadline the time after which a delivered message that has not been acknowledged is redelivered
+     */
+    public void setAckDeadline(@NonNull Duration ackDeadline) {
+        this.ackDeadline = ackDeadline;
+    }
+
+    /**
+     * The number of times a message is delivered before it is dropped as dead-lettered. Defaults to {@code 0}, meaning that
+     * messages are redelivered until they are acknowledged.
+     * @return the maximum number of delivery attempts
+     */
+    public int getMaxDeliveryAttempts() {
+        return maxDeliveryAttempts;
+    }
+
+    /**
+     * @param maxDeliveryAttempts the number of times a message is delivered before it is dropped as dead-lettered
+     */
+    public void setMaxDeliveryAttempts(int maxDeliveryAttempts) {
+        this.maxDeliveryAttempts = maxDeliveryAttempts;
+    }
+
+    /**
+     * The default maximum number of messages delivered to a subscriber and not acknowledged yet. Defaults to {@code 1000}.
+     * @return the maximum number of outstanding messages
+     */
+    public long getMaxOutstandingElementCount() {
+        return maxOutstandingElementCount;
+    }
+
+    /**
+     * @param maxOutstandingElementCount the default maximum number of outstanding messages
+     */
+    public void setMaxOutstandingElementCount(long maxOutstandingElementCount) {
+        this.maxOutstandingElementCount = maxOutstandingElementCount;
+    }
+
+    /**
+     * The default maximum size of the messages delivered to a subscriber and not acknowledged yet. Defaults to {@code 100MiB}.
+     * @return the maximum number of outstanding bytes
+     */
+    public long getMaxOutstandingRequestBytes() {
+        return maxOutstandingRequestBytes;
+    }
+
+    /**
+     * @param maxOutstandingRequestBytes the default maximum number of outstanding bytes
+     */
+    public void setMaxOutstandingRequestBytes(long maxOutstandingRequestBytes) {
+        this.maxOutstandingRequestBytes = maxOutstandingRequestBytes;
+    }
+
+    /**
+     * The number of threads invoking the message receivers. Defaults to the number of available processors.
+     * @return the number of threads
+     */
+    public int getExecutorThreads() {
+        return executorThreads;
+    }
+
+    /**
+     * @param executorThreads the number of threads invoking the message receivers
+     */
+    public void setExecutorThreads(int executorThreads) {
+        this.executorThreads = executorThreads;
+    }
+
+    /**
+     * The topics of the subscriptions, keyed by subscription name. Subscriptions that are not configured receive the messages of
+     * the topic with the same name.
+     * @return the topic of each subscription
+     */
+    public @NonNull Map<String, String> getSubscriptions() {
+        return subscriptions;
+    }
+
+    /**
+     * @param subscriptions the topics of the subscriptions, keyed by subscription name
+     */
+    public void setSubscriptions(@NonNull Map<String, String> subscriptions) {
+        this.subscriptions = subscriptions;
+    }
+}
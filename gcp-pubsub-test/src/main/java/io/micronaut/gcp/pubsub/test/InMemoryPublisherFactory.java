@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.test;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.pubsub.v1.PublisherInterface;
+import com.google.pubsub.v1.ProjectTopicName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.gcp.pubsub.support.DefaultPublisherFactory;
+import io.micronaut.gcp.pubsub.support.PublisherFactory;
+import io.micronaut.gcp.pubsub.support.PublisherFactoryConfig;
+import jakarta.inject.Singleton;
+
+/**
+ * A {@link PublisherFactory} creating publishers that publish to the {@link InMemoryPubSubBroker}.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Replaces(DefaultPublisherFactory.class)
+@Requires(beans = InMemoryPubSubConfigurationProperties.class)
+public class InMemoryPublisherFactory implements PublisherFactory {
+
+    private final InMemoryPubSubBroker broker;
+
+    public InMemoryPublisherFactory(InMemoryPubSubBroker broker) {
+        this.broker = broker;
+    }
+
+    @Override
+    public PublisherInterface createPublisher(PublisherFactoryConfig config) {
+        return new InMemoryPublisher(broker, config.getTopicState().getProjectTopicName());
+    }
+
+    /**
+     * A publisher of the messages of a topic to the broker. Messages are published synchronously, so the returned futures are
+     * always complete.
+     */
+    private static final class InMemoryPublisher implements PublisherInterface {
+
+        private final InMemoryPubSubBroker broker;
+        private final ProjectTopicName topic;
+
+        private InMemoryPublisher(InMemoryPubSubBroker broker, ProjectTopicName topic) {
+            this.broker = broker;
+            this.topic = topic;
+        }
+
+        @Override
+        public ApiFuture<String> publish(PubsubMessage message) {
+            return ApiFutures.immediateFuture(broker.publish(topic, message));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.test;
+
+import com.google.api.core.AbstractApiService;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.cloud.pubsub.v1.SubscriberInterface;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.gcp.pubsub.bind.DefaultSubscriberFactory;
+import io.micronaut.gcp.pubsub.bind.SubscriberFactory;
+import io.micronaut.gcp.pubsub.bind.SubscriberFactoryConfig;
+import io.micronaut.gcp.pubsub.bind.SubscriberStatus;
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link SubscriberFactory} creating subscribers that receive messages from the {@link InMemoryPubSubBroker}.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Replaces(DefaultSubscriberFactory.class)
+@Requires(beans = InMemoryPubSubConfigurationProperties.class)
+public class InMemorySubscriberFactory implements SubscriberFactory, AutoCloseable {
+
+    private final ConcurrentHashMap<ProjectSubscriptionName, InMemorySubscriber> subscribers = new ConcurrentHashMap<>();
+    private final InMemoryPubSubBroker broker;
+    private final InMemoryPubSubConfigurationProperties configuration;
+
+    public InMemorySubscriberFactory(InMemoryPubSubBroker broker, InMemoryPubSubConfigurationProperties configuration) {
+        this.broker = broker;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public SubscriberInterface createSubscriber(SubscriberFactoryConfig config) {
+        InMemorySubscriber subscriber = subscribers.compute(config.getSubscriptionName(), (name, existing) -> {
+            if (existing != null) {
+                throw new PubSubListenerException(String.format("Subscription %s is already registered for another" +
+                    " method", name));
+            }
+            return new InMemorySubscriber(name, config.getReceiver());
+        });
+        subscriber.startAsync();
+        return subscriber;
+    }
+
+    @Override
+    public List<SubscriberStatus> getSubscribers() {
+        return subscribers.values().stream().map(InMemorySubscriber::status).toList();
+    }
+
+    @Override
+    public Optional<SubscriberStatus> getSubscriber(ProjectSubscriptionName subscriptionName) {
+        return Optional.ofNullable(subscribers.get(subscriptionName)).map(InMemorySubscriber::status);
+    }
+
+    @Override
+    public Optional<SubscriberStatus> pause(ProjectSubscriptionName subscriptionName) {
+        return Optional.ofNullable(subscribers.get(subscriptionName)).map(subscriber -> subscriber.setPaused(true));
+    }
+
+    @Override
+    public Optional<SubscriberStatus> resume(ProjectSubscriptionName subscriptionName) {
+        return Optional.ofNullable(subscribers.get(subscriptionName)).map(subscriber -> subscriber.setPaused(false));
+    }
+
+    @Override
+    public Optional<SubscriberStatus> updateFlowControl(ProjectSubscriptionName subscriptionName, Long maxOutstandingElementCount, Long maxOutstandingRequestBytes) {
+        return Optional.ofNullable(subscribers.get(subscriptionName))
+            .map(subscriber -> subscriber.updateFlowControl(maxOutstandingElementCount, maxOutstandingRequestBytes));
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        for (InMemorySubscriber subscriber : subscribers.values()) {
+            subscriber.stopAsync().awaitTerminated();
+        }
+    }
+
+    /**
+     * A subscriber receiving the messages of a subscription from the broker while it is running and not paused.
+     */
+    private final class InMemorySubscriber extends AbstractApiService implements SubscriberInterface {
+
+        private final ProjectSubscriptionName subscription;
+        private final MessageReceiver receiver;
+        private long maxOutstandingElementCount = configuration.getMaxOutstandingElementCount();
+        private long maxOutstandingRequestBytes = configuration.getMaxOutstandingRequestBytes();
+        private boolean paused;
+
+        private InMemorySubscriber(ProjectSubscriptionName subscription, MessageReceiver receiver) {
+            this.subscription = subscription;
+            this.receiver = receiver;
+        }
+
+        @Override
+        protected void doStart() {
+            broker.attach(subscription, receiver, maxOutstandingElementCount, maxOutstandingRequestBytes);
+            notifyStarted();
+        }
+
+        @Override
+        protected void doStop() {
+            broker.detach(subscription, receiver);
+            notifyStopped();
+        }
+
+        synchronized SubscriberStatus setPaused(boolean paused) {
+            if (this.paused != paused) {
+                this.paused = paused;
+                if (paused) {
+                    broker.detach(subscription, receiver);
+                } else {
+                    broker.attach(subscription, receiver, maxOutstandingElementCount, maxOutstandingRequestBytes);
+                }
+            }
+            return status();
+        }
+
+        synchronized SubscriberStatus updateFlowControl(Long maxElements, Long maxBytes) {
+            if (maxElements != null) {
+                maxOutstandingElementCount = maxElements;
+            }
+            if (maxBytes != null) {
+                maxOutstandingRequestBytes = maxBytes;
+            }
+            broker.updateFlowControl(subscription, maxOutstandingElementCount, maxOutstandingRequestBytes);
+            return status();
+        }
+
+        synchronized SubscriberStatus status() {
+            return new SubscriberStatus(subscription.toString(), state().name(), paused, 1,
+                maxOutstandingElementCount, maxOutstandingRequestBytes);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.micronaut.gcp.pubsub.test
+
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.ProjectTopicName
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.OrderingKey
+import io.micronaut.gcp.pubsub.annotation.PubSubClient
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.annotation.Topic
+import io.micronaut.gcp.pubsub.bind.SubscriberFactory
+import io.micronaut.messaging.Acknowledgement
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class InMemoryPubSubBrokerSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run([
+            "spec.name"                                       : "InMemoryPubSubBrokerSpec",
+            "gcp.projectId"                                   : "test-project",
+            "gcp.pubsub.in-memory.enabled"                    : true,
+            "gcp.pubsub.in-memory.ack-deadline"               : "1s",
+            "gcp.pubsub.in-memory.max-delivery-attempts"      : 3,
+            "gcp.pubsub.in-memory.subscriptions.fanout-a"     : "fanout",
+            "gcp.pubsub.in-memory.subscriptions.fanout-b"     : "fanout"
+    ])
+
+    PollingConditions conditions = new PollingConditions(timeout: 10)
+
+    void "the in-memory factories replace the default ones"() {
+        expect:
+        context.getBean(SubscriberFactory) instanceof InMemorySubscriberFactory
+        context.getBean(io.micronaut.gcp.pubsub.support.PublisherFactory) instanceof InMemoryPublisherFactory
+    }
+
+    void "published messages are delivered to every subscription of their topic"() {
+        given:
+        InMemoryTestClient client = context.getBean(InMemoryTestClient)
+        InMemoryTestListener listener = context.getBean(InMemoryTestListener)
+
+        when:
+        String messageId = client.send("hello")
+
+        then:
+        messageId != null
+        conditions.eventually {
+            assert listener.fanoutA == ["hello"]
+            assert listener.fanoutB == ["hello"]
+        }
+    }
+
+    void "messages sharing an ordering key are delivered in order"() {
+        given:
+        InMemoryTestClient client = context.getBean(InMemoryTestClient)
+        InMemoryTestListener listener = context.getBean(InMemoryTestListener)
+
+        when:
+        (1..50).each { client.sendOrdered(it.toString(), "key") }
+
+        then:
+        conditions.eventually {
+            assert listener.ordered == (1..50)*.toString()
+        }
+    }
+
+    void "nacked and expired messages are redelivered until the maximum delivery attempts"() {
+        given:
+        InMemoryPubSubBroker broker = context.getBean(InMemoryPubSubBroker)
+        InMemoryTestListener listener = context.getBean(InMemoryTestListener)
+        ProjectSubscriptionName nacked = ProjectSubscriptionName.of("test-project", "nacked")
+        ProjectSubscriptionName ignored = ProjectSubscriptionName.of("test-project", "ignored")
+
+        when:
+        broker.publish(ProjectTopicName.of("test-project", "nacked"), message("nack me"))
+        broker.publish(ProjectTopicName.of("test-project", "ignored"), message("ignore me"))
+
+        then:
+        conditions.eventually {
+            assert listener.nacked.size() == 3
+            assert listener.ignored.size() == 3
+            assert broker.getDeadLetteredCount(nacked) == 1
+            assert broker.getDeadLetteredCount(ignored) == 1
+        }
+        broker.getRedeliveredCount(nacked) == 2
+        broker.getBacklog(nacked) == 0
+        broker.getOutstanding(ignored) == 0
+    }
+
+    void "flow control limits the outstanding messages of a subscriber"() {
+        given:
+        InMemoryPubSubBroker broker = context.getBean(InMemoryPubSubBroker)
+        InMemoryTestListener listener = context.getBean(InMemoryTestListener)
+        SubscriberFactory subscriberFactory = context.getBean(SubscriberFactory)
+        ProjectSubscriptionName subscription = ProjectSubscriptionName.of("test-project", "limited")
+        subscriberFactory.updateFlowControl(subscription, 2L, null)
+
+        when:
+        (1..5).each { broker.publish(ProjectTopicName.of("test-project", "limited"), message(it.toString())) }
+
+        then:
+        conditions.eventually {
+            assert listener.limited.size() == 2
+        }
+        broker.getOutstanding(subscription) == 2
+        broker.getBacklog(subscription) == 3
+
+        when: 'outstanding messages are acknowledged before their deadline'
+        listener.limited.each { it.ack() }
+
+        then:
+        conditions.eventually {
+            assert listener.limited.size() >= 4
+        }
+        broker.getAcknowledgedCount(subscription) == 2
+    }
+
+    private static PubsubMessage message(String data) {
+        PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8(data)).build()
+    }
+}
+
+@PubSubClient
+@Requires(property = "spec.name", value = "InMemoryPubSubBrokerSpec")
+interface InMemoryTestClient {
+
+    @Topic("fanout")
+    String send(String message)
+
+    @Topic("ordered")
+    void sendOrdered(String message, @OrderingKey String key)
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "InMemoryPubSubBrokerSpec")
+class InMemoryTestListener {
+
+    List<String> fanoutA = new CopyOnWriteArrayList<>()
+    List<String> fanoutB = new CopyOnWriteArrayList<>()
+    List<String> ordered = new CopyOnWriteArrayList<>()
+    List<String> nacked = new CopyOnWriteArrayList<>()
+    List<String> ignored = new CopyOnWriteArrayList<>()
+    List<Acknowledgement> limited = new CopyOnWriteArrayList<>()
+
+    @Subscription("fanout-a")
+    void onFanoutA(String message) {
+        fanoutA.add(message)
+    }
+
+    @Subscription("fanout-b")
+    void onFanoutB(String message) {
+        fanoutB.add(message)
+    }
+
+    @Subscription("ordered")
+    void onOrdered(String message) {
+        ordered.add(message)
+    }
+
+    @Subscription(value = "nacked", contentType = "text/plain")
+    void onNacked(byte[] message, Acknowledgement acknowledgement) {
+        nacked.add(new String(message))
+        acknowledgement.nack()
+    }
+
+    @Subscription(value = "ignored", contentType = "text/plain")
+    void onIgnored(byte[] message, Acknowledgement acknowledgement) {
+        ignored.add(new String(message))
+    }
+
+    @Subscription(value = "limited", contentType = "text/plain")
+    void onLimited(byte[] message, Acknowledgement acknowledgement) {
+        limited.add(acknowledgement)
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A condition on a message attribute used to filter the messages delivered to a {@link Subscription} method.
+ * Messages are filtered using only their attributes, before any argument binding or body deserialization takes place.
+ *
+ * @since 5.8.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface AttributeFilter {
+
+    /**
+     * @return the name of the message attribute
+     */
+    String name();
+
+    /**
+     * The accepted values of the attribute. A message matches if its attribute value is equal to any of the values.
+     * If no values are specified, a message matches if it contains the attribute.
+     *
+     * @return the accepted attribute values
+     */
+    String[] values() default {};
+}
@@ -50,4 +50,32 @@ public @interface PushSubscription {
      * @return contentType to use
      */
     String contentType() default "application/json";
+
+    /**
+     * The path of a dedicated push endpoint for the subscription, such as {@code /push/orders}, in addition to the shared push
+     * endpoint. Messages posted to it are routed by the HTTP router, so that request metrics and logs can tell subscriptions apart.
+     * Defaults to none.
+     * @return the path of the push endpoint of the subscription
+     * @since 5.8.0
+     */
+    String path() default "";
+
+    /**
+     * The maximum number of messages delivered to the method at once. When greater than zero, the push messages of the subscription
+     * are held until this many messages have been received or until {@link #batchLinger()} has elapsed, and the method is invoked
+     * once for the whole batch. The method must then declare a single {@code List<T>} argument, whose messages are all acknowledged
+     * once the method completes successfully, or a single {@code List<AcknowledgeableMessage<T>>} argument, whose messages are
+     * acknowledged individually. Defaults to {@code 0}, meaning that messages are not batched.
+     * @return the maximum batch size
+     * @since 5.8.0
+     */
+    int maxBatchSize() default 0;
+
+    /**
+     * The maximum time the first message of a batch is held waiting for the batch to fill up. Only used if
+     * {@link #maxBatchSize()} is set. Defaults to {@code 50ms}.
+     * @return the batch linger time
+     * @since 5.8.0
+     */
+    String batchLinger() default "50ms";
 }
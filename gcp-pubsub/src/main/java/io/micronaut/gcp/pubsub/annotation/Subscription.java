@@ -57,4 +57,20 @@ public @interface Subscription {
      *
      */
     String configuration() default "";
+
+    /**
+     * Defines conditions on the message attributes that a message must satisfy to be delivered to the annotated method.
+     * All conditions must match. Messages are filtered before any argument binding or body deserialization takes place.
+     * @return the attribute filters
+     * @since 5.8.0
+     */
+    AttributeFilter[] filter() default {};
+
+    /**
+     * Defines whether messages rejected by the {@link #filter()} are acknowledged, so that they are not redelivered,
+     * or nacked. Defaults to {@code true}.
+     * @return whether to ack filtered messages
+     * @since 5.8.0
+     */
+    boolean ackFiltered() default true;
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.AckReplyConsumerWithResponse;
+import com.google.cloud.pubsub.v1.AckResponse;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Adapts the {@link AckReplyConsumerWithResponse} used by subscriptions with exactly-once delivery enabled to an
+ * {@link AckReplyConsumer}, so that messages are dispatched through the same receivers, while still exposing the
+ * result of the acknowledgements to {@link PubSubAcknowledgement}.
+ *
+ * @since 5.8.0
+ */
+@Internal
+public final class AckResponseReplyConsumer implements AckReplyConsumer {
+
+    private final AckReplyConsumerWithResponse delegate;
+    @Nullable
+    private final Runnable onReply;
+    @Nullable
+    private final ReplyInterceptor interceptor;
+
+    /**
+     * @param delegate the consumer supplied by the {@link com.google.cloud.pubsub.v1.Subscriber}
+     */
+    public AckResponseReplyConsumer(@NonNull AckReplyConsumerWithResponse delegate) {
+        this(delegate, null, null);
+    }
+
+    private AckResponseReplyConsumer(AckReplyConsumerWithResponse delegate, @Nullable Runnable onReply, @Nullable ReplyInterceptor interceptor) {
+        this.delegate = delegate;
+        this.onReply = onReply;
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * Returns a consumer that additionally runs the given callback whenever the message is acknowledged or nacked, which
+     * allows receivers decorating the consumer to preserve the acknowledgement results.
+     *
+     * @param callback the callback to run after replying
+     * @return a new consumer
+     */
+    @NonNull
+    public AckResponseReplyConsumer doOnReply(@NonNull Runnable callback) {
+        Runnable previous = onReply;
+        return new AckResponseReplyConsumer(delegate, previous == null ? callback : () -> {
+            try {
+                previous.run();
+            } finally {
+                callback.run();
+            }
+        }, interceptor);
+    }
+
+    /**
+     * Returns a consumer that calls the given interceptor around every acknowledgement of the message, which allows
+     * receivers decorating the consumer to observe the acknowledgement while preserving its result. Interceptors added
+     * later are called outside of the previous ones.
+     *
+     * @param replyInterceptor the interceptor
+     * @return a new consumer
+     */
+    @NonNull
+    public AckResponseReplyConsumer doAroundReply(@NonNull ReplyInterceptor replyInterceptor) {
+        ReplyInterceptor previous = interceptor;
+        return new AckResponseReplyConsumer(delegate, onReply, previous == null ? replyInterceptor
+            : (reply, proceed) -> replyInterceptor.intercept(reply, () -> previous.intercept(reply, proceed)));
+    }
+
+    @Override
+    public void ack() {
+        try {
+            intercept(ReplyInterceptor.ACK, delegate::ack);
+        } finally {
+            replied();
+        }
+    }
+
+    @Override
+    public void nack() {
+        try {
+            intercept(ReplyInterceptor.NACK, delegate::nack);
+        } finally {
+            replied();
+        }
+    }
+
+    /**
+     * @return the result of acknowledging the message
+     */
+    @NonNull
+    public CompletionStage<AckResponse> ackWithResponse() {
+        try {
+            if (interceptor == null) {
+                return toCompletionStage(delegate.ack());
+            }
+            AtomicReference<Future<AckResponse>> result = new AtomicReference<>();
+            interceptor.intercept(ReplyInterceptor.ACK, () -> result.set(delegate.ack()));
+            return toCompletionStage(result.get());
+        } finally {
+            replied();
+        }
+    }
+
+    /**
+     * @return the result of negatively acknowledging the message
+     */
+    @NonNull
+    public CompletionStage<AckResponse> nackWithResponse() {
+        try {
+            if (interceptor == null) {
+                return toCompletionStage(delegate.nack());
+            }
+            AtomicReference<Future<AckResponse>> result = new AtomicReference<>();
+            interceptor.intercept(ReplyInterceptor.NACK, () -> result.set(delegate.nack()));
+            return toCompletionStage(result.get());
+        } finally {
+            replied();
+        }
+    }
+
+    private void intercept(String reply, Runnable proceed) {
+        if (interceptor == null) {
+            proceed.run();
+        } else {
+            interceptor.intercept(reply, proceed);
+        }
+    }
+
+    private void replied() {
+        if (onReply != null) {
+            onReply.run();
+        }
+    }
+
+    private static CompletionStage<AckResponse> toCompletionStage(Future<AckResponse> future) {
+        if (future instanceof CompletableFuture<AckResponse> completableFuture) {
+            return completableFuture;
+        }
+        if (future instanceof ApiFuture<AckResponse> apiFuture) {
+            CompletableFuture<AckResponse> result = new CompletableFuture<>();
+            apiFuture.addListener(() -> complete(apiFuture, result), Runnable::run);
+            return result;
+        }
+        // the client library always returns an ApiFuture, this is only reached by custom subscriber implementations
+        CompletableFuture<AckResponse> result = new CompletableFuture<>();
+        if (future.isDone()) {
+            complete(future, result);
+        } else {
+            // a plain future can only be observed by parking a thread until it completes
+            result.completeExceptionally(new UnsupportedOperationException("The result of an acknowledgement can only be observed when it is returned as an "
+                + ApiFuture.class.getName() + " or a " + CompletableFuture.class.getName() + ", but got: " + future.getClass().getName()));
+        }
+        return result;
+    }
+
+    private static void complete(Future<AckResponse> future, CompletableFuture<AckResponse> result) {
+        try {
+            result.complete(future.get());
+        } catch (ExecutionException e) {
+            result.completeExceptionally(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Intercepts the acknowledgements of a message.
+     */
+    @FunctionalInterface
+    public interface ReplyInterceptor {
+
+        /**
+         * The name of an acknowledgement.
+         */
+        String ACK = "ack";
+
+        /**
+         * The name of a negative acknowledgement.
+         */
+        String NACK = "nack";
+
+        /**
+         * Intercepts an acknowledgement of the message.
+         *
+         * @param reply the name of the acknowledgement, either {@link #ACK} or {@link #NACK}
+         * @param proceed sends the acknowledgement, to be run exactly once
+         */
+        void intercept(@NonNull String reply, @NonNull Runnable proceed);
+    }
+}
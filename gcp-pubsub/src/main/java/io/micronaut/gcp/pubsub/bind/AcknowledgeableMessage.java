@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * A received PubSub message together with its acknowledgement handle, emitted to
+ * {@link io.micronaut.gcp.pubsub.annotation.Subscription} methods that consume a subscription as a
+ * single stream, i.e. methods declaring a {@code Publisher<AcknowledgeableMessage<T>>} argument.
+ * <p>
+ * Messages emitted through a stream are never acknowledged by the framework, each element must be
+ * explicitly acknowledged via {@link #ack()} or {@link #nack()}, or their {@link PubSubAcknowledgement asynchronous variants}.
+ *
+ * @param <T> the type of the deserialized message body
+ * @since 5.8.0
+ */
+public interface AcknowledgeableMessage<T> extends PubSubAcknowledgement {
+
+    /**
+     * @return the message body, deserialized according to the message {@code Content-Type}
+     */
+    @Nullable
+    T getBody();
+
+    /**
+     * @return the original message as received from PubSub
+     */
+    @NonNull
+    PubsubMessage getPubsubMessage();
+
+    /**
+     * @return the content type used to deserialize the message body
+     */
+    @NonNull
+    String getContentType();
+
+    /**
+     * @return the id of the message
+     */
+    @NonNull
+    default String getMessageId() {
+        return getPubsubMessage().getMessageId();
+    }
+
+    /**
+     * @return the attributes of the message
+     */
+    @NonNull
+    default Map<String, String> getAttributes() {
+        return getPubsubMessage().getAttributesMap();
+    }
+}
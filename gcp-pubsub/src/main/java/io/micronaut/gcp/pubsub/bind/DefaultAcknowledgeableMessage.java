@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * Default implementation of {@link AcknowledgeableMessage}.
+ *
+ * @param <T> the type of the deserialized message body
+ * @since 5.8.0
+ */
+@Internal
+public final class DefaultAcknowledgeableMessage<T> extends DefaultPubSubAcknowledgement implements AcknowledgeableMessage<T> {
+
+    private final PubsubMessage pubsubMessage;
+    private final String contentType;
+    private final T body;
+
+    public DefaultAcknowledgeableMessage(@NonNull PubSubConsumerState consumerState, @Nullable T body) {
+        this(consumerState, body, null);
+    }
+
+    public DefaultAcknowledgeableMessage(@NonNull PubSubConsumerState consumerState, @Nullable T body, @Nullable SubscriberLeaseMonitor.Lease lease) {
+        super(consumerState.getAckReplyConsumer(), lease);
+        this.pubsubMessage = consumerState.getPubsubMessage();
+        this.contentType = consumerState.getContentType();
+        this.body = body;
+    }
+
+    @Override
+    public T getBody() {
+        return body;
+    }
+
+    @Override
+    public PubsubMessage getPubsubMessage() {
+        return pubsubMessage;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+}
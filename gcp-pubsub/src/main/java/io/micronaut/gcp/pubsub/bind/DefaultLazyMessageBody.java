@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.protobuf.ByteString;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes;
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDesRegistry;
+
+import java.io.InputStream;
+
+/**
+ * Default implementation of {@link LazyMessageBody}.
+ *
+ * @param <T> the declared type of the message body
+ * @since 5.8.0
+ */
+@Internal
+final class DefaultLazyMessageBody<T> implements LazyMessageBody<T> {
+
+    private final ByteString data;
+    private final String contentType;
+    private final Argument<T> bodyType;
+    private final PubSubMessageSerDesRegistry serDesRegistry;
+    private volatile boolean resolved;
+    private T body;
+
+    DefaultLazyMessageBody(ByteString data, String contentType, Argument<T> bodyType, PubSubMessageSerDesRegistry serDesRegistry) {
+        this.data = data;
+        this.contentType = contentType;
+        this.bodyType = bodyType;
+        this.serDesRegistry = serDesRegistry;
+    }
+
+    @Override
+    public T get() {
+        if (!resolved) {
+            synchronized (this) {
+                if (!resolved) {
+                    body = get(bodyType);
+                    resolved = true;
+                }
+            }
+        }
+        return body;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> U get(Argument<U> type) {
+        Class<U> targetType = type.getType();
+        if (targetType == ByteString.class) {
+            return (U) data;
+        }
+        if (targetType == byte[].class) {
+            return (U) data.toByteArray();
+        }
+        if (targetType == InputStream.class) {
+            return (U) data.newInput();
+        }
+        if (StringUtils.isEmpty(contentType)) {
+            throw new PubSubListenerException("Could not detect Content-Type header at message and no Content-Type specified on method.");
+        }
+        PubSubMessageSerDes serDes = serDesRegistry.find(contentType)
+            .orElseThrow(() -> new PubSubListenerException("Could not locate a valid SerDes implementation for type: " + contentType));
+        return (U) serDes.deserialize(data.newInput(), type);
+    }
+
+    @Override
+    public ByteString getData() {
+        return data;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -16,21 +16,41 @@
 package io.micronaut.gcp.pubsub.bind;
 
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
-import io.micronaut.messaging.Acknowledgement;
+import com.google.cloud.pubsub.v1.AckResponse;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.messaging.exceptions.MessageAcknowledgementException;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Defaul implementation of {@link io.micronaut.messaging.Acknowledgement} contract.
+ * <p>
+ * Acknowledgement results are only reported by PubSub for subscriptions with exactly-once delivery enabled, in which case
+ * the consumer is an {@link AckResponseReplyConsumer}.
  * @author Vinicius Carvalho
  * @since 2.0.0
  */
-public class DefaultPubSubAcknowledgement implements Acknowledgement {
+public class DefaultPubSubAcknowledgement implements PubSubAcknowledgement {
 
     private volatile boolean clientAck = false;
     private final AckReplyConsumer ackReplyConsumer;
+    @Nullable
+    private final SubscriberLeaseMonitor.Lease lease;
 
     public DefaultPubSubAcknowledgement(AckReplyConsumer ackReplyConsumer) {
+        this(ackReplyConsumer, null);
+    }
+
+    /**
+     * @param ackReplyConsumer the consumer of the message
+     * @param lease the lease of the message, if it is monitored
+     * @since 5.8.0
+     */
+    public DefaultPubSubAcknowledgement(AckReplyConsumer ackReplyConsumer, @Nullable SubscriberLeaseMonitor.Lease lease) {
         this.ackReplyConsumer = ackReplyConsumer;
+        this.lease = lease;
     }
 
     @Override
@@ -45,6 +65,37 @@ public class DefaultPubSubAcknowledgement implements Acknowledgement {
         this.clientAck = true;
     }
 
+    @Override
+    public CompletionStage<AckResponse> ackAsync() {
+        CompletionStage<AckResponse> result;
+        if (ackReplyConsumer instanceof AckResponseReplyConsumer responseReplyConsumer) {
+            result = responseReplyConsumer.ackWithResponse();
+        } else {
+            this.ackReplyConsumer.ack();
+            result = CompletableFuture.completedFuture(AckResponse.SUCCESSFUL);
+        }
+        this.clientAck = true;
+        return result;
+    }
+
+    @Override
+    public CompletionStage<AckResponse> nackAsync() {
+        CompletionStage<AckResponse> result;
+        if (ackReplyConsumer instanceof AckResponseReplyConsumer responseReplyConsumer) {
+            result = responseReplyConsumer.nackWithResponse();
+        } else {
+            this.ackReplyConsumer.nack();
+            result = CompletableFuture.completedFuture(AckResponse.SUCCESSFUL);
+        }
+        this.clientAck = true;
+        return result;
+    }
+
+    @Override
+    public boolean expectProcessingFor(Duration duration) {
+        return lease != null && lease.expectProcessingFor(duration);
+    }
+
     /**
      *
      * @return if the client has ack/nack the message.
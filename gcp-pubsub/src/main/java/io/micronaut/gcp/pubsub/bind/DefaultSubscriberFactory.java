@@ -16,17 +16,24 @@
 package io.micronaut.gcp.pubsub.bind;
 
 import com.google.api.core.ApiService;
+import com.google.api.gax.batching.FlowControlSettings;
 import com.google.api.gax.core.CredentialsProvider;
 import com.google.api.gax.core.FixedExecutorProvider;
 import com.google.api.gax.rpc.TransportChannelProvider;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.cloud.pubsub.v1.MessageReceiverWithAckResponse;
 import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.cloud.pubsub.v1.SubscriberInterface;
 import com.google.pubsub.v1.ProjectSubscriptionName;
 import io.micronaut.context.BeanContext;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.gcp.Modules;
 import io.micronaut.gcp.pubsub.configuration.SubscriberConfigurationProperties;
 import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
 import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
@@ -34,21 +41,39 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Default implementation of {@link SubscriberFactory}.
+ * <p>
+ * Keeps a registry of the created {@link Subscriber} instances, which allows them to be paused, resumed and
+ * reconfigured with new flow control limits at runtime. When a {@link SubscriberScheduler} is configured, listener
+ * invocations of all subscribers are dispatched through it, and when a {@link SubscriberMemoryBudget} is configured,
+ * messages are admitted against it before being dispatched. When a {@link SubscriberLeaseMonitor} is configured, the
+ * leases of the received messages are monitored. Subscribers of subscriptions configured with exactly-once
+ * delivery receive messages with an {@link AckResponseReplyConsumer}, which reports the result of acknowledgements.
+ * Subscribers with auto tuning enabled use a dedicated executor sized to their number of concurrent pulls, and are
+ * tuned from the {@link TaskExecutors#SCHEDULED} task scheduler, measuring the saturation of the {@link SubscriberScheduler}
+ * instead of their executor when it is configured. Every adjustment rebuilds the subscriber.
+ *
  * @author Vinicius Carvalho
  * @since 2.0.0
  */
 @Singleton
 public class DefaultSubscriberFactory implements SubscriberFactory, AutoCloseable {
 
-    private final ConcurrentHashMap<ProjectSubscriptionName, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // the default of the Subscriber
+    private static final java.time.Duration DEFAULT_MAX_ACK_EXTENSION_PERIOD = java.time.Duration.ofMinutes(60);
+
+    private final ConcurrentHashMap<ProjectSubscriptionName, SubscriberRegistration> subscribers = new ConcurrentHashMap<>();
     private final TransportChannelProvider transportChannelProvider;
     private final CredentialsProvider credentialsProvider;
     private final BeanContext beanContext;
@@ -64,47 +89,119 @@ public class DefaultSubscriberFactory implements SubscriberFactory, AutoCloseabl
 
     @Override
     public Subscriber createSubscriber(SubscriberFactoryConfig config) {
-        Subscriber subscriber = subscribers.compute(config.getSubscriptionName(), (k, v) -> {
+        SubscriberRegistration registration = subscribers.compute(config.getSubscriptionName(), (k, v) -> {
             if (v == null) {
-                Subscriber.Builder builder = Subscriber.newBuilder(config.getSubscriptionName(), config.getReceiver())
-                        .setChannelProvider(this.transportChannelProvider)
-                        .setCredentialsProvider(this.credentialsProvider);
-
-                Optional<SubscriberConfigurationProperties> subscriberConfiguration = beanContext.findBean(SubscriberConfigurationProperties.class, Qualifiers.byName(config.getSubscriberConfiguration()));
-                String executor = subscriberConfiguration.map(s -> s.getExecutor()).orElse(config.getDefaultExecutor());
-                ExecutorService executorService = beanContext.getBean(ExecutorService.class, Qualifiers.byName(executor));
-                if (!(executorService instanceof ScheduledExecutorService)) {
-                    throw new IllegalStateException("Invalid Executor type provided, please make sure you have a ScheduledExecutorService configured for Subscriber: "  + config.getSubscriptionName().getSubscription());
-                }
-                builder.setExecutorProvider(FixedExecutorProvider.create((ScheduledExecutorService) executorService));
-                if (subscriberConfiguration.isPresent()) {
-                    SubscriberConfigurationProperties properties = subscriberConfiguration.get();
-                    builder.setMaxAckExtensionPeriod(properties.getMaxAckExtensionPeriod());
-                    builder.setParallelPullCount(properties.getParallelPullCount());
-                    builder.setMaxDurationPerAckExtension(properties.getMaxDurationPerAckExtension());
-                    builder.setFlowControlSettings(properties.getFlowControlSettings().build());
-                }
-                return builder.build();
+                ParallelPullTuner tuner = findConfiguration(config)
+                        .filter(SubscriberConfigurationProperties::isAutoTune)
+                        .map(properties -> new ParallelPullTuner(properties, Runtime.getRuntime().availableProcessors()))
+                        .orElse(null);
+                SubscriberRegistration newRegistration = new SubscriberRegistration(config, tuner,
+                        tuner != null ? createTunedExecutor(config, tuner.getParallelPullCount()) : null);
+                newRegistration.subscriber = buildSubscriber(newRegistration, null);
+                return newRegistration;
             }
             throw new PubSubListenerException(String.format("Subscription %s is already registered for another" +
                     " method", config.getSubscriptionName().toString()));
         });
+        Subscriber subscriber = registration.subscriber;
         subscriber.startAsync();
+        if (registration.tuner != null) {
+            scheduleAutoTuning(registration);
+        }
         return subscriber;
     }
 
+    @Override
+    public List<SubscriberStatus> getSubscribers() {
+        return subscribers.values().stream().map(SubscriberRegistration::status).toList();
+    }
+
+    @Override
+    public Optional<SubscriberStatus> getSubscriber(ProjectSubscriptionName subscriptionName) {
+        return Optional.ofNullable(subscribers.get(subscriptionName)).map(SubscriberRegistration::status);
+    }
+
+    @Override
+    public Optional<SubscriberStatus> pause(ProjectSubscriptionName subscriptionName) {
+        SubscriberRegistration registration = subscribers.get(subscriptionName);
+        if (registration == null) {
+            return Optional.empty();
+        }
+        synchronized (registration) {
+            if (!registration.paused) {
+                registration.paused = true;
+                stopSubscriber(subscriptionName, registration.subscriber);
+                logger.info("Subscriber for {} was paused.", subscriptionName);
+            }
+            return Optional.of(registration.status());
+        }
+    }
+
+    @Override
+    public Optional<SubscriberStatus> resume(ProjectSubscriptionName subscriptionName) {
+        SubscriberRegistration registration = subscribers.get(subscriptionName);
+        if (registration == null) {
+            return Optional.empty();
+        }
+        synchronized (registration) {
+            if (registration.paused) {
+                registration.subscriber = buildSubscriber(registration, registration.subscriber.getFlowControlSettings());
+                registration.paused = false;
+                registration.subscriber.startAsync();
+                logger.info("Subscriber for {} was resumed.", subscriptionName);
+            }
+            return Optional.of(registration.status());
+        }
+    }
+
+    @Override
+    public Optional<SubscriberStatus> updateFlowControl(ProjectSubscriptionName subscriptionName,
+                                                        @Nullable Long maxOutstandingElementCount,
+                                                        @Nullable Long maxOutstandingRequestBytes) {
+        SubscriberRegistration registration = subscribers.get(subscriptionName);
+        if (registration == null) {
+            return Optional.empty();
+        }
+        synchronized (registration) {
+            FlowControlSettings current = registration.subscriber.getFlowControlSettings();
+            FlowControlSettings.Builder builder = current.toBuilder();
+            if (maxOutstandingElementCount != null) {
+                builder.setMaxOutstandingElementCount(maxOutstandingElementCount);
+            }
+            if (maxOutstandingRequestBytes != null) {
+                builder.setMaxOutstandingRequestBytes(maxOutstandingRequestBytes);
+            }
+            FlowControlSettings updated = builder.build();
+            if (!updated.equals(current)) {
+                if (!registration.paused) {
+                    stopSubscriber(subscriptionName, registration.subscriber);
+                }
+                registration.subscriber = buildSubscriber(registration, updated);
+                if (!registration.paused) {
+                    registration.subscriber.startAsync();
+                }
+                logger.info("Subscriber for {} was updated with flow control settings {}.", subscriptionName, updated);
+            }
+            return Optional.of(registration.status());
+        }
+    }
+
     @PreDestroy
     @Override
     public void close() throws Exception {
         while (!subscribers.entrySet().isEmpty()) {
-            Iterator<Map.Entry<ProjectSubscriptionName, Subscriber>> it = subscribers.entrySet().iterator();
+            Iterator<Map.Entry<ProjectSubscriptionName, SubscriberRegistration>> it = subscribers.entrySet().iterator();
             while (it.hasNext()) {
-                Map.Entry<ProjectSubscriptionName, Subscriber> entry = it.next();
-                SubscriberInterface subscriber = entry.getValue();
+                Map.Entry<ProjectSubscriptionName, SubscriberRegistration> entry = it.next();
+                SubscriberRegistration registration = entry.getValue();
+                SubscriberInterface subscriber = registration.subscriber;
+                if (registration.tuning != null) {
+                    registration.tuning.cancel(false);
+                }
                 try {
                     if (subscriber.isRunning()) {
                         subscriber.stopAsync().awaitTerminated();
-                    } else {
+                    } else if (!registration.paused) {
                         logger.warn("Subscriber for {} was terminated early.", entry.getKey());
                         if (subscriber.state() == ApiService.State.FAILED && logger.isTraceEnabled()) {
                             logger.trace("Subscriber {} failed due to ", entry.getKey(), subscriber.failureCause());
@@ -113,6 +210,9 @@ public class DefaultSubscriberFactory implements SubscriberFactory, AutoCloseabl
                 } catch (Exception e) {
                     logger.error("Failed stopping subscriber for " + entry.getKey(), e);
                 } finally {
+                    if (registration.tunedExecutor != null) {
+                        registration.tunedExecutor.shutdown();
+                    }
                     it.remove();
                     logger.debug("Subscriber for {} was shut down successfully.", entry.getKey());
                 }
@@ -121,9 +221,203 @@ public class DefaultSubscriberFactory implements SubscriberFactory, AutoCloseabl
     }
 
     boolean isRunning(ProjectSubscriptionName subscriptionName) {
-        if (subscribers.containsKey(subscriptionName)) {
-            return subscribers.get(subscriptionName).isRunning();
+        SubscriberRegistration registration = subscribers.get(subscriptionName);
+        if (registration != null) {
+            return registration.subscriber.isRunning();
         }
         return false;
     }
+
+    private Subscriber buildSubscriber(SubscriberRegistration registration, @Nullable FlowControlSettings flowControlSettings) {
+        SubscriberFactoryConfig config = registration.config;
+        Optional<SubscriberConfigurationProperties> subscriberConfiguration = findConfiguration(config);
+        MessageReceiver receiver = config.getReceiver();
+        java.time.Duration maxAckExtensionPeriod = subscriberConfiguration
+                .map(properties -> java.time.Duration.ofMillis(properties.getMaxAckExtensionPeriod().toMillis()))
+                .orElse(DEFAULT_MAX_ACK_EXTENSION_PERIOD);
+        Optional<SubscriberScheduler> scheduler = beanContext.findBean(SubscriberScheduler.class);
+        if (scheduler.isPresent()) {
+            // messages that are never acknowledged are redelivered once the ack deadline is no longer extended
+            receiver = scheduler.get().register(config.getSubscriptionName(), receiver,
+                    subscriberConfiguration.map(SubscriberConfigurationProperties::getSchedulingWeight).orElse(1), maxAckExtensionPeriod);
+        }
+        Optional<SubscriberMemoryBudget> memoryBudget = beanContext.findBean(SubscriberMemoryBudget.class);
+        if (memoryBudget.isPresent()) {
+            receiver = memoryBudget.get().register(config.getSubscriptionName(), receiver,
+                    subscriberConfiguration.map(SubscriberConfigurationProperties::getMemoryBudgetMinBytes).orElse(0L),
+                    subscriberConfiguration.map(SubscriberConfigurationProperties::getMemoryBudgetWeight).orElse(1));
+        }
+        if (registration.tuner != null) {
+            receiver = registration.tuner.wrap(receiver);
+        }
+        Optional<SubscriberLeaseMonitor> leaseMonitor = beanContext.findBean(SubscriberLeaseMonitor.class);
+        if (leaseMonitor.isPresent()) {
+            receiver = leaseMonitor.get().register(config.getSubscriptionName(), receiver, maxAckExtensionPeriod);
+        }
+        Subscriber.Builder builder;
+        if (subscriberConfiguration.map(SubscriberConfigurationProperties::isExactlyOnceDelivery).orElse(false)) {
+            MessageReceiver messageReceiver = receiver;
+            MessageReceiverWithAckResponse responseReceiver = (message, consumer) ->
+                    messageReceiver.receiveMessage(message, new AckResponseReplyConsumer(consumer));
+            builder = Subscriber.newBuilder(config.getSubscriptionName(), responseReceiver);
+        } else {
+            builder = Subscriber.newBuilder(config.getSubscriptionName(), receiver);
+        }
+        builder.setChannelProvider(this.transportChannelProvider)
+                .setCredentialsProvider(this.credentialsProvider);
+
+        ScheduledExecutorService executorService = registration.tunedExecutor != null
+                ? registration.tunedExecutor
+                : resolveExecutor(config, subscriberConfiguration);
+        builder.setExecutorProvider(FixedExecutorProvider.create(executorService));
+        int parallelPullCount = 1;
+        if (subscriberConfiguration.isPresent()) {
+            SubscriberConfigurationProperties properties = subscriberConfiguration.get();
+            builder.setMaxAckExtensionPeriod(properties.getMaxAckExtensionPeriod());
+            parallelPullCount = properties.getParallelPullCount();
+            builder.setMaxDurationPerAckExtension(properties.getMaxDurationPerAckExtension());
+            builder.setFlowControlSettings(properties.getFlowControlSettings().build());
+        }
+        if (registration.tuner != null) {
+            parallelPullCount = registration.tuner.getParallelPullCount();
+            registration.tunedExecutor.setCorePoolSize(parallelPullCount * ParallelPullTuner.THREADS_PER_STREAM);
+        }
+        builder.setParallelPullCount(parallelPullCount);
+        registration.parallelPullCount = parallelPullCount;
+        if (flowControlSettings != null) {
+            builder.setFlowControlSettings(flowControlSettings);
+        }
+        return builder.build();
+    }
+
+    private Optional<SubscriberConfigurationProperties> findConfiguration(SubscriberFactoryConfig config) {
+        return beanContext.findBean(SubscriberConfigurationProperties.class, Qualifiers.byName(config.getSubscriberConfiguration()));
+    }
+
+    private ScheduledExecutorService resolveExecutor(SubscriberFactoryConfig config, Optional<SubscriberConfigurationProperties> subscriberConfiguration) {
+        String executor = subscriberConfiguration.map(s -> s.getExecutor()).orElse(config.getDefaultExecutor());
+        ExecutorService executorService = beanContext.getBean(ExecutorService.class, Qualifiers.byName(executor));
+        if (!(executorService instanceof ScheduledExecutorService)) {
+            throw new IllegalStateException("Invalid Executor type provided, please make sure you have a ScheduledExecutorService configured for Subscriber: "  + config.getSubscriptionName().getSubscription());
+        }
+        return (ScheduledExecutorService) executorService;
+    }
+
+    /**
+     * Creates the executor of a subscriber with auto tuning enabled, so that its size can follow the number of
+     * concurrent pulls and its saturation only reflects the work of that subscriber. It provides as many threads per
+     * stream as the PubSub client library would allocate by default.
+     */
+    private ScheduledThreadPoolExecutor createTunedExecutor(SubscriberFactoryConfig config, int parallelPullCount) {
+        String prefix = "pubsub-" + config.getSubscriptionName().getSubscription() + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(parallelPullCount * ParallelPullTuner.THREADS_PER_STREAM, runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private void scheduleAutoTuning(SubscriberRegistration registration) {
+        java.time.Duration interval = findConfiguration(registration.config)
+                .map(properties -> java.time.Duration.ofMillis(properties.getAutoTuneInterval().toMillis()))
+                .orElse(java.time.Duration.ofSeconds(30));
+        TaskScheduler taskScheduler = beanContext.getBean(TaskScheduler.class, Qualifiers.byName(TaskExecutors.SCHEDULED));
+        registration.tuning = taskScheduler.scheduleWithFixedDelay(interval, interval, () -> autoTune(registration));
+    }
+
+    private void autoTune(SubscriberRegistration registration) {
+        ProjectSubscriptionName subscriptionName = registration.config.getSubscriptionName();
+        try {
+            synchronized (registration) {
+                if (registration.paused || subscribers.get(subscriptionName) != registration) {
+                    return;
+                }
+                double saturation = measureSaturation(registration);
+                int current = registration.parallelPullCount;
+                int next = registration.tuner.evaluate(saturation, System.nanoTime());
+                if (next != current) {
+                    stopSubscriber(subscriptionName, registration.subscriber);
+                    registration.subscriber = buildSubscriber(registration, registration.subscriber.getFlowControlSettings());
+                    registration.subscriber.startAsync();
+                    logger.info("Parallel pull count of subscriber for {} was adjusted from {} to {}.", subscriptionName, current, next);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to auto tune subscriber for {}.", subscriptionName, e);
+        }
+    }
+
+    /**
+     * Measures the saturation of the executor running the listeners of a subscriber with auto tuning enabled. When a
+     * {@link SubscriberScheduler} is configured, the threads of the subscriber only queue the messages, so the scheduler
+     * is measured instead.
+     */
+    private double measureSaturation(SubscriberRegistration registration) {
+        Optional<SubscriberScheduler> scheduler = beanContext.findBean(SubscriberScheduler.class);
+        if (scheduler.isPresent()) {
+            SubscriberScheduler subscriberScheduler = scheduler.get();
+            if (subscriberScheduler.getQueuedCount(registration.config.getSubscriptionName()) > 0) {
+                // messages of the subscription are waiting for a slot
+                return 1d;
+            }
+            return (double) subscriberScheduler.getRunningCount() / Math.max(1, subscriberScheduler.getConcurrency());
+        }
+        ScheduledThreadPoolExecutor executor = registration.tunedExecutor;
+        return (double) executor.getActiveCount() / Math.max(1, executor.getCorePoolSize());
+    }
+
+    /**
+     * Stops a subscriber without waiting for it to terminate, so that callers such as the management endpoint are not
+     * blocked while the messages already delivered to the receiver are drained.
+     */
+    private void stopSubscriber(ProjectSubscriptionName subscriptionName, Subscriber subscriber) {
+        if (subscriber.isRunning() || subscriber.state() == ApiService.State.STARTING) {
+            subscriber.addListener(new ApiService.Listener() {
+                @Override
+                public void failed(ApiService.State from, Throwable failure) {
+                    logger.warn("Subscriber for {} failed while stopping.", subscriptionName, failure);
+                }
+            }, Runnable::run);
+            subscriber.stopAsync();
+        }
+    }
+
+    /**
+     * Holds a registered subscriber along with the configuration needed to rebuild it.
+     */
+    private static final class SubscriberRegistration {
+
+        private final SubscriberFactoryConfig config;
+        @Nullable
+        private final ParallelPullTuner tuner;
+        @Nullable
+        private final ScheduledThreadPoolExecutor tunedExecutor;
+        private volatile Subscriber subscriber;
+        private volatile boolean paused;
+        private volatile int parallelPullCount;
+        @Nullable
+        private volatile ScheduledFuture<?> tuning;
+
+        private SubscriberRegistration(SubscriberFactoryConfig config, @Nullable ParallelPullTuner tuner,
+                                       @Nullable ScheduledThreadPoolExecutor tunedExecutor) {
+            this.config = config;
+            this.tuner = tuner;
+            this.tunedExecutor = tunedExecutor;
+        }
+
+        @NonNull
+        private SubscriberStatus status() {
+            Subscriber current = subscriber;
+            FlowControlSettings flowControlSettings = current.getFlowControlSettings();
+            return new SubscriberStatus(config.getSubscriptionName().toString(),
+                    current.state().name(),
+                    paused,
+                    parallelPullCount,
+                    flowControlSettings.getMaxOutstandingElementCount(),
+                    flowControlSettings.getMaxOutstandingRequestBytes());
+        }
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.protobuf.ByteString;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.type.Argument;
+
+import java.io.InputStream;
+
+/**
+ * A message body argument type that defers deserialization of the PubSub message data until it is requested.
+ * <p>
+ * Declaring a subscriber method argument of this type avoids the cost of deserializing messages that the listener
+ * ends up not inspecting, for example when routing decisions are made based on message headers. The body is
+ * deserialized using the {@link io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes} registered for the message
+ * Content-Type, in the same way as a regular body argument.
+ *
+ * @param <T> the declared type of the message body
+ * @since 5.8.0
+ */
+public interface LazyMessageBody<T> {
+
+    /**
+     * Deserializes the message data into the declared body type. The result is computed once and cached.
+     *
+     * @return the deserialized body
+     */
+    @Nullable
+    T get();
+
+    /**
+     * Deserializes the message data into the given type. The result is not cached.
+     *
+     * @param type the target type
+     * @param <U> the target type
+     * @return the deserialized body
+     */
+    @Nullable
+    <U> U get(@NonNull Argument<U> type);
+
+    /**
+     * Deserializes the message data into the given type. The result is not cached.
+     *
+     * @param type the target type
+     * @param <U> the target type
+     * @return the deserialized body
+     */
+    @Nullable
+    default <U> U get(@NonNull Class<U> type) {
+        return get(Argument.of(type));
+    }
+
+    /**
+     * @return the raw message data
+     */
+    @NonNull
+    ByteString getData();
+
+    /**
+     * @return a stream over the raw message data that does not copy the underlying bytes
+     */
+    @NonNull
+    default InputStream getInputStream() {
+        return getData().newInput();
+    }
+
+    /**
+     * @return the Content-Type used to select the {@link io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes}
+     */
+    @Nullable
+    String getContentType();
+}
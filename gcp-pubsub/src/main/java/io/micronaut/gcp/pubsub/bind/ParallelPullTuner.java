@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.gcp.pubsub.configuration.SubscriberConfigurationProperties;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tunes the number of concurrent pulls of a single subscriber by hill climbing on the measured receive throughput.
+ * <p>
+ * Each evaluation probes one more stream while the executor has spare capacity, keeps probing while every additional
+ * stream improves the throughput, and otherwise reverts the last increase and holds the current count for a number of
+ * intervals before probing again. Intervals without any received message leave the count unchanged, so that idle
+ * subscribers are not restarted.
+ *
+ * @since 5.8.0
+ */
+@Internal
+final class ParallelPullTuner {
+
+    /**
+     * The number of executor threads per stream the PubSub client library uses by default.
+     */
+    static final int THREADS_PER_STREAM = 5;
+    static final double SATURATED = 0.9;
+    static final double MIN_IMPROVEMENT = 1.1;
+    static final int HOLD_INTERVALS = 10;
+
+    private final int min;
+    private final int max;
+    private final LongAdder received = new LongAdder();
+    private volatile int parallelPullCount;
+    private long lastSampleNanos;
+    private double lastThroughput;
+    private boolean lastIncreased;
+    private int hold;
+
+    ParallelPullTuner(SubscriberConfigurationProperties properties, int availableProcessors) {
+        this.min = Math.max(1, properties.getMinParallelPullCount());
+        this.max = Math.max(min, properties.getMaxParallelPullCount());
+        this.parallelPullCount = clamp(availableProcessors / 4);
+        this.lastSampleNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the current number of concurrent pulls
+     */
+    int getParallelPullCount() {
+        return parallelPullCount;
+    }
+
+    /**
+     * @param receiver the receiver to wrap
+     * @return a receiver counting the messages it receives
+     */
+    MessageReceiver wrap(MessageReceiver receiver) {
+        return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> {
+            received.increment();
+            receiver.receiveMessage(message, ackReplyConsumer);
+        };
+    }
+
+    /**
+     * Evaluates the throughput since the last evaluation and computes the next number of concurrent pulls.
+     *
+     * @param executorSaturation the ratio of busy threads of the executor running the listeners of the subscriber
+     * @param nowNanos the current time in nanoseconds
+     * @return the new number of concurrent pulls
+     */
+    synchronized int evaluate(double executorSaturation, long nowNanos) {
+        double seconds = Math.max(nowNanos - lastSampleNanos, 1L) / 1_000_000_000d;
+        double throughput = received.sumThenReset() / seconds;
+        lastSampleNanos = nowNanos;
+        int current = parallelPullCount;
+        int next = current;
+        if (throughput == 0d) {
+            // nothing to measure, and changing the count would restart an idle subscriber on every interval
+            return current;
+        } else if (hold > 0) {
+            hold--;
+        } else if (executorSaturation >= SATURATED) {
+            // processing is the bottleneck, additional streams would only pull more messages than can be handled
+            if (lastIncreased) {
+                next = current - 1;
+                hold = HOLD_INTERVALS;
+            }
+        } else if (lastIncreased && throughput < lastThroughput * MIN_IMPROVEMENT) {
+            next = current - 1;
+            hold = HOLD_INTERVALS;
+        } else {
+            next = current + 1;
+        }
+        next = clamp(next);
+        lastIncreased = next > current;
+        lastThroughput = throughput;
+        parallelPullCount = next;
+        return next;
+    }
+
+    private int clamp(int count) {
+        return Math.min(max, Math.max(min, count));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.cloud.pubsub.v1.AckResponse;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.messaging.Acknowledgement;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An {@link Acknowledgement} that exposes the result of acknowledging a message.
+ * <p>
+ * For subscriptions with exactly-once delivery enabled (see
+ * {@link io.micronaut.gcp.pubsub.configuration.SubscriberConfigurationProperties#isExactlyOnceDelivery()}), the returned
+ * {@link CompletionStage} completes once PubSub confirmed or rejected the acknowledgement. A message whose acknowledgement
+ * completed with {@link AckResponse#SUCCESSFUL} will not be redelivered. For other subscriptions, acknowledgements are
+ * fire-and-forget and the returned {@link CompletionStage} completes immediately with {@link AckResponse#SUCCESSFUL}.
+ *
+ * @since 5.8.0
+ */
+public interface PubSubAcknowledgement extends Acknowledgement {
+
+    /**
+     * Acknowledges the message.
+     *
+     * @return a {@link CompletionStage} completing with the result of the acknowledgement
+     */
+    @NonNull
+    CompletionStage<AckResponse> ackAsync();
+
+    /**
+     * Negatively acknowledges the message, so that it is redelivered.
+     *
+     * @return a {@link CompletionStage} completing with the result of the negative acknowledgement
+     */
+    @NonNull
+    CompletionStage<AckResponse> nackAsync();
+
+    /**
+     * Declares that the message is expected to be processed for at least the given duration. This does not extend the
+     * ack deadline of the message: only the {@link com.google.cloud.pubsub.v1.Subscriber} extends it, automatically and
+     * only until the {@code max-ack-extension-period} of the subscriber elapsed since the message was received. The
+     * declaration lets the lease monitor (see {@link SubscriberLeaseMonitor}) check the expected duration against that
+     * period: a duration exceeding it is logged and counted, and no near-expiry warning is logged for the message while
+     * the duration did not elapse.
+     *
+     * @param duration the duration the message is expected to be processed for
+     * @return whether the lease of the message will be held for the given duration, {@code false} if it can not be
+     * held that long or if the lease of the message is not monitored
+     * @since 5.8.0
+     */
+    boolean expectProcessingFor(@NonNull Duration duration);
+}
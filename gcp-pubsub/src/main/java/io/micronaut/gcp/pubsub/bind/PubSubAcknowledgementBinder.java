@@ -15,11 +15,13 @@
  */
 package io.micronaut.gcp.pubsub.bind;
 
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.ArgumentConversionContext;
 import io.micronaut.core.type.Argument;
 import io.micronaut.messaging.Acknowledgement;
 
 import java.util.Optional;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 /**
@@ -31,6 +33,22 @@ import jakarta.inject.Singleton;
 @Singleton
 public class PubSubAcknowledgementBinder implements PubSubTypeArgumentBinder<Acknowledgement> {
 
+    @Nullable
+    private final SubscriberLeaseMonitor leaseMonitor;
+
+    public PubSubAcknowledgementBinder() {
+        this(null);
+    }
+
+    /**
+     * @param leaseMonitor the monitor of the message leases, if enabled
+     * @since 5.8.0
+     */
+    @Inject
+    public PubSubAcknowledgementBinder(@Nullable SubscriberLeaseMonitor leaseMonitor) {
+        this.leaseMonitor = leaseMonitor;
+    }
+
     @Override
     public Argument<Acknowledgement> argumentType() {
         return Argument.of(Acknowledgement.class);
@@ -38,7 +56,10 @@ public class PubSubAcknowledgementBinder implements PubSubTypeArgumentBinder<Ack
 
     @Override
     public BindingResult<Acknowledgement> bind(ArgumentConversionContext<Acknowledgement> context, PubSubConsumerState source) {
-        Acknowledgement acknowledgement = new DefaultPubSubAcknowledgement(source.getAckReplyConsumer());
+        SubscriberLeaseMonitor.Lease lease = leaseMonitor != null
+            ? leaseMonitor.findLease(source.getSubscriptionName(), source.getPubsubMessage().getMessageId()).orElse(null)
+            : null;
+        Acknowledgement acknowledgement = new DefaultPubSubAcknowledgement(source.getAckReplyConsumer(), lease);
         return () -> Optional.of(acknowledgement);
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.ArgumentConversionContext;
+import io.micronaut.core.type.Argument;
+import jakarta.inject.Singleton;
+
+import java.util.Optional;
+
+/**
+ * Binds {@link PubSubAcknowledgement} arguments.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+public class PubSubAcknowledgementResponseBinder implements PubSubTypeArgumentBinder<PubSubAcknowledgement> {
+
+    @Nullable
+    private final SubscriberLeaseMonitor leaseMonitor;
+
+    /**
+     * @param leaseMonitor the monitor of the message leases, if enabled
+     */
+    public PubSubAcknowledgementResponseBinder(@Nullable SubscriberLeaseMonitor leaseMonitor) {
+        this.leaseMonitor = leaseMonitor;
+    }
+
+    @Override
+    public Argument<PubSubAcknowledgement> argumentType() {
+        return Argument.of(PubSubAcknowledgement.class);
+    }
+
+    @Override
+    public BindingResult<PubSubAcknowledgement> bind(ArgumentConversionContext<PubSubAcknowledgement> context, PubSubConsumerState source) {
+        SubscriberLeaseMonitor.Lease lease = leaseMonitor != null
+            ? leaseMonitor.findLease(source.getSubscriptionName(), source.getPubsubMessage().getMessageId()).orElse(null)
+            : null;
+        PubSubAcknowledgement acknowledgement = new DefaultPubSubAcknowledgement(source.getAckReplyConsumer(), lease);
+        return () -> Optional.of(acknowledgement);
+    }
+}
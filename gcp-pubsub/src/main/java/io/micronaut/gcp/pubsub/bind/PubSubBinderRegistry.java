@@ -68,6 +68,10 @@ public class PubSubBinderRegistry implements ArgumentBinderRegistry<PubSubConsum
             }
         } else {
             ArgumentBinder binder = byType.get(argument.typeHashCode());
+            if (binder == null && argument.hasTypeVariables()) {
+                // binders such as the one of Kotlin continuations are registered for the raw type
+                binder = byType.get(Argument.of(argument.getType()).typeHashCode());
+            }
             if (binder != null) {
                 return Optional.of(binder);
             }
@@ -15,6 +15,7 @@
  */
 package io.micronaut.gcp.pubsub.bind;
 
+import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.convert.ArgumentConversionContext;
@@ -30,11 +31,14 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
 import java.util.Optional;
 
 /**
  * Binds arguments annotated with {@link io.micronaut.messaging.annotation.MessageBody} and uses the appropriate
  * {@link io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes} to deserialize the contents of the PubSubMessage data.
+ * Arguments of type {@link LazyMessageBody} defer the deserialization until the body is requested, while
+ * {@link com.google.protobuf.ByteString} and {@link InputStream} arguments give access to the data without copying it.
  *
  * @author Vinicius Carvalho
  * @since 2.0.0
@@ -78,7 +82,13 @@ public class PubSubBodyBinder implements PubSubAnnotatedArgumentBinder<MessageBo
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public BindingResult<Object> bind(ArgumentConversionContext<Object> context, PubSubConsumerState state) {
+        if (context.getArgument().getType() == LazyMessageBody.class) {
+            Argument<Object> lazyBodyType = (Argument<Object>) context.getArgument().getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT);
+            Optional<Object> lazyBody = Optional.of(new DefaultLazyMessageBody<>(state.getPubsubMessage().getData(), state.getContentType(), lazyBodyType, serDesRegistry));
+            return () -> lazyBody;
+        }
         boolean isPublisher = Publishers.isConvertibleToPublisher(context.getArgument().getType());
         Argument<?> bodyType = isPublisher ?
             context.getArgument().getFirstTypeVariable().orElseThrow(() -> new PubSubListenerException("Could not determine publisher's argument type for PubSub message deserialization")) :
@@ -86,6 +96,10 @@ public class PubSubBodyBinder implements PubSubAnnotatedArgumentBinder<MessageBo
         Object result = null;
         if (bodyType.getType().equals(byte[].class)) {
             result = state.getPubsubMessage().getData().toByteArray();
+        } else if (bodyType.getType().equals(ByteString.class)) {
+            result = state.getPubsubMessage().getData();
+        } else if (bodyType.getType().equals(InputStream.class)) {
+            result = state.getPubsubMessage().getData().newInput();
         } else if (bodyType.getType().equals(PubsubMessage.class)) {
             result = state.getPubsubMessage();
         } else {
@@ -94,10 +108,10 @@ public class PubSubBodyBinder implements PubSubAnnotatedArgumentBinder<MessageBo
             }
             PubSubMessageSerDes serDes = serDesRegistry.find(state.getContentType())
                 .orElseThrow(() -> new PubSubListenerException("Could not locate a valid SerDes implementation for type: " + state.getContentType()));
-            result = serDes.deserialize(state.getPubsubMessage().getData().toByteArray(), bodyType);
+            result = serDes.deserialize(state.getPubsubMessage().getData().newInput(), bodyType);
         }
 
-        if (isPublisher && result.getClass().isArray()) {
+        if (isPublisher && (result.getClass().isArray() || result instanceof InputStream || result instanceof ByteString)) {
             result = Mono.just(result);
         }
 
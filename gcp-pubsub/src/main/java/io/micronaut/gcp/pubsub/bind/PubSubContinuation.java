@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import kotlin.Result;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.CoroutineContext;
+import kotlin.coroutines.intrinsics.IntrinsicsKt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The {@link Continuation} passed to Kotlin {@code suspend} subscriber methods. It completes a {@link CompletableFuture}
+ * once the coroutine finishes, so that the message can be acknowledged without blocking a thread while the coroutine is suspended.
+ *
+ * @since 5.8.0
+ */
+@Internal
+public final class PubSubContinuation implements Continuation<Object> {
+
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+    private final CoroutineContext context;
+    private final Executor executor;
+
+    /**
+     * @param context the context the coroutine runs in
+     * @param executor the executor the coroutine is dispatched to, if any
+     */
+    PubSubContinuation(@NonNull CoroutineContext context, @Nullable Executor executor) {
+        this.context = context;
+        this.executor = executor;
+    }
+
+    @Override
+    public @NonNull CoroutineContext getContext() {
+        return context;
+    }
+
+    @Override
+    public void resumeWith(@NonNull Object result) {
+        if (result instanceof Result.Failure failure) {
+            future.completeExceptionally(failure.exception);
+        } else {
+            future.complete(result instanceof Unit ? null : result);
+        }
+    }
+
+    /**
+     * @return a future completed with the result of the coroutine, or {@code null} if it returned {@link Unit}
+     */
+    public @NonNull CompletableFuture<Object> getFuture() {
+        return future;
+    }
+
+    /**
+     * @return the executor the coroutine should be started on, or {@code null} to start it on the calling thread
+     */
+    public @Nullable Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Resolves the value returned by the invocation of a {@code suspend} method.
+     *
+     * @param result the value returned by the method
+     * @return the result of the coroutine if it completed without suspending, or the future completed when it resumes
+     */
+    public @NonNull CompletableFuture<Object> resultOf(@Nullable Object result) {
+        if (result == IntrinsicsKt.getCOROUTINE_SUSPENDED()) {
+            return future;
+        }
+        return CompletableFuture.completedFuture(result instanceof Unit ? null : result);
+    }
+}
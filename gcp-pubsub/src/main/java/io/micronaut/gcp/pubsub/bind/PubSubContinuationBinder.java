@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.convert.ArgumentConversionContext;
+import io.micronaut.core.reflect.ClassUtils;
+import io.micronaut.core.type.Argument;
+import io.micronaut.gcp.pubsub.configuration.PubSubConfigurationProperties;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Singleton;
+import kotlin.coroutines.Continuation;
+import kotlin.coroutines.CoroutineContext;
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.ExecutorsKt;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Binds the {@link Continuation} argument of Kotlin {@code suspend} subscriber methods. When
+ * {@link PubSubConfigurationProperties#getCoroutineExecutor()} is set, coroutines are dispatched to that executor, which
+ * requires {@code kotlinx-coroutines-core} on the classpath.
+ *
+ * @since 5.8.0
+ */
+@Internal
+@Singleton
+@Requires(classes = Continuation.class)
+public class PubSubContinuationBinder implements PubSubTypeArgumentBinder<Continuation> {
+
+    private static final String EXECUTORS_KT = "kotlinx.coroutines.ExecutorsKt";
+
+    private final BeanContext beanContext;
+    private final PubSubConfigurationProperties pubSubConfigurationProperties;
+    private volatile PubSubContinuationFactory factory;
+
+    public PubSubContinuationBinder(BeanContext beanContext, PubSubConfigurationProperties pubSubConfigurationProperties) {
+        if (pubSubConfigurationProperties.getCoroutineExecutor() != null
+            && !ClassUtils.isPresent(EXECUTORS_KT, PubSubContinuationBinder.class.getClassLoader())) {
+            throw new ConfigurationException("Dispatching coroutines to the executor " + pubSubConfigurationProperties.getCoroutineExecutor()
+                + " set with gcp.pubsub.coroutine-executor requires org.jetbrains.kotlinx:kotlinx-coroutines-core on the classpath");
+        }
+        this.beanContext = beanContext;
+        this.pubSubConfigurationProperties = pubSubConfigurationProperties;
+    }
+
+    @Override
+    public Argument<Continuation> argumentType() {
+        return Argument.of(Continuation.class);
+    }
+
+    @Override
+    public BindingResult<Continuation> bind(ArgumentConversionContext<Continuation> context, PubSubConsumerState source) {
+        Continuation<Object> continuation = factory().create();
+        return () -> Optional.of(continuation);
+    }
+
+    private PubSubContinuationFactory factory() {
+        PubSubContinuationFactory result = factory;
+        if (result == null) {
+            String executorName = pubSubConfigurationProperties.getCoroutineExecutor();
+            if (executorName == null) {
+                result = () -> new PubSubContinuation(EmptyCoroutineContext.INSTANCE, null);
+            } else {
+                ExecutorService executor = beanContext.getBean(ExecutorService.class, Qualifiers.byName(executorName));
+                CoroutineContext dispatcher = ExecutorsKt.from(executor);
+                result = () -> new PubSubContinuation(dispatcher, executor);
+            }
+            factory = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates the continuation of each invocation, sharing the dispatcher between them.
+     */
+    @FunctionalInterface
+    private interface PubSubContinuationFactory {
+        PubSubContinuation create();
+    }
+}
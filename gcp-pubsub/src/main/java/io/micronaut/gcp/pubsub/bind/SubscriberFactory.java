@@ -16,6 +16,13 @@
 package io.micronaut.gcp.pubsub.bind;
 
 import com.google.cloud.pubsub.v1.SubscriberInterface;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Factory to create {@link SubscriberInterface} using default configurations.
@@ -31,4 +38,74 @@ public interface SubscriberFactory {
      * @return An implementation of SubscriberInterface
      */
     SubscriberInterface createSubscriber(SubscriberFactoryConfig config);
+
+    /**
+     * Lists the subscribers created by this factory.
+     *
+     * @return the status of each registered subscriber
+     * @since 5.8.0
+     */
+    @NonNull
+    default List<SubscriberStatus> getSubscribers() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Retrieves the status of the subscriber registered for the given subscription.
+     *
+     * @param subscriptionName the subscription name
+     * @return the status of the subscriber, or empty if no subscriber is registered for the subscription
+     * @since 5.8.0
+     */
+    @NonNull
+    default Optional<SubscriberStatus> getSubscriber(@NonNull ProjectSubscriptionName subscriptionName) {
+        return Optional.empty();
+    }
+
+    /**
+     * Stops pulling messages for the given subscription until {@link #resume(ProjectSubscriptionName)} is invoked.
+     * Messages already delivered to the receiver are allowed to complete. The subscriber is stopped asynchronously,
+     * so the returned status may still report it as stopping.
+     *
+     * @param subscriptionName the subscription name
+     * @return the updated status of the subscriber, or empty if no subscriber is registered for the subscription or
+     * the factory does not support pausing subscribers
+     * @since 5.8.0
+     */
+    @NonNull
+    default Optional<SubscriberStatus> pause(@NonNull ProjectSubscriptionName subscriptionName) {
+        return Optional.empty();
+    }
+
+    /**
+     * Resumes pulling messages for a subscription previously paused via {@link #pause(ProjectSubscriptionName)}.
+     *
+     * @param subscriptionName the subscription name
+     * @return the updated status of the subscriber, or empty if no subscriber is registered for the subscription or
+     * the factory does not support resuming subscribers
+     * @since 5.8.0
+     */
+    @NonNull
+    default Optional<SubscriberStatus> resume(@NonNull ProjectSubscriptionName subscriptionName) {
+        return Optional.empty();
+    }
+
+    /**
+     * Changes the flow control limits of the subscriber registered for the given subscription. Since flow control
+     * settings are fixed for the lifetime of a {@link com.google.cloud.pubsub.v1.Subscriber}, a running subscriber is
+     * replaced by a new instance using the updated limits.
+     *
+     * @param subscriptionName the subscription name
+     * @param maxOutstandingElementCount the new maximum number of outstanding messages, or {@code null} to keep the current value
+     * @param maxOutstandingRequestBytes the new maximum number of outstanding bytes, or {@code null} to keep the current value
+     * @return the updated status of the subscriber, or empty if no subscriber is registered for the subscription or
+     * the factory does not support updating flow control
+     * @since 5.8.0
+     */
+    @NonNull
+    default Optional<SubscriberStatus> updateFlowControl(@NonNull ProjectSubscriptionName subscriptionName,
+                                                         @Nullable Long maxOutstandingElementCount,
+                                                         @Nullable Long maxOutstandingRequestBytes) {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.gcp.pubsub.configuration.SubscriberLeaseMonitorConfigurationProperties;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Monitors the leases of the messages received by the subscribers created by the {@link DefaultSubscriberFactory}.
+ * <p>
+ * The {@link com.google.cloud.pubsub.v1.Subscriber} extends the ack deadline of every message until it is acknowledged,
+ * but only until the max ack extension period of the subscriber elapsed since the message was received. Messages still
+ * being processed after that are redelivered, and usually processed twice. The monitor tracks the age of every in-flight
+ * message, logs a warning once a message reaches the configured fraction of the max ack extension period, and once its lease
+ * expired, so that the configuration of long-running subscribers can be adjusted before messages are processed twice.
+ * A message is no longer tracked once its lease expired, or once a redelivered copy of it is received, even if it is
+ * never acknowledged, so that unsettled messages do not accumulate.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Requires(beans = SubscriberLeaseMonitorConfigurationProperties.class)
+public class SubscriberLeaseMonitor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriberLeaseMonitor.class);
+
+    private final double warningThreshold;
+    private final Map<ProjectSubscriptionName, SubscriptionLeases> subscriptions = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<ProjectSubscriptionName>> registrationListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledFuture<?> checks;
+
+    public SubscriberLeaseMonitor(SubscriberLeaseMonitorConfigurationProperties configuration,
+                                  @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.warningThreshold = Math.min(Math.max(configuration.getWarningThreshold(), 0d), 1d);
+        Duration interval = configuration.getCheckInterval();
+        this.checks = taskScheduler.scheduleWithFixedDelay(interval, interval, () -> check(System.nanoTime()));
+    }
+
+    /**
+     * Registers a subscription with the monitor and returns a receiver that tracks the lease of every message until it is
+     * acknowledged or nacked, before delegating to the given receiver.
+     *
+     * @param subscriptionName the subscription name
+     * @param receiver the receiver to delegate to
+     * @param maxAckExtensionPeriod the max ack extension period of the subscriber
+     * @return the monitored receiver
+     */
+    @NonNull
+    public MessageReceiver register(@NonNull ProjectSubscriptionName subscriptionName, @NonNull MessageReceiver receiver, @NonNull Duration maxAckExtensionPeriod) {
+        AtomicBoolean added = new AtomicBoolean(false);
+        SubscriptionLeases leases = subscriptions.computeIfAbsent(subscriptionName, name -> {
+            added.set(true);
+            return new SubscriptionLeases(name);
+        });
+        leases.maxAckExtensionNanos = maxAckExtensionPeriod.toNanos();
+        if (added.get()) {
+            registrationListeners.forEach(listener -> listener.accept(subscriptionName));
+        }
+        return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> {
+            Lease lease = leases.acquire(message.getMessageId(), System.nanoTime());
+            AckReplyConsumer releasingConsumer = ackReplyConsumer instanceof AckResponseReplyConsumer responseReplyConsumer
+                    ? responseReplyConsumer.doOnReply(lease::release)
+                    : new ReleasingAckReplyConsumer(ackReplyConsumer, lease);
+            try {
+                receiver.receiveMessage(message, releasingConsumer);
+            } catch (RuntimeException e) {
+                lease.release();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Finds the lease of an in-flight message.
+     *
+     * @param subscriptionName the subscription name
+     * @param messageId the id of the message
+     * @return the lease, or empty if the message is not in-flight
+     */
+    @NonNull
+    public Optional<Lease> findLease(@NonNull ProjectSubscriptionName subscriptionName, @NonNull String messageId) {
+        SubscriptionLeases leases = subscriptions.get(subscriptionName);
+        return leases != null ? Optional.ofNullable(leases.byMessageId.get(messageId)) : Optional.empty();
+    }
+
+    /**
+     * @return the subscriptions registered with the monitor
+     */
+    @NonNull
+    public Set<ProjectSubscriptionName> getSubscriptions() {
+        return Set.copyOf(subscriptions.keySet());
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of messages of the subscription that are being processed and whose lease did not expire
+     */
+    public int getInFlightCount(@NonNull ProjectSubscriptionName subscriptionName) {
+        SubscriptionLeases leases = subscriptions.get(subscriptionName);
+        return leases != null ? leases.inFlight.size() : 0;
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the age of the oldest message of the subscription that is being processed
+     */
+    @NonNull
+    public Duration getOldestLeaseAge(@NonNull ProjectSubscriptionName subscriptionName) {
+        SubscriptionLeases leases = subscriptions.get(subscriptionName);
+        if (leases == null) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        long oldest = 0L;
+        for (Lease lease : leases.inFlight) {
+            oldest = Math.max(oldest, now - lease.receivedNanos);
+        }
+        return Duration.ofNanos(oldest);
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of messages of the subscription that reached the warning threshold of their lease
+     */
+    public long getNearExpiryCount(@NonNull ProjectSubscriptionName subscriptionName) {
+        SubscriptionLeases leases = subscriptions.get(subscriptionName);
+        return leases != null ? leases.nearExpiry.sum() : 0L;
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of messages of the subscription whose lease expired while they were being processed
+     */
+    public long getExpiredCount(@NonNull ProjectSubscriptionName subscriptionName) {
+        SubscriptionLeases leases = subscriptions.get(subscriptionName);
+        return leases != null ? leases.expired.sum() : 0L;
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of expected processing times of the subscription that exceeded the remaining lease, see
+     * {@link Lease#expectProcessingFor(Duration)}
+     */
+    public long getRejectedExtensionCount(@NonNull ProjectSubscriptionName subscriptionName) {
+        SubscriptionLeases leases = subscriptions.get(subscriptionName);
+        return leases != null ? leases.rejectedExtensions.sum() : 0L;
+    }
+
+    /**
+     * Adds a listener notified whenever a new subscription is registered with the monitor. The listener is
+     * immediately notified of the subscriptions that are already registered.
+     *
+     * @param listener the listener
+     */
+    public void addRegistrationListener(@NonNull Consumer<ProjectSubscriptionName> listener) {
+        registrationListeners.add(listener);
+        getSubscriptions().forEach(listener);
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        checks.cancel(false);
+    }
+
+    /**
+     * Checks the leases of all in-flight messages.
+     *
+     * @param nowNanos the current time in nanoseconds
+     */
+    void check(long nowNanos) {
+        for (SubscriptionLeases leases : subscriptions.values()) {
+            for (Lease lease : leases.inFlight) {
+                lease.check(nowNanos);
+            }
+        }
+    }
+
+    /**
+     * The in-flight messages of a subscription.
+     */
+    private final class SubscriptionLeases {
+        private final ProjectSubscriptionName subscriptionName;
+        private final Set<Lease> inFlight = ConcurrentHashMap.newKeySet();
+        private final Map<String, Lease> byMessageId = new ConcurrentHashMap<>();
+        private final LongAdder nearExpiry = new LongAdder();
+        private final LongAdder expired = new LongAdder();
+        private final LongAdder rejectedExtensions = new LongAdder();
+        private volatile long maxAckExtensionNanos;
+
+        private SubscriptionLeases(ProjectSubscriptionName subscriptionName) {
+            this.subscriptionName = subscriptionName;
+        }
+
+        private Lease acquire(String messageId, long nowNanos) {
+            Lease lease = new Lease(this, messageId, nowNanos, nowNanos + maxAckExtensionNanos);
+            inFlight.add(lease);
+            Lease previous = byMessageId.put(messageId, lease);
+            if (previous != null) {
+                // a redelivered copy supersedes the previous delivery, which may never be settled
+                inFlight.remove(previous);
+            }
+            return lease;
+        }
+
+        private void evict(Lease lease) {
+            inFlight.remove(lease);
+            byMessageId.remove(lease.messageId, lease);
+        }
+    }
+
+    /**
+     * The lease of a message that is being processed. The lease is extended automatically by the
+     * {@link com.google.cloud.pubsub.v1.Subscriber} until the max ack extension period of the subscriber elapsed since the
+     * message was received.
+     */
+    public final class Lease {
+
+        private final SubscriptionLeases leases;
+        private final String messageId;
+        private final long receivedNanos;
+        private final long expiresNanos;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private volatile long requiredUntilNanos;
+        private volatile boolean extended;
+        private volatile boolean warned;
+        private volatile boolean expired;
+
+        private Lease(SubscriptionLeases leases, String messageId, long receivedNanos, long expiresNanos) {
+            this.leases = leases;
+            this.messageId = messageId;
+            this.receivedNanos = receivedNanos;
+            this.expiresNanos = expiresNanos;
+        }
+
+        /**
+         * @return the id of the message
+         */
+        @NonNull
+        public String getMessageId() {
+            return messageId;
+        }
+
+        /**
+         * @return the time elapsed since the message was received
+         */
+        @NonNull
+        public Duration getAge() {
+            return Duration.ofNanos(System.nanoTime() - receivedNanos);
+        }
+
+        /**
+         * @return the time left until the lease of the message can no longer be extended
+         */
+        @NonNull
+        public Duration getRemaining() {
+            return Duration.ofNanos(Math.max(expiresNanos - System.nanoTime(), 0L));
+        }
+
+        /**
+         * Declares that the message is expected to be processed for at least the given duration. The lease itself is only
+         * extended by the {@link com.google.cloud.pubsub.v1.Subscriber}, as long as the max ack extension period allows, so a
+         * warning is logged if the expected duration exceeds it. Otherwise, no warning is logged for the message while the
+         * duration did not elapse.
+         *
+         * @param duration the duration the message is expected to be processed for
+         * @return whether the lease will be held for the given duration
+         */
+        public boolean expectProcessingFor(@NonNull Duration duration) {
+            long now = System.nanoTime();
+            long until = now + duration.toNanos();
+            if (!extended || until - requiredUntilNanos > 0) {
+                requiredUntilNanos = until;
+                extended = true;
+            }
+            if (until - expiresNanos > 0) {
+                leases.rejectedExtensions.increment();
+                LOG.warn("Message {} of subscription {} requires a lease of {}, but its lease can only be extended for another {}. Increase the max-ack-extension-period of the subscriber to avoid a redelivery.",
+                    messageId, leases.subscriptionName, duration, Duration.ofNanos(Math.max(expiresNanos - now, 0L)));
+                return false;
+            }
+            return true;
+        }
+
+        private void check(long nowNanos) {
+            if (expired || released.get()) {
+                return;
+            }
+            long age = nowNanos - receivedNanos;
+            if (nowNanos - expiresNanos >= 0) {
+                expired = true;
+                leases.expired.increment();
+                leases.evict(this);
+                LOG.warn("The lease of message {} of subscription {} expired after {} while the message is still being processed, it will be redelivered.",
+                    messageId, leases.subscriptionName, Duration.ofNanos(age));
+            } else if (!warned && age >= (long) (leases.maxAckExtensionNanos * warningThreshold) && !(extended && requiredUntilNanos - nowNanos > 0)) {
+                warned = true;
+                leases.nearExpiry.increment();
+                LOG.warn("Message {} of subscription {} is being processed for {}, its lease can only be extended for another {}.",
+                    messageId, leases.subscriptionName, Duration.ofNanos(age), Duration.ofNanos(expiresNanos - nowNanos));
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                leases.evict(this);
+                if (expired) {
+                    LOG.warn("Message {} of subscription {} was processed in {}, after its lease expired. It has likely been processed more than once.",
+                        messageId, leases.subscriptionName, Duration.ofNanos(System.nanoTime() - receivedNanos));
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the lease exactly once, when the message is acknowledged or nacked.
+     */
+    private static final class ReleasingAckReplyConsumer implements AckReplyConsumer {
+        private final AckReplyConsumer delegate;
+        private final Lease lease;
+
+        private ReleasingAckReplyConsumer(AckReplyConsumer delegate, Lease lease) {
+            this.delegate = delegate;
+            this.lease = lease;
+        }
+
+        @Override
+        public void ack() {
+            try {
+                delegate.ack();
+            } finally {
+                lease.release();
+            }
+        }
+
+        @Override
+        public void nack() {
+            try {
+                delegate.nack();
+            } finally {
+                lease.release();
+            }
+        }
+    }
+}
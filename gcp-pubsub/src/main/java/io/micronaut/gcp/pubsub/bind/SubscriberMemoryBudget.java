@@ -0,0 +1,374 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.gcp.pubsub.configuration.SubscriberMemoryBudgetConfigurationProperties;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A memory budget shared by all subscribers created by the {@link DefaultSubscriberFactory}.
+ * <p>
+ * Every received message is admitted against the budget before it is handed to the listener, and its size is
+ * released once the message is acknowledged or nacked. Each subscription may reserve a minimum number of bytes
+ * that is always available to it. The remaining bytes are shared: a subscription may use as much of the shared
+ * bytes as are free while no other subscription is waiting, and is limited to its weighted fair share of them otherwise.
+ * <p>
+ * When a message can not be admitted, it is queued without blocking the thread of the PubSub client delivering it,
+ * since those threads also extend the leases of outstanding messages. Queued messages stay outstanding for the client,
+ * which keeps extending their leases, and are delivered on a separate executor once enough bytes are released.
+ * A subscription without any outstanding message can always admit one message, even if it is larger than the
+ * available budget.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Requires(beans = SubscriberMemoryBudgetConfigurationProperties.class)
+public class SubscriberMemoryBudget {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriberMemoryBudget.class);
+
+    private final long maxOutstandingBytes;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<ProjectSubscriptionName, Allocation> allocations = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<ProjectSubscriptionName>> registrationListeners = new CopyOnWriteArrayList<>();
+    private long reservedBytes;
+    private long sharedUsedBytes;
+    private long totalWeight;
+    private volatile long outstandingBytes;
+    private volatile int waiting;
+
+    /**
+     * @param configuration the budget configuration
+     * @param executor the executor delivering the messages that were queued until enough bytes were released
+     */
+    public SubscriberMemoryBudget(SubscriberMemoryBudgetConfigurationProperties configuration,
+                                  @Named(TaskExecutors.BLOCKING) Executor executor) {
+        this.maxOutstandingBytes = configuration.getMaxOutstandingBytes();
+        this.executor = executor;
+    }
+
+    /**
+     * Registers a subscription with the budget and returns a receiver that admits every message against the budget
+     * before delegating to the given receiver. Registering the same subscription again keeps its original reservation and weight.
+     *
+     * @param subscriptionName the subscription name
+     * @param receiver the receiver to delegate to
+     * @param minBytes the number of bytes reserved for the subscription
+     * @param weight the weight of the subscription when sharing the unreserved bytes
+     * @return the budgeted receiver
+     */
+    @NonNull
+    public MessageReceiver register(@NonNull ProjectSubscriptionName subscriptionName, @NonNull MessageReceiver receiver, long minBytes, int weight) {
+        boolean added = false;
+        lock.lock();
+        try {
+            if (!allocations.containsKey(subscriptionName)) {
+                long reserved = Math.min(Math.max(minBytes, 0L), maxOutstandingBytes - reservedBytes);
+                if (reserved < minBytes) {
+                    LOG.warn("Only {} of the requested {} bytes could be reserved for subscription {}, the memory budget of {} bytes is exhausted.",
+                        reserved, minBytes, subscriptionName, maxOutstandingBytes);
+                }
+                Allocation allocation = new Allocation(reserved, Math.max(weight, 1));
+                reservedBytes += reserved;
+                totalWeight += allocation.weight;
+                allocations.put(subscriptionName, allocation);
+                added = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (added) {
+            registrationListeners.forEach(listener -> listener.accept(subscriptionName));
+        }
+        Allocation registered = allocations.get(subscriptionName);
+        return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> {
+            Admission admission = new Admission(registered, receiver, message, ackReplyConsumer);
+            if (admitOrQueue(admission)) {
+                admission.deliver();
+            }
+        };
+    }
+
+    /**
+     * @return the maximum number of bytes that may be outstanding across all subscriptions
+     */
+    public long getMaxOutstandingBytes() {
+        return maxOutstandingBytes;
+    }
+
+    /**
+     * @return the number of bytes currently outstanding across all subscriptions
+     */
+    public long getOutstandingBytes() {
+        return outstandingBytes;
+    }
+
+    /**
+     * @return the number of messages currently waiting to be admitted
+     */
+    public int getWaitingCount() {
+        return waiting;
+    }
+
+    /**
+     * @return the subscriptions registered with the budget
+     */
+    @NonNull
+    public Set<ProjectSubscriptionName> getSubscriptions() {
+        return allocations.keySet();
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of bytes currently outstanding for the subscription
+     */
+    public long getOutstandingBytes(@NonNull ProjectSubscriptionName subscriptionName) {
+        Allocation allocation = allocations.get(subscriptionName);
+        return allocation != null ? allocation.used : 0L;
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of bytes reserved for the subscription
+     */
+    public long getReservedBytes(@NonNull ProjectSubscriptionName subscriptionName) {
+        Allocation allocation = allocations.get(subscriptionName);
+        return allocation != null ? allocation.reserved : 0L;
+    }
+
+    /**
+     * Adds a listener notified whenever a new subscription is registered with the budget. The listener is
+     * immediately notified of the subscriptions that are already registered.
+     *
+     * @param listener the listener
+     */
+    public void addRegistrationListener(@NonNull Consumer<ProjectSubscriptionName> listener) {
+        registrationListeners.add(listener);
+        allocations.keySet().forEach(listener);
+    }
+
+    /**
+     * Admits the message if no earlier message of its subscription is queued and the budget allows it, and queues it otherwise.
+     *
+     * @return whether the message was admitted and can be delivered by the caller
+     */
+    private boolean admitOrQueue(Admission admission) {
+        Allocation allocation = admission.allocation;
+        lock.lock();
+        try {
+            if (allocation.queued.isEmpty() && canAdmit(allocation, admission.size)) {
+                acquire(allocation, admission.size);
+                return true;
+            }
+            allocation.queued.add(admission);
+            allocation.waiting++;
+            waiting++;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(Allocation allocation, long size) {
+        sharedUsedBytes += sharedDelta(allocation, allocation.used + size);
+        allocation.used += size;
+        outstandingBytes += size;
+    }
+
+    private void release(Allocation allocation, long size) {
+        List<Admission> admitted = null;
+        lock.lock();
+        try {
+            sharedUsedBytes += sharedDelta(allocation, allocation.used - size);
+            allocation.used -= size;
+            outstandingBytes -= size;
+            if (waiting > 0) {
+                admitted = admitQueued();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (admitted != null) {
+            for (Admission admission : admitted) {
+                executor.execute(admission::deliverQueued);
+            }
+        }
+    }
+
+    /**
+     * Admits the queued messages that fit into the released bytes, in the order they were queued per subscription.
+     * Must be called while holding the lock.
+     */
+    private List<Admission> admitQueued() {
+        List<Admission> admitted = new ArrayList<>();
+        for (Allocation allocation : allocations.values()) {
+            Admission next = allocation.queued.peek();
+            while (next != null && canAdmit(allocation, next.size)) {
+                allocation.queued.poll();
+                allocation.waiting--;
+                waiting--;
+                acquire(allocation, next.size);
+                admitted.add(next);
+                next = allocation.queued.peek();
+            }
+        }
+        return admitted;
+    }
+
+    private boolean canAdmit(Allocation allocation, long size) {
+        if (allocation.used == 0L) {
+            return true;
+        }
+        long sharedNeeded = sharedDelta(allocation, allocation.used + size);
+        if (sharedNeeded == 0L) {
+            return true;
+        }
+        long sharedCapacity = maxOutstandingBytes - reservedBytes;
+        if (sharedUsedBytes + sharedNeeded > sharedCapacity) {
+            return false;
+        }
+        if (waiting - allocation.waiting == 0) {
+            return true;
+        }
+        long fairShare = sharedCapacity * allocation.weight / totalWeight;
+        return Math.max(0L, allocation.used - allocation.reserved) + sharedNeeded <= fairShare;
+    }
+
+    private static long sharedDelta(Allocation allocation, long newUsed) {
+        return Math.max(0L, newUsed - allocation.reserved) - Math.max(0L, allocation.used - allocation.reserved);
+    }
+
+    /**
+     * The share of the budget allocated to a single subscription. Guarded by the budget lock.
+     */
+    private static final class Allocation {
+        private final long reserved;
+        private final int weight;
+        private final ArrayDeque<Admission> queued = new ArrayDeque<>();
+        private volatile long used;
+        private int waiting;
+
+        private Allocation(long reserved, int weight) {
+            this.reserved = reserved;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A message admitted against the budget, or queued until it can be.
+     */
+    private final class Admission {
+        private final Allocation allocation;
+        private final MessageReceiver receiver;
+        private final PubsubMessage message;
+        private final AckReplyConsumer ackReplyConsumer;
+        private final long size;
+
+        private Admission(Allocation allocation, MessageReceiver receiver, PubsubMessage message, AckReplyConsumer ackReplyConsumer) {
+            this.allocation = allocation;
+            this.receiver = receiver;
+            this.message = message;
+            this.ackReplyConsumer = ackReplyConsumer;
+            this.size = message.getSerializedSize();
+        }
+
+        private void deliver() {
+            ReleasingAckReplyConsumer releasingConsumer = new ReleasingAckReplyConsumer(ackReplyConsumer, allocation, size);
+            // keep exposing the acknowledgement results of subscriptions with exactly-once delivery
+            AckReplyConsumer consumer = ackReplyConsumer instanceof AckResponseReplyConsumer responseReplyConsumer
+                    ? responseReplyConsumer.doOnReply(releasingConsumer::releaseOnce)
+                    : releasingConsumer;
+            try {
+                receiver.receiveMessage(message, consumer);
+            } catch (RuntimeException e) {
+                releasingConsumer.releaseOnce();
+                throw e;
+            }
+        }
+
+        private void deliverQueued() {
+            try {
+                deliver();
+            } catch (RuntimeException e) {
+                LOG.error("Failed to deliver message {} admitted against the memory budget, the message will be redelivered.", message.getMessageId(), e);
+                ackReplyConsumer.nack();
+            }
+        }
+    }
+
+    /**
+     * Releases the admitted bytes exactly once, when the message is acknowledged or nacked.
+     */
+    private final class ReleasingAckReplyConsumer implements AckReplyConsumer {
+        private final AckReplyConsumer delegate;
+        private final Allocation allocation;
+        private final long size;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private ReleasingAckReplyConsumer(AckReplyConsumer delegate, Allocation allocation, long size) {
+            this.delegate = delegate;
+            this.allocation = allocation;
+            this.size = size;
+        }
+
+        @Override
+        public void ack() {
+            try {
+                delegate.ack();
+            } finally {
+                releaseOnce();
+            }
+        }
+
+        @Override
+        public void nack() {
+            try {
+                delegate.nack();
+            } finally {
+                releaseOnce();
+            }
+        }
+
+        private void releaseOnce() {
+            if (done.compareAndSet(false, true)) {
+                release(allocation, size);
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.gcp.pubsub.configuration.SubscriberSchedulingConfigurationProperties;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Schedules listener invocations of all subscribers created by the {@link DefaultSubscriberFactory} using weighted
+ * fair queuing.
+ * <p>
+ * Messages delivered to a subscriber are queued per subscription and dispatched to a shared executor, with at most
+ * {@link SubscriberSchedulingConfigurationProperties#getConcurrency()} invocations running at the same time. When
+ * several subscriptions have queued messages, each of them is dispatched in proportion to its weight, so a subscription
+ * with a backlog can not monopolize the executor at the expense of the others.
+ * <p>
+ * A dispatched message occupies its slot until it is acknowledged or nacked, rather than until the listener returns,
+ * so the concurrency also bounds reactive and asynchronous listeners. Messages sharing an ordering key are dispatched
+ * one at a time, each once the previous message with the same key has been acknowledged or nacked, which preserves
+ * the ordered delivery of subscriptions with message ordering enabled.
+ * <p>
+ * Since a listener may return without ever acknowledging its message, a subscription can be registered with a limit on
+ * the time a dispatched message holds its slot, usually the maximum ack extension period of the subscriber. Once the
+ * limit is exceeded, the PubSub client library has stopped extending the ack deadline and the message is redelivered,
+ * so its slot is freed and the next message with the same ordering key is released.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Requires(beans = SubscriberSchedulingConfigurationProperties.class)
+public class SubscriberScheduler implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriberScheduler.class);
+    private static final long STRIDE = 1L << 20;
+    private static final Duration EXPIRY_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    private final BeanContext beanContext;
+    private final ExecutorService executorService;
+    private final int concurrency;
+    private final Map<ProjectSubscriptionName, SubscriptionQueue> queues = new LinkedHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<ProjectSubscriptionName>> registrationListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<ObjLongConsumer<ProjectSubscriptionName>> queueTimeListeners = new CopyOnWriteArrayList<>();
+    private long virtualTime;
+    private volatile int running;
+    private boolean closed;
+    @Nullable
+    private ScheduledFuture<?> expiryCheck;
+
+    public SubscriberScheduler(SubscriberSchedulingConfigurationProperties configuration, BeanContext beanContext) {
+        this.beanContext = beanContext;
+        this.executorService = beanContext.getBean(ExecutorService.class, Qualifiers.byName(configuration.getExecutor()));
+        this.concurrency = Math.max(configuration.getConcurrency(), 1);
+    }
+
+    /**
+     * Registers a subscription with the scheduler and returns a receiver that queues every message for the given
+     * receiver. Registering the same subscription again replaces its receiver but keeps its original weight.
+     * Dispatched messages hold their slot until they are acknowledged or nacked, without any time limit.
+     *
+     * @param subscriptionName the subscription name
+     * @param receiver the receiver invoking the listener
+     * @param weight the weight of the subscription
+     * @return the scheduled receiver
+     */
+    @NonNull
+    public MessageReceiver register(@NonNull ProjectSubscriptionName subscriptionName, @NonNull MessageReceiver receiver, int weight) {
+        return register(subscriptionName, receiver, weight, null);
+    }
+
+    /**
+     * Registers a subscription with the scheduler and returns a receiver that queues every message for the given
+     * receiver. Registering the same subscription again replaces its receiver but keeps its original weight and limit.
+     *
+     * @param subscriptionName the subscription name
+     * @param receiver the receiver invoking the listener
+     * @param weight the weight of the subscription
+     * @param maxSlotDuration the maximum time a dispatched message holds its slot if it is never acknowledged or
+     * nacked, usually the maximum ack extension period of the subscriber, or {@code null} for no limit
+     * @return the scheduled receiver
+     */
+    @NonNull
+    public MessageReceiver register(@NonNull ProjectSubscriptionName subscriptionName, @NonNull MessageReceiver receiver, int weight,
+                                    @Nullable Duration maxSlotDuration) {
+        SubscriptionQueue queue;
+        boolean added = false;
+        boolean limited = maxSlotDuration != null && !maxSlotDuration.isZero() && !maxSlotDuration.isNegative();
+        synchronized (this) {
+            queue = queues.get(subscriptionName);
+            if (queue == null) {
+                queue = new SubscriptionQueue(subscriptionName, Math.max(weight, 1), limited ? maxSlotDuration.toNanos() : 0L);
+                queues.put(subscriptionName, queue);
+                added = true;
+            }
+            queue.receiver = receiver;
+            if (queue.maxSlotNanos > 0 && expiryCheck == null && !closed) {
+                TaskScheduler taskScheduler = beanContext.getBean(TaskScheduler.class, Qualifiers.byName(TaskExecutors.SCHEDULED));
+                expiryCheck = taskScheduler.scheduleWithFixedDelay(EXPIRY_CHECK_INTERVAL, EXPIRY_CHECK_INTERVAL, this::expireSlots);
+            }
+        }
+        if (added) {
+            registrationListeners.forEach(listener -> listener.accept(subscriptionName));
+        }
+        SubscriptionQueue registered = queue;
+        return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> enqueue(registered, new Task(registered, message, ackReplyConsumer, System.nanoTime()));
+    }
+
+    /**
+     * @return the subscriptions registered with the scheduler
+     */
+    @NonNull
+    public synchronized Set<ProjectSubscriptionName> getSubscriptions() {
+        return Set.copyOf(queues.keySet());
+    }
+
+    /**
+     * @param subscriptionName the subscription name
+     * @return the number of messages of the subscription waiting to be dispatched
+     */
+    public int getQueuedCount(@NonNull ProjectSubscriptionName subscriptionName) {
+        SubscriptionQueue queue;
+        synchronized (this) {
+            queue = queues.get(subscriptionName);
+        }
+        return queue != null ? queue.size : 0;
+    }
+
+    /**
+     * @return the maximum number of dispatched messages that have not been acknowledged or nacked yet
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the number of dispatched messages that have not been acknowledged or nacked yet
+     */
+    public int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * Adds a listener notified whenever a new subscription is registered with the scheduler. The listener is
+     * immediately notified of the subscriptions that are already registered.
+     *
+     * @param listener the listener
+     */
+    public void addRegistrationListener(@NonNull Consumer<ProjectSubscriptionName> listener) {
+        registrationListeners.add(listener);
+        getSubscriptions().forEach(listener);
+    }
+
+    /**
+     * Adds a listener notified with the time in nanoseconds each message spent queued before being dispatched.
+     *
+     * @param listener the listener
+     */
+    public void addQueueTimeListener(@NonNull ObjLongConsumer<ProjectSubscriptionName> listener) {
+        queueTimeListeners.add(listener);
+    }
+
+    /**
+     * Nacks all queued messages, as well as any message delivered after the scheduler is closed.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        List<Task> pending = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            if (expiryCheck != null) {
+                expiryCheck.cancel(false);
+                expiryCheck = null;
+            }
+            for (SubscriptionQueue queue : queues.values()) {
+                pending.addAll(queue.tasks);
+                queue.tasks.clear();
+                queue.orderedTasks.values().forEach(pending::addAll);
+                queue.orderedTasks.clear();
+                queue.size = 0;
+            }
+        }
+        pending.forEach(task -> task.ackReplyConsumer.nack());
+    }
+
+    private void enqueue(SubscriptionQueue queue, Task task) {
+        synchronized (this) {
+            if (!closed) {
+                Deque<Task> ordered = task.orderingKey.isEmpty() ? null : queue.orderedTasks.get(task.orderingKey);
+                if (ordered != null) {
+                    // an earlier message with the same ordering key is still queued or outstanding
+                    ordered.add(task);
+                } else {
+                    if (!task.orderingKey.isEmpty()) {
+                        queue.orderedTasks.put(task.orderingKey, new ArrayDeque<>());
+                    }
+                    if (queue.tasks.isEmpty()) {
+                        // a subscription becoming active does not get credit for the time it was idle
+                        queue.pass = Math.max(queue.pass, virtualTime);
+                    }
+                    queue.tasks.add(task);
+                }
+                queue.size++;
+                task = null;
+            }
+        }
+        if (task != null) {
+            task.ackReplyConsumer.nack();
+            return;
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        List<Task> dispatched = new ArrayList<>();
+        synchronized (this) {
+            while (running < concurrency) {
+                SubscriptionQueue next = null;
+                for (SubscriptionQueue queue : queues.values()) {
+                    if (!queue.tasks.isEmpty() && (next == null || queue.pass < next.pass)) {
+                        next = queue;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                Task task = next.tasks.poll();
+                next.size--;
+                virtualTime = next.pass;
+                next.pass += STRIDE / next.weight;
+                running++;
+                if (next.maxSlotNanos > 0) {
+                    task.dispatchedAt = System.nanoTime();
+                    next.dispatched.add(task);
+                }
+                dispatched.add(task);
+            }
+        }
+        for (Task task : dispatched) {
+            try {
+                executorService.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Listener invocation for subscription {} was rejected by the executor, the message will be redelivered.", task.queue.subscriptionName, e);
+                task.ackReplyConsumer.nack();
+                complete(task);
+            }
+        }
+    }
+
+    private void run(Task task) {
+        SubscriptionQueue queue = task.queue;
+        try {
+            long queueTime = System.nanoTime() - task.enqueuedAt;
+            for (ObjLongConsumer<ProjectSubscriptionName> listener : queueTimeListeners) {
+                listener.accept(queue.subscriptionName, queueTime);
+            }
+            // keep exposing the acknowledgement results of subscriptions with exactly-once delivery
+            AckReplyConsumer consumer = task.ackReplyConsumer instanceof AckResponseReplyConsumer responseReplyConsumer
+                    ? responseReplyConsumer.doOnReply(() -> complete(task))
+                    : new CompletingAckReplyConsumer(task);
+            queue.receiver.receiveMessage(task.message, consumer);
+        } catch (Exception e) {
+            LOG.error("Error invoking the listener of subscription {}, the message will be redelivered.", queue.subscriptionName, e);
+            if (!task.completed.get()) {
+                task.ackReplyConsumer.nack();
+                complete(task);
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a dispatched message once it is acknowledged or nacked, and releases the next message with
+     * the same ordering key.
+     */
+    private void complete(Task task) {
+        if (!task.completed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            running--;
+            SubscriptionQueue queue = task.queue;
+            if (queue.maxSlotNanos > 0) {
+                queue.dispatched.remove(task);
+            }
+            if (!task.orderingKey.isEmpty()) {
+                Deque<Task> ordered = queue.orderedTasks.get(task.orderingKey);
+                Task next = ordered != null ? ordered.poll() : null;
+                if (next == null) {
+                    queue.orderedTasks.remove(task.orderingKey);
+                } else {
+                    if (queue.tasks.isEmpty()) {
+                        queue.pass = Math.max(queue.pass, virtualTime);
+                    }
+                    // the next message of the key was delivered before any message queued since, so it goes first
+                    queue.tasks.addFirst(next);
+                }
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Frees the slots of the dispatched messages that exceeded the limit of their subscription without being
+     * acknowledged or nacked.
+     */
+    private void expireSlots() {
+        List<Task> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (SubscriptionQueue queue : queues.values()) {
+                // dispatched messages are kept in dispatch order, so only the oldest ones can have expired
+                Iterator<Task> it = queue.dispatched.iterator();
+                while (it.hasNext()) {
+                    Task task = it.next();
+                    if (now - task.dispatchedAt < queue.maxSlotNanos) {
+                        break;
+                    }
+                    expired.add(task);
+                }
+            }
+        }
+        for (Task task : expired) {
+            LOG.warn("Message {} of subscription {} was neither acknowledged nor nacked within {} ms, its slot is freed and the message will be redelivered.",
+                task.message.getMessageId(), task.queue.subscriptionName, Duration.ofNanos(task.queue.maxSlotNanos).toMillis());
+            complete(task);
+        }
+    }
+
+    /**
+     * The queued messages of a single subscription. Guarded by the scheduler lock.
+     */
+    private static final class SubscriptionQueue {
+        private final ProjectSubscriptionName subscriptionName;
+        private final int weight;
+        private final Deque<Task> tasks = new ArrayDeque<>();
+        // messages waiting for an earlier message with the same ordering key, keyed by the ordering keys in use
+        private final Map<String, Deque<Task>> orderedTasks = new HashMap<>();
+        // dispatched messages that are not acknowledged or nacked yet, only tracked when their slot is limited in time
+        private final Set<Task> dispatched = new LinkedHashSet<>();
+        private final long maxSlotNanos;
+        private volatile MessageReceiver receiver;
+        private volatile int size;
+        private long pass;
+
+        private SubscriptionQueue(ProjectSubscriptionName subscriptionName, int weight, long maxSlotNanos) {
+            this.subscriptionName = subscriptionName;
+            this.weight = weight;
+            this.maxSlotNanos = maxSlotNanos;
+        }
+    }
+
+    private static final class Task {
+        private final SubscriptionQueue queue;
+        private final PubsubMessage message;
+        private final AckReplyConsumer ackReplyConsumer;
+        private final long enqueuedAt;
+        private final String orderingKey;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private long dispatchedAt;
+
+        private Task(SubscriptionQueue queue, PubsubMessage message, AckReplyConsumer ackReplyConsumer, long enqueuedAt) {
+            this.queue = queue;
+            this.message = message;
+            this.ackReplyConsumer = ackReplyConsumer;
+            this.enqueuedAt = enqueuedAt;
+            this.orderingKey = message.getOrderingKey();
+        }
+    }
+
+    /**
+     * Frees the slot of the message once it is acknowledged or nacked.
+     */
+    private final class CompletingAckReplyConsumer implements AckReplyConsumer {
+        private final Task task;
+
+        private CompletingAckReplyConsumer(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public void ack() {
+            try {
+                task.ackReplyConsumer.ack();
+            } finally {
+                complete(task);
+            }
+        }
+
+        @Override
+        public void nack() {
+            try {
+                task.ackReplyConsumer.nack();
+            } finally {
+                complete(task);
+            }
+        }
+    }
+}
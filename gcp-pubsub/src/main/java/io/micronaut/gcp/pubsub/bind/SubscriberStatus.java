@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.bind;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * A snapshot of the runtime state of a {@link com.google.cloud.pubsub.v1.Subscriber} managed by a {@link SubscriberFactory}.
+ *
+ * @param subscription the fully-qualified subscription name
+ * @param state the current {@link com.google.api.core.ApiService.State} of the subscriber
+ * @param paused whether message delivery has been paused
+ * @param parallelPullCount the number of concurrent pulls
+ * @param maxOutstandingElementCount the maximum number of outstanding messages, or {@code null} if unbounded
+ * @param maxOutstandingRequestBytes the maximum number of outstanding bytes, or {@code null} if unbounded
+ *
+ * @since 5.8.0
+ */
+@Serdeable
+public record SubscriberStatus(@NonNull String subscription,
+                               @NonNull String state,
+                               boolean paused,
+                               int parallelPullCount,
+                               @Nullable Long maxOutstandingElementCount,
+                               @Nullable Long maxOutstandingRequestBytes) {
+}
@@ -40,6 +40,8 @@ public class PubSubConfigurationProperties {
 
     private boolean nackOnShutdown = DEFAULT_NACK_ON_SHUTDOWN;
 
+    private String coroutineExecutor;
+
     /**
      * The name of the {@link java.util.concurrent.ScheduledExecutorService} to be used by all {@link com.google.cloud.pubsub.v1.Publisher} instances. Defaults to "scheduled".
      * @return the name of the publishing executor
@@ -122,4 +124,23 @@ public class PubSubConfigurationProperties {
     public void setNackOnShutdown(boolean nackOnShutdown) {
         this.nackOnShutdown = nackOnShutdown;
     }
+
+    /**
+     * The name of the {@link java.util.concurrent.ExecutorService} used to dispatch Kotlin {@code suspend} subscriber methods.
+     * Defaults to {@code null}, in which case coroutines start on the thread that received the message and resume on the thread that resumed them.
+     * @return the name of the coroutine executor
+     * @since 5.8.0
+     */
+    public String getCoroutineExecutor() {
+        return coroutineExecutor;
+    }
+
+    /**
+     *
+     * @param coroutineExecutor Name of the {@link java.util.concurrent.ExecutorService} used to dispatch Kotlin {@code suspend} subscriber methods.
+     * @since 5.8.0
+     */
+    public void setCoroutineExecutor(String coroutineExecutor) {
+        this.coroutineExecutor = coroutineExecutor;
+    }
 }
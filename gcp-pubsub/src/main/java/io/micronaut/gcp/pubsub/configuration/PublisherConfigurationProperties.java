@@ -76,6 +76,8 @@ public class PublisherConfigurationProperties {
 
     private String executor = TaskExecutors.SCHEDULED;
 
+    private boolean adaptiveBatching = false;
+
     public PublisherConfigurationProperties(@Parameter String name) {
         this.name = name;
     }
@@ -151,4 +153,24 @@ public class PublisherConfigurationProperties {
     public void setExecutor(String executor) {
         this.executor = executor;
     }
+
+    /**
+     * @return Whether the batches are sized from the observed publish rate
+     * @since 5.8.0
+     */
+    public boolean isAdaptiveBatching() {
+        return adaptiveBatching;
+    }
+
+    /**
+     * Whether the batches are sized from the observed publish rate. When enabled, the element count and delay thresholds
+     * of the batching settings become upper bounds: messages published at a low rate are sent immediately, and batches grow
+     * up to the thresholds as the rate increases. Default: false
+     *
+     * @param adaptiveBatching Whether the batches are sized from the observed publish rate
+     * @since 5.8.0
+     */
+    public void setAdaptiveBatching(boolean adaptiveBatching) {
+        this.adaptiveBatching = adaptiveBatching;
+    }
 }
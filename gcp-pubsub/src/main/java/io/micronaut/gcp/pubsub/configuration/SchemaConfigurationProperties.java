@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.configuration;
+
+import com.google.pubsub.v1.Encoding;
+import com.google.pubsub.v1.Schema;
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * Configuration of the schema of a PubSub topic, used to validate messages locally before they are published by
+ * {@link io.micronaut.gcp.pubsub.annotation.PubSubClient} methods. Each topic has its own configuration, for example
+ * gcp.pubsub.schema.animals would define the schema of the animals topic.
+ * <p>
+ * The schema definition is either set inline with {@link #getDefinition()}, or loaded from {@link #getDefinitionPath()}.
+ * Avro schemas are defined by their JSON definition, and Protocol Buffer schemas by a binary
+ * {@code FileDescriptorSet}, as generated by {@code protoc --include_imports --descriptor_set_out}.
+ *
+ * @since 5.8.0
+ */
+@EachProperty(PubSubConfigurationProperties.PREFIX + ".schema")
+public class SchemaConfigurationProperties {
+
+    private final String name;
+
+    private String topic;
+    private Schema.Type type = Schema.Type.AVRO;
+    private Encoding encoding = Encoding.JSON;
+    private String definition;
+    private String definitionPath;
+    private String messageType;
+    private String revisionId;
+
+    /**
+     *
+     * @param name of this configuration.
+     */
+    public SchemaConfigurationProperties(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     *
+     * @return the name of the configuration
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The name of the topic the schema applies to. Defaults to the name of the configuration.
+     * @return the topic name
+     */
+    @NonNull
+    public String getTopic() {
+        return topic != null ? topic : name;
+    }
+
+    /**
+     *
+     * @param topic The name of the topic the schema applies to. Default: the name of the configuration
+     */
+    public void setTopic(@Nullable String topic) {
+        this.topic = topic;
+    }
+
+    /**
+     * The type of the schema, either AVRO or PROTOCOL_BUFFER. Defaults to AVRO.
+     * @return the type of the schema
+     */
+    @NonNull
+    public Schema.Type getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @param type The type of the schema. Default: AVRO
+     */
+    public void setType(@NonNull Schema.Type type) {
+        this.type = type;
+    }
+
+    /**
+     * The encoding of the messages published to the topic, either JSON or BINARY. Defaults to JSON.
+     * @return the encoding of the messages
+     */
+    @NonNull
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     *
+     * @param encoding The encoding of the messages published to the topic. Default: JSON
+     */
+    public void setEncoding(@NonNull Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * The inline definition of an Avro schema.
+     * @return the schema definition
+     */
+    @Nullable
+    public String getDefinition() {
+        return definition;
+    }
+
+    /**
+     *
+     * @param definition The inline definition of an Avro schema
+     */
+    public void setDefinition(@Nullable String definition) {
+        this.definition = definition;
+    }
+
+    /**
+     * The path of the file holding the schema definition, prefixed with {@code classpath:} for resources or
+     * {@code file:} for files on the file system.
+     * @return the path of the schema definition
+     */
+    @Nullable
+    public String getDefinitionPath() {
+        return definitionPath;
+    }
+
+    /**
+     *
+     * @param definitionPath The path of the file holding the schema definition
+     */
+    public void setDefinitionPath(@Nullable String definitionPath) {
+        this.definitionPath = definitionPath;
+    }
+
+    /**
+     * The fully-qualified name of the Protocol Buffer message type. Only required when the descriptor set defines more
+     * than one message type.
+     * @return the message type
+     */
+    @Nullable
+    public String getMessageType() {
+        return messageType;
+    }
+
+    /**
+     *
+     * @param messageType The fully-qualified name of the Protocol Buffer message type
+     */
+    public void setMessageType(@Nullable String messageType) {
+        this.messageType = messageType;
+    }
+
+    /**
+     * The revision of the schema. Validators are compiled once per topic and revision.
+     * @return the revision of the schema
+     */
+    @Nullable
+    public String getRevisionId() {
+        return revisionId;
+    }
+
+    /**
+     *
+     * @param revisionId The revision of the schema
+     */
+    public void setRevisionId(@Nullable String revisionId) {
+        this.revisionId = revisionId;
+    }
+}
@@ -34,14 +34,23 @@ import org.threeten.bp.Duration;
 @EachProperty(PubSubConfigurationProperties.PREFIX + ".subscriber")
 public class SubscriberConfigurationProperties {
     private static final Duration DEFAULT_MAX_ACK_EXTENSION_PERIOD = Duration.ofMinutes(60);
+    private static final Duration DEFAULT_AUTO_TUNE_INTERVAL = Duration.ofSeconds(30);
 
     private final String name;
 
     private String executor = TaskExecutors.SCHEDULED;
 
     private Integer parallelPullCount = 1;
+    private boolean autoTune = false;
+    private int minParallelPullCount = 1;
+    private int maxParallelPullCount = Runtime.getRuntime().availableProcessors();
+    private Duration autoTuneInterval = DEFAULT_AUTO_TUNE_INTERVAL;
     private Duration maxAckExtensionPeriod = DEFAULT_MAX_ACK_EXTENSION_PERIOD;
     private Duration maxDurationPerAckExtension = Duration.ofMillis(0);
+    private long memoryBudgetMinBytes = 0L;
+    private int memoryBudgetWeight = 1;
+    private int schedulingWeight = 1;
+    private boolean exactlyOnceDelivery = false;
 
     @ConfigurationBuilder(prefixes = "set", configurationPrefix = "flow-control")
     private FlowControlSettings.Builder flowControlSettings = FlowControlSettings
@@ -73,6 +82,81 @@ public class SubscriberConfigurationProperties {
         this.parallelPullCount = parallelPullCount;
     }
 
+    /**
+     * Whether the number of concurrent pulls is tuned automatically. When enabled, {@link #getParallelPullCount()} is ignored,
+     * the initial number of concurrent pulls is derived from the available processors and then adjusted at runtime based on the
+     * measured receive throughput and the saturation of the executor. Every adjustment stops and rebuilds the subscriber, so
+     * messages it received but did not dispatch yet are redelivered. Defaults to false.
+     * @return whether auto tuning is enabled
+     * @since 5.8.0
+     */
+    public boolean isAutoTune() {
+        return autoTune;
+    }
+
+    /**
+     *
+     * @param autoTune Whether the number of concurrent pulls is tuned automatically. Default: false
+     * @since 5.8.0
+     */
+    public void setAutoTune(boolean autoTune) {
+        this.autoTune = autoTune;
+    }
+
+    /**
+     * The minimum number of concurrent pulls when auto tuning is enabled. Defaults to 1.
+     * @return the minimum number of concurrent pulls
+     * @since 5.8.0
+     */
+    public int getMinParallelPullCount() {
+        return minParallelPullCount;
+    }
+
+    /**
+     *
+     * @param minParallelPullCount The minimum number of concurrent pulls when auto tuning is enabled. Default: 1
+     * @since 5.8.0
+     */
+    public void setMinParallelPullCount(int minParallelPullCount) {
+        this.minParallelPullCount = minParallelPullCount;
+    }
+
+    /**
+     * The maximum number of concurrent pulls when auto tuning is enabled. Defaults to the number of available processors.
+     * @return the maximum number of concurrent pulls
+     * @since 5.8.0
+     */
+    public int getMaxParallelPullCount() {
+        return maxParallelPullCount;
+    }
+
+    /**
+     *
+     * @param maxParallelPullCount The maximum number of concurrent pulls when auto tuning is enabled. Default: the number of available processors
+     * @since 5.8.0
+     */
+    public void setMaxParallelPullCount(int maxParallelPullCount) {
+        this.maxParallelPullCount = maxParallelPullCount;
+    }
+
+    /**
+     * How often the number of concurrent pulls is re-evaluated when auto tuning is enabled. Defaults to 30 seconds.
+     * @return the auto tuning interval
+     * @since 5.8.0
+     */
+    public Duration getAutoTuneInterval() {
+        return autoTuneInterval;
+    }
+
+    /**
+     *
+     * @param autoTuneInterval How often the number of concurrent pulls is re-evaluated when auto tuning is enabled. Default: 30 seconds
+     * @since 5.8.0
+     */
+    public void setAutoTuneInterval(Duration autoTuneInterval) {
+        this.autoTuneInterval = autoTuneInterval;
+    }
+
     /**
      * Set the maximum period a message ack deadline will be extended. Defaults to one hour.
      * @return max ack deadline.
@@ -136,6 +220,83 @@ public class SubscriberConfigurationProperties {
         this.executor = executor;
     }
 
+    /**
+     * The number of bytes of the shared memory budget reserved for this subscriber. Only applies when
+     * {@code gcp.pubsub.memory-budget.max-outstanding-bytes} is set. Defaults to 0.
+     * @return the reserved number of bytes
+     * @since 5.8.0
+     */
+    public long getMemoryBudgetMinBytes() {
+        return memoryBudgetMinBytes;
+    }
+
+    /**
+     *
+     * @param memoryBudgetMinBytes The number of bytes of the shared memory budget reserved for this subscriber. Default: 0
+     * @since 5.8.0
+     */
+    public void setMemoryBudgetMinBytes(long memoryBudgetMinBytes) {
+        this.memoryBudgetMinBytes = memoryBudgetMinBytes;
+    }
+
+    /**
+     * The weight used to compute the fair share of the unreserved memory budget for this subscriber when several
+     * subscribers are contending for it. Only applies when {@code gcp.pubsub.memory-budget.max-outstanding-bytes} is set. Defaults to 1.
+     * @return the weight of this subscriber
+     * @since 5.8.0
+     */
+    public int getMemoryBudgetWeight() {
+        return memoryBudgetWeight;
+    }
+
+    /**
+     *
+     * @param memoryBudgetWeight The weight of this subscriber when sharing the unreserved memory budget. Default: 1
+     * @since 5.8.0
+     */
+    public void setMemoryBudgetWeight(int memoryBudgetWeight) {
+        this.memoryBudgetWeight = memoryBudgetWeight;
+    }
+
+    /**
+     * The weight of this subscriber when listener invocations are scheduled across subscriptions. Only applies when
+     * {@code gcp.pubsub.scheduling.enabled} is set. Defaults to 1.
+     * @return the scheduling weight of this subscriber
+     * @since 5.8.0
+     */
+    public int getSchedulingWeight() {
+        return schedulingWeight;
+    }
+
+    /**
+     *
+     * @param schedulingWeight The weight of this subscriber when listener invocations are scheduled across subscriptions. Default: 1
+     * @since 5.8.0
+     */
+    public void setSchedulingWeight(int schedulingWeight) {
+        this.schedulingWeight = schedulingWeight;
+    }
+
+    /**
+     * Whether the subscription has exactly-once delivery enabled. When enabled, messages are received with an
+     * {@link com.google.cloud.pubsub.v1.AckReplyConsumerWithResponse}, so that the result of acknowledgements can be observed
+     * through {@link io.micronaut.gcp.pubsub.bind.PubSubAcknowledgement}. Defaults to false.
+     * @return whether exactly-once delivery is enabled
+     * @since 5.8.0
+     */
+    public boolean isExactlyOnceDelivery() {
+        return exactlyOnceDelivery;
+    }
+
+    /**
+     *
+     * @param exactlyOnceDelivery Whether the subscription has exactly-once delivery enabled. Default: false
+     * @since 5.8.0
+     */
+    public void setExactlyOnceDelivery(boolean exactlyOnceDelivery) {
+        this.exactlyOnceDelivery = exactlyOnceDelivery;
+    }
+
     /**
      * Flow Control settings.
      * @return flowControlSettings
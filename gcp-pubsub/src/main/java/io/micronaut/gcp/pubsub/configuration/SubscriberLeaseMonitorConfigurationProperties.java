@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the monitoring of the leases of messages being processed by
+ * {@link io.micronaut.gcp.pubsub.annotation.Subscription} methods. Monitoring is enabled by setting
+ * {@code gcp.pubsub.lease-monitor.enabled} to {@code true}.
+ *
+ * @since 5.8.0
+ */
+@ConfigurationProperties(SubscriberLeaseMonitorConfigurationProperties.PREFIX)
+@Requires(property = SubscriberLeaseMonitorConfigurationProperties.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class SubscriberLeaseMonitorConfigurationProperties {
+
+    public static final String PREFIX = PubSubConfigurationProperties.PREFIX + ".lease-monitor";
+
+    private static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(5);
+    private static final double DEFAULT_WARNING_THRESHOLD = 0.8d;
+
+    private boolean enabled;
+
+    private Duration checkInterval = DEFAULT_CHECK_INTERVAL;
+
+    private double warningThreshold = DEFAULT_WARNING_THRESHOLD;
+
+    /**
+     * Whether the leases of in-flight messages are monitored. Defaults to false.
+     * @return whether lease monitoring is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param enabled Whether the leases of in-flight messages are monitored. Default: false
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * How often the leases of in-flight messages are checked. Defaults to 5 seconds.
+     * @return the check interval
+     */
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    /**
+     *
+     * @param checkInterval How often the leases of in-flight messages are checked. Default: 5 seconds
+     */
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * The fraction of the max ack extension period of the subscriber after which a warning is logged for a message that
+     * is still being processed. Defaults to 0.8.
+     * @return the warning threshold
+     */
+    public double getWarningThreshold() {
+        return warningThreshold;
+    }
+
+    /**
+     *
+     * @param warningThreshold The fraction of the max ack extension period after which a warning is logged. Default: 0.8
+     */
+    public void setWarningThreshold(double warningThreshold) {
+        this.warningThreshold = warningThreshold;
+    }
+}
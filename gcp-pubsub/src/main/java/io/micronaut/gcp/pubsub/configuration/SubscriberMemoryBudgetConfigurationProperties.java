@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+
+/**
+ * Configuration properties for a memory budget shared by all {@link com.google.cloud.pubsub.v1.Subscriber} instances.
+ * The budget is enabled by setting {@code gcp.pubsub.memory-budget.max-outstanding-bytes}.
+ *
+ * @since 5.8.0
+ */
+@ConfigurationProperties(SubscriberMemoryBudgetConfigurationProperties.PREFIX)
+@Requires(property = SubscriberMemoryBudgetConfigurationProperties.PREFIX + ".max-outstanding-bytes")
+public class SubscriberMemoryBudgetConfigurationProperties {
+
+    public static final String PREFIX = PubSubConfigurationProperties.PREFIX + ".memory-budget";
+
+    private long maxOutstandingBytes;
+
+    /**
+     * The maximum number of bytes of received messages that may be outstanding (received but not yet acknowledged)
+     * across all subscriptions.
+     * @return the maximum number of outstanding bytes
+     */
+    public long getMaxOutstandingBytes() {
+        return maxOutstandingBytes;
+    }
+
+    /**
+     *
+     * @param maxOutstandingBytes The maximum number of bytes of received messages that may be outstanding across all subscriptions.
+     */
+    public void setMaxOutstandingBytes(long maxOutstandingBytes) {
+        this.maxOutstandingBytes = maxOutstandingBytes;
+    }
+}
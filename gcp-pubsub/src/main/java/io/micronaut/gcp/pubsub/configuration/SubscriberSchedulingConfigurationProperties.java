@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.configuration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.scheduling.TaskExecutors;
+
+/**
+ * Configuration properties for the scheduling of listener invocations across
+ * {@link io.micronaut.gcp.pubsub.annotation.Subscription} methods. Scheduling is enabled by setting
+ * {@code gcp.pubsub.scheduling.enabled} to {@code true}.
+ *
+ * @since 5.8.0
+ */
+@ConfigurationProperties(SubscriberSchedulingConfigurationProperties.PREFIX)
+@Requires(property = SubscriberSchedulingConfigurationProperties.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class SubscriberSchedulingConfigurationProperties {
+
+    public static final String PREFIX = PubSubConfigurationProperties.PREFIX + ".scheduling";
+
+    private boolean enabled;
+
+    private String executor = TaskExecutors.IO;
+
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Whether listener invocations are scheduled by weight across subscriptions. Defaults to false.
+     * @return whether scheduling is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * @param enabled Whether listener invocations are scheduled by weight across subscriptions. Default: false
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The name of the {@link java.util.concurrent.ExecutorService} used to invoke the listeners. Defaults to "io".
+     * @return the executor name
+     */
+    public String getExecutor() {
+        return executor;
+    }
+
+    /**
+     *
+     * @param executor Name of the {@link java.util.concurrent.ExecutorService} used to invoke the listeners. Default: "io"
+     */
+    public void setExecutor(String executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * The maximum number of listener invocations running at the same time across all subscriptions. Defaults to the number of available processors.
+     * @return the maximum number of concurrent invocations
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     *
+     * @param concurrency The maximum number of listener invocations running at the same time across all subscriptions. Default: the number of available processors
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
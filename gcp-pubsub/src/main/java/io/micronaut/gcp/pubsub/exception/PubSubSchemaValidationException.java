@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.exception;
+
+/**
+ * Thrown when a message does not conform to the schema of the topic it is published to, see
+ * {@link io.micronaut.gcp.pubsub.configuration.SchemaConfigurationProperties}.
+ *
+ * @since 5.8.0
+ */
+public class PubSubSchemaValidationException extends PubSubClientException {
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message The message
+     */
+    public PubSubSchemaValidationException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message The message
+     * @param cause The cause
+     */
+    public PubSubSchemaValidationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
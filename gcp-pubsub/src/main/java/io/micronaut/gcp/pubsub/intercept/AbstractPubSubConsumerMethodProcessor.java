@@ -16,44 +16,76 @@
 package io.micronaut.gcp.pubsub.intercept;
 
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.AckResponse;
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.ProjectTopicName;
 import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.context.BeanContext;
 import io.micronaut.context.processor.ExecutableMethodProcessor;
 import io.micronaut.core.annotation.*;
 import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.bind.ArgumentBinder;
 import io.micronaut.core.bind.BoundExecutable;
-import io.micronaut.core.bind.DefaultExecutableBinder;
 import io.micronaut.core.bind.exceptions.UnsatisfiedArgumentException;
+import io.micronaut.core.convert.ArgumentConversionContext;
+import io.micronaut.core.convert.ConversionContext;
 import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.gcp.GoogleCloudConfiguration;
+import io.micronaut.gcp.pubsub.annotation.AttributeFilter;
 import io.micronaut.gcp.pubsub.annotation.PubSubListener;
+import io.micronaut.gcp.pubsub.bind.AcknowledgeableMessage;
+import io.micronaut.gcp.pubsub.bind.DefaultAcknowledgeableMessage;
 import io.micronaut.gcp.pubsub.bind.DefaultPubSubAcknowledgement;
 import io.micronaut.gcp.pubsub.bind.PubSubBinderRegistry;
+import io.micronaut.gcp.pubsub.bind.PubSubBodyBinder;
 import io.micronaut.gcp.pubsub.bind.PubSubConsumerState;
+import io.micronaut.gcp.pubsub.bind.PubSubContinuation;
+import io.micronaut.gcp.pubsub.bind.PubSubDefaultArgumentBinder;
+import io.micronaut.gcp.pubsub.bind.SubscriberLeaseMonitor;
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
 import io.micronaut.gcp.pubsub.exception.PubSubMessageReceiverException;
 import io.micronaut.gcp.pubsub.exception.PubSubMessageReceiverExceptionHandler;
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDesRegistry;
 import io.micronaut.gcp.pubsub.support.PubSubSubscriptionUtils;
+import io.micronaut.gcp.pubsub.support.PubSubTopicUtils;
+import io.micronaut.gcp.pubsub.tracing.PubSubSpan;
+import io.micronaut.gcp.pubsub.tracing.PubSubTracer;
+import io.micronaut.gcp.pubsub.tracing.TracingMessageReceiver;
 import io.micronaut.http.MediaType;
 import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import io.micronaut.messaging.Acknowledgement;
+import io.micronaut.messaging.annotation.SendTo;
 import io.micronaut.messaging.exceptions.MessageListenerException;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Qualifier;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 import java.lang.annotation.Annotation;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Base implementation of {@link ExecutableMethodProcessor} that handles creation of a
@@ -62,6 +94,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * <p>
  * There can be only one subscriber for any given subscription (in order to avoid issues with message
  * acknowledgement control). Having more than one method using the same subscription raises a {@link io.micronaut.gcp.pubsub.exception.PubSubListenerException}.
+ * <p>
+ * Methods declaring a single {@code Publisher<AcknowledgeableMessage<T>>} argument are invoked only once, with a stream
+ * into which all messages received for the subscription are emitted. Messages that have been received but not yet requested
+ * by the stream are buffered and remain outstanding until acknowledged, so the flow control settings of the subscription
+ * bound the number of messages held in memory.
+ * <p>
+ * The return values of methods annotated with {@link SendTo} are published to the given topics, and the received message
+ * is only acknowledged once all of those publishes completed.
+ * <p>
+ * Kotlin {@code suspend} methods are acknowledged once the coroutine completes, without blocking a thread while it is suspended.
  *
  * @param <A> The subscription annotation
  *
@@ -71,12 +113,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Internal
 abstract class AbstractPubSubConsumerMethodProcessor<A extends Annotation> implements ExecutableMethodProcessor<A> {
 
+    private static final Duration DEFAULT_BATCH_LINGER = Duration.ofMillis(50);
+
     protected final BeanContext beanContext;
     protected final ConversionService conversionService;
     protected final GoogleCloudConfiguration googleCloudConfiguration;
     protected final PubSubBinderRegistry binderRegistry;
     protected final PubSubMessageReceiverExceptionHandler exceptionHandler;
     private final AtomicBoolean shutDownMode = new AtomicBoolean(false);
+    private final List<Sinks.Many<AcknowledgeableMessage<Object>>> messageStreams = new CopyOnWriteArrayList<>();
+    private final List<MessageBatcher<?>> batchers = new CopyOnWriteArrayList<>();
     private final Class<A> annotationType;
     private final Logger logger = LoggerFactory.getLogger(AbstractPubSubConsumerMethodProcessor.class);
 
@@ -107,60 +153,366 @@ abstract class AbstractPubSubConsumerMethodProcessor<A extends Annotation> imple
                     .orElseThrow(() -> new MessageListenerException("Could not find the bean to execute the method " + method));
 
             if (subscriptionAnnotation != null) {
-                DefaultExecutableBinder<PubSubConsumerState> binder = new DefaultExecutableBinder<>();
                 String subscriptionName = subscriptionAnnotation.getRequiredValue(String.class);
                 ProjectSubscriptionName projectSubscriptionName = PubSubSubscriptionUtils.toProjectSubscriptionName(subscriptionName, googleCloudConfiguration.getProjectId());
                 String defaultContentType = subscriptionAnnotation.stringValue("contentType").orElse(MediaType.APPLICATION_JSON);
                 String configuration = subscriptionAnnotation.stringValue("configuration").orElse("");
-                MessageReceiver receiver = buildMessageReceiver(beanDefinition, method, defaultContentType, projectSubscriptionName, hasAckArg, binder, bean);
+                MessageAttributeFilter attributeFilter = MessageAttributeFilter.of(subscriptionAnnotation.getAnnotations("filter", AttributeFilter.class));
+                boolean ackFiltered = subscriptionAnnotation.booleanValue("ackFiltered").orElse(true);
+                Argument<?> streamArgument = findMessageStreamArgument(method);
+                int maxBatchSize = subscriptionAnnotation.intValue("maxBatchSize").orElse(0);
+                PubSubTracer tracer = beanContext.findBean(PubSubTracer.class).orElse(null);
+                MessageReceiver receiver;
+                if (maxBatchSize > 0) {
+                    Duration linger = subscriptionAnnotation.stringValue("batchLinger")
+                        .map(value -> conversionService.convertRequired(value, Duration.class))
+                        .orElse(DEFAULT_BATCH_LINGER);
+                    receiver = buildBatchMessageReceiver(beanDefinition, method, defaultContentType, projectSubscriptionName, maxBatchSize, linger, attributeFilter, ackFiltered, bean);
+                } else if (streamArgument != null) {
+                    receiver = buildStreamingMessageReceiver(method, streamArgument, defaultContentType, projectSubscriptionName, attributeFilter, ackFiltered, bean);
+                } else {
+                    ListenerBindingPlan plan = ListenerBindingPlan.compile(method, binderRegistry, beanContext.getBean(PubSubMessageSerDesRegistry.class), defaultContentType);
+                    MessageForwarder forwarder = buildMessageForwarder(method);
+                    receiver = buildMessageReceiver(beanDefinition, method, defaultContentType, projectSubscriptionName, hasAckArg, attributeFilter, ackFiltered, forwarder, plan, tracer, bean);
+                }
+                if (tracer != null) {
+                    receiver = new TracingMessageReceiver(tracer, projectSubscriptionName, receiver);
+                }
                 addSubscriber(projectSubscriptionName, receiver, configuration);
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
     private MessageReceiver buildMessageReceiver(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method,
                                                  String defaultContentType,
                                                  ProjectSubscriptionName projectSubscriptionName,
                                                  boolean hasAckArg,
-                                                 DefaultExecutableBinder<PubSubConsumerState> binder,
+                                                 @Nullable MessageAttributeFilter attributeFilter,
+                                                 boolean ackFiltered,
+                                                 @Nullable MessageForwarder forwarder,
+                                                 ListenerBindingPlan plan,
+                                                 @Nullable PubSubTracer tracer,
                                                  Object bean) {
         return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> {
 
-            if (!doBeforeSubscriber(message, ackReplyConsumer)) {
+            if (!acceptMessage(message, ackReplyConsumer, projectSubscriptionName, attributeFilter, ackFiltered)) {
                 return;
             }
 
-            String messageContentType = message.getAttributesMap().getOrDefault("Content-Type", "");
-            String contentType = Optional.of(messageContentType)
-                .filter(StringUtils::isNotEmpty)
-                .orElse(defaultContentType);
+            String contentType = resolveContentType(message, defaultContentType);
             DefaultPubSubAcknowledgement pubSubAcknowledgement = new DefaultPubSubAcknowledgement(ackReplyConsumer);
 
             PubSubConsumerState consumerState = new PubSubConsumerState(message, ackReplyConsumer,
                 projectSubscriptionName, contentType);
             boolean autoAcknowledge = !hasAckArg;
             try {
-                BoundExecutable<Object, Object> executable = (BoundExecutable<Object, Object>) binder.bind(method, binderRegistry, consumerState);
-                Flux<Object> resultPublisher = executeSubscriberMethod(beanDefinition, method, executable, bean);
+                ListenerBindingPlan.Binding binding = traced(tracer, "bind", () -> plan.bind(consumerState));
+                if (binding.error() != null) {
+                    handleException(new PubSubMessageReceiverException("Error binding message to the method", binding.error(), bean, consumerState, autoAcknowledge));
+                    return;
+                }
+                BoundExecutable<Object, Object> executable = binding.executable();
+                PubSubSpan handleSpan = tracer != null ? tracer.startSpan(method.getName()) : null;
+                Flux<?> resultPublisher;
+                try (PubSubSpan.Scope ignored = handleSpan != null ? handleSpan.makeCurrent() : null) {
+                    resultPublisher = executeSubscriberMethod(beanDefinition, method, executable, bean);
+                    if (forwarder != null) {
+                        resultPublisher = resultPublisher.flatMap(result -> forwarder.forward(result, contentType));
+                    }
+                } catch (RuntimeException e) {
+                    if (handleSpan != null) {
+                        handleSpan.error(e);
+                        handleSpan.end();
+                    }
+                    throw e;
+                }
+                if (handleSpan != null) {
+                    resultPublisher = resultPublisher
+                        .doOnError(handleSpan::error)
+                        .doOnTerminate(handleSpan::end);
+                }
                 resultPublisher.subscribe(data -> {
                     }, //no-op
                     ex -> handleException(new PubSubMessageReceiverException("Error handling message", ex, bean, consumerState, autoAcknowledge)),
-                    autoAcknowledge ? pubSubAcknowledgement::ack : () -> this.verifyManualAcknowledgment(executable, method.getName()));
-            } catch (UnsatisfiedArgumentException e) {
-                handleException(new PubSubMessageReceiverException("Error binding message to the method", e, bean, consumerState, autoAcknowledge));
+                    autoAcknowledge ? () -> acknowledge(pubSubAcknowledgement, message, projectSubscriptionName) : () -> this.verifyManualAcknowledgment(executable, method.getName()));
             } catch (Exception e) {
                 handleException(new PubSubMessageReceiverException("Error handling message", e, bean, consumerState, autoAcknowledge));
             }
         };
     }
 
+    private static <T> T traced(@Nullable PubSubTracer tracer, String name, Supplier<T> action) {
+        if (tracer == null) {
+            return action.get();
+        }
+        PubSubSpan span = tracer.startSpan(name);
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private @Nullable MessageForwarder buildMessageForwarder(ExecutableMethod<?, ?> method) {
+        String[] topics = method.stringValues(SendTo.class);
+        if (topics.length == 0) {
+            return null;
+        }
+        List<ProjectTopicName> topicNames = Arrays.stream(topics)
+            .map(topic -> PubSubTopicUtils.toProjectTopicName(topic, googleCloudConfiguration.getProjectId()))
+            .distinct()
+            .toList();
+        return new MessageForwarder(topicNames, beanContext.getBean(PubSubClientIntroductionAdvice.class),
+            beanContext.getBean(PubSubMessageSerDesRegistry.class), conversionService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MessageReceiver buildStreamingMessageReceiver(ExecutableMethod<?, ?> method,
+                                                          Argument<?> streamArgument,
+                                                          String defaultContentType,
+                                                          ProjectSubscriptionName projectSubscriptionName,
+                                                          @Nullable MessageAttributeFilter attributeFilter,
+                                                          boolean ackFiltered,
+                                                          Object bean) {
+        Argument<Object> bodyArgument = (Argument<Object>) streamArgument.getFirstTypeVariable()
+            .flatMap(Argument::getFirstTypeVariable)
+            .orElse(Argument.OBJECT_ARGUMENT);
+        ArgumentConversionContext<Object> bodyContext = ConversionContext.of(bodyArgument);
+        ArgumentBinder<Object, PubSubConsumerState> bodyBinder = findBodyBinder(method, bodyArgument, defaultContentType);
+        UnsatisfiedArgumentException unsatisfiedBody = ListenerBindingPlan.unsatisfiedArgument(bodyArgument);
+
+        Sinks.Many<AcknowledgeableMessage<Object>> messageStream = Sinks.many().unicast().onBackpressureBuffer();
+        messageStreams.add(messageStream);
+        Object result;
+        try {
+            Object stream = Publishers.convertPublisher(conversionService, messageStream.asFlux(), streamArgument.getType());
+            result = ((ExecutableMethod<Object, Object>) method).invoke(bean, stream);
+        } catch (Exception e) {
+            throw new PubSubListenerException("Failed to open a message stream for method: " + method, e);
+        }
+        if (Publishers.isConvertibleToPublisher(result)) {
+            Flux.from(Publishers.convertPublisher(conversionService, result, Publisher.class)).subscribe(data -> {
+                }, //no-op
+                ex -> logger.error("Message stream for subscription {} terminated with an error", projectSubscriptionName, ex));
+        }
+        SubscriberLeaseMonitor leaseMonitor = beanContext.findBean(SubscriberLeaseMonitor.class).orElse(null);
+
+        return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> {
+
+            if (!acceptMessage(message, ackReplyConsumer, projectSubscriptionName, attributeFilter, ackFiltered)) {
+                return;
+            }
+
+            PubSubConsumerState consumerState = new PubSubConsumerState(message, ackReplyConsumer,
+                projectSubscriptionName, resolveContentType(message, defaultContentType));
+            AcknowledgeableMessage<Object> element;
+            try {
+                ArgumentBinder.BindingResult<Object> bindingResult = bodyBinder.bind(bodyContext, consumerState);
+                if (!bindingResult.isPresentAndSatisfied()) {
+                    handleException(new PubSubMessageReceiverException("Error binding message to the message stream", unsatisfiedBody, bean, consumerState, true));
+                    return;
+                }
+                element = new DefaultAcknowledgeableMessage<>(consumerState, bindingResult.get(), findLease(leaseMonitor, consumerState));
+            } catch (Exception e) {
+                handleException(new PubSubMessageReceiverException("Error binding message to the message stream", e, bean, consumerState, true));
+                return;
+            }
+
+            Sinks.EmitResult emitResult;
+            synchronized (messageStream) {
+                emitResult = messageStream.tryEmitNext(element);
+            }
+            if (emitResult.isFailure()) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Message stream for subscription {} is no longer active ({}), message {} will be redelivered", projectSubscriptionName, emitResult, message.getMessageId());
+                }
+                ackReplyConsumer.nack();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private MessageReceiver buildBatchMessageReceiver(BeanDefinition<?> beanDefinition,
+                                                      ExecutableMethod<?, ?> method,
+                                                      String defaultContentType,
+                                                      ProjectSubscriptionName projectSubscriptionName,
+                                                      int maxBatchSize,
+                                                      Duration linger,
+                                                      @Nullable MessageAttributeFilter attributeFilter,
+                                                      boolean ackFiltered,
+                                                      Object bean) {
+        Argument<?>[] arguments = method.getArguments();
+        if (arguments.length != 1 || !List.class.isAssignableFrom(arguments[0].getType()) || method.isSuspend()) {
+            throw new PubSubListenerException("Batch subscriber methods must declare a single List argument: " + method);
+        }
+        Argument<?> elementArgument = arguments[0].getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT);
+        boolean manualAck = AcknowledgeableMessage.class.isAssignableFrom(elementArgument.getType());
+        Argument<Object> bodyArgument = (Argument<Object>) (manualAck
+            ? elementArgument.getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT)
+            : elementArgument);
+        ArgumentConversionContext<Object> bodyContext = ConversionContext.of(bodyArgument);
+        ArgumentBinder<Object, PubSubConsumerState> bodyBinder = findBodyBinder(method, bodyArgument, defaultContentType);
+        UnsatisfiedArgumentException unsatisfiedBody = ListenerBindingPlan.unsatisfiedArgument(bodyArgument);
+
+        TaskScheduler taskScheduler = beanContext.getBean(TaskScheduler.class, Qualifiers.byName(TaskExecutors.SCHEDULED));
+        MessageBatcher<DefaultAcknowledgeableMessage<Object>> batcher = new MessageBatcher<>(maxBatchSize, linger, taskScheduler,
+            selectBatchExecutor(beanDefinition, method), batch -> executeBatch(beanDefinition, method, projectSubscriptionName, manualAck, batch, bean));
+        batchers.add(batcher);
+        SubscriberLeaseMonitor leaseMonitor = beanContext.findBean(SubscriberLeaseMonitor.class).orElse(null);
+
+        return (PubsubMessage message, AckReplyConsumer ackReplyConsumer) -> {
+
+            if (!acceptMessage(message, ackReplyConsumer, projectSubscriptionName, attributeFilter, ackFiltered)) {
+                return;
+            }
+
+            PubSubConsumerState consumerState = new PubSubConsumerState(message, ackReplyConsumer,
+                projectSubscriptionName, resolveContentType(message, defaultContentType));
+            DefaultAcknowledgeableMessage<Object> element;
+            try {
+                ArgumentBinder.BindingResult<Object> bindingResult = bodyBinder.bind(bodyContext, consumerState);
+                if (!bindingResult.isPresentAndSatisfied()) {
+                    handleException(new PubSubMessageReceiverException("Error binding message to the batch", unsatisfiedBody, bean, consumerState, true));
+                    return;
+                }
+                element = new DefaultAcknowledgeableMessage<>(consumerState, bindingResult.get(), findLease(leaseMonitor, consumerState));
+            } catch (Exception e) {
+                handleException(new PubSubMessageReceiverException("Error binding message to the batch", e, bean, consumerState, true));
+                return;
+            }
+            batcher.add(element);
+        };
+    }
+
+    private ArgumentBinder<Object, PubSubConsumerState> findBodyBinder(ExecutableMethod<?, ?> method, Argument<Object> bodyArgument, String defaultContentType) {
+        ArgumentBinder<Object, PubSubConsumerState> bodyBinder = ListenerBindingPlan.findBinder(bodyArgument, method, binderRegistry);
+        if (bodyBinder instanceof PubSubBodyBinder || bodyBinder instanceof PubSubDefaultArgumentBinder) {
+            ListenerBindingPlan.validateBody(bodyArgument, method, beanContext.getBean(PubSubMessageSerDesRegistry.class), defaultContentType);
+        }
+        return bodyBinder;
+    }
+
+    @Nullable
+    private static SubscriberLeaseMonitor.Lease findLease(@Nullable SubscriberLeaseMonitor leaseMonitor, PubSubConsumerState consumerState) {
+        if (leaseMonitor == null) {
+            return null;
+        }
+        return leaseMonitor.findLease(consumerState.getSubscriptionName(), consumerState.getPubsubMessage().getMessageId()).orElse(null);
+    }
+
+    private void executeBatch(BeanDefinition<?> beanDefinition,
+                              ExecutableMethod<?, ?> method,
+                              ProjectSubscriptionName projectSubscriptionName,
+                              boolean manualAck,
+                              List<DefaultAcknowledgeableMessage<Object>> batch,
+                              Object bean) {
+        List<Object> argument = new ArrayList<>(batch.size());
+        for (DefaultAcknowledgeableMessage<Object> element : batch) {
+            argument.add(manualAck ? element : element.getBody());
+        }
+        Flux<Object> resultPublisher;
+        try {
+            resultPublisher = executeBatchMethod(beanDefinition, method, Collections.unmodifiableList(argument), bean);
+        } catch (Exception e) {
+            resultPublisher = Flux.error(e);
+        }
+        resultPublisher.subscribe(data -> {
+            }, //no-op
+            ex -> {
+                logger.error("Error handling a batch of {} messages on subscription {}", batch.size(), projectSubscriptionName, ex);
+                completeBatch(batch, false, projectSubscriptionName);
+            },
+            () -> {
+                if (manualAck && batch.stream().anyMatch(element -> !element.isClientAck())) {
+                    logger.warn("Method {} was executed and not all messages of the batch were acknowledged, they will be redelivered", method.getName());
+                }
+                completeBatch(batch, !manualAck, projectSubscriptionName);
+            });
+    }
+
+    private void completeBatch(List<DefaultAcknowledgeableMessage<Object>> batch, boolean ack, ProjectSubscriptionName projectSubscriptionName) {
+        for (DefaultAcknowledgeableMessage<Object> element : batch) {
+            if (!element.isClientAck()) {
+                if (ack) {
+                    acknowledge(element, element.getPubsubMessage(), projectSubscriptionName);
+                } else {
+                    element.nack();
+                }
+            }
+        }
+    }
+
+    /**
+     * Acknowledges a message on behalf of the subscriber method, logging acknowledgements rejected by subscriptions with
+     * exactly-once delivery enabled, since such messages will be redelivered even though they were processed.
+     */
+    private void acknowledge(DefaultPubSubAcknowledgement acknowledgement, PubsubMessage message, ProjectSubscriptionName projectSubscriptionName) {
+        acknowledgement.ackAsync().whenComplete((response, ex) -> {
+            if (ex != null) {
+                logger.warn("Failed to acknowledge message {} on subscription {}, it may be redelivered", message.getMessageId(), projectSubscriptionName, ex);
+            } else if (response != AckResponse.SUCCESSFUL) {
+                logger.warn("Acknowledgement of message {} on subscription {} was rejected ({}), it may be redelivered", message.getMessageId(), projectSubscriptionName, response);
+            }
+        });
+    }
+
+    private boolean acceptMessage(PubsubMessage message, AckReplyConsumer ackReplyConsumer,
+                                  ProjectSubscriptionName projectSubscriptionName,
+                                  @Nullable MessageAttributeFilter attributeFilter,
+                                  boolean ackFiltered) {
+        if (!doBeforeSubscriber(message, ackReplyConsumer)) {
+            return false;
+        }
+
+        if (attributeFilter != null && !attributeFilter.matches(message.getAttributesMap())) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("Message {} on subscription {} was rejected by the attribute filter", message.getMessageId(), projectSubscriptionName);
+            }
+            if (ackFiltered) {
+                ackReplyConsumer.ack();
+            } else {
+                ackReplyConsumer.nack();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static String resolveContentType(PubsubMessage message, String defaultContentType) {
+        String messageContentType = message.getAttributesMap().getOrDefault("Content-Type", "");
+        return Optional.of(messageContentType)
+            .filter(StringUtils::isNotEmpty)
+            .orElse(defaultContentType);
+    }
+
+    private static @Nullable Argument<?> findMessageStreamArgument(ExecutableMethod<?, ?> method) {
+        Argument<?>[] arguments = method.getArguments();
+        if (arguments.length != 1 || !Publishers.isConvertibleToPublisher(arguments[0].getType())) {
+            return null;
+        }
+        boolean isStream = arguments[0].getFirstTypeVariable()
+            .map(typeVariable -> AcknowledgeableMessage.class.isAssignableFrom(typeVariable.getType()))
+            .orElse(false);
+        return isStream ? arguments[0] : null;
+    }
+
     /**
-     * Enter shutdown mode.
+     * Enter shutdown mode, delivering any pending batches, completing any open message streams and shutting down the publishers used to forward messages.
      */
     @PreDestroy
     public final void shutDown() {
         shutDownMode.set(true);
+        for (MessageBatcher<?> batcher : batchers) {
+            batcher.flush();
+        }
+        for (Sinks.Many<AcknowledgeableMessage<Object>> messageStream : messageStreams) {
+            synchronized (messageStream) {
+                messageStream.tryEmitComplete();
+            }
+        }
     }
 
     /**
@@ -211,17 +563,73 @@ abstract class AbstractPubSubConsumerMethodProcessor<A extends Annotation> imple
      * @param method         the executable method reference
      * @param executable     the bound executable subscription method
      * @param bean           the bean PubSub listener bean
-     * @return a {@link Flux} that will complete after subscriber execution
+     * @return a {@link Flux} emitting the result of the subscriber method, that will complete after subscriber execution
      */
     @SuppressWarnings({"unchecked"})
     protected Flux<Object> executeSubscriberMethod(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method, BoundExecutable<Object, Object> executable, Object bean) {
-        Object result = Objects.requireNonNull(executable).invoke(bean);
-        if (!Publishers.isConvertibleToPublisher(result)) {
+        if (method.isSuspend()) {
+            return executeSuspendingMethod(executable, bean);
+        }
+        return toFlux(Objects.requireNonNull(executable).invoke(bean));
+    }
+
+    /**
+     * Selects the executor that the batches of a subscription method consuming messages in batches are executed on.
+     * Batches are never executed on the thread that delivered their last message, nor on the scheduler thread of the
+     * linger timeout. Defaults to the {@link TaskExecutors#BLOCKING} executor.
+     *
+     * @param beanDefinition the bean definition of the subscriber
+     * @param method         the executable method reference
+     * @return the executor of the batches
+     * @since 5.8.0
+     */
+    protected Executor selectBatchExecutor(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method) {
+        return beanContext.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.BLOCKING));
+    }
+
+    /**
+     * Default execution logic for subscription methods consuming messages in batches.
+     *
+     * @param beanDefinition the bean definition of the subscriber
+     * @param method         the executable method reference
+     * @param batch          the batch, holding either the message bodies or the acknowledgeable messages
+     * @param bean           the bean PubSub listener bean
+     * @return a {@link Flux} emitting the result of the subscriber method, that will complete after subscriber execution
+     * @since 5.8.0
+     */
+    @SuppressWarnings({"unchecked"})
+    protected Flux<Object> executeBatchMethod(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method, List<Object> batch, Object bean) {
+        return toFlux(((ExecutableMethod<Object, Object>) method).invoke(bean, batch));
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Flux<Object> toFlux(@Nullable Object result) {
+        if (result == null) {
             return Flux.empty();
         }
+        if (!Publishers.isConvertibleToPublisher(result)) {
+            return Flux.just(result);
+        }
         return Flux.from(Publishers.convertPublisher(conversionService, result, Publisher.class));
     }
 
+    /**
+     * Invokes a Kotlin {@code suspend} method, completing once the coroutine finishes rather than when the method returns.
+     */
+    private Flux<Object> executeSuspendingMethod(BoundExecutable<Object, Object> executable, Object bean) {
+        PubSubContinuation continuation = Arrays.stream(executable.getBoundArguments())
+            .filter(PubSubContinuation.class::isInstance)
+            .map(PubSubContinuation.class::cast)
+            .findFirst()
+            .orElseThrow(() -> new PubSubListenerException("No continuation bound for suspend method: " + executable.getTarget()));
+        Mono<Object> result = Mono.defer(() -> Mono.fromFuture(continuation.resultOf(executable.invoke(bean))));
+        Executor executor = continuation.getExecutor();
+        if (executor != null) {
+            result = result.subscribeOn(Schedulers.fromExecutor(executor));
+        }
+        return result.flux();
+    }
+
     private void verifyManualAcknowledgment(BoundExecutable<Object, Object> executable, String methodName) {
         Optional<Object> boundAck = Arrays
             .stream(executable.getBoundArguments())
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.intercept;
+
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.bind.ArgumentBinder;
+import io.micronaut.core.bind.BoundExecutable;
+import io.micronaut.core.bind.annotation.Bindable;
+import io.micronaut.core.bind.exceptions.UnsatisfiedArgumentException;
+import io.micronaut.core.convert.ArgumentConversionContext;
+import io.micronaut.core.convert.ConversionContext;
+import io.micronaut.core.convert.ConversionError;
+import io.micronaut.core.convert.exceptions.ConversionErrorException;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.type.Executable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.pubsub.bind.LazyMessageBody;
+import io.micronaut.gcp.pubsub.bind.PubSubBinderRegistry;
+import io.micronaut.gcp.pubsub.bind.PubSubBodyBinder;
+import io.micronaut.gcp.pubsub.bind.PubSubConsumerState;
+import io.micronaut.gcp.pubsub.bind.PubSubDefaultArgumentBinder;
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDesRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The binding of the arguments of a listener method, compiled and validated once when the method is processed.
+ * <p>
+ * The binders of all arguments are resolved upfront, and the message bodies are checked against the available
+ * {@link io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes} so that misconfigured listeners are reported at startup
+ * rather than when the first message arrives. Arguments that can not be bound for a message are reported through the
+ * returned {@link Binding} instead of an exception thrown and caught for every message, and the reported errors do not
+ * capture a stack trace, as it would only point at the binding code.
+ *
+ * @since 5.8.0
+ */
+@Internal
+final class ListenerBindingPlan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListenerBindingPlan.class);
+    private static final Set<Class<?>> RAW_BODY_TYPES = Set.of(byte[].class, ByteString.class, InputStream.class, PubsubMessage.class);
+
+    private final Executable<Object, Object> method;
+    private final Argument<?>[] arguments;
+    private final ArgumentBinder<?, PubSubConsumerState>[] binders;
+    private final UnsatisfiedArgumentException[] unsatisfied;
+
+    private ListenerBindingPlan(Executable<Object, Object> method, Argument<?>[] arguments, ArgumentBinder<?, PubSubConsumerState>[] binders) {
+        this.method = method;
+        this.arguments = arguments;
+        this.binders = binders;
+        this.unsatisfied = new UnsatisfiedArgumentException[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            unsatisfied[i] = unsatisfiedArgument(arguments[i]);
+        }
+    }
+
+    /**
+     * Resolves and validates the binders of the arguments of a listener method.
+     *
+     * @param method the listener method
+     * @param binderRegistry the binder registry
+     * @param serDesRegistry the SerDes registry
+     * @param defaultContentType the content type of messages without a {@code Content-Type} attribute
+     * @return the compiled plan
+     * @throws PubSubListenerException if an argument of the method can never be bound
+     */
+    @SuppressWarnings("unchecked")
+    static ListenerBindingPlan compile(@NonNull Executable<?, ?> method,
+                                       @NonNull PubSubBinderRegistry binderRegistry,
+                                       @NonNull PubSubMessageSerDesRegistry serDesRegistry,
+                                       @Nullable String defaultContentType) {
+        Argument<?>[] arguments = method.getArguments();
+        ArgumentBinder<?, PubSubConsumerState>[] binders = new ArgumentBinder[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            Argument<?> argument = arguments[i];
+            ArgumentBinder<?, PubSubConsumerState> binder = findBinder(argument, method, binderRegistry);
+            if (binder instanceof PubSubBodyBinder || binder instanceof PubSubDefaultArgumentBinder) {
+                validateBody(argument, method, serDesRegistry, defaultContentType);
+            }
+            binders[i] = binder;
+        }
+        return new ListenerBindingPlan((Executable<Object, Object>) method, arguments, binders);
+    }
+
+    /**
+     * Resolves the binder of an argument of a listener method.
+     *
+     * @param argument the argument
+     * @param method the listener method
+     * @param binderRegistry the binder registry
+     * @param <T> the type of the argument
+     * @return the binder
+     * @throws PubSubListenerException if the argument is annotated with a binding annotation that no binder handles
+     */
+    static <T> ArgumentBinder<T, PubSubConsumerState> findBinder(@NonNull Argument<T> argument,
+                                                                 @NonNull Executable<?, ?> method,
+                                                                 @NonNull PubSubBinderRegistry binderRegistry) {
+        ArgumentBinder<T, PubSubConsumerState> binder = binderRegistry.findArgumentBinder(argument).orElse(null);
+        // the registry falls back to the default binder, which would silently bind an argument with an unknown binding annotation to the message body
+        Optional<Class<? extends Annotation>> annotation = argument.getAnnotationMetadata().getAnnotationTypeByStereotype(Bindable.class);
+        if (binder == null || (binder instanceof PubSubDefaultArgumentBinder && annotation.isPresent())) {
+            throw new PubSubListenerException("No binder found for " + annotation.map(type -> "annotation @" + type.getSimpleName() + " of ").orElse("")
+                + "argument " + argument + " of method: " + method);
+        }
+        return binder;
+    }
+
+    /**
+     * Checks that the message body can be bound to the given argument.
+     *
+     * @param argument the body argument
+     * @param method the listener method
+     * @param serDesRegistry the SerDes registry
+     * @param defaultContentType the content type of messages without a {@code Content-Type} attribute
+     * @throws PubSubListenerException if the body can never be bound to the argument, or if no SerDes is registered for
+     * the declared content type of a body that is not raw
+     */
+    static void validateBody(@NonNull Argument<?> argument,
+                             @NonNull Executable<?, ?> method,
+                             @NonNull PubSubMessageSerDesRegistry serDesRegistry,
+                             @Nullable String defaultContentType) {
+        Argument<?> bodyType = argument;
+        if (argument.getType() == LazyMessageBody.class) {
+            // deserialized on demand, with the content type of the message
+            return;
+        }
+        if (Publishers.isConvertibleToPublisher(argument.getType())) {
+            bodyType = argument.getFirstTypeVariable()
+                .orElseThrow(() -> new PubSubListenerException("Could not determine the message body type of argument " + argument + " of method: " + method));
+        }
+        if (RAW_BODY_TYPES.contains(bodyType.getType())) {
+            return;
+        }
+        if (StringUtils.isEmpty(defaultContentType)) {
+            LOG.warn("No content type is declared for method {}, messages without a Content-Type attribute can not be bound to argument {}", method, argument);
+        } else if (serDesRegistry.find(defaultContentType).isEmpty()) {
+            throw new PubSubListenerException("No SerDes is registered for content type " + defaultContentType + " of method " + method
+                + ", declare a raw message body or register a PubSubMessageSerDes to bind argument " + argument);
+        }
+    }
+
+    /**
+     * Creates the error reported when an argument can not be bound. The error has no stack trace, so that it can be
+     * created once and reported for every message that does not satisfy the argument.
+     *
+     * @param argument the argument
+     * @return the error
+     */
+    static UnsatisfiedArgumentException unsatisfiedArgument(@NonNull Argument<?> argument) {
+        return new StacklessUnsatisfiedArgumentException(argument);
+    }
+
+    /**
+     * Binds the arguments of the method to a message.
+     *
+     * @param state the state of the received message
+     * @return the binding, holding either the bound method or the reason it could not be bound
+     */
+    @SuppressWarnings("unchecked")
+    Binding bind(PubSubConsumerState state) {
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            Argument<Object> argument = (Argument<Object>) arguments[i];
+            ArgumentConversionContext<Object> conversionContext = ConversionContext.of(argument);
+            ArgumentBinder.BindingResult<Object> bindingResult = ((ArgumentBinder<Object, PubSubConsumerState>) binders[i]).bind(conversionContext, state);
+            if (bindingResult.isPresentAndSatisfied()) {
+                values[i] = bindingResult.get();
+            } else if (argument.isNullable()) {
+                values[i] = null;
+            } else {
+                Optional<ConversionError> lastError = conversionContext.getLastError();
+                return new Binding(null, lastError.isPresent()
+                    ? new StacklessConversionErrorException(argument, lastError.get())
+                    : unsatisfied[i]);
+            }
+        }
+        return new Binding(new PlannedExecutable(method, values), null);
+    }
+
+    /**
+     * The result of binding a message.
+     *
+     * @param executable the bound method, or {@code null} if an argument could not be bound
+     * @param error the reason an argument could not be bound, or {@code null} if all arguments were bound
+     */
+    record Binding(@Nullable BoundExecutable<Object, Object> executable, @Nullable RuntimeException error) {
+    }
+
+    /**
+     * An {@link UnsatisfiedArgumentException} created once per argument, without a stack trace.
+     */
+    private static final class StacklessUnsatisfiedArgumentException extends UnsatisfiedArgumentException {
+
+        StacklessUnsatisfiedArgumentException(Argument<?> argument) {
+            super(argument);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * A {@link ConversionErrorException} without a stack trace.
+     */
+    private static final class StacklessConversionErrorException extends ConversionErrorException {
+
+        StacklessConversionErrorException(Argument<?> argument, ConversionError conversionError) {
+            super(argument, conversionError);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * A method with all arguments bound.
+     */
+    private record PlannedExecutable(Executable<Object, Object> method, Object[] values) implements BoundExecutable<Object, Object> {
+
+        @Override
+        public Executable<Object, Object> getTarget() {
+            return method;
+        }
+
+        @Override
+        public Object invoke(Object instance) {
+            return method.invoke(instance, values);
+        }
+
+        @Override
+        public Object[] getBoundArguments() {
+            return values;
+        }
+    }
+}
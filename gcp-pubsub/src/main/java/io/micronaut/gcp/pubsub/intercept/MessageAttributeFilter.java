@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.intercept;
+
+import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.gcp.pubsub.annotation.AttributeFilter;
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A filter on message attributes compiled from the {@link AttributeFilter} values of a subscription annotation.
+ *
+ * @since 5.8.0
+ */
+@Internal
+final class MessageAttributeFilter {
+
+    private final String[] names;
+    private final Set<String>[] values;
+
+    @SuppressWarnings("unchecked")
+    private MessageAttributeFilter(List<AnnotationValue<AttributeFilter>> filters) {
+        this.names = new String[filters.size()];
+        this.values = new Set[filters.size()];
+        for (int i = 0; i < filters.size(); i++) {
+            AnnotationValue<AttributeFilter> filter = filters.get(i);
+            names[i] = filter.stringValue("name")
+                .orElseThrow(() -> new PubSubListenerException("An attribute name is required for @AttributeFilter"));
+            values[i] = Set.copyOf(Arrays.asList(filter.stringValues("values")));
+        }
+    }
+
+    /**
+     * Compiles the filter declared by the given filter annotation values.
+     *
+     * @param filters the filter annotation values
+     * @return the compiled filter, or {@code null} if no filters are declared
+     */
+    @Nullable
+    static MessageAttributeFilter of(@NonNull List<AnnotationValue<AttributeFilter>> filters) {
+        return filters.isEmpty() ? null : new MessageAttributeFilter(filters);
+    }
+
+    /**
+     * @param attributes the message attributes
+     * @return whether the attributes satisfy all the conditions of this filter
+     */
+    boolean matches(@NonNull Map<String, String> attributes) {
+        for (int i = 0; i < names.length; i++) {
+            String value = attributes.get(names[i]);
+            if (value == null || (!values[i].isEmpty() && !values[i].contains(value))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.intercept;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates elements into batches, handed to a consumer once a batch is full or its first element has waited for the
+ * configured linger time. Batches are always consumed on the given executor, never on the thread that added the last
+ * element or on the scheduler thread of the linger timeout.
+ *
+ * @param <T> the type of the batched elements
+ * @since 5.8.0
+ */
+@Internal
+final class MessageBatcher<T> {
+
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final TaskScheduler taskScheduler;
+    private final Executor executor;
+    private final Consumer<List<T>> consumer;
+    private List<T> pending;
+    private ScheduledFuture<?> lingerTask;
+
+    /**
+     * @param maxBatchSize the maximum number of elements of a batch
+     * @param linger the maximum time the first element of a batch waits for the batch to fill up
+     * @param taskScheduler the scheduler of the linger timeouts
+     * @param executor the executor the batches are consumed on
+     * @param consumer the consumer of the batches
+     */
+    MessageBatcher(int maxBatchSize, Duration linger, TaskScheduler taskScheduler, Executor executor, Consumer<List<T>> consumer) {
+        this.maxBatchSize = maxBatchSize;
+        this.linger = linger;
+        this.taskScheduler = taskScheduler;
+        this.executor = executor;
+        this.consumer = consumer;
+        this.pending = new ArrayList<>(maxBatchSize);
+    }
+
+    /**
+     * Adds an element to the current batch, handing the batch to the consumer if it is full.
+     *
+     * @param element the element
+     */
+    void add(T element) {
+        List<T> batch = null;
+        synchronized (this) {
+            pending.add(element);
+            if (pending.size() >= maxBatchSize) {
+                batch = takePending();
+            } else if (lingerTask == null) {
+                lingerTask = taskScheduler.schedule(linger, this::flush);
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Hands the current batch to the consumer, if it holds any element.
+     */
+    void flush() {
+        List<T> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(List<T> batch) {
+        try {
+            executor.execute(() -> consumer.accept(batch));
+        } catch (RejectedExecutionException e) {
+            // the executor is shutting down: consume the batch here rather than leaving its messages unanswered
+            consumer.accept(batch);
+        }
+    }
+
+    private List<T> takePending() {
+        List<T> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.intercept;
+
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.ProjectTopicName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.gcp.pubsub.exception.PubSubClientException;
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes;
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDesRegistry;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Publishes the return values of a {@link io.micronaut.messaging.annotation.SendTo} annotated listener method
+ * to the target topics, through the forwarding publishers of the {@link PubSubClientIntroductionAdvice}.
+ *
+ * @since 5.8.0
+ */
+@Internal
+final class MessageForwarder {
+
+    private final List<ProjectTopicName> topics;
+    private final PubSubClientIntroductionAdvice clientAdvice;
+    private final PubSubMessageSerDesRegistry serDesRegistry;
+    private final ConversionService conversionService;
+
+    MessageForwarder(List<ProjectTopicName> topics, PubSubClientIntroductionAdvice clientAdvice, PubSubMessageSerDesRegistry serDesRegistry, ConversionService conversionService) {
+        this.topics = topics;
+        this.clientAdvice = clientAdvice;
+        this.serDesRegistry = serDesRegistry;
+        this.conversionService = conversionService;
+    }
+
+    /**
+     * Publishes a result to all target topics. Each element of a {@link Publisher} or {@link Iterable} result is published
+     * as a separate message, without waiting for previous publishes to complete so that they can be batched.
+     *
+     * @param result the value returned by the listener method
+     * @param contentType the content type used to serialize the result
+     * @return a {@link Flux} emitting the ids of the published messages, completing once all publishes completed
+     */
+    Flux<String> forward(@Nullable Object result, String contentType) {
+        if (result == null) {
+            return Flux.empty();
+        }
+        if (Publishers.isConvertibleToPublisher(result)) {
+            return Flux.from(Publishers.convertPublisher(conversionService, result, Publisher.class))
+                .flatMap(element -> forward(element, contentType));
+        }
+        if (result instanceof Iterable<?> iterable) {
+            return Flux.fromIterable(iterable).flatMap(element -> forward(element, contentType));
+        }
+        if (result instanceof PubsubMessage message) {
+            return Flux.fromIterable(topics).flatMap(topic -> clientAdvice.forward(topic, message));
+        }
+        PubsubMessage.Builder messageBuilder = toMessageBuilder(result, contentType);
+        if (topics.size() == 1) {
+            // the trace context is injected into the builder, so the message is only built once
+            return clientAdvice.forward(topics.get(0), messageBuilder).flux();
+        }
+        // every topic gets a message carrying the trace context of its own publish span
+        PubsubMessage message = messageBuilder.build();
+        return Flux.fromIterable(topics).flatMap(topic -> clientAdvice.forward(topic, message));
+    }
+
+    private PubsubMessage.Builder toMessageBuilder(Object value, String contentType) {
+        byte[] serialized;
+        if (value instanceof byte[] bytes) {
+            serialized = bytes;
+        } else {
+            PubSubMessageSerDes serDes = serDesRegistry.find(contentType)
+                .orElseThrow(() -> new PubSubClientException("Could not locate a valid SerDes implementation for type: " + contentType));
+            serialized = serDes.serialize(value);
+        }
+        return PubsubMessage.newBuilder()
+            .setData(ByteString.copyFrom(serialized))
+            .putAttributes("Content-Type", contentType);
+    }
+}
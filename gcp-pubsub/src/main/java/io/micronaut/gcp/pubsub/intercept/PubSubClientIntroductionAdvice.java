@@ -21,12 +21,12 @@ import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.ProjectTopicName;
 import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.InterceptedMethod;
 import io.micronaut.aop.MethodInvocationContext;
 import io.micronaut.core.annotation.AnnotationValue;
-import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.ConversionService;
 import io.micronaut.core.type.Argument;
-import io.micronaut.core.type.ReturnType;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.gcp.GoogleCloudConfiguration;
 import io.micronaut.gcp.pubsub.annotation.OrderingKey;
@@ -34,17 +34,24 @@ import io.micronaut.gcp.pubsub.annotation.PubSubClient;
 import io.micronaut.gcp.pubsub.annotation.Topic;
 import io.micronaut.gcp.pubsub.configuration.PubSubConfigurationProperties;
 import io.micronaut.gcp.pubsub.exception.PubSubClientException;
+import io.micronaut.gcp.pubsub.schema.MessageSchemaValidator;
+import io.micronaut.gcp.pubsub.schema.PubSubSchemaRegistry;
 import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes;
 import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDesRegistry;
+import io.micronaut.gcp.pubsub.support.AdaptivePublisherBatching;
+import io.micronaut.gcp.pubsub.support.MessageAttributesTemplate;
 import io.micronaut.gcp.pubsub.support.PubSubPublisherState;
 import io.micronaut.gcp.pubsub.support.PubSubTopicUtils;
 import io.micronaut.gcp.pubsub.support.PublisherFactory;
 import io.micronaut.gcp.pubsub.support.PublisherFactoryConfig;
+import io.micronaut.gcp.pubsub.tracing.PubSubSpan;
+import io.micronaut.gcp.pubsub.tracing.PubSubTracer;
 import io.micronaut.http.MediaType;
 import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.messaging.annotation.MessageBody;
 import io.micronaut.messaging.annotation.MessageHeader;
 import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
@@ -52,7 +59,6 @@ import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.PreDestroy;
-import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -70,21 +76,62 @@ import java.util.concurrent.ExecutorService;
 @Singleton
 public class PubSubClientIntroductionAdvice implements MethodInterceptor<Object, Object>, AutoCloseable {
 
+    private static final String KOTLIN_UNIT = "kotlin.Unit";
+
     private final Logger logger = LoggerFactory.getLogger(PubSubClientIntroductionAdvice.class);
     private final ConcurrentHashMap<ExecutableMethod, PubSubPublisherState> publisherStateCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ProjectTopicName, PubSubPublisherState> forwardingStateCache = new ConcurrentHashMap<>();
     private final PublisherFactory publisherFactory;
     private final PubSubMessageSerDesRegistry serDesRegistry;
     private final ConversionService conversionService;
     private final GoogleCloudConfiguration googleCloudConfiguration;
     private final PubSubConfigurationProperties pubSubConfigurationProperties;
     private final ExecutorService executorService;
+    @Nullable
+    private final PubSubSchemaRegistry schemaRegistry;
+    @Nullable
+    private final AdaptivePublisherBatching adaptiveBatching;
+    @Nullable
+    private final PubSubTracer tracer;
 
+    /**
+     * @deprecated use {@link #PubSubClientIntroductionAdvice(PublisherFactory, PubSubMessageSerDesRegistry, ExecutorService, ConversionService, GoogleCloudConfiguration, PubSubConfigurationProperties, PubSubSchemaRegistry, AdaptivePublisherBatching, PubSubTracer)} instead
+     */
+    @Deprecated(since = "5.8.0")
     public PubSubClientIntroductionAdvice(PublisherFactory publisherFactory,
                                           PubSubMessageSerDesRegistry serDesRegistry,
                                           @Named(TaskExecutors.IO) ExecutorService executorService,
                                           ConversionService conversionService,
                                           GoogleCloudConfiguration googleCloudConfiguration,
                                           PubSubConfigurationProperties pubSubConfigurationProperties) {
+        this(publisherFactory, serDesRegistry, executorService, conversionService, googleCloudConfiguration, pubSubConfigurationProperties, null, null, null);
+    }
+
+    /**
+     * @param publisherFactory the publisher factory
+     * @param serDesRegistry the SerDes registry
+     * @param executorService the executor completing the publish results
+     * @param conversionService the conversion service
+     * @param googleCloudConfiguration the Google Cloud configuration
+     * @param pubSubConfigurationProperties the PubSub configuration
+     * @param schemaRegistry the registry of the topic schemas used to validate messages before they are published
+     * @param adaptiveBatching sizes the batches of the publishers configured with adaptive batching
+     * @param tracer records the published messages and propagates the trace context through their attributes
+     * @since 5.8.0
+     */
+    @Inject
+    public PubSubClientIntroductionAdvice(PublisherFactory publisherFactory,
+                                          PubSubMessageSerDesRegistry serDesRegistry,
+                                          @Named(TaskExecutors.IO) ExecutorService executorService,
+                                          ConversionService conversionService,
+                                          GoogleCloudConfiguration googleCloudConfiguration,
+                                          PubSubConfigurationProperties pubSubConfigurationProperties,
+                                          @Nullable PubSubSchemaRegistry schemaRegistry,
+                                          @Nullable AdaptivePublisherBatching adaptiveBatching,
+                                          @Nullable PubSubTracer tracer) {
+        this.tracer = tracer;
+        this.schemaRegistry = schemaRegistry;
+        this.adaptiveBatching = adaptiveBatching;
         this.publisherFactory = publisherFactory;
         this.executorService = executorService;
         this.serDesRegistry = serDesRegistry;
@@ -120,33 +167,21 @@ public class PubSubClientIntroductionAdvice implements MethodInterceptor<Object,
 
                 PubSubPublisherState.TopicState topicState = new PubSubPublisherState.TopicState(contentType, projectTopicName, configurationName, endpoint, orderingArgument.isPresent());
                 logger.debug("Created a new publisher[{}] for topic: {}", context.getExecutableMethod().getName(), topic);
-                PublisherInterface publisher = publisherFactory.createPublisher(new PublisherFactoryConfig(topicState, pubSubConfigurationProperties.getPublishingExecutor()));
-                return new PubSubPublisherState(topicState, staticMessageAttributes, bodyArgument, publisher, orderingArgument);
+                MessageSchemaValidator schemaValidator = findSchemaValidator(projectTopicName);
+                PublisherInterface publisher = createPublisher(topicState);
+                MessageAttributesTemplate attributesTemplate = MessageAttributesTemplate.of(staticMessageAttributes, method.getArguments(), contentType);
+                return new PubSubPublisherState(topicState, staticMessageAttributes, bodyArgument, publisher, orderingArgument, schemaValidator, attributesTemplate);
             });
 
-            Map<String, String> messageAttributes = new HashMap<>(publisherState.getStaticMessageAttributes());
             String contentType = publisherState.getTopicState().getContentType();
-            Argument<?> bodyArgument = publisherState.getBodyArgument();
-            Map<String, Object> parameterValues = context.getParameterValueMap();
-            final ReturnType<Object> returnTypeInfo = context.getReturnType();
-            ReturnType<Object> returnType = returnTypeInfo;
-            Class<?> javaReturnType = returnType.getType();
-
-            Argument[] arguments = context.getArguments();
-            for (Argument arg : arguments) {
-                AnnotationValue<MessageHeader> headerAnn = arg.getAnnotation(MessageHeader.class);
-                if (headerAnn != null) {
-                    Map.Entry<String, String> entry = getNameAndValue(arg, headerAnn, parameterValues);
-                    messageAttributes.put(entry.getKey(), entry.getValue());
-                }
-            }
-
-            PublisherInterface publisher = publisherState.getPublisher();
+            Argument<?>[] arguments = context.getArguments();
+            Object[] parameterValues = context.getParameterValues();
+            Class<?> javaReturnType = context.getReturnType().getType();
 
-            Object body = parameterValues.get(bodyArgument.getName());
-            PubsubMessage pubsubMessage = null;
+            Object body = parameterValues[indexOf(arguments, publisherState.getBodyArgument())];
+            Mono<String> reactiveResult;
             if (body.getClass() == PubsubMessage.class) {
-                pubsubMessage = (PubsubMessage) body;
+                reactiveResult = publish(publisherState, (PubsubMessage) body, null);
             } else {
                 //if target type is byte[] we bypass serdes completely
                 byte[] serialized = null;
@@ -157,43 +192,40 @@ public class PubSubClientIntroductionAdvice implements MethodInterceptor<Object,
                             .orElseThrow(() -> new PubSubClientException("Could not locate a valid SerDes implementation for type: " + contentType));
                     serialized = serDes.serialize(body);
                 }
-                messageAttributes.put("Content-Type", contentType);
                 PubsubMessage.Builder messageBuilder = PubsubMessage.newBuilder();
-                messageBuilder.setData(ByteString.copyFrom(serialized))
-                        .putAllAttributes(messageAttributes);
+                messageBuilder.setData(ByteString.copyFrom(serialized));
+                publisherState.getAttributesTemplate().applyTo(messageBuilder, parameterValues);
                 if (publisherState.getOrderingArgument().isPresent()) {
-                    String orderingKey = conversionService.convert(parameterValues.get(publisherState.getOrderingArgument().get().getName()), String.class)
+                    String orderingKey = conversionService.convert(parameterValues[indexOf(arguments, publisherState.getOrderingArgument().get())], String.class)
                             .orElseThrow(() -> new PubSubClientException("Could not convert argument annotated with @OrderingKey to String type"));
                     messageBuilder.setOrderingKey(orderingKey);
                 }
-                pubsubMessage = messageBuilder.build();
+                // the trace context is injected into the builder, so the message is only built once
+                reactiveResult = publish(publisherState, null, messageBuilder);
             }
 
-            PubsubMessage finalPubsubMessage = pubsubMessage;
-            Mono<String> reactiveResult = Mono.create(sink -> {
-                ApiFuture<String> future = publisher.publish(finalPubsubMessage);
-                future.addListener(() -> {
-                    try {
-                        final String result = future.get();
-                        sink.success(result);
-                    } catch (Throwable e) {
-                        sink.error(e);
+            InterceptedMethod interceptedMethod = InterceptedMethod.of(context, conversionService);
+            try {
+                return switch (interceptedMethod.resultType()) {
+                    case PUBLISHER -> interceptedMethod.handleResult(reactiveResult);
+                    case COMPLETION_STAGE -> {
+                        // also covers Kotlin suspend functions, which are resumed once the publish completes
+                        Argument<?> valueType = interceptedMethod.returnTypeValue();
+                        if (valueType.isVoid() || KOTLIN_UNIT.equals(valueType.getTypeName())) {
+                            yield interceptedMethod.handleResult(reactiveResult.then().toFuture());
+                        }
+                        yield interceptedMethod.handleResult(reactiveResult.map(result -> convertResult(result, valueType.getType())).toFuture());
                     }
-                }, executorService);
-            });
-            if (javaReturnType == void.class || javaReturnType == Void.class) {
-                String result = reactiveResult.block();
-                return null;
-            } else {
-                if (returnTypeInfo.isReactive()) {
-                    return Publishers.convertPublisher(conversionService, reactiveResult, javaReturnType);
-                } else if (returnTypeInfo.isAsync()) {
-                    return reactiveResult.toFuture();
-                } else {
-                    String result = reactiveResult.block();
-                    return conversionService.convert(result, javaReturnType)
-                            .orElseThrow(() -> new PubSubClientException("Could not convert publisher result to method return type: " + javaReturnType));
-                }
+                    case SYNCHRONOUS -> {
+                        String result = reactiveResult.block();
+                        if (javaReturnType == void.class || javaReturnType == Void.class) {
+                            yield null;
+                        }
+                        yield convertResult(result, javaReturnType);
+                    }
+                };
+            } catch (Exception e) {
+                return interceptedMethod.handleException(e);
             }
         } else {
             return context.proceed();
@@ -201,6 +233,111 @@ public class PubSubClientIntroductionAdvice implements MethodInterceptor<Object,
 
     }
 
+    /**
+     * Publishes a message returned by a {@link io.micronaut.messaging.annotation.SendTo} listener method. The
+     * forwarding publisher of each topic is shared by all listeners, and publishes messages with the same schema
+     * validation, batching and tracing as the publishers of {@link PubSubClient} methods.
+     *
+     * @param topicName the topic to publish to
+     * @param message the message to publish
+     * @return a {@link Mono} emitting the id of the published message
+     * @since 5.8.0
+     */
+    Mono<String> forward(ProjectTopicName topicName, PubsubMessage message) {
+        return publish(forwardingState(topicName), message, null);
+    }
+
+    /**
+     * Publishes a message returned by a {@link io.micronaut.messaging.annotation.SendTo} listener method, which is built
+     * once the trace context has been injected into it.
+     *
+     * @param topicName the topic to publish to
+     * @param messageBuilder the builder of the message to publish, not to be used by the caller afterwards
+     * @return a {@link Mono} emitting the id of the published message
+     * @since 5.8.0
+     */
+    Mono<String> forward(ProjectTopicName topicName, PubsubMessage.Builder messageBuilder) {
+        return publish(forwardingState(topicName), null, messageBuilder);
+    }
+
+    private PubSubPublisherState forwardingState(ProjectTopicName topicName) {
+        return forwardingStateCache.computeIfAbsent(topicName, name -> {
+            PubSubPublisherState.TopicState topicState = new PubSubPublisherState.TopicState(MediaType.APPLICATION_JSON, name, "", pubSubConfigurationProperties.getTopicEndpoint(), false);
+            logger.debug("Created a new forwarding publisher for topic: {}", name);
+            return new PubSubPublisherState(topicState, Map.of(), Argument.OBJECT_ARGUMENT, createPublisher(topicState), Optional.empty(), findSchemaValidator(name), null);
+        });
+    }
+
+    /**
+     * Publishes either a built message, which is only copied into a builder if the trace context has to be injected
+     * into it, or a message builder, which is built after the trace context has been injected.
+     */
+    private Mono<String> publish(PubSubPublisherState publisherState, @Nullable PubsubMessage message, @Nullable PubsubMessage.Builder messageBuilder) {
+        PublisherInterface publisher = publisherState.getPublisher();
+        MessageSchemaValidator schemaValidator = publisherState.getSchemaValidator();
+        ProjectTopicName topicName = publisherState.getTopicState().getProjectTopicName();
+        return Mono.create(sink -> {
+            PubsubMessage publishedMessage;
+            PubSubSpan span = null;
+            if (tracer != null) {
+                PubsubMessage.Builder tracedMessage = messageBuilder != null ? messageBuilder : message.toBuilder();
+                span = tracer.startPublish(topicName, tracedMessage);
+                publishedMessage = tracedMessage.build();
+            } else {
+                publishedMessage = messageBuilder != null ? messageBuilder.build() : message;
+            }
+            PubSubSpan publishSpan = span;
+            ApiFuture<String> future;
+            try {
+                if (schemaValidator != null) {
+                    // invalid messages fail before taking up batching and flow control capacity of the publisher
+                    schemaValidator.validate(publishedMessage);
+                }
+                future = publisher.publish(publishedMessage);
+            } catch (RuntimeException e) {
+                if (publishSpan != null) {
+                    publishSpan.error(e);
+                    publishSpan.end();
+                }
+                throw e;
+            }
+            future.addListener(() -> {
+                try {
+                    final String result = future.get();
+                    sink.success(result);
+                } catch (Throwable e) {
+                    if (publishSpan != null) {
+                        publishSpan.error(e);
+                    }
+                    sink.error(e);
+                } finally {
+                    if (publishSpan != null) {
+                        publishSpan.end();
+                    }
+                }
+            }, executorService);
+        });
+    }
+
+    private PublisherInterface createPublisher(PubSubPublisherState.TopicState topicState) {
+        PublisherFactoryConfig publisherFactoryConfig = new PublisherFactoryConfig(topicState, pubSubConfigurationProperties.getPublishingExecutor());
+        PublisherInterface publisher = publisherFactory.createPublisher(publisherFactoryConfig);
+        if (adaptiveBatching != null) {
+            publisher = adaptiveBatching.apply(publisherFactoryConfig, publisher);
+        }
+        return publisher;
+    }
+
+    @Nullable
+    private MessageSchemaValidator findSchemaValidator(ProjectTopicName topicName) {
+        return schemaRegistry != null ? schemaRegistry.findValidator(topicName).orElse(null) : null;
+    }
+
+    private Object convertResult(String result, Class<?> type) {
+        return conversionService.convert(result, type)
+                .orElseThrow(() -> new PubSubClientException("Could not convert publisher result to method return type: " + type));
+    }
+
     private Optional<Argument<?>> findBodyArgument(ExecutableMethod<?, ?> method) {
         return Optional.ofNullable(Arrays.stream(method.getArguments())
                 .filter(argument -> argument.getAnnotationMetadata().hasAnnotation(MessageBody.class))
@@ -213,12 +350,13 @@ public class PubSubClientIntroductionAdvice implements MethodInterceptor<Object,
         );
     }
 
-    private Map.Entry<String, String> getNameAndValue(Argument argument, AnnotationValue<?> annotationValue, Map<String, Object> parameterValues) {
-        String argumentName = argument.getName();
-        String name = annotationValue.stringValue("name").orElse(annotationValue.getValue(String.class).orElse(argumentName));
-        String value = String.valueOf(parameterValues.get(argumentName));
-
-        return new AbstractMap.SimpleEntry<>(name, value);
+    private static int indexOf(Argument<?>[] arguments, Argument<?> argument) {
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i].getName().equals(argument.getName())) {
+                return i;
+            }
+        }
+        throw new PubSubClientException("No argument named " + argument.getName() + " found");
     }
 
     @Override
@@ -227,5 +365,8 @@ public class PubSubClientIntroductionAdvice implements MethodInterceptor<Object,
         for (PubSubPublisherState publisherState : publisherStateCache.values()) {
             publisherState.close();
         }
+        for (PubSubPublisherState publisherState : forwardingStateCache.values()) {
+            publisherState.close();
+        }
     }
 }
@@ -44,6 +44,9 @@ import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Implementation of an {@link ExecutableMethodProcessor} that creates {@link com.google.cloud.pubsub.v1.MessageReceiver}s to
@@ -108,22 +111,44 @@ final class PubSubPushConsumerAdvice extends AbstractPubSubConsumerMethodProcess
      * @param method         the executable method reference
      * @param executable     the bound executable subscription method
      * @param bean           the bean PubSub listener bean
-     * @return a {@link Flux} that will complete after subscriber execution
+     * @return a {@link Flux} emitting the result of the subscriber method, that will complete after subscriber execution
      */
     @Override
     protected Flux<Object> executeSubscriberMethod(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method, BoundExecutable<Object, Object> executable, Object bean) {
         Scheduler subscribeOnScheduler = schedulerFor(beanDefinition, method);
         if (subscribeOnScheduler != null) {
+            if (method.isSuspend()) {
+                return super.executeSubscriberMethod(beanDefinition, method, executable, bean).subscribeOn(subscribeOnScheduler);
+            }
             return Mono.fromCallable(() -> Objects.requireNonNull(executable).invoke(bean)).flux().subscribeOn(subscribeOnScheduler);
         }
         return super.executeSubscriberMethod(beanDefinition, method, executable, bean);
     }
 
+    /**
+     * Executes the batches of a batch subscriber method on the executor selected for the method, as for
+     * {@link #executeSubscriberMethod}, or on the {@link TaskExecutors#BLOCKING} executor otherwise, so that neither the HTTP
+     * event loop nor the scheduler thread of the linger timeout is blocked.
+     *
+     * @param beanDefinition the bean definition of the subscriber
+     * @param method         the executable method reference
+     * @return the executor of the batches
+     */
+    @Override
+    protected Executor selectBatchExecutor(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method) {
+        Optional<ExecutorService> executor = selectExecutor(beanDefinition, method);
+        return executor.isPresent() ? executor.get() : super.selectBatchExecutor(beanDefinition, method);
+    }
+
     private @Nullable Scheduler schedulerFor(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method) {
+        return selectExecutor(beanDefinition, method).map(Schedulers::fromExecutorService).orElse(null);
+    }
+
+    private Optional<ExecutorService> selectExecutor(BeanDefinition<?> beanDefinition, ExecutableMethod<?, ?> method) {
         if (beanDefinition.hasDeclaredAnnotation(ExecuteOn.class)) {
-            return executorSelector.select(beanDefinition.stringValue(EXECUTE_ON).orElse(null)).map(Schedulers::fromExecutorService).orElse(null);
+            return executorSelector.select(beanDefinition.stringValue(EXECUTE_ON).orElse(null));
         }
-        return executorSelector.select(method, null).map(Schedulers::fromExecutorService).orElse(null);
+        return executorSelector.select(method, null);
     }
 
 }
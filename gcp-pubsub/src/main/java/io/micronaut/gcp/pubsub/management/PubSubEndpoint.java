@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.management;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.gcp.GoogleCloudConfiguration;
+import io.micronaut.gcp.pubsub.bind.SubscriberFactory;
+import io.micronaut.gcp.pubsub.bind.SubscriberStatus;
+import io.micronaut.gcp.pubsub.support.PubSubSubscriptionUtils;
+import io.micronaut.http.MediaType;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import io.micronaut.management.endpoint.annotation.Selector;
+import io.micronaut.management.endpoint.annotation.Write;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A management endpoint that lists the PubSub pull subscribers and allows pausing, resuming and changing the flow
+ * control limits of a subscriber at runtime, for example to shed load while a downstream dependency is degraded.
+ *
+ * <p>
+ * Subscriptions are selected by their simple name, which is resolved against the configured GCP project id.
+ * </p>
+ *
+ * @since 5.8.0
+ */
+@Requires(classes = Endpoint.class)
+@Requires(beans = SubscriberFactory.class)
+@Endpoint(id = PubSubEndpoint.NAME, defaultEnabled = false)
+public class PubSubEndpoint {
+
+    /**
+     * The id of the endpoint.
+     */
+    public static final String NAME = "pubsub";
+
+    private final SubscriberFactory subscriberFactory;
+    private final GoogleCloudConfiguration googleCloudConfiguration;
+
+    /**
+     * @param subscriberFactory the subscriber factory holding the registered subscribers
+     * @param googleCloudConfiguration the GCP configuration used to resolve subscription names
+     */
+    public PubSubEndpoint(SubscriberFactory subscriberFactory, GoogleCloudConfiguration googleCloudConfiguration) {
+        this.subscriberFactory = subscriberFactory;
+        this.googleCloudConfiguration = googleCloudConfiguration;
+    }
+
+    /**
+     * @return the status of all registered subscribers
+     */
+    @Read
+    public List<SubscriberStatus> subscribers() {
+        return subscriberFactory.getSubscribers();
+    }
+
+    /**
+     * @param subscription the subscription name
+     * @return the status of the subscriber, or {@code null} if there is no subscriber for the subscription
+     */
+    @Read
+    public SubscriberStatus subscriber(@Selector String subscription) {
+        return subscriberFactory.getSubscriber(toProjectSubscriptionName(subscription)).orElse(null);
+    }
+
+    /**
+     * Updates a subscriber. Flow control changes are applied before pausing or resuming the subscriber.
+     *
+     * @param subscription the subscription name
+     * @param paused {@code true} to pause the subscriber, {@code false} to resume it, or {@code null} to leave it unchanged
+     * @param maxOutstandingElementCount the new maximum number of outstanding messages, or {@code null} to leave it unchanged
+     * @param maxOutstandingRequestBytes the new maximum number of outstanding bytes, or {@code null} to leave it unchanged
+     * @return the updated status of the subscriber, or {@code null} if there is no subscriber for the subscription
+     */
+    @Write(consumes = MediaType.APPLICATION_JSON)
+    public SubscriberStatus update(@Selector String subscription,
+                                   @Nullable Boolean paused,
+                                   @Nullable Long maxOutstandingElementCount,
+                                   @Nullable Long maxOutstandingRequestBytes) {
+        ProjectSubscriptionName subscriptionName = toProjectSubscriptionName(subscription);
+        Optional<SubscriberStatus> status = subscriberFactory.getSubscriber(subscriptionName);
+        if (status.isPresent() && (maxOutstandingElementCount != null || maxOutstandingRequestBytes != null)) {
+            status = subscriberFactory.updateFlowControl(subscriptionName, maxOutstandingElementCount, maxOutstandingRequestBytes);
+        }
+        if (status.isPresent() && paused != null) {
+            status = paused ? subscriberFactory.pause(subscriptionName) : subscriberFactory.resume(subscriptionName);
+        }
+        return status.orElse(null);
+    }
+
+    private ProjectSubscriptionName toProjectSubscriptionName(String subscription) {
+        return PubSubSubscriptionUtils.toProjectSubscriptionName(subscription, googleCloudConfiguration.getProjectId());
+    }
+}
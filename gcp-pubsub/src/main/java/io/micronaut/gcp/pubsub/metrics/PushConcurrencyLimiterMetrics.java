@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.pubsub.push.PushConcurrencyLimiter;
+import jakarta.inject.Singleton;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+
+/**
+ * Binds the state of the {@link PushConcurrencyLimiter} to Micrometer.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(beans = PushConcurrencyLimiter.class)
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".pubsub.enabled", notEquals = StringUtils.FALSE)
+public class PushConcurrencyLimiterMetrics implements MeterBinder {
+
+    public static final String PREFIX = "pubsub.push.limiter";
+
+    private final PushConcurrencyLimiter limiter;
+
+    public PushConcurrencyLimiterMetrics(PushConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".limit", limiter, PushConcurrencyLimiter::getLimit)
+            .description("The maximum number of push messages processed concurrently across all subscriptions")
+            .baseUnit(BaseUnits.MESSAGES)
+            .register(registry);
+        Gauge.builder(PREFIX + ".in.flight", limiter, PushConcurrencyLimiter::getInFlight)
+            .description("The number of push messages being processed across all subscriptions")
+            .baseUnit(BaseUnits.MESSAGES)
+            .register(registry);
+        FunctionCounter.builder(PREFIX + ".rejected", limiter, PushConcurrencyLimiter::getRejectedCount)
+            .description("The number of push messages rejected by a concurrency limit")
+            .baseUnit(BaseUnits.MESSAGES)
+            .register(registry);
+        limiter.addRegistrationListener(subscription -> {
+            Tags tags = Tags.of("subscription", subscription);
+            Gauge.builder(PREFIX + ".subscription.limit", limiter, l -> l.getLimit(subscription))
+                .description("The maximum number of push messages of the subscription processed concurrently")
+                .baseUnit(BaseUnits.MESSAGES)
+                .tags(tags)
+                .register(registry);
+            Gauge.builder(PREFIX + ".subscription.in.flight", limiter, l -> l.getInFlight(subscription))
+                .description("The number of push messages of the subscription being processed")
+                .baseUnit(BaseUnits.MESSAGES)
+                .tags(tags)
+                .register(registry);
+            FunctionCounter.builder(PREFIX + ".subscription.rejected", limiter, l -> l.getRejectedCount(subscription))
+                .description("The number of push messages of the subscription rejected by its concurrency limit")
+                .baseUnit(BaseUnits.MESSAGES)
+                .tags(tags)
+                .register(registry);
+        });
+    }
+}
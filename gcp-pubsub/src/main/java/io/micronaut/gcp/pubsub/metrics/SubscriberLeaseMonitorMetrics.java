@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.pubsub.bind.SubscriberLeaseMonitor;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+
+/**
+ * Binds the in-flight messages and the lease expirations tracked by the {@link SubscriberLeaseMonitor} to Micrometer.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(beans = SubscriberLeaseMonitor.class)
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".pubsub.enabled", notEquals = StringUtils.FALSE)
+public class SubscriberLeaseMonitorMetrics implements MeterBinder {
+
+    public static final String PREFIX = "pubsub.subscriber.leases";
+
+    private final SubscriberLeaseMonitor leaseMonitor;
+
+    public SubscriberLeaseMonitorMetrics(SubscriberLeaseMonitor leaseMonitor) {
+        this.leaseMonitor = leaseMonitor;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        leaseMonitor.addRegistrationListener(subscription -> {
+            String tag = subscription.toString();
+            Gauge.builder(PREFIX + ".in-flight", leaseMonitor, m -> m.getInFlightCount(subscription))
+                .description("The number of messages of the subscription that are being processed")
+                .baseUnit(BaseUnits.MESSAGES)
+                .tag("subscription", tag)
+                .register(registry);
+            Gauge.builder(PREFIX + ".oldest.age", leaseMonitor, m -> m.getOldestLeaseAge(subscription).toNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("The age of the oldest message of the subscription that is being processed")
+                .baseUnit(BaseUnits.SECONDS)
+                .tag("subscription", tag)
+                .register(registry);
+            FunctionCounter.builder(PREFIX + ".near-expiry", leaseMonitor, m -> m.getNearExpiryCount(subscription))
+                .description("The number of messages of the subscription that reached the warning threshold of their lease")
+                .baseUnit(BaseUnits.MESSAGES)
+                .tag("subscription", tag)
+                .register(registry);
+            FunctionCounter.builder(PREFIX + ".expired", leaseMonitor, m -> m.getExpiredCount(subscription))
+                .description("The number of messages of the subscription whose lease expired while they were being processed")
+                .baseUnit(BaseUnits.MESSAGES)
+                .tag("subscription", tag)
+                .register(registry);
+            FunctionCounter.builder(PREFIX + ".extensions.rejected", leaseMonitor, m -> m.getRejectedExtensionCount(subscription))
+                .description("The number of expected processing times of the subscription that exceeded the max ack extension period")
+                .tag("subscription", tag)
+                .register(registry);
+        });
+    }
+}
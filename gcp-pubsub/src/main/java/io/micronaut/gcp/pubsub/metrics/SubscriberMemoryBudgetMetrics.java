@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.pubsub.bind.SubscriberMemoryBudget;
+import jakarta.inject.Singleton;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+
+/**
+ * Binds the usage of the {@link SubscriberMemoryBudget} to Micrometer.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(beans = SubscriberMemoryBudget.class)
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".pubsub.enabled", notEquals = StringUtils.FALSE)
+public class SubscriberMemoryBudgetMetrics implements MeterBinder {
+
+    public static final String PREFIX = "pubsub.subscriber.memory.budget";
+
+    private final SubscriberMemoryBudget memoryBudget;
+
+    public SubscriberMemoryBudgetMetrics(SubscriberMemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".max", memoryBudget, SubscriberMemoryBudget::getMaxOutstandingBytes)
+            .description("The maximum number of bytes that may be outstanding across all subscriptions")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+        Gauge.builder(PREFIX + ".used", memoryBudget, SubscriberMemoryBudget::getOutstandingBytes)
+            .description("The number of bytes outstanding across all subscriptions")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+        Gauge.builder(PREFIX + ".waiting", memoryBudget, SubscriberMemoryBudget::getWaitingCount)
+            .description("The number of messages waiting to be admitted against the memory budget")
+            .baseUnit(BaseUnits.MESSAGES)
+            .register(registry);
+        memoryBudget.addRegistrationListener(subscription -> {
+            Tags tags = Tags.of("subscription", subscription.toString());
+            Gauge.builder(PREFIX + ".subscription.used", memoryBudget, budget -> budget.getOutstandingBytes(subscription))
+                .description("The number of bytes outstanding for the subscription")
+                .baseUnit(BaseUnits.BYTES)
+                .tags(tags)
+                .register(registry);
+            Gauge.builder(PREFIX + ".subscription.reserved", memoryBudget, budget -> budget.getReservedBytes(subscription))
+                .description("The number of bytes reserved for the subscription")
+                .baseUnit(BaseUnits.BYTES)
+                .tags(tags)
+                .register(registry);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.metrics;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.pubsub.bind.SubscriberScheduler;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+
+/**
+ * Binds the queue sizes and queue times of the {@link SubscriberScheduler} to Micrometer.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(beans = SubscriberScheduler.class)
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".pubsub.enabled", notEquals = StringUtils.FALSE)
+public class SubscriberSchedulerMetrics implements MeterBinder {
+
+    public static final String PREFIX = "pubsub.subscriber.scheduling";
+
+    private final SubscriberScheduler scheduler;
+
+    public SubscriberSchedulerMetrics(SubscriberScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".running", scheduler, SubscriberScheduler::getRunningCount)
+            .description("The number of listener invocations currently running")
+            .register(registry);
+        scheduler.addRegistrationListener(subscription -> Gauge.builder(PREFIX + ".queued", scheduler, s -> s.getQueuedCount(subscription))
+            .description("The number of messages of the subscription waiting to be dispatched")
+            .baseUnit(BaseUnits.MESSAGES)
+            .tag("subscription", subscription.toString())
+            .register(registry));
+        Map<ProjectSubscriptionName, Timer> queueTimers = new ConcurrentHashMap<>();
+        scheduler.addQueueTimeListener((subscription, nanos) -> queueTimers.computeIfAbsent(subscription, s -> Timer.builder(PREFIX + ".queue.time")
+            .description("The time messages of the subscription spent queued before being dispatched")
+            .tag("subscription", s.toString())
+            .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS));
+    }
+}
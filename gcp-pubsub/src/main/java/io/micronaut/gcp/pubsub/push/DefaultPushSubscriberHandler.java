@@ -18,7 +18,9 @@ package io.micronaut.gcp.pubsub.push;
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
@@ -37,24 +39,50 @@ import java.util.concurrent.ConcurrentHashMap;
 @Internal
 final class DefaultPushSubscriberHandler implements PushSubscriberHandler {
 
-    private final ConcurrentHashMap<ProjectSubscriptionName, MessageReceiver> receivers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final PushConcurrencyLimiter concurrencyLimiter;
 
     /**
-     * Default handling of incoming JSON push request messages.
+     * @param concurrencyLimiter the limiter of concurrently processed messages, if configured
+     */
+    DefaultPushSubscriberHandler(@Nullable PushConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    @Deprecated(since = "5.8.0")
+    public CompletableFuture<MutableHttpResponse<Object>> handleRequest(PushRequest pushRequest) {
+        return handleMessage(pushRequest.subscription(), pushRequest.message().asPubsubMessage());
+    }
+
+    /**
+     * Default handling of incoming push messages.
      *
-     * @param pushRequest the incoming JSON push request message
+     * @param subscriptionName the subscription from which the message originated
+     * @param message the decoded message
      * @return an appropriate HTTP response, with a status of {@link io.micronaut.http.HttpStatus#OK} to indicate an ack, or
      * {@link io.micronaut.http.HttpStatus#UNPROCESSABLE_ENTITY} to indicate an explicit nack to the PubSub service. Note that
      * any other error status codes that result from general errors during HTTP processing will also be interpreted as a nack by
-     * the PubSub service.
+     * the PubSub service. If a {@link PushConcurrencyLimiter} is configured, messages above its limits are rejected with its
+     * rejection status.
      */
     @Override
-    public CompletableFuture<MutableHttpResponse<Object>> handleRequest(PushRequest pushRequest) {
-        ProjectSubscriptionName subscription = ProjectSubscriptionName.parse(pushRequest.subscription());
-        if (receivers.containsKey(subscription)) {
-            MessageReceiver receiver = receivers.get(subscription);
-            var result = new CompletableFuture<AckReply>();
-            receiver.receiveMessage(pushRequest.message().asPubsubMessage(), new AckReplyConsumer() {
+    public CompletableFuture<MutableHttpResponse<Object>> handleMessage(String subscriptionName, PubsubMessage message) {
+        // the PubSub service sends the canonical subscription name, so the subscriber is resolved without parsing it
+        Subscriber subscriber = subscribers.get(subscriptionName);
+        if (subscriber == null) {
+            return CompletableFuture.completedFuture(HttpResponse.notFound("No subscribers were found for subscription " + subscriptionName));
+        }
+        PushConcurrencyLimiter.Permit permit = null;
+        if (subscriber.limit() != null) {
+            permit = subscriber.limit().tryAcquire();
+            if (permit == null) {
+                return CompletableFuture.completedFuture(HttpResponse.status(concurrencyLimiter.getRejectionStatus()).body(""));
+            }
+        }
+        var result = new CompletableFuture<AckReply>();
+        try {
+            subscriber.receiver().receiveMessage(message, new AckReplyConsumer() {
                     @Override
                     public void ack() {
                         result.complete(AckReply.ACK);
@@ -65,24 +93,39 @@ final class DefaultPushSubscriberHandler implements PushSubscriberHandler {
                         result.complete(AckReply.NACK);
                     }
             });
-            return result.thenApply(reply -> switch (reply) {
-                case ACK -> HttpResponse.ok("");
-                case NACK -> HttpResponse.unprocessableEntity().body("");
-            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
         }
-        return CompletableFuture.completedFuture(HttpResponse.notFound("No subscribers were found for subscription " + pushRequest.subscription()));
+        if (permit != null) {
+            PushConcurrencyLimiter.Permit acquiredPermit = permit;
+            result.whenComplete((reply, error) -> acquiredPermit.release());
+        }
+        return result.thenApply(reply -> switch (reply) {
+            case ACK -> HttpResponse.ok("");
+            case NACK -> HttpResponse.unprocessableEntity().body("");
+        });
     }
 
     @Override
     public void addSubscriber(ProjectSubscriptionName projectSubscriptionName, MessageReceiver receiver) {
-        receivers.compute(projectSubscriptionName, (k, v) -> {
+        String subscriptionName = projectSubscriptionName.toString();
+        subscribers.compute(subscriptionName, (k, v) -> {
             if (v != null) {
-                throw new PubSubListenerException("Subscription %s is already registered for another method".formatted(projectSubscriptionName.toString()));
+                throw new PubSubListenerException("Subscription %s is already registered for another method".formatted(subscriptionName));
             }
-            return receiver;
+            return new Subscriber(receiver, concurrencyLimiter == null ? null : concurrencyLimiter.getSubscriptionLimit(subscriptionName));
         });
     }
 
+    /**
+     * A registered subscriber, resolved once so that dispatching a message takes a single lookup.
+     *
+     * @param receiver the receiver of the messages of the subscription
+     * @param limit the concurrency limit of the subscription, if configured
+     */
+    private record Subscriber(MessageReceiver receiver, @Nullable PushConcurrencyLimiter.SubscriptionLimit limit) {
+    }
+
     private enum AckReply {
         ACK,
         NACK
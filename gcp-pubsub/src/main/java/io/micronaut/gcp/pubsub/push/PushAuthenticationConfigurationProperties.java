@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for verifying the OIDC tokens sent by authenticated push subscriptions.
+ *
+ * @since 5.8.0
+ */
+@Requires(property = PushAuthenticationConfigurationProperties.PREFIX + ".enabled", value = StringUtils.TRUE)
+@ConfigurationProperties(PushAuthenticationConfigurationProperties.PREFIX)
+public class PushAuthenticationConfigurationProperties {
+
+    public static final String PREFIX = PubSubPushConfigurationProperties.PREFIX + ".authentication";
+
+    /**
+     * The default location of the keys Google signs OIDC tokens with.
+     */
+    public static final String DEFAULT_JWKS_URI = "https://www.googleapis.com/oauth2/v3/certs";
+
+    private boolean enabled;
+
+    private String audience;
+
+    private String serviceAccountEmail;
+
+    private List<String> issuers = new ArrayList<>(List.of("accounts.google.com", "https://accounts.google.com"));
+
+    private String jwksUri = DEFAULT_JWKS_URI;
+
+    private Duration jwksRefreshInterval = Duration.ofHours(1);
+
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    private int cacheSize = 1000;
+
+    /**
+     * Whether push requests must carry a valid OIDC token. Defaults to {@code false}.
+     * @return whether push authentication is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled whether push requests must carry a valid OIDC token
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The expected audience of the tokens, as configured on the push subscriptions. Required when push authentication is
+     * enabled, since tokens issued by Google for any other service would be accepted otherwise.
+     * @return the audience
+     */
+    public @Nullable String getAudience() {
+        return audience;
+    }
+
+    /**
+     * @param audience the expected audience of the tokens
+     */
+    public void setAudience(@Nullable String audience) {
+        this.audience = audience;
+    }
+
+    /**
+     * The email of the service account the push subscriptions authenticate as. If not set, the email is not verified.
+     * @return the service account email
+     */
+    public @Nullable String getServiceAccountEmail() {
+        return serviceAccountEmail;
+    }
+
+    /**
+     * @param serviceAccountEmail the email of the service account the push subscriptions authenticate as
+     */
+    public void setServiceAccountEmail(@Nullable String serviceAccountEmail) {
+        this.serviceAccountEmail = serviceAccountEmail;
+    }
+
+    /**
+     * The accepted issuers of the tokens. Defaults to the issuers used by Google.
+     * @return the issuers
+     */
+    public @NonNull List<String> getIssuers() {
+        return issuers;
+    }
+
+    /**
+     * @param issuers the accepted issuers of the tokens
+     */
+    public void setIssuers(List<String> issuers) {
+        if (issuers != null && !issuers.isEmpty()) {
+            this.issuers = issuers;
+        }
+    }
+
+    /**
+     * The location of the JSON Web Key Set used to verify the signature of tokens. Defaults to {@value #DEFAULT_JWKS_URI}.
+     * @return the JWKS location
+     */
+    public @NonNull String getJwksUri() {
+        return jwksUri;
+    }
+
+    /**
+     * @param jwksUri the location of the JSON Web Key Set used to verify the signature of tokens
+     */
+    public void setJwksUri(String jwksUri) {
+        if (StringUtils.isNotEmpty(jwksUri)) {
+            this.jwksUri = jwksUri;
+        }
+    }
+
+    /**
+     * How often the JSON Web Key Set is refreshed in the background. Defaults to 1 hour.
+     * @return the refresh interval
+     */
+    public @NonNull Duration getJwksRefreshInterval() {
+        return jwksRefreshInterval;
+    }
+
+    /**
+     * @param jwksRefreshInterval how often the JSON Web Key Set is refreshed in the background
+     */
+    public void setJwksRefreshInterval(Duration jwksRefreshInterval) {
+        if (jwksRefreshInterval != null) {
+            this.jwksRefreshInterval = jwksRefreshInterval;
+        }
+    }
+
+    /**
+     * The tolerated difference between the clocks of the token issuer and this service. Defaults to 30 seconds.
+     * @return the clock skew
+     */
+    public @NonNull Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    /**
+     * @param clockSkew the tolerated difference between the clocks of the token issuer and this service
+     */
+    public void setClockSkew(Duration clockSkew) {
+        if (clockSkew != null) {
+            this.clockSkew = clockSkew;
+        }
+    }
+
+    /**
+     * The maximum number of verified tokens that are cached until they expire. Defaults to {@code 1000}.
+     * @return the cache size
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * @param cacheSize the maximum number of verified tokens that are cached until they expire
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = Math.max(0, cacheSize);
+    }
+}
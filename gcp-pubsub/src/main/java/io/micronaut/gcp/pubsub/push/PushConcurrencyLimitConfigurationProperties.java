@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for limiting the number of push messages processed concurrently.
+ *
+ * @since 5.8.0
+ */
+@Requires(property = PushConcurrencyLimitConfigurationProperties.PREFIX + ".enabled", value = StringUtils.TRUE)
+@ConfigurationProperties(PushConcurrencyLimitConfigurationProperties.PREFIX)
+public class PushConcurrencyLimitConfigurationProperties {
+
+    public static final String PREFIX = PubSubPushConfigurationProperties.PREFIX + ".concurrency-limit";
+
+    private boolean enabled;
+
+    private int maxConcurrency;
+
+    private int maxConcurrencyPerSubscription;
+
+    private HttpStatus rejectionStatus = HttpStatus.TOO_MANY_REQUESTS;
+
+    private boolean adaptive;
+
+    private int minConcurrency = 1;
+
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+
+    private double backoffRatio = 0.9;
+
+    /**
+     * Whether push messages are subject to concurrency limits. Defaults to {@code false}.
+     * @return whether concurrency limiting is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled whether push messages are subject to concurrency limits
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The maximum number of push messages processed concurrently across all subscriptions, or {@code 0} for no limit. Defaults to {@code 0}.
+     * @return the global concurrency limit
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @param maxConcurrency the maximum number of push messages processed concurrently across all subscriptions
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(0, maxConcurrency);
+    }
+
+    /**
+     * The maximum number of push messages of a single subscription processed concurrently, or {@code 0} for no limit. Defaults to {@code 0}.
+     * @return the per subscription concurrency limit
+     */
+    public int getMaxConcurrencyPerSubscription() {
+        return maxConcurrencyPerSubscription;
+    }
+
+    /**
+     * @param maxConcurrencyPerSubscription the maximum number of push messages of a single subscription processed concurrently
+     */
+    public void setMaxConcurrencyPerSubscription(int maxConcurrencyPerSubscription) {
+        this.maxConcurrencyPerSubscription = Math.max(0, maxConcurrencyPerSubscription);
+    }
+
+    /**
+     * The status of the response sent for push messages rejected by a concurrency limit. The PubSub service treats it as a
+     * nack and slows down the delivery of messages. Defaults to {@code 429 Too Many Requests}.
+     * @return the rejection status
+     */
+    public HttpStatus getRejectionStatus() {
+        return rejectionStatus;
+    }
+
+    /**
+     * @param rejectionStatus the status of the response sent for push messages rejected by a concurrency limit
+     */
+    public void setRejectionStatus(HttpStatus rejectionStatus) {
+        if (rejectionStatus != null) {
+            this.rejectionStatus = rejectionStatus;
+        }
+    }
+
+    /**
+     * Whether the limits adapt to the latency of the subscriber methods. Adaptive limits start at the configured maximum,
+     * decrease when processing a message takes longer than {@link #getLatencyThreshold()} and grow back while it does not.
+     * Defaults to {@code false}.
+     * @return whether the limits are adaptive
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @param adaptive whether the limits adapt to the latency of the subscriber methods
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * The lower bound of adaptive limits. Defaults to {@code 1}.
+     * @return the minimum concurrency
+     */
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+
+    /**
+     * @param minConcurrency the lower bound of adaptive limits
+     */
+    public void setMinConcurrency(int minConcurrency) {
+        this.minConcurrency = Math.max(1, minConcurrency);
+    }
+
+    /**
+     * The processing time above which adaptive limits are decreased. Defaults to 1 second.
+     * @return the latency threshold
+     */
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    /**
+     * @param latencyThreshold the processing time above which adaptive limits are decreased
+     */
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        if (latencyThreshold != null) {
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+
+    /**
+     * The factor applied to adaptive limits when processing a message exceeds the latency threshold. Defaults to {@code 0.9}.
+     * @return the backoff ratio
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * @param backoffRatio the factor applied to adaptive limits when processing a message exceeds the latency threshold, between 0 and 1
+     */
+    public void setBackoffRatio(double backoffRatio) {
+        if (backoffRatio > 0 && backoffRatio < 1) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
+}
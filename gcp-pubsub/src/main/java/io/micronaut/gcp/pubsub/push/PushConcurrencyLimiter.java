@@ -0,0 +1,271 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Limits the number of push messages processed concurrently, globally and per subscription, as configured by
+ * {@link PushConcurrencyLimitConfigurationProperties}. Messages above a limit are rejected immediately, so that an
+ * overloaded instance sheds load instead of queueing it until requests time out.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Requires(beans = PushConcurrencyLimitConfigurationProperties.class)
+public class PushConcurrencyLimiter {
+
+    private final PushConcurrencyLimitConfigurationProperties configuration;
+    private final long latencyThresholdNanos;
+    private final ConcurrencyLimit globalLimit;
+    private final ConcurrentHashMap<String, ConcurrencyLimit> subscriptionLimits = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> registrationListeners = new CopyOnWriteArrayList<>();
+
+    public PushConcurrencyLimiter(PushConcurrencyLimitConfigurationProperties configuration) {
+        this.configuration = configuration;
+        this.latencyThresholdNanos = configuration.getLatencyThreshold().toNanos();
+        this.globalLimit = new ConcurrencyLimit(configuration.getMaxConcurrency());
+    }
+
+    /**
+     * Acquires a permit to process a message of the given subscription.
+     *
+     * @param subscription the subscription of the message
+     * @return the permit, to be released once the message has been processed, or {@code null} if a limit has been reached
+     */
+    public @Nullable Permit tryAcquire(@NonNull String subscription) {
+        return tryAcquire(subscriptionLimit(subscription));
+    }
+
+    /**
+     * Resolves the limit of a subscription, so that permits for its messages can be acquired without looking it up.
+     *
+     * @param subscription the fully-qualified subscription name
+     * @return the limit of the subscription
+     */
+    public @NonNull SubscriptionLimit getSubscriptionLimit(@NonNull String subscription) {
+        return new SubscriptionLimit(subscriptionLimit(subscription));
+    }
+
+    private @Nullable Permit tryAcquire(ConcurrencyLimit subscriptionLimit) {
+        if (!globalLimit.tryAcquire()) {
+            return null;
+        }
+        if (!subscriptionLimit.tryAcquire()) {
+            globalLimit.release();
+            return null;
+        }
+        return new Permit(subscriptionLimit, System.nanoTime());
+    }
+
+    /**
+     * @return the status of the response sent for rejected messages
+     */
+    public @NonNull HttpStatus getRejectionStatus() {
+        return configuration.getRejectionStatus();
+    }
+
+    /**
+     * @return the current global limit, or {@link Integer#MAX_VALUE} if there is none
+     */
+    public int getLimit() {
+        return globalLimit.limit;
+    }
+
+    /**
+     * @return the number of messages being processed across all subscriptions
+     */
+    public int getInFlight() {
+        return globalLimit.inFlight.get();
+    }
+
+    /**
+     * @return the number of messages rejected across all subscriptions
+     */
+    public long getRejectedCount() {
+        return globalLimit.rejected.get() + subscriptionLimits.values().stream().mapToLong(limit -> limit.rejected.get()).sum();
+    }
+
+    /**
+     * @param subscription the fully-qualified subscription name
+     * @return the current limit of the subscription, or {@link Integer#MAX_VALUE} if there is none
+     */
+    public int getLimit(@NonNull String subscription) {
+        ConcurrencyLimit limit = subscriptionLimits.get(subscription);
+        return limit == null ? configuredLimit(configuration.getMaxConcurrencyPerSubscription()) : limit.limit;
+    }
+
+    /**
+     * @param subscription the fully-qualified subscription name
+     * @return the number of messages of the subscription being processed
+     */
+    public int getInFlight(@NonNull String subscription) {
+        ConcurrencyLimit limit = subscriptionLimits.get(subscription);
+        return limit == null ? 0 : limit.inFlight.get();
+    }
+
+    /**
+     * @param subscription the fully-qualified subscription name
+     * @return the number of messages of the subscription rejected by its limit
+     */
+    public long getRejectedCount(@NonNull String subscription) {
+        ConcurrencyLimit limit = subscriptionLimits.get(subscription);
+        return limit == null ? 0 : limit.rejected.get();
+    }
+
+    /**
+     * @return the subscriptions that have been registered or for which messages have been received
+     */
+    public @NonNull Set<String> getSubscriptions() {
+        return subscriptionLimits.keySet();
+    }
+
+    /**
+     * Registers a listener notified the first time a subscription is registered or a message is received for it.
+     *
+     * @param listener the listener, receiving the fully-qualified subscription name
+     */
+    public void addRegistrationListener(@NonNull Consumer<String> listener) {
+        registrationListeners.add(listener);
+        subscriptionLimits.keySet().forEach(listener);
+    }
+
+    private ConcurrencyLimit subscriptionLimit(String subscription) {
+        ConcurrencyLimit limit = subscriptionLimits.get(subscription);
+        if (limit != null) {
+            return limit;
+        }
+        boolean[] added = new boolean[1];
+        limit = subscriptionLimits.computeIfAbsent(subscription, name -> {
+            added[0] = true;
+            return new ConcurrencyLimit(configuration.getMaxConcurrencyPerSubscription());
+        });
+        if (added[0]) {
+            registrationListeners.forEach(listener -> listener.accept(subscription));
+        }
+        return limit;
+    }
+
+    private static int configuredLimit(int maxConcurrency) {
+        return maxConcurrency == 0 ? Integer.MAX_VALUE : maxConcurrency;
+    }
+
+    /**
+     * The pre-resolved limit of a subscription.
+     */
+    public final class SubscriptionLimit {
+
+        private final ConcurrencyLimit limit;
+
+        private SubscriptionLimit(ConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Acquires a permit to process a message of the subscription.
+         *
+         * @return the permit, to be released once the message has been processed, or {@code null} if a limit has been reached
+         */
+        public @Nullable Permit tryAcquire() {
+            return PushConcurrencyLimiter.this.tryAcquire(limit);
+        }
+    }
+
+    /**
+     * A permit to process a push message.
+     */
+    public final class Permit {
+
+        private final ConcurrencyLimit subscriptionLimit;
+        private final long acquiredAt;
+        private final AtomicInteger released = new AtomicInteger();
+
+        private Permit(ConcurrencyLimit subscriptionLimit, long acquiredAt) {
+            this.subscriptionLimit = subscriptionLimit;
+            this.acquiredAt = acquiredAt;
+        }
+
+        /**
+         * Releases the permit once the message has been processed. Subsequent invocations have no effect.
+         */
+        public void release() {
+            if (released.compareAndSet(0, 1)) {
+                long latency = System.nanoTime() - acquiredAt;
+                subscriptionLimit.release(latency);
+                globalLimit.release(latency);
+            }
+        }
+    }
+
+    /**
+     * A concurrency limit that, when adaptive, is adjusted using additive increase and multiplicative decrease.
+     */
+    private final class ConcurrencyLimit {
+
+        private final int maxLimit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile int limit;
+
+        private ConcurrencyLimit(int maxConcurrency) {
+            this.maxLimit = configuredLimit(maxConcurrency);
+            this.limit = maxLimit;
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        void release(long latencyNanos) {
+            int previousInFlight = inFlight.getAndDecrement();
+            if (configuration.isAdaptive() && maxLimit != Integer.MAX_VALUE) {
+                synchronized (this) {
+                    if (latencyNanos > latencyThresholdNanos) {
+                        limit = Math.max(configuration.getMinConcurrency(), (int) (limit * configuration.getBackoffRatio()));
+                    } else if (previousInFlight * 2 >= limit) {
+                        // only grow while the limit is actually used
+                        limit = Math.min(maxLimit, limit + 1);
+                    }
+                }
+            }
+        }
+    }
+}
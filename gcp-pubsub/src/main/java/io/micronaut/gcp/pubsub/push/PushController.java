@@ -15,13 +15,21 @@
  */
 package io.micronaut.gcp.pubsub.push;
 
+import io.micronaut.context.annotation.Executable;
 import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.async.annotation.SingleResult;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Header;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.http.exceptions.HttpStatusException;
+import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 
 import java.util.concurrent.CompletableFuture;
@@ -40,6 +48,11 @@ import java.util.concurrent.CompletableFuture;
  * the corresponding {@link io.micronaut.gcp.pubsub.annotation.PushSubscription} method for the subscription.
  * </p>
  *
+ * <p>
+ * Subscriptions that declare a dedicated {@link io.micronaut.gcp.pubsub.annotation.PushSubscription#path()} are also accepted
+ * at that path, which only accepts messages of the subscription it is bound to.
+ * </p>
+ *
  * @author Jeremy Grelle
  * @since 5.4.0
  */
@@ -49,6 +62,8 @@ import java.util.concurrent.CompletableFuture;
 public class PushController {
 
     private final PushSubscriberHandler handler;
+    private final PushTokenVerifier tokenVerifier;
+    private final PushSubscriptionRouteBuilder subscriptionRoutes;
 
     /**
      * Constructor for the push controller.
@@ -56,20 +71,102 @@ public class PushController {
      * @param handler the handler that implements processing of the incoming message
      */
     public PushController(PushSubscriberHandler handler) {
+        this(handler, null);
+    }
+
+    /**
+     * Constructor for the push controller.
+     *
+     * @param handler the handler that implements processing of the incoming message
+     * @param tokenVerifier the verifier of the OIDC tokens of authenticated push requests, if enabled
+     * @since 5.8.0
+     */
+    public PushController(PushSubscriberHandler handler, @Nullable PushTokenVerifier tokenVerifier) {
+        this(handler, tokenVerifier, null);
+    }
+
+    /**
+     * Constructor for the push controller.
+     *
+     * @param handler the handler that implements processing of the incoming message
+     * @param tokenVerifier the verifier of the OIDC tokens of authenticated push requests, if enabled
+     * @param subscriptionRoutes the dedicated push endpoints of subscriptions, if any
+     */
+    @Inject
+    PushController(PushSubscriberHandler handler, @Nullable PushTokenVerifier tokenVerifier, @Nullable PushSubscriptionRouteBuilder subscriptionRoutes) {
         this.handler = handler;
+        this.tokenVerifier = tokenVerifier;
+        this.subscriptionRoutes = subscriptionRoutes;
     }
 
     /**
-     * Handle incoming PubSub Push messages by deserializing them from their specified JSON format and forwarding the
-     * deserialized message to the configured {@link PushSubscriberHandler}. Validation is applied to the incoming message
-     * to ensure that it conforms to the format specified by GCP.
+     * Handle incoming PubSub Push messages by decoding them from their specified JSON format and forwarding the
+     * decoded message to the configured {@link PushSubscriberHandler}. The incoming message is validated while it
+     * is decoded to ensure that it conforms to the format specified by GCP.
      *
-     * @param message the incoming pub sub push request message
+     * @param body the incoming pub sub push request message
+     * @param authorization the authorization header of the request, verified if push authentication is enabled
      * @return an HTTP response to indicate ack or nack of the message to the PubSub service
      */
     @Post(consumes = MediaType.APPLICATION_JSON)
     @SingleResult
+    public CompletableFuture<MutableHttpResponse<Object>> handleEncodedPushRequest(@Body byte[] body,
+                                                                                  @Nullable @Header(HttpHeaders.AUTHORIZATION) String authorization) {
+        PushRequestDecoder.PushEnvelope envelope = decode(body, authorization);
+        return handler.handleMessage(envelope.subscription(), envelope.message());
+    }
+
+    /**
+     * Handle a PubSub Push message that was already deserialized, by forwarding it to the configured
+     * {@link PushSubscriberHandler}. Push requests are no longer routed to this method, as they are decoded directly
+     * from the request body by {@link #handleEncodedPushRequest(byte[], String)}.
+     *
+     * @param message the incoming pub sub push request message
+     * @return an HTTP response to indicate ack or nack of the message to the PubSub service
+     * @deprecated Use {@link #handleEncodedPushRequest(byte[], String)} instead.
+     */
+    @Deprecated(since = "5.8.0")
+    @SingleResult
     public CompletableFuture<MutableHttpResponse<Object>> handlePushRequest(@Valid @Body PushRequest message) {
         return handler.handleRequest(message);
     }
+
+    /**
+     * Handle incoming PubSub Push messages posted to the dedicated push endpoint of a subscription. Messages of any other
+     * subscription are rejected with {@link HttpStatus#BAD_REQUEST}, so that an endpoint configured for the wrong
+     * subscription does not silently deliver its messages to another method.
+     *
+     * @param request the incoming request, whose path identifies the endpoint
+     * @param body the incoming pub sub push request message
+     * @param authorization the authorization header of the request, verified if push authentication is enabled
+     * @return an HTTP response to indicate ack or nack of the message to the PubSub service
+     * @since 5.8.0
+     */
+    @Executable
+    @SingleResult
+    public CompletableFuture<MutableHttpResponse<Object>> handleSubscriptionPushRequest(HttpRequest<?> request,
+                                                                                       @Body byte[] body,
+                                                                                       @Nullable @Header(HttpHeaders.AUTHORIZATION) String authorization) {
+        String subscription = subscriptionRoutes == null ? null : subscriptionRoutes.findSubscription(request.getPath());
+        if (subscription == null) {
+            throw new HttpStatusException(HttpStatus.NOT_FOUND, "No subscription is bound to push endpoint " + request.getPath());
+        }
+        PushRequestDecoder.PushEnvelope envelope = decode(body, authorization);
+        if (!subscription.equals(envelope.subscription())) {
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, "invalid pubsub push request - message of subscription %s pushed to the endpoint of subscription %s"
+                .formatted(envelope.subscription(), subscription));
+        }
+        return handler.handleMessage(subscription, envelope.message());
+    }
+
+    private PushRequestDecoder.PushEnvelope decode(byte[] body, @Nullable String authorization) {
+        if (tokenVerifier != null && !tokenVerifier.verify(authorization)) {
+            throw new HttpStatusException(HttpStatus.UNAUTHORIZED, "invalid pubsub push request - missing or invalid authentication token");
+        }
+        try {
+            return PushRequestDecoder.decode(body);
+        } catch (IllegalArgumentException e) {
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
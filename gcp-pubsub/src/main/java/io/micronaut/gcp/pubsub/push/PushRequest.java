@@ -15,8 +15,8 @@
  */
 package io.micronaut.gcp.pubsub.push;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.Timestamp;
+import com.google.protobuf.UnsafeByteOperations;
 import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.StringUtils;
@@ -27,7 +27,6 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.Instant;
-import java.time.ZonedDateTime;
 import java.util.Base64;
 import java.util.Map;
 
@@ -57,13 +56,11 @@ public record PushRequest(@NotBlank String subscription, @Valid @NotNull PushMes
 
         PubsubMessage asPubsubMessage() {
 
-            Instant publishTimeInstant = ZonedDateTime.parse(publishTime()).toInstant();
-            Timestamp publishTimeStamp = Timestamp.newBuilder().setSeconds(publishTimeInstant.getEpochSecond()).setNanos(publishTimeInstant.getNano()).build();
             PubsubMessage.Builder messageBuilder = PubsubMessage.newBuilder().setMessageId(messageId())
-                .setPublishTime(publishTimeStamp);
+                .setPublishTime(PushRequestDecoder.parseTimestamp(publishTime()));
 
             if (StringUtils.isNotEmpty(data)) {
-                messageBuilder.setData(ByteString.copyFrom(Base64.getDecoder().decode(data())));
+                messageBuilder.setData(UnsafeByteOperations.unsafeWrap(Base64.getDecoder().decode(data())));
             }
 
             if (CollectionUtils.isNotEmpty(attributes)) {
@@ -72,5 +69,13 @@ public record PushRequest(@NotBlank String subscription, @Valid @NotNull PushMes
 
             return messageBuilder.build();
         }
+
+        static PushMessage from(PubsubMessage message) {
+            Timestamp publishTime = message.getPublishTime();
+            return new PushMessage(message.getAttributesMap(),
+                Base64.getEncoder().encodeToString(message.getData().toByteArray()),
+                message.getMessageId(),
+                Instant.ofEpochSecond(publishTime.getSeconds(), publishTime.getNanos()).toString());
+        }
     }
 }
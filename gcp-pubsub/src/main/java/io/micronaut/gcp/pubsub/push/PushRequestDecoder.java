@@ -0,0 +1,466 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A single pass decoder for the JSON envelope of PubSub push requests.
+ * <p>
+ * Unlike binding a {@link PushRequest}, the decoder never materializes the Base64 encoded {@code data} field as a
+ * {@link String}: it is decoded straight from the request body into the buffer backing the {@link PubsubMessage}.
+ * The constraints of {@link PushRequest} are checked while decoding, so no separate validation pass is required. All
+ * violations of an envelope are reported together, with the same messages as the bean validation of {@link PushRequest}.
+ *
+ * @since 5.8.0
+ */
+@Internal
+final class PushRequestDecoder {
+
+    static final String INVALID_PUSH_MESSAGE = "message: invalid pubsub push request message - message must contain either a non-empty data field or at least one attribute";
+    static final String BLANK_SUBSCRIPTION = "subscription: must not be blank";
+    static final String NULL_MESSAGE = "message: must not be null";
+    static final String BLANK_MESSAGE_ID = "message.messageId: must not be blank";
+    static final String BLANK_PUBLISH_TIME = "message.publishTime: must not be blank";
+    static final String INVALID_PUBLISH_TIME = "message.publishTime: must be a valid RFC 3339 timestamp";
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] NANOS_SCALE = {0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+    private final byte[] json;
+    private int pos;
+
+    private PushRequestDecoder(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * Decodes a push request.
+     *
+     * @param json the JSON body of the push request
+     * @return the decoded push request
+     * @throws IllegalArgumentException if the body is not a valid push request, with the violated constraints as its message
+     */
+    static @NonNull PushEnvelope decode(@NonNull byte[] json) {
+        return new PushRequestDecoder(json).readEnvelope();
+    }
+
+    /**
+     * Parses an RFC 3339 timestamp, such as the publish time of push messages.
+     *
+     * @param value the timestamp
+     * @return the parsed timestamp
+     * @throws DateTimeException if the value is not a valid timestamp
+     */
+    static @NonNull Timestamp parseTimestamp(@NonNull String value) {
+        Timestamp timestamp = parseUtcTimestamp(value);
+        if (timestamp != null) {
+            return timestamp;
+        }
+        Instant instant = ZonedDateTime.parse(value).toInstant();
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
+
+    /**
+     * Fast path for the {@code yyyy-MM-ddTHH:mm:ss[.fraction]Z} format used by the PubSub service.
+     *
+     * @return the timestamp, or {@code null} if the value has another format
+     */
+    private static Timestamp parseUtcTimestamp(String value) {
+        int length = value.length();
+        if (length < 20 || value.charAt(4) != '-' || value.charAt(7) != '-' || (value.charAt(10) != 'T' && value.charAt(10) != 't')
+            || value.charAt(13) != ':' || value.charAt(16) != ':' || (value.charAt(length - 1) != 'Z' && value.charAt(length - 1) != 'z')) {
+            return null;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+            || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        int nanos = 0;
+        if (length > 20) {
+            int fractionDigits = length - 21;
+            if (value.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            int fraction = digits(value, 20, fractionDigits);
+            if (fraction < 0) {
+                return null;
+            }
+            nanos = fraction * NANOS_SCALE[fractionDigits];
+        }
+        long seconds = daysSinceEpoch(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return Timestamp.newBuilder().setSeconds(seconds).setNanos(nanos).build();
+    }
+
+    private static int digits(String value, int offset, int count) {
+        int result = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * Converts a proleptic Gregorian date into the number of days since 1970-01-01.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    private PushEnvelope readEnvelope() {
+        List<String> violations = new ArrayList<>(2);
+        String subscription = null;
+        PubsubMessage message = null;
+        boolean hasMessage = false;
+        expect('{');
+        if (!nextIf('}')) {
+            do {
+                switch (readKey()) {
+                    case "subscription" -> subscription = readNullableString();
+                    case "message" -> {
+                        hasMessage = !nextIfNull();
+                        message = hasMessage ? readMessage(violations) : null;
+                    }
+                    default -> skipValue();
+                }
+            } while (nextMember());
+        }
+        skipWhitespace();
+        if (pos != json.length) {
+            throw malformed();
+        }
+        if (subscription == null || subscription.isBlank()) {
+            violations.add(0, BLANK_SUBSCRIPTION);
+        }
+        if (!hasMessage) {
+            violations.add(NULL_MESSAGE);
+        }
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", violations));
+        }
+        return new PushEnvelope(subscription, message);
+    }
+
+    /**
+     * Reads the message object of the envelope.
+     *
+     * @param violations the list to add the violated constraints of the message to
+     * @return the message, or {@code null} if it violates a constraint
+     */
+    private PubsubMessage readMessage(List<String> violations) {
+        PubsubMessage.Builder builder = PubsubMessage.newBuilder();
+        String messageId = null;
+        String publishTime = null;
+        boolean hasData = false;
+        boolean hasAttributes = false;
+        expect('{');
+        if (!nextIf('}')) {
+            do {
+                switch (readKey()) {
+                    case "data" -> hasData = readData(builder);
+                    case "attributes" -> hasAttributes = readAttributes(builder);
+                    case "messageId", "message_id" -> messageId = readNullableString();
+                    case "publishTime", "publish_time" -> publishTime = readNullableString();
+                    case "orderingKey", "ordering_key" -> {
+                        String orderingKey = readNullableString();
+                        if (orderingKey != null) {
+                            builder.setOrderingKey(orderingKey);
+                        }
+                    }
+                    default -> skipValue();
+                }
+            } while (nextMember());
+        }
+        int violationCount = violations.size();
+        if (!hasData && !hasAttributes) {
+            violations.add(INVALID_PUSH_MESSAGE);
+        }
+        if (messageId == null || messageId.isBlank()) {
+            violations.add(BLANK_MESSAGE_ID);
+        }
+        if (publishTime == null || publishTime.isBlank()) {
+            violations.add(BLANK_PUBLISH_TIME);
+        } else {
+            try {
+                builder.setPublishTime(parseTimestamp(publishTime));
+            } catch (DateTimeException e) {
+                violations.add(INVALID_PUBLISH_TIME);
+            }
+        }
+        if (violations.size() != violationCount) {
+            return null;
+        }
+        return builder.setMessageId(messageId).build();
+    }
+
+    private boolean readData(PubsubMessage.Builder builder) {
+        if (nextIfNull()) {
+            return false;
+        }
+        expect('"');
+        int start = pos;
+        int end = scanString();
+        if (pos - 1 == start) {
+            return false;
+        }
+        if (end == pos - 1) {
+            // the common case, without escape sequences: decode directly from the request body
+            ByteBuffer decoded = Base64.getDecoder().decode(ByteBuffer.wrap(json, start, end - start));
+            builder.setData(UnsafeByteOperations.unsafeWrap(decoded));
+        } else {
+            builder.setData(UnsafeByteOperations.unsafeWrap(Base64.getDecoder().decode(unescape(start))));
+        }
+        return true;
+    }
+
+    private boolean readAttributes(PubsubMessage.Builder builder) {
+        if (nextIfNull()) {
+            return false;
+        }
+        boolean hasAttributes = false;
+        expect('{');
+        if (!nextIf('}')) {
+            do {
+                String name = readKey();
+                String value = readNullableString();
+                if (value != null) {
+                    builder.putAttributes(name, value);
+                    hasAttributes = true;
+                }
+            } while (nextMember());
+        }
+        return hasAttributes;
+    }
+
+    private String readKey() {
+        String key = readString();
+        expect(':');
+        return key;
+    }
+
+    private String readNullableString() {
+        return nextIfNull() ? null : readString();
+    }
+
+    private String readString() {
+        expect('"');
+        int start = pos;
+        int end = scanString();
+        if (end == pos - 1) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+        return unescape(start);
+    }
+
+    /**
+     * Advances past the closing quote of a string starting at the current position.
+     *
+     * @return the position of the closing quote if the string contains no escape sequences, or the start position of the first escape sequence
+     */
+    private int scanString() {
+        int firstEscape = -1;
+        while (pos < json.length) {
+            byte b = json[pos++];
+            if (b == '"') {
+                return firstEscape == -1 ? pos - 1 : firstEscape;
+            } else if (b == '\\') {
+                if (firstEscape == -1) {
+                    firstEscape = pos - 1;
+                }
+                pos++;
+            }
+        }
+        throw malformed();
+    }
+
+    private String unescape(int start) {
+        StringBuilder builder = new StringBuilder();
+        int runStart = start;
+        int i = start;
+        while (json[i] != '"') {
+            if (json[i] != '\\') {
+                i++;
+                continue;
+            }
+            builder.append(new String(json, runStart, i - runStart, StandardCharsets.UTF_8));
+            byte escaped = json[i + 1];
+            i += 2;
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append((char) escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (i + 4 > json.length) {
+                        throw malformed();
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(new String(json, i, 4, StandardCharsets.US_ASCII), 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed();
+                    }
+                    i += 4;
+                }
+                default -> throw malformed();
+            }
+            runStart = i;
+        }
+        return builder.append(new String(json, runStart, i - runStart, StandardCharsets.UTF_8)).toString();
+    }
+
+    private void skipValue() {
+        skipWhitespace();
+        if (pos >= json.length) {
+            throw malformed();
+        }
+        switch (json[pos]) {
+            case '"' -> {
+                pos++;
+                scanString();
+            }
+            case '{' -> {
+                pos++;
+                if (!nextIf('}')) {
+                    do {
+                        readKey();
+                        skipValue();
+                    } while (nextMember());
+                }
+            }
+            case '[' -> {
+                pos++;
+                if (!nextIf(']')) {
+                    do {
+                        skipValue();
+                        skipWhitespace();
+                    } while (nextIf(','));
+                    expect(']');
+                }
+            }
+            default -> {
+                int start = pos;
+                while (pos < json.length && isLiteralByte(json[pos])) {
+                    pos++;
+                }
+                if (pos == start) {
+                    throw malformed();
+                }
+            }
+        }
+    }
+
+    private static boolean isLiteralByte(byte b) {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || b == '-' || b == '+' || b == '.' || b == 'E';
+    }
+
+    /**
+     * Consumes the separator after an object member.
+     *
+     * @return {@code true} if another member follows, {@code false} if the object ended
+     */
+    private boolean nextMember() {
+        skipWhitespace();
+        if (nextIf(',')) {
+            return true;
+        }
+        expect('}');
+        return false;
+    }
+
+    private boolean nextIfNull() {
+        skipWhitespace();
+        if (pos + 4 <= json.length && json[pos] == 'n' && json[pos + 1] == 'u' && json[pos + 2] == 'l' && json[pos + 3] == 'l') {
+            pos += 4;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean nextIf(char c) {
+        skipWhitespace();
+        if (pos < json.length && json[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!nextIf(c)) {
+            throw malformed();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length) {
+            byte b = json[pos];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed pubsub push request at offset " + pos);
+    }
+
+    /**
+     * A decoded push request.
+     *
+     * @param subscription the subscription from which the message originated
+     * @param message the message
+     */
+    record PushEnvelope(@NonNull String subscription, @NonNull PubsubMessage message) {
+    }
+}
@@ -17,6 +17,7 @@ package io.micronaut.gcp.pubsub.push;
 
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.async.annotation.SingleResult;
 import io.micronaut.http.MutableHttpResponse;
@@ -37,11 +38,35 @@ public interface PushSubscriberHandler {
      *
      * @param pushRequest the incoming JSON push request message
      * @return the HTTP response
+     * @deprecated Push requests are decoded straight into a {@link PubsubMessage} and handed to
+     * {@link #handleMessage(String, PubsubMessage)}. Handlers that only implement this method receive a {@link PushRequest}
+     * that is re-encoded from the decoded message, including a Base64 copy of its data. Implement
+     * {@link #handleMessage(String, PubsubMessage)} instead.
      */
+    @Deprecated(since = "5.8.0")
     @NonNull
     @SingleResult
     CompletableFuture<MutableHttpResponse<Object>> handleRequest(@NonNull PushRequest pushRequest);
 
+    /**
+     * Handle an incoming push message that has already been decoded from its JSON envelope. Implementations shall return
+     * an appropriate HTTP status code to signal either ack or nack to the PubSub service.
+     *
+     * <p>The default implementation re-encodes the message as a {@link PushRequest} and delegates to the deprecated
+     * {@link #handleRequest(PushRequest)}, so that existing handlers keep working. Handlers should override this method
+     * to receive the decoded message without that copy.</p>
+     *
+     * @param subscription the subscription from which the message originated
+     * @param message the decoded message
+     * @return the HTTP response
+     * @since 5.8.0
+     */
+    @NonNull
+    @SingleResult
+    default CompletableFuture<MutableHttpResponse<Object>> handleMessage(@NonNull String subscription, @NonNull PubsubMessage message) {
+        return handleRequest(new PushRequest(subscription, PushRequest.PushMessage.from(message)));
+    }
+
     /**
      * Configure a {@link MessageReceiver} for the given subscription.
      *
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.context.ExecutionHandleLocator;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.GoogleCloudConfiguration;
+import io.micronaut.gcp.pubsub.annotation.PubSubListener;
+import io.micronaut.gcp.pubsub.annotation.PushSubscription;
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException;
+import io.micronaut.gcp.pubsub.support.PubSubSubscriptionUtils;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.uri.UriMatchTemplate;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.web.router.DefaultRouteBuilder;
+import io.micronaut.web.router.UriRoute;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers the dedicated push endpoints of the {@link PushSubscription} methods that declare a
+ * {@link PushSubscription#path()}. Each endpoint is a separate route to {@link PushController}, so that messages of these
+ * subscriptions are told apart by the HTTP router rather than by the push handler only. Each endpoint is bound to its
+ * subscription, and the controller rejects messages of any other subscription that are pushed to it.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Internal
+@Requires(beans = PushControllerConfiguration.class)
+@Requires(classes = { Controller.class, DefaultRouteBuilder.class })
+final class PushSubscriptionRouteBuilder extends DefaultRouteBuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PushSubscriptionRouteBuilder.class);
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * @param executionHandleLocator the locator of the push controller method
+     * @param beanContext the bean context, used to find the push subscription methods
+     * @param googleCloudConfiguration the Google Cloud configuration, used to resolve subscription names
+     */
+    PushSubscriptionRouteBuilder(ExecutionHandleLocator executionHandleLocator, BeanContext beanContext, GoogleCloudConfiguration googleCloudConfiguration) {
+        super(executionHandleLocator);
+        Map<String, String> subscriptionsByPath = new HashMap<>();
+        for (BeanDefinition<?> beanDefinition : beanContext.getBeanDefinitions(Qualifiers.byStereotype(PubSubListener.class))) {
+            for (ExecutableMethod<?, ?> method : beanDefinition.getExecutableMethods()) {
+                String path = method.stringValue(PushSubscription.class, "path").orElse(null);
+                if (StringUtils.isEmpty(path)) {
+                    continue;
+                }
+                String subscription = method.stringValue(PushSubscription.class).orElse("");
+                String previous = subscriptionsByPath.putIfAbsent(path, subscription);
+                if (previous != null) {
+                    throw new PubSubListenerException("Push path %s of subscription %s is already used by subscription %s".formatted(path, subscription, previous));
+                }
+                LOG.debug("Registering push endpoint {} for subscription {}", path, subscription);
+                String subscriptionName = PubSubSubscriptionUtils.toProjectSubscriptionName(subscription, googleCloudConfiguration.getProjectId()).toString();
+                UriRoute route = POST(path, PushController.class, "handleSubscriptionPushRequest", HttpRequest.class, byte[].class, String.class);
+                endpoints.add(new Endpoint(route.getUriMatchTemplate(), subscriptionName));
+            }
+        }
+    }
+
+    /**
+     * Finds the subscription that a dedicated push endpoint is bound to.
+     *
+     * @param path the path of the push request
+     * @return the canonical name of the subscription, or {@code null} if the path is not a dedicated push endpoint
+     */
+    @Nullable String findSubscription(String path) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.template().match(path).isPresent()) {
+                return endpoint.subscription();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A dedicated push endpoint.
+     *
+     * @param template the template of the path of the endpoint
+     * @param subscription the canonical name of the subscription the endpoint is bound to
+     */
+    private record Endpoint(UriMatchTemplate template, String subscription) {
+    }
+}
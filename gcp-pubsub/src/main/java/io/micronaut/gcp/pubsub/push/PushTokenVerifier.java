@@ -0,0 +1,350 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifies the Google-signed OIDC tokens sent by authenticated push subscriptions, as configured by
+ * {@link PushAuthenticationConfigurationProperties}.
+ * <p>
+ * The signing keys are fetched from the configured JSON Web Key Set when the application starts and refreshed in the
+ * background, so that verifying a token never waits for the network. A token signed with a key that is not known yet
+ * triggers a refresh on the task scheduler and is rejected until the refreshed keys are available. Since the PubSub
+ * service sends the same token with many requests, verified tokens are cached until they expire, which turns most
+ * verifications into a single map lookup.
+ * <p>
+ * The verifier fails the startup of the application if no audience is configured, since any Google-signed token,
+ * including tokens issued for other services, would be accepted otherwise.
+ *
+ * @since 5.8.0
+ */
+@Context
+@Singleton
+@Requires(beans = PushAuthenticationConfigurationProperties.class)
+public class PushTokenVerifier implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PushTokenVerifier.class);
+    private static final String BEARER = "Bearer ";
+    private static final String RS256 = "RS256";
+    private static final long MIN_UNKNOWN_KEY_REFRESH_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final int TIMEOUT_MILLIS = 5_000;
+
+    private final PushAuthenticationConfigurationProperties configuration;
+    private final JsonMapper jsonMapper;
+    private final long clockSkewSeconds;
+    private final ConcurrentHashMap<String, Long> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final TaskScheduler taskScheduler;
+    private final ScheduledFuture<?> refreshTask;
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastRefreshNanos;
+    private volatile boolean refreshed;
+
+    public PushTokenVerifier(PushAuthenticationConfigurationProperties configuration,
+                             JsonMapper jsonMapper,
+                             @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        if (StringUtils.isEmpty(configuration.getAudience())) {
+            throw new ConfigurationException("Push authentication requires the expected audience of the tokens to be configured with "
+                + PushAuthenticationConfigurationProperties.PREFIX + ".audience");
+        }
+        this.configuration = configuration;
+        this.jsonMapper = jsonMapper;
+        this.taskScheduler = taskScheduler;
+        this.clockSkewSeconds = configuration.getClockSkew().toSeconds();
+        this.refreshTask = taskScheduler.scheduleWithFixedDelay(Duration.ZERO, configuration.getJwksRefreshInterval(), this::refreshInBackground);
+    }
+
+    /**
+     * Verifies the token of a push request.
+     *
+     * @param authorization the value of the {@code Authorization} header of the request
+     * @return whether the request carries a valid token
+     */
+    public boolean verify(@Nullable String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            LOG.debug("Rejecting push request without bearer token");
+            return false;
+        }
+        String token = authorization.substring(BEARER.length()).trim();
+        long now = System.currentTimeMillis() / 1000;
+        Long expiration = verifiedTokens.get(token);
+        if (expiration != null) {
+            if (now <= expiration + clockSkewSeconds) {
+                return true;
+            }
+            verifiedTokens.remove(token);
+        }
+        try {
+            long tokenExpiration = verifyToken(token, now);
+            cacheVerifiedToken(token, tokenExpiration, now);
+            return true;
+        } catch (InvalidTokenException e) {
+            LOG.debug("Rejecting push request: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return the ids of the currently known signing keys
+     */
+    public @NonNull Set<String> getKeyIds() {
+        return keys.keySet();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        refreshTask.cancel(false);
+    }
+
+    private long verifyToken(String token, long now) throws InvalidTokenException {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new InvalidTokenException("malformed token");
+        }
+        JsonNode header;
+        JsonNode claims;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            header = readJson(decoder.decode(token.substring(0, headerEnd)));
+            claims = readJson(decoder.decode(token.substring(headerEnd + 1, payloadEnd)));
+            signature = decoder.decode(token.substring(payloadEnd + 1));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidTokenException("malformed token");
+        }
+
+        String algorithm = stringValue(header, "alg");
+        if (!RS256.equals(algorithm)) {
+            throw new InvalidTokenException("unsupported algorithm " + algorithm);
+        }
+        PublicKey key = findKey(stringValue(header, "kid"));
+        try {
+            Signature verifier = Signature.getInstance("SHA256withRSA");
+            verifier.initVerify(key);
+            verifier.update(token.getBytes(StandardCharsets.US_ASCII), 0, payloadEnd);
+            if (!verifier.verify(signature)) {
+                throw new InvalidTokenException("invalid signature");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new InvalidTokenException("invalid signature");
+        }
+
+        String issuer = stringValue(claims, "iss");
+        if (!configuration.getIssuers().contains(issuer)) {
+            throw new InvalidTokenException("unexpected issuer " + issuer);
+        }
+        if (!hasAudience(claims.get("aud"), configuration.getAudience())) {
+            throw new InvalidTokenException("unexpected audience");
+        }
+        String email = configuration.getServiceAccountEmail();
+        if (email != null) {
+            JsonNode emailVerified = claims.get("email_verified");
+            if (!email.equals(stringValue(claims, "email")) || emailVerified == null || !Boolean.parseBoolean(emailVerified.coerceStringValue())) {
+                throw new InvalidTokenException("unexpected email " + stringValue(claims, "email"));
+            }
+        }
+        long expiration = longValue(claims, "exp");
+        if (expiration + clockSkewSeconds < now) {
+            throw new InvalidTokenException("expired token");
+        }
+        JsonNode issuedAt = claims.get("iat");
+        if (issuedAt != null && issuedAt.isNumber() && issuedAt.getLongValue() - clockSkewSeconds > now) {
+            throw new InvalidTokenException("token issued in the future");
+        }
+        return expiration;
+    }
+
+    private PublicKey findKey(@Nullable String keyId) throws InvalidTokenException {
+        if (keyId == null) {
+            throw new InvalidTokenException("missing key id");
+        }
+        PublicKey key = keys.get(keyId);
+        if (key == null) {
+            // keys may have been rotated since the last refresh, but avoid fetching them for every unknown key id
+            if (!refreshed || System.nanoTime() - lastRefreshNanos >= MIN_UNKNOWN_KEY_REFRESH_NANOS) {
+                requestRefresh();
+            }
+            throw new InvalidTokenException("unknown key id " + keyId);
+        }
+        return key;
+    }
+
+    /**
+     * Schedules a refresh of the keys, unless one is already in progress.
+     */
+    private void requestRefresh() {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(Duration.ZERO, this::doRefresh);
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                LOG.warn("Failed to schedule a refresh of the push authentication keys", e);
+            }
+        }
+    }
+
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            doRefresh();
+        }
+    }
+
+    private void doRefresh() {
+        try {
+            refreshKeys();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to refresh the push authentication keys from {}", configuration.getJwksUri(), e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void refreshKeys() throws IOException {
+        lastRefreshNanos = System.nanoTime();
+        refreshed = true;
+        JsonNode jwks;
+        try (InputStream in = openJwks()) {
+            jwks = jsonMapper.readValue(in, Argument.of(JsonNode.class));
+        }
+        JsonNode keyNodes = jwks.get("keys");
+        if (keyNodes == null || !keyNodes.isArray()) {
+            throw new IOException("Invalid JSON Web Key Set: missing keys");
+        }
+        Map<String, PublicKey> newKeys = new HashMap<>();
+        for (JsonNode keyNode : keyNodes.values()) {
+            String keyId = stringValue(keyNode, "kid");
+            if (keyId != null && "RSA".equals(stringValue(keyNode, "kty"))) {
+                try {
+                    newKeys.put(keyId, KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                        new BigInteger(1, Base64.getUrlDecoder().decode(stringValue(keyNode, "n"))),
+                        new BigInteger(1, Base64.getUrlDecoder().decode(stringValue(keyNode, "e"))))));
+                } catch (GeneralSecurityException | IllegalArgumentException | NullPointerException e) {
+                    LOG.warn("Ignoring invalid push authentication key {}", keyId, e);
+                }
+            }
+        }
+        keys = Map.copyOf(newKeys);
+        LOG.debug("Refreshed push authentication keys: {}", newKeys.keySet());
+    }
+
+    private InputStream openJwks() throws IOException {
+        URLConnection connection = new URL(configuration.getJwksUri()).openConnection();
+        if (connection instanceof HttpURLConnection httpConnection) {
+            httpConnection.setConnectTimeout(TIMEOUT_MILLIS);
+            httpConnection.setReadTimeout(TIMEOUT_MILLIS);
+        }
+        return connection.getInputStream();
+    }
+
+    private void cacheVerifiedToken(String token, long expiration, long now) {
+        int cacheSize = configuration.getCacheSize();
+        if (cacheSize == 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= cacheSize) {
+            verifiedTokens.values().removeIf(tokenExpiration -> tokenExpiration + clockSkewSeconds < now);
+            if (verifiedTokens.size() >= cacheSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, expiration);
+    }
+
+    private JsonNode readJson(byte[] json) throws IOException {
+        JsonNode node = jsonMapper.readValue(json, Argument.of(JsonNode.class));
+        if (node == null || !node.isObject()) {
+            throw new IOException("Not a JSON object");
+        }
+        return node;
+    }
+
+    private static boolean hasAudience(@Nullable JsonNode audienceClaim, String audience) {
+        if (audienceClaim == null) {
+            return false;
+        }
+        if (audienceClaim.isArray()) {
+            for (JsonNode value : audienceClaim.values()) {
+                if (audience.equals(value.coerceStringValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return audience.equals(audienceClaim.coerceStringValue());
+    }
+
+    private static @Nullable String stringValue(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value != null && value.isString() ? value.getStringValue() : null;
+    }
+
+    private static long longValue(JsonNode node, String name) throws InvalidTokenException {
+        JsonNode value = node.get(name);
+        if (value == null || !value.isNumber()) {
+            throw new InvalidTokenException("missing " + name + " claim");
+        }
+        return value.getLongValue();
+    }
+
+    /**
+     * Signals a token that failed verification.
+     */
+    private static final class InvalidTokenException extends Exception {
+
+        InvalidTokenException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for receiving unwrapped PubSub push messages, delivered without the JSON envelope.
+ *
+ * @since 5.8.0
+ */
+@Requires(property = UnwrappedPushConfigurationProperties.PREFIX + ".enabled", value = StringUtils.TRUE)
+@ConfigurationProperties(UnwrappedPushConfigurationProperties.PREFIX)
+public class UnwrappedPushConfigurationProperties {
+
+    public static final String PREFIX = PubSubPushConfigurationProperties.PREFIX + ".unwrapped";
+
+    /**
+     * The default path.
+     */
+    public static final String DEFAULT_PATH = "/push/unwrapped";
+
+    /**
+     * The default subscription header, sent by the PubSub service when metadata is written to the headers.
+     */
+    public static final String DEFAULT_SUBSCRIPTION_HEADER = "x-goog-pubsub-subscription-name";
+
+    private boolean enabled;
+
+    private String path = DEFAULT_PATH;
+
+    private String subscriptionHeader = DEFAULT_SUBSCRIPTION_HEADER;
+
+    private List<String> attributeHeaders = new ArrayList<>();
+
+    /**
+     * Whether unwrapped push messages are accepted. Defaults to {@code false}.
+     *
+     * @return whether the {@link UnwrappedPushController} is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables {@link UnwrappedPushController}. Default value {@code false}
+     * @param enabled {@code true} if it should be enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The path of the endpoint receiving unwrapped push messages. Default value {@value #DEFAULT_PATH}
+     *
+     * @return the path
+     */
+    @NonNull
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Configures the path of the {@link UnwrappedPushController}. Messages posted to a sub path are routed to the subscription
+     * named by the last path segment. Default value {@value #DEFAULT_PATH}
+     * @param path the path
+     */
+    public void setPath(String path) {
+        if (StringUtils.isNotEmpty(path)) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * The header naming the subscription of messages posted to {@link #getPath()}. Default value {@value #DEFAULT_SUBSCRIPTION_HEADER}
+     *
+     * @return the name of the subscription header
+     */
+    @NonNull
+    public String getSubscriptionHeader() {
+        return subscriptionHeader;
+    }
+
+    /**
+     * Configures the header naming the subscription of messages posted to {@link #getPath()}. Default value {@value #DEFAULT_SUBSCRIPTION_HEADER}
+     * @param subscriptionHeader the name of the subscription header
+     */
+    public void setSubscriptionHeader(String subscriptionHeader) {
+        if (StringUtils.isNotEmpty(subscriptionHeader)) {
+            this.subscriptionHeader = subscriptionHeader;
+        }
+    }
+
+    /**
+     * The headers that are mapped to message attributes. When empty, all headers except standard HTTP headers and
+     * PubSub metadata headers are mapped. Defaults to an empty list.
+     *
+     * @return the names of the attribute headers
+     */
+    @NonNull
+    public List<String> getAttributeHeaders() {
+        return attributeHeaders;
+    }
+
+    /**
+     * @param attributeHeaders the names of the headers that are mapped to message attributes
+     */
+    public void setAttributeHeaders(List<String> attributeHeaders) {
+        this.attributeHeaders = attributeHeaders == null ? new ArrayList<>() : attributeHeaders;
+    }
+}
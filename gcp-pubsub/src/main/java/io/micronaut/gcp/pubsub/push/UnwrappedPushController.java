@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.push;
+
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.async.annotation.SingleResult;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.GoogleCloudConfiguration;
+import io.micronaut.gcp.pubsub.support.PubSubSubscriptionUtils;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.exceptions.HttpStatusException;
+import jakarta.inject.Inject;
+
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Controller} implementation for handling unwrapped PubSub Push messages.
+ *
+ * <p>
+ * Push subscriptions can be configured to deliver the message data as the raw request body, without the JSON envelope and its
+ * Base64 encoding. The message attributes are then sent as HTTP headers, as well as the message metadata if the subscription is
+ * configured to write it. Messages are routed to the corresponding {@link io.micronaut.gcp.pubsub.annotation.PushSubscription}
+ * method either by the last segment of the path they are posted to, or by the configured subscription header.
+ * </p>
+ *
+ * <p>
+ * The {@code Content-Type} of the request is exposed as the {@code Content-Type} attribute of the message, so that the data is
+ * deserialized the same way as the data of published messages.
+ * </p>
+ *
+ * @since 5.8.0
+ */
+@Requires(beans = { PushControllerConfiguration.class, UnwrappedPushConfigurationProperties.class })
+@Requires(classes = { Controller.class })
+@Controller("${" + UnwrappedPushConfigurationProperties.PREFIX + ".path:" + UnwrappedPushConfigurationProperties.DEFAULT_PATH + "}")
+public class UnwrappedPushController {
+
+    static final String METADATA_HEADER_PREFIX = "x-goog-pubsub-";
+    static final String MESSAGE_ID_HEADER = METADATA_HEADER_PREFIX + "message-id";
+    static final String PUBLISH_TIME_HEADER = METADATA_HEADER_PREFIX + "publish-time";
+    static final String ORDERING_KEY_HEADER = METADATA_HEADER_PREFIX + "ordering-key";
+
+    private static final String CONTENT_TYPE_ATTRIBUTE = "Content-Type";
+    private static final Set<String> HTTP_HEADERS = Set.of(
+        "accept", "accept-encoding", "accept-language", "authorization", "cache-control", "connection", "content-encoding",
+        "content-length", "content-type", "cookie", "expect", "forwarded", "from", "host", "origin", "te", "traceparent",
+        "tracestate", "transfer-encoding", "upgrade", "user-agent", "via", "x-cloud-trace-context", "x-forwarded-for",
+        "x-forwarded-host", "x-forwarded-proto"
+    );
+
+    private final PushSubscriberHandler handler;
+    private final UnwrappedPushConfigurationProperties configuration;
+    private final GoogleCloudConfiguration googleCloudConfiguration;
+    private final PushTokenVerifier tokenVerifier;
+
+    /**
+     * Constructor for the unwrapped push controller.
+     *
+     * @param handler the handler that implements processing of the incoming message
+     * @param configuration the unwrapped push configuration
+     * @param googleCloudConfiguration the Google Cloud configuration, used to resolve subscription names
+     */
+    public UnwrappedPushController(PushSubscriberHandler handler,
+                                   UnwrappedPushConfigurationProperties configuration,
+                                   GoogleCloudConfiguration googleCloudConfiguration) {
+        this(handler, configuration, googleCloudConfiguration, null);
+    }
+
+    /**
+     * Constructor for the unwrapped push controller.
+     *
+     * @param handler the handler that implements processing of the incoming message
+     * @param configuration the unwrapped push configuration
+     * @param googleCloudConfiguration the Google Cloud configuration, used to resolve subscription names
+     * @param tokenVerifier the verifier of the OIDC tokens of authenticated push requests, if enabled
+     */
+    @Inject
+    public UnwrappedPushController(PushSubscriberHandler handler,
+                                   UnwrappedPushConfigurationProperties configuration,
+                                   GoogleCloudConfiguration googleCloudConfiguration,
+                                   @Nullable PushTokenVerifier tokenVerifier) {
+        this.handler = handler;
+        this.configuration = configuration;
+        this.googleCloudConfiguration = googleCloudConfiguration;
+        this.tokenVerifier = tokenVerifier;
+    }
+
+    /**
+     * Handle an unwrapped push message routed by the configured subscription header.
+     *
+     * @param request the incoming request, whose headers hold the message attributes and metadata
+     * @param body the message data
+     * @return an HTTP response to indicate ack or nack of the message to the PubSub service
+     */
+    @Post(consumes = MediaType.ALL)
+    @SingleResult
+    public CompletableFuture<MutableHttpResponse<Object>> handleRequest(HttpRequest<?> request, @Nullable @Body byte[] body) {
+        String subscription = request.getHeaders().get(configuration.getSubscriptionHeader());
+        if (StringUtils.isEmpty(subscription)) {
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, "invalid pubsub push request - missing subscription header " + configuration.getSubscriptionHeader());
+        }
+        return handle(subscription, request, body);
+    }
+
+    /**
+     * Handle an unwrapped push message routed by the last segment of its path.
+     *
+     * @param subscription the name of the subscription, either within the configured project or fully-qualified
+     * @param request the incoming request, whose headers hold the message attributes and metadata
+     * @param body the message data
+     * @return an HTTP response to indicate ack or nack of the message to the PubSub service
+     */
+    @Post(uri = "/{subscription}", consumes = MediaType.ALL)
+    @SingleResult
+    public CompletableFuture<MutableHttpResponse<Object>> handleSubscriptionRequest(String subscription, HttpRequest<?> request, @Nullable @Body byte[] body) {
+        return handle(subscription, request, body);
+    }
+
+    private CompletableFuture<MutableHttpResponse<Object>> handle(String subscription, HttpRequest<?> request, @Nullable byte[] body) {
+        if (tokenVerifier != null && !tokenVerifier.verify(request.getHeaders().get(HttpHeaders.AUTHORIZATION))) {
+            throw new HttpStatusException(HttpStatus.UNAUTHORIZED, "invalid pubsub push request - missing or invalid authentication token");
+        }
+        String subscriptionName = PubSubSubscriptionUtils.toProjectSubscriptionName(subscription, googleCloudConfiguration.getProjectId()).toString();
+        return handler.handleMessage(subscriptionName, toPubsubMessage(request.getHeaders(), body));
+    }
+
+    private PubsubMessage toPubsubMessage(HttpHeaders headers, @Nullable byte[] body) {
+        PubsubMessage.Builder builder = PubsubMessage.newBuilder();
+        if (body != null && body.length > 0) {
+            builder.setData(UnsafeByteOperations.unsafeWrap(body));
+        }
+        List<String> attributeHeaders = configuration.getAttributeHeaders();
+        if (attributeHeaders.isEmpty()) {
+            headers.forEach((name, values) -> {
+                if (!values.isEmpty() && isAttributeHeader(name)) {
+                    builder.putAttributes(name, values.get(0));
+                }
+            });
+        } else {
+            for (String name : attributeHeaders) {
+                String value = headers.get(name);
+                if (value != null) {
+                    builder.putAttributes(name, value);
+                }
+            }
+        }
+        if (builder.getData().isEmpty() && builder.getAttributesCount() == 0) {
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, PushRequestDecoder.INVALID_PUSH_MESSAGE);
+        }
+        headers.contentType().ifPresent(contentType -> {
+            if (!builder.containsAttributes(CONTENT_TYPE_ATTRIBUTE)) {
+                builder.putAttributes(CONTENT_TYPE_ATTRIBUTE, contentType.toString());
+            }
+        });
+        String messageId = headers.get(MESSAGE_ID_HEADER);
+        if (messageId != null) {
+            builder.setMessageId(messageId);
+        }
+        String orderingKey = headers.get(ORDERING_KEY_HEADER);
+        if (orderingKey != null) {
+            builder.setOrderingKey(orderingKey);
+        }
+        String publishTime = headers.get(PUBLISH_TIME_HEADER);
+        if (publishTime != null) {
+            try {
+                builder.setPublishTime(PushRequestDecoder.parseTimestamp(publishTime));
+            } catch (DateTimeException e) {
+                throw new HttpStatusException(HttpStatus.BAD_REQUEST, "invalid pubsub push request message - publishTime is not a valid RFC 3339 timestamp: " + publishTime);
+            }
+        }
+        return builder.build();
+    }
+
+    private boolean isAttributeHeader(String name) {
+        String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+        return !HTTP_HEADERS.contains(lowerCaseName)
+            && !lowerCaseName.startsWith(METADATA_HEADER_PREFIX)
+            && !lowerCaseName.equalsIgnoreCase(configuration.getSubscriptionHeader());
+    }
+}
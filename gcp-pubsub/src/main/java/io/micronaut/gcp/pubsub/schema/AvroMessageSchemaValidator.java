@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.schema;
+
+import com.google.pubsub.v1.Encoding;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.gcp.pubsub.exception.PubSubSchemaValidationException;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+
+/**
+ * Validates messages by decoding them with an Avro schema.
+ *
+ * @since 5.8.0
+ */
+final class AvroMessageSchemaValidator implements MessageSchemaValidator {
+
+    private final String topic;
+    private final Schema schema;
+    private final Encoding encoding;
+    private final GenericDatumReader<Object> reader;
+
+    AvroMessageSchemaValidator(String topic, String definition, Encoding encoding) {
+        this.topic = topic;
+        this.schema = new Schema.Parser().parse(definition);
+        this.encoding = encoding;
+        this.reader = new GenericDatumReader<>(schema);
+    }
+
+    @Override
+    public void validate(PubsubMessage message) {
+        try {
+            if (encoding == Encoding.BINARY) {
+                BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(message.getData().newInput(), null);
+                reader.read(null, decoder);
+                if (!decoder.isEnd()) {
+                    throw new PubSubSchemaValidationException("Message for topic " + topic + " has trailing data after the Avro record " + schema.getFullName());
+                }
+            } else {
+                reader.read(null, DecoderFactory.get().jsonDecoder(schema, message.getData().toStringUtf8()));
+            }
+        } catch (IOException | AvroRuntimeException e) {
+            throw new PubSubSchemaValidationException("Message for topic " + topic + " does not conform to the Avro schema " + schema.getFullName() + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.schema;
+
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.gcp.pubsub.exception.PubSubSchemaValidationException;
+
+/**
+ * Validates messages against the schema of a topic before they are published.
+ *
+ * @since 5.8.0
+ */
+@FunctionalInterface
+public interface MessageSchemaValidator {
+
+    /**
+     * Validates the data of a message.
+     *
+     * @param message the message to be published
+     * @throws PubSubSchemaValidationException if the message does not conform to the schema
+     */
+    void validate(@NonNull PubsubMessage message) throws PubSubSchemaValidationException;
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.schema;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UninitializedMessageException;
+import com.google.protobuf.util.JsonFormat;
+import com.google.pubsub.v1.Encoding;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.gcp.pubsub.exception.PubSubSchemaValidationException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates messages by parsing them with the descriptor of a Protocol Buffer message type.
+ *
+ * @since 5.8.0
+ */
+final class ProtobufMessageSchemaValidator implements MessageSchemaValidator {
+
+    private final String topic;
+    private final Descriptors.Descriptor descriptor;
+    private final Encoding encoding;
+    private final JsonFormat.Parser jsonParser = JsonFormat.parser();
+
+    ProtobufMessageSchemaValidator(String topic, byte[] descriptorSet, @Nullable String messageType, Encoding encoding) {
+        this.topic = topic;
+        this.encoding = encoding;
+        this.descriptor = findMessageType(topic, buildFiles(topic, descriptorSet), messageType);
+    }
+
+    @Override
+    public void validate(PubsubMessage message) {
+        try {
+            if (encoding == Encoding.BINARY) {
+                DynamicMessage.parseFrom(descriptor, message.getData());
+            } else {
+                DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+                jsonParser.merge(message.getData().toStringUtf8(), builder);
+                builder.build();
+            }
+        } catch (InvalidProtocolBufferException | UninitializedMessageException e) {
+            throw new PubSubSchemaValidationException("Message for topic " + topic + " does not conform to the Protocol Buffer schema " + descriptor.getFullName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds the files of the descriptor set, returning those that are not imported by another file.
+     */
+    private static List<Descriptors.FileDescriptor> buildFiles(String topic, byte[] descriptorSet) {
+        DescriptorProtos.FileDescriptorSet fileDescriptorSet;
+        try {
+            fileDescriptorSet = DescriptorProtos.FileDescriptorSet.parseFrom(descriptorSet);
+        } catch (InvalidProtocolBufferException e) {
+            throw new ConfigurationException("Schema of topic " + topic + " is not a valid Protocol Buffer descriptor set", e);
+        }
+        Map<String, DescriptorProtos.FileDescriptorProto> protos = new HashMap<>();
+        Set<String> imported = new HashSet<>();
+        for (DescriptorProtos.FileDescriptorProto proto : fileDescriptorSet.getFileList()) {
+            protos.put(proto.getName(), proto);
+            imported.addAll(proto.getDependencyList());
+        }
+        Map<String, Descriptors.FileDescriptor> built = new HashMap<>();
+        List<Descriptors.FileDescriptor> roots = new ArrayList<>();
+        for (DescriptorProtos.FileDescriptorProto proto : fileDescriptorSet.getFileList()) {
+            Descriptors.FileDescriptor file = buildFile(topic, proto.getName(), protos, built);
+            if (!imported.contains(proto.getName())) {
+                roots.add(file);
+            }
+        }
+        return roots;
+    }
+
+    private static Descriptors.FileDescriptor buildFile(String topic,
+                                                        String name,
+                                                        Map<String, DescriptorProtos.FileDescriptorProto> protos,
+                                                        Map<String, Descriptors.FileDescriptor> built) {
+        Descriptors.FileDescriptor file = built.get(name);
+        if (file != null) {
+            return file;
+        }
+        DescriptorProtos.FileDescriptorProto proto = protos.get(name);
+        if (proto == null) {
+            throw new ConfigurationException("Schema of topic " + topic + " imports " + name + ", which is not part of the descriptor set. Generate it with protoc --include_imports");
+        }
+        Descriptors.FileDescriptor[] dependencies = proto.getDependencyList().stream()
+            .map(dependency -> buildFile(topic, dependency, protos, built))
+            .toArray(Descriptors.FileDescriptor[]::new);
+        try {
+            file = Descriptors.FileDescriptor.buildFrom(proto, dependencies);
+        } catch (Descriptors.DescriptorValidationException e) {
+            throw new ConfigurationException("Schema of topic " + topic + " has an invalid descriptor " + name, e);
+        }
+        built.put(name, file);
+        return file;
+    }
+
+    private static Descriptors.Descriptor findMessageType(String topic, List<Descriptors.FileDescriptor> files, @Nullable String messageType) {
+        List<Descriptors.Descriptor> candidates = new ArrayList<>();
+        for (Descriptors.FileDescriptor file : files) {
+            for (Descriptors.Descriptor type : file.getMessageTypes()) {
+                if (messageType == null || messageType.equals(type.getFullName())) {
+                    candidates.add(type);
+                }
+            }
+        }
+        if (candidates.size() != 1) {
+            throw new ConfigurationException(messageType == null
+                ? "Schema of topic " + topic + " must define exactly one message type, or set message-type to select it"
+                : "Schema of topic " + topic + " does not define the message type " + messageType);
+        }
+        return candidates.get(0);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.schema;
+
+import com.google.pubsub.v1.ProjectTopicName;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.io.ResourceResolver;
+import io.micronaut.core.reflect.ClassUtils;
+import io.micronaut.gcp.pubsub.configuration.SchemaConfigurationProperties;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the {@link MessageSchemaValidator} of the topics configured with a {@link SchemaConfigurationProperties}.
+ * <p>
+ * Schemas are loaded and compiled when a topic is first published to, and the compiled validators are cached per topic
+ * and schema revision. Avro schemas require {@code org.apache.avro:avro} on the classpath.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+public class PubSubSchemaRegistry {
+
+    private static final String AVRO_SCHEMA = "org.apache.avro.Schema";
+
+    private final Map<String, SchemaConfigurationProperties> configurations = new HashMap<>();
+    private final ConcurrentHashMap<String, MessageSchemaValidator> validators = new ConcurrentHashMap<>();
+    private final ResourceResolver resourceResolver;
+
+    /**
+     * @param configurations the configured topic schemas
+     * @param resourceResolver the resolver used to load schema definitions
+     */
+    public PubSubSchemaRegistry(List<SchemaConfigurationProperties> configurations, ResourceResolver resourceResolver) {
+        this.resourceResolver = resourceResolver;
+        for (SchemaConfigurationProperties configuration : configurations) {
+            SchemaConfigurationProperties previous = this.configurations.putIfAbsent(configuration.getTopic(), configuration);
+            if (previous != null) {
+                throw new ConfigurationException("Schema configurations " + previous.getName() + " and " + configuration.getName() + " both apply to topic " + configuration.getTopic());
+            }
+        }
+    }
+
+    /**
+     * Finds the validator of a topic, compiling its schema on first use.
+     *
+     * @param topicName the topic name
+     * @return the validator, or empty if no schema is configured for the topic
+     */
+    @NonNull
+    public Optional<MessageSchemaValidator> findValidator(@NonNull ProjectTopicName topicName) {
+        SchemaConfigurationProperties configuration = configurations.get(topicName.getTopic());
+        if (configuration == null) {
+            return Optional.empty();
+        }
+        String key = topicName + "@" + Objects.toString(configuration.getRevisionId(), "");
+        return Optional.of(validators.computeIfAbsent(key, k -> compile(topicName.toString(), configuration)));
+    }
+
+    private MessageSchemaValidator compile(String topic, SchemaConfigurationProperties configuration) {
+        return switch (configuration.getType()) {
+            case AVRO -> {
+                if (!ClassUtils.isPresent(AVRO_SCHEMA, PubSubSchemaRegistry.class.getClassLoader())) {
+                    throw new ConfigurationException("Validating the Avro schema of topic " + topic + " requires org.apache.avro:avro on the classpath");
+                }
+                String definition = configuration.getDefinition() != null
+                    ? configuration.getDefinition()
+                    : new String(loadDefinition(topic, configuration), StandardCharsets.UTF_8);
+                yield new AvroMessageSchemaValidator(topic, definition, configuration.getEncoding());
+            }
+            case PROTOCOL_BUFFER -> {
+                if (configuration.getDefinitionPath() == null) {
+                    throw new ConfigurationException("The Protocol Buffer schema of topic " + topic + " must be loaded from a descriptor set with definition-path");
+                }
+                yield new ProtobufMessageSchemaValidator(topic, loadDefinition(topic, configuration), configuration.getMessageType(), configuration.getEncoding());
+            }
+            default -> throw new ConfigurationException("Unsupported schema type " + configuration.getType() + " for topic " + topic);
+        };
+    }
+
+    private byte[] loadDefinition(String topic, SchemaConfigurationProperties configuration) {
+        String path = configuration.getDefinitionPath();
+        if (path == null) {
+            throw new ConfigurationException("Schema of topic " + topic + " requires either a definition or a definition-path");
+        }
+        Optional<InputStream> resource = resourceResolver.getResourceAsStream(path);
+        if (resource.isEmpty()) {
+            throw new ConfigurationException("Schema definition " + path + " of topic " + topic + " does not exist");
+        }
+        try (InputStream in = resource.get()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the schema definition " + path + " of topic " + topic, e);
+        }
+    }
+}
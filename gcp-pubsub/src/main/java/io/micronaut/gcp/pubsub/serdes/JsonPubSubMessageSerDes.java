@@ -22,6 +22,7 @@ import io.micronaut.json.JsonMapper;
 import jakarta.inject.Singleton;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * A {@link PubSubMessageSerDes} implementation that uses a {@link io.micronaut.json.JsonMapper} to convert
@@ -53,6 +54,15 @@ public class JsonPubSubMessageSerDes implements PubSubMessageSerDes {
         }
     }
 
+    @Override
+    public Object deserialize(InputStream data, Argument<?> type) {
+        try (data) {
+            return jsonMapper.readValue(data, type);
+        } catch (IOException e) {
+            throw new SerializationException("Error decoding JSON stream for type [" + type.getName() + "]: " + e.getMessage());
+        }
+    }
+
     @Override
     public byte[] serialize(Object data) {
         try {
@@ -15,8 +15,12 @@
  */
 package io.micronaut.gcp.pubsub.serdes;
 
+import io.micronaut.core.serialize.exceptions.SerializationException;
 import io.micronaut.core.type.Argument;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Responsible for converstion to/from bytes into domain logic.
  * SerDes are selected based on the MimeType they support.
@@ -34,6 +38,23 @@ public interface PubSubMessageSerDes {
      */
     Object deserialize(byte[] data, Argument<?> type);
 
+    /**
+     * Deserializes data read from a stream into a target type. Implementations capable of streaming should override
+     * this method to avoid materializing the whole payload as an intermediate byte array. The default implementation
+     * reads the stream fully and delegates to {@link #deserialize(byte[], Argument)}.
+     * @param data stream of the data to deserialize
+     * @param type target type
+     * @return the deserialized java type
+     * @since 5.8.0
+     */
+    default Object deserialize(InputStream data, Argument<?> type) {
+        try (data) {
+            return deserialize(data.readAllBytes(), type);
+        } catch (IOException e) {
+            throw new SerializationException("Error reading data for type [" + type.getName() + "]: " + e.getMessage());
+        }
+    }
+
     /**
      * Serializes the message.
      * @param data data to serialize
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.support;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.pubsub.v1.Publisher;
+import com.google.cloud.pubsub.v1.PublisherInterface;
+import com.google.pubsub.v1.PubsubMessage;
+
+/**
+ * A {@link PublisherInterface} sizing the batches of a {@link Publisher} from the observed publish rate.
+ * <p>
+ * The batching thresholds of the delegate are used as upper bounds. The interval between two published messages is
+ * smoothed, and the target size of a batch is the number of messages expected within the delay threshold. Once that many
+ * messages are outstanding, they are sent without waiting for the delay to elapse. A message published after a pause is
+ * therefore sent immediately, while a burst of messages fills batches up to the element count threshold.
+ * <p>
+ * The delegate may also send the outstanding messages on its own, when its delay or byte threshold is reached. Messages
+ * published before one that is known to be sent, and messages outstanding for longer than the delay threshold, are
+ * therefore no longer counted, so that the next batch is not sent before it is filled.
+ *
+ * @since 5.8.0
+ */
+final class AdaptiveBatchingPublisher implements PublisherInterface {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final Publisher delegate;
+    private final long maxElementCount;
+    private final long maxDelayNanos;
+    private boolean started;
+    private long lastPublishNanos;
+    private double averageIntervalNanos = -1d;
+    private long published;
+    private long sent;
+    private long batchStartNanos;
+
+    /**
+     * @param delegate the publisher to send the messages with
+     * @param maxElementCount the maximum number of messages in a batch
+     * @param maxDelayNanos the maximum time a message waits for a batch to fill up
+     */
+    AdaptiveBatchingPublisher(Publisher delegate, long maxElementCount, long maxDelayNanos) {
+        this.delegate = delegate;
+        this.maxElementCount = Math.max(maxElementCount, 1L);
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    @Override
+    public ApiFuture<String> publish(PubsubMessage message) {
+        ApiFuture<String> future = delegate.publish(message);
+        boolean flush;
+        long sequence;
+        synchronized (this) {
+            flush = onPublish(System.nanoTime());
+            sequence = published;
+        }
+        if (flush) {
+            delegate.publishAllOutstanding();
+        }
+        // messages are batched in the order they are published, so the ones before a sent message were sent as well
+        future.addListener(() -> onSent(sequence), Runnable::run);
+        return future;
+    }
+
+    /**
+     * @return the publisher the messages are sent with
+     */
+    Publisher getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of messages currently expected within the delay threshold, bounded by the element count threshold
+     */
+    synchronized long getTargetElementCount() {
+        return targetElementCount();
+    }
+
+    /**
+     * @return the number of published messages that are not known to be sent yet
+     */
+    synchronized long getOutstandingCount() {
+        return published - sent;
+    }
+
+    /**
+     * Records a published message.
+     *
+     * @param nowNanos the time the message was published at
+     * @return whether the outstanding messages should be sent now
+     */
+    synchronized boolean onPublish(long nowNanos) {
+        if (started) {
+            long interval = nowNanos - lastPublishNanos;
+            averageIntervalNanos = averageIntervalNanos < 0 ? interval : averageIntervalNanos + SMOOTHING * (interval - averageIntervalNanos);
+        }
+        started = true;
+        lastPublishNanos = nowNanos;
+        if (published > sent && nowNanos - batchStartNanos >= maxDelayNanos) {
+            // the delegate sent the outstanding messages once the delay threshold elapsed
+            sent = published;
+        }
+        if (published == sent) {
+            batchStartNanos = nowNanos;
+        }
+        published++;
+        if (published - sent >= targetElementCount()) {
+            sent = published;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that a published message was sent, either with the outstanding messages sent by this publisher or because
+     * a threshold of the delegate was reached.
+     *
+     * @param sequence the number of messages published up to and including the sent message
+     */
+    synchronized void onSent(long sequence) {
+        if (sequence > sent) {
+            sent = sequence;
+        }
+    }
+
+    private long targetElementCount() {
+        if (averageIntervalNanos < 0) {
+            return 1L;
+        }
+        double expected = maxDelayNanos / Math.max(averageIntervalNanos, 1d);
+        return (long) Math.min(Math.max(expected, 1d), maxElementCount);
+    }
+}
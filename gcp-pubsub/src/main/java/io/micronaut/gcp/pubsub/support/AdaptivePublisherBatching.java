@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.support;
+
+import com.google.api.gax.batching.BatchingSettings;
+import com.google.cloud.pubsub.v1.Publisher;
+import com.google.cloud.pubsub.v1.PublisherInterface;
+import io.micronaut.context.BeanContext;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.gcp.pubsub.configuration.PublisherConfigurationProperties;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Singleton;
+
+import java.util.Optional;
+
+/**
+ * Applies adaptive batching to the publishers whose {@link PublisherConfigurationProperties} enable it.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+public class AdaptivePublisherBatching {
+
+    private final BeanContext beanContext;
+
+    /**
+     * @param beanContext the bean context used to look up the publisher configurations
+     */
+    public AdaptivePublisherBatching(BeanContext beanContext) {
+        this.beanContext = beanContext;
+    }
+
+    /**
+     * Wraps a publisher to size its batches from the observed publish rate, if its configuration enables adaptive
+     * batching. The element count and delay thresholds of the publisher are used as upper bounds.
+     *
+     * @param config the configuration the publisher was created with
+     * @param publisher the publisher
+     * @return the adaptive publisher, or the given publisher if adaptive batching does not apply
+     */
+    @NonNull
+    public PublisherInterface apply(@NonNull PublisherFactoryConfig config, @NonNull PublisherInterface publisher) {
+        if (!(publisher instanceof Publisher defaultPublisher)) {
+            return publisher;
+        }
+        Optional<PublisherConfigurationProperties> publisherConfiguration = beanContext.findBean(PublisherConfigurationProperties.class,
+                Qualifiers.byName(config.getTopicState().getConfigurationName()));
+        if (publisherConfiguration.isEmpty() || !publisherConfiguration.get().isAdaptiveBatching()) {
+            return publisher;
+        }
+        BatchingSettings batchingSettings = defaultPublisher.getBatchingSettings();
+        if (!Boolean.TRUE.equals(batchingSettings.getIsEnabled())
+                || batchingSettings.getElementCountThreshold() == null
+                || batchingSettings.getDelayThreshold() == null) {
+            return publisher;
+        }
+        return new AdaptiveBatchingPublisher(defaultPublisher, batchingSettings.getElementCountThreshold(), batchingSettings.getDelayThreshold().toNanos());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.support;
+
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.type.Argument;
+import io.micronaut.messaging.annotation.MessageHeader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The attributes of the messages published by a {@link io.micronaut.gcp.pubsub.annotation.PubSubClient} method, resolved
+ * once per method. The static attributes are kept in an immutable map, and the values of the {@link MessageHeader}
+ * arguments are written into the message builder directly, without building an intermediate map for every message.
+ *
+ * @since 5.8.0
+ */
+@Internal
+public final class MessageAttributesTemplate {
+
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    private final Map<String, String> staticAttributes;
+    private final int[] headerIndexes;
+    private final String[] headerNames;
+    private final String contentType;
+
+    private MessageAttributesTemplate(Map<String, String> staticAttributes, int[] headerIndexes, String[] headerNames, String contentType) {
+        this.staticAttributes = staticAttributes;
+        this.headerIndexes = headerIndexes;
+        this.headerNames = headerNames;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Resolves the attributes of the messages published by a method.
+     *
+     * @param staticAttributes the attributes declared by the {@link MessageHeader} annotations of the method
+     * @param arguments the arguments of the method
+     * @param contentType the content type of the messages
+     * @return the template
+     */
+    @NonNull
+    public static MessageAttributesTemplate of(@NonNull Map<String, String> staticAttributes, @NonNull Argument<?>[] arguments, @NonNull String contentType) {
+        List<Integer> indexes = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < arguments.length; i++) {
+            Argument<?> argument = arguments[i];
+            AnnotationValue<MessageHeader> header = argument.getAnnotation(MessageHeader.class);
+            if (header != null) {
+                indexes.add(i);
+                names.add(header.stringValue("name").orElse(header.stringValue().orElse(argument.getName())));
+            }
+        }
+        return new MessageAttributesTemplate(
+            Map.copyOf(staticAttributes),
+            indexes.stream().mapToInt(Integer::intValue).toArray(),
+            names.toArray(String[]::new),
+            contentType);
+    }
+
+    /**
+     * Writes the attributes into a message. The values of the {@link MessageHeader} arguments take precedence over the
+     * static attributes, and the content type over both.
+     *
+     * @param builder the message builder
+     * @param parameterValues the values of the method arguments
+     * @return the message builder
+     */
+    @NonNull
+    public PubsubMessage.Builder applyTo(@NonNull PubsubMessage.Builder builder, @NonNull Object[] parameterValues) {
+        if (!staticAttributes.isEmpty()) {
+            builder.putAllAttributes(staticAttributes);
+        }
+        for (int i = 0; i < headerIndexes.length; i++) {
+            builder.putAttributes(headerNames[i], String.valueOf(parameterValues[headerIndexes[i]]));
+        }
+        return builder.putAttributes(CONTENT_TYPE, contentType);
+    }
+}
@@ -19,7 +19,9 @@ package io.micronaut.gcp.pubsub.support;
 import com.google.cloud.pubsub.v1.Publisher;
 import com.google.cloud.pubsub.v1.PublisherInterface;
 import com.google.pubsub.v1.ProjectTopicName;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.type.Argument;
+import io.micronaut.gcp.pubsub.schema.MessageSchemaValidator;
 
 import java.util.Map;
 import java.util.Optional;
@@ -38,17 +40,43 @@ public class PubSubPublisherState implements AutoCloseable {
     private final Argument<?> bodyArgument;
     private final PublisherInterface publisher;
     private final Optional<Argument> orderingArgument;
+    @Nullable
+    private final MessageSchemaValidator schemaValidator;
+    @Nullable
+    private final MessageAttributesTemplate attributesTemplate;
 
     public PubSubPublisherState(TopicState topicState,
                                 Map<String, String> staticMessageAttributes,
                                 Argument<?> bodyArgument,
                                 PublisherInterface publisher,
                                 Optional<Argument> orderingArgument) {
+        this(topicState, staticMessageAttributes, bodyArgument, publisher, orderingArgument, null, null);
+    }
+
+    /**
+     * @param topicState the topic state
+     * @param staticMessageAttributes the message attributes from header annotations
+     * @param bodyArgument the body argument
+     * @param publisher the publisher
+     * @param orderingArgument the argument annotated with {@link io.micronaut.gcp.pubsub.annotation.OrderingKey}
+     * @param schemaValidator the validator of the topic schema, if any
+     * @param attributesTemplate the attributes of the published messages, resolved from the method
+     * @since 5.8.0
+     */
+    public PubSubPublisherState(TopicState topicState,
+                                Map<String, String> staticMessageAttributes,
+                                Argument<?> bodyArgument,
+                                PublisherInterface publisher,
+                                Optional<Argument> orderingArgument,
+                                @Nullable MessageSchemaValidator schemaValidator,
+                                @Nullable MessageAttributesTemplate attributesTemplate) {
         this.topicState = topicState;
         this.staticMessageAttributes = staticMessageAttributes;
         this.bodyArgument = bodyArgument;
         this.publisher = publisher;
         this.orderingArgument = orderingArgument;
+        this.schemaValidator = schemaValidator;
+        this.attributesTemplate = attributesTemplate;
     }
 
     /**
@@ -91,12 +119,34 @@ public class PubSubPublisherState implements AutoCloseable {
         return orderingArgument;
     }
 
+    /**
+     *
+     * @return the validator of the topic schema, or {@code null} if messages are not validated locally
+     * @since 5.8.0
+     */
+    @Nullable
+    public MessageSchemaValidator getSchemaValidator() {
+        return schemaValidator;
+    }
+
+    /**
+     *
+     * @return the attributes of the published messages, or {@code null} if they were not resolved from the method
+     * @since 5.8.0
+     */
+    @Nullable
+    public MessageAttributesTemplate getAttributesTemplate() {
+        return attributesTemplate;
+    }
+
     @Override
     public void close() throws Exception {
         //Lite and Default PubSub have different ancestors for resource management, hence the not so elegant type check
         if (this.publisher instanceof Publisher) {
             Publisher defaultPublisher = (Publisher) this.publisher;
             defaultPublisher.shutdown();
+        } else if (this.publisher instanceof AdaptiveBatchingPublisher adaptiveBatchingPublisher) {
+            adaptiveBatchingPublisher.getDelegate().shutdown();
         }
     }
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.propagation.TraceContext;
+import brave.propagation.TraceContextOrSamplingFlags;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.ProjectTopicName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.gcp.Modules;
+import jakarta.inject.Singleton;
+
+/**
+ * A {@link PubSubTracer} recording spans with Brave. The trace context is written to the message attributes using the
+ * propagation configured on the {@link Tracing}, which is the Cloud Trace propagation when {@code micronaut-gcp-tracing}
+ * is used.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Requires(classes = Tracing.class)
+@Requires(beans = Tracing.class)
+@Requires(property = PubSubTracer.PROPERTY_ENABLED, value = StringUtils.TRUE)
+public class BravePubSubTracer implements PubSubTracer {
+
+    private final Tracer tracer;
+    private final TraceContext.Injector<PubsubMessage.Builder> injector;
+    private final TraceContext.Extractor<PubsubMessage> extractor;
+
+    /**
+     * @param tracing the Brave tracing
+     */
+    public BravePubSubTracer(Tracing tracing) {
+        this.tracer = tracing.tracer();
+        this.injector = tracing.propagation().injector(PubsubMessage.Builder::putAttributes);
+        this.extractor = tracing.propagation().extractor((message, key) -> message.getAttributesOrDefault(key, null));
+    }
+
+    @Override
+    @NonNull
+    public PubSubSpan startPublish(@NonNull ProjectTopicName topic, @NonNull PubsubMessage.Builder message) {
+        Span span = tracer.nextSpan()
+            .kind(Span.Kind.PRODUCER)
+            .name("publish " + topic.getTopic())
+            .remoteServiceName(Modules.PUBSUB)
+            .tag("pubsub.topic", topic.toString())
+            .start();
+        injector.inject(span.context(), message);
+        return new BraveSpan(tracer, span);
+    }
+
+    @Override
+    @NonNull
+    public PubSubSpan startConsume(@NonNull ProjectSubscriptionName subscription, @NonNull PubsubMessage message) {
+        TraceContextOrSamplingFlags extracted = extractor.extract(message);
+        Span span = tracer.nextSpan(extracted)
+            .kind(Span.Kind.CONSUMER)
+            .name("receive " + subscription.getSubscription())
+            .remoteServiceName(Modules.PUBSUB)
+            .tag("pubsub.subscription", subscription.toString())
+            .tag("pubsub.message_id", message.getMessageId())
+            .start();
+        return new BraveSpan(tracer, span);
+    }
+
+    @Override
+    @NonNull
+    public PubSubSpan startSpan(@NonNull String name) {
+        return new BraveSpan(tracer, tracer.nextSpan().name(name).start());
+    }
+
+    private record BraveSpan(Tracer tracer, Span span) implements PubSubSpan {
+
+        @Override
+        @NonNull
+        public Scope makeCurrent() {
+            Tracer.SpanInScope spanInScope = tracer.withSpanInScope(span);
+            return spanInScope::close;
+        }
+
+        @Override
+        public void error(@NonNull Throwable error) {
+            span.error(error);
+        }
+
+        @Override
+        public void end() {
+            span.finish();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.tracing;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.ProjectTopicName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Secondary;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import jakarta.inject.Singleton;
+
+/**
+ * A {@link PubSubTracer} recording spans with OpenTelemetry. The trace context is written to the message attributes using
+ * the configured propagators, W3C trace context by default. When Brave is configured as well, the {@link BravePubSubTracer}
+ * is used instead.
+ *
+ * @since 5.8.0
+ */
+@Singleton
+@Secondary
+@Requires(classes = OpenTelemetry.class)
+@Requires(beans = OpenTelemetry.class)
+@Requires(property = PubSubTracer.PROPERTY_ENABLED, value = StringUtils.TRUE)
+public class OpenTelemetryPubSubTracer implements PubSubTracer {
+
+    private static final String INSTRUMENTATION_NAME = "io.micronaut.gcp.pubsub";
+    private static final String MESSAGING_SYSTEM = "gcp_pubsub";
+
+    private static final TextMapSetter<PubsubMessage.Builder> SETTER = (message, key, value) -> {
+        if (message != null) {
+            message.putAttributes(key, value);
+        }
+    };
+
+    private static final TextMapGetter<PubsubMessage> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(PubsubMessage message) {
+            return message.getAttributesMap().keySet();
+        }
+
+        @Override
+        @Nullable
+        public String get(@Nullable PubsubMessage message, String key) {
+            return message != null ? message.getAttributesOrDefault(key, null) : null;
+        }
+    };
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    /**
+     * @param openTelemetry the OpenTelemetry instance
+     */
+    public OpenTelemetryPubSubTracer(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    @Override
+    @NonNull
+    public PubSubSpan startPublish(@NonNull ProjectTopicName topic, @NonNull PubsubMessage.Builder message) {
+        Span span = tracer.spanBuilder(topic.getTopic() + " publish")
+            .setSpanKind(SpanKind.PRODUCER)
+            .setAttribute("messaging.system", MESSAGING_SYSTEM)
+            .setAttribute("messaging.destination.name", topic.toString())
+            .startSpan();
+        propagator.inject(Context.current().with(span), message, SETTER);
+        return new OpenTelemetrySpan(span);
+    }
+
+    @Override
+    @NonNull
+    public PubSubSpan startConsume(@NonNull ProjectSubscriptionName subscription, @NonNull PubsubMessage message) {
+        Context parent = propagator.extract(Context.current(), message, GETTER);
+        Span span = tracer.spanBuilder(subscription.getSubscription() + " receive")
+            .setParent(parent)
+            .setSpanKind(SpanKind.CONSUMER)
+            .setAttribute("messaging.system", MESSAGING_SYSTEM)
+            .setAttribute("messaging.destination.subscription.name", subscription.toString())
+            .setAttribute("messaging.message.id", message.getMessageId())
+            .startSpan();
+        return new OpenTelemetrySpan(span);
+    }
+
+    @Override
+    @NonNull
+    public PubSubSpan startSpan(@NonNull String name) {
+        return new OpenTelemetrySpan(tracer.spanBuilder(name).startSpan());
+    }
+
+    private record OpenTelemetrySpan(Span span) implements PubSubSpan {
+
+        @Override
+        @NonNull
+        public Scope makeCurrent() {
+            io.opentelemetry.context.Scope scope = span.makeCurrent();
+            return scope::close;
+        }
+
+        @Override
+        public void error(@NonNull Throwable error) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+        }
+
+        @Override
+        public void end() {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.tracing;
+
+import io.micronaut.core.annotation.NonNull;
+
+/**
+ * A span recorded by a {@link PubSubTracer}.
+ *
+ * @since 5.8.0
+ */
+public interface PubSubSpan {
+
+    /**
+     * Makes the span the current span of the calling thread, until the returned scope is closed.
+     *
+     * @return the scope
+     */
+    @NonNull
+    Scope makeCurrent();
+
+    /**
+     * Records an error on the span.
+     *
+     * @param error the error
+     */
+    void error(@NonNull Throwable error);
+
+    /**
+     * Ends the span.
+     */
+    void end();
+
+    /**
+     * The scope in which a span is current.
+     */
+    interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
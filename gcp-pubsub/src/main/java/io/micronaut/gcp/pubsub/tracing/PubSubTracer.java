@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.tracing;
+
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.ProjectTopicName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.gcp.pubsub.configuration.PubSubConfigurationProperties;
+
+/**
+ * Records spans for published and consumed messages, and propagates the trace context between them through the message
+ * attributes. Implementations are provided for Brave and OpenTelemetry, and are enabled with
+ * {@code gcp.pubsub.tracing.enabled}.
+ *
+ * @since 5.8.0
+ */
+public interface PubSubTracer {
+
+    /**
+     * The property used to enable the tracing of PubSub messages.
+     */
+    String PROPERTY_ENABLED = PubSubConfigurationProperties.PREFIX + ".tracing.enabled";
+
+    /**
+     * Starts a span for a message being published, as a child of the current span, and injects its context into the
+     * attributes of the message.
+     *
+     * @param topic the topic the message is published to
+     * @param message the message
+     * @return the started span
+     */
+    @NonNull
+    PubSubSpan startPublish(@NonNull ProjectTopicName topic, @NonNull PubsubMessage.Builder message);
+
+    /**
+     * Starts a span for a received message, continuing the trace context found in the attributes of the message.
+     *
+     * @param subscription the subscription the message was received from
+     * @param message the message
+     * @return the started span
+     */
+    @NonNull
+    PubSubSpan startConsume(@NonNull ProjectSubscriptionName subscription, @NonNull PubsubMessage message);
+
+    /**
+     * Starts a span as a child of the current span.
+     *
+     * @param name the name of the span
+     * @return the started span
+     */
+    @NonNull
+    PubSubSpan startSpan(@NonNull String name);
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.tracing;
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer;
+import com.google.cloud.pubsub.v1.MessageReceiver;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.gcp.pubsub.bind.AckResponseReplyConsumer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link MessageReceiver} recording a span for every received message. The span is current while the message is
+ * delivered to the receiver, and ends once the message is acknowledged or nacked, so that it covers the binding, the
+ * execution of the listener and the acknowledgement of the message.
+ *
+ * @since 5.8.0
+ */
+@Internal
+public final class TracingMessageReceiver implements MessageReceiver {
+
+    private final PubSubTracer tracer;
+    private final ProjectSubscriptionName subscriptionName;
+    private final MessageReceiver delegate;
+
+    /**
+     * @param tracer the tracer
+     * @param subscriptionName the subscription the messages are received from
+     * @param delegate the receiver to delegate to
+     */
+    public TracingMessageReceiver(PubSubTracer tracer, ProjectSubscriptionName subscriptionName, MessageReceiver delegate) {
+        this.tracer = tracer;
+        this.subscriptionName = subscriptionName;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void receiveMessage(PubsubMessage message, AckReplyConsumer consumer) {
+        PubSubSpan span = tracer.startConsume(subscriptionName, message);
+        AtomicBoolean ended = new AtomicBoolean(false);
+        Runnable end = () -> {
+            if (ended.compareAndSet(false, true)) {
+                span.end();
+            }
+        };
+        AckReplyConsumer tracingConsumer = consumer instanceof AckResponseReplyConsumer responseReplyConsumer
+            ? responseReplyConsumer.doAroundReply((reply, proceed) -> reply(span, reply, proceed)).doOnReply(end)
+            : new TracingAckReplyConsumer(consumer, span, end);
+        try (PubSubSpan.Scope ignored = span.makeCurrent()) {
+            delegate.receiveMessage(message, tracingConsumer);
+        } catch (RuntimeException e) {
+            span.error(e);
+            end.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the acknowledgement of a message as a child of its span.
+     */
+    private void reply(PubSubSpan span, String name, Runnable reply) {
+        try (PubSubSpan.Scope ignored = span.makeCurrent()) {
+            PubSubSpan replySpan = tracer.startSpan(name);
+            try {
+                reply.run();
+            } catch (RuntimeException e) {
+                replySpan.error(e);
+                throw e;
+            } finally {
+                replySpan.end();
+            }
+        }
+    }
+
+    /**
+     * Records the acknowledgement of a message as a child of its span, and ends the span.
+     */
+    private final class TracingAckReplyConsumer implements AckReplyConsumer {
+        private final AckReplyConsumer delegate;
+        private final PubSubSpan span;
+        private final Runnable end;
+
+        private TracingAckReplyConsumer(AckReplyConsumer delegate, PubSubSpan span, Runnable end) {
+            this.delegate = delegate;
+            this.span = span;
+            this.end = end;
+        }
+
+        @Override
+        public void ack() {
+            reply(AckResponseReplyConsumer.ReplyInterceptor.ACK, delegate::ack);
+        }
+
+        @Override
+        public void nack() {
+            reply(AckResponseReplyConsumer.ReplyInterceptor.NACK, delegate::nack);
+        }
+
+        private void reply(String name, Runnable reply) {
+            try {
+                TracingMessageReceiver.this.reply(span, name, reply);
+            } finally {
+                end.run();
+            }
+        }
+    }
+}
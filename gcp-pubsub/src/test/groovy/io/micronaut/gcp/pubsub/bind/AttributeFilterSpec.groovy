@@ -0,0 +1,110 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.AbstractConsumerSpec
+import io.micronaut.gcp.pubsub.MockPubSubEngine
+import io.micronaut.gcp.pubsub.annotation.AttributeFilter
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.support.Person
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+@MicronautTest
+@Property(name = "spec.name", value = "AttributeFilterSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+class AttributeFilterSpec extends AbstractConsumerSpec {
+
+    @Inject
+    AttributeFilterListener listener
+
+    @Inject
+    MockPubSubEngine mockPubSubEngine
+
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void "messages matching the attribute filter are delivered"() {
+        given:
+        PubsubMessage message = message('{"name":"alf"}', ["eventType": "created", "tenant": "acme"])
+
+        when:
+        mockPubSubEngine.publish(message, "filtered-sub")
+
+        then:
+        conditions.eventually {
+            listener.received*.name.contains("alf")
+            mockPubSubEngine.acknowledgements.get(message) == MockPubSubEngine.ACK
+        }
+    }
+
+    void "messages rejected by the attribute filter are acked without deserializing the body"() {
+        given: 'bodies that would fail deserialization if they were bound'
+        PubsubMessage wrongType = message("not-json", ["eventType": "deleted", "tenant": "acme"])
+        PubsubMessage missingAttribute = message("not-json", ["eventType": "updated"])
+
+        when:
+        mockPubSubEngine.publish(wrongType, "filtered-sub")
+        mockPubSubEngine.publish(missingAttribute, "filtered-sub")
+
+        then:
+        conditions.eventually {
+            mockPubSubEngine.acknowledgements.get(wrongType) == MockPubSubEngine.ACK
+            mockPubSubEngine.acknowledgements.get(missingAttribute) == MockPubSubEngine.ACK
+        }
+        listener.received.isEmpty()
+    }
+
+    void "messages rejected by the attribute filter can be nacked"() {
+        given:
+        PubsubMessage rejected = message("not-json", ["eventType": "updated"])
+        PubsubMessage accepted = message('{"name":"bob"}', ["eventType": "created"])
+
+        when:
+        mockPubSubEngine.publish(rejected, "filtered-nack-sub")
+        mockPubSubEngine.publish(accepted, "filtered-nack-sub")
+
+        then:
+        conditions.eventually {
+            mockPubSubEngine.acknowledgements.get(rejected) == MockPubSubEngine.NACK
+            mockPubSubEngine.acknowledgements.get(accepted) == MockPubSubEngine.ACK
+            listener.received*.name.contains("bob")
+        }
+    }
+
+    void cleanup() {
+        listener.received.clear()
+    }
+
+    private static PubsubMessage message(String data, Map<String, String> attributes) {
+        return PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8(data))
+                .putAllAttributes(attributes)
+                .build()
+    }
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "AttributeFilterSpec")
+class AttributeFilterListener {
+
+    List<Person> received = new CopyOnWriteArrayList<>()
+
+    @Subscription(value = "filtered-sub", filter = [
+            @AttributeFilter(name = "eventType", values = ["created", "updated"]),
+            @AttributeFilter(name = "tenant")
+    ])
+    void onMessage(Person person) {
+        received.add(person)
+    }
+
+    @Subscription(value = "filtered-nack-sub", filter = @AttributeFilter(name = "eventType", values = "created"), ackFiltered = false)
+    void onFilteredMessage(Person person) {
+        received.add(person)
+    }
+}
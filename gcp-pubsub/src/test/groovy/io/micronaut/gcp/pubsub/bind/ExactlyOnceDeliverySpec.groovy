@@ -0,0 +1,143 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.api.core.SettableApiFuture
+import com.google.cloud.pubsub.v1.AckReplyConsumerWithResponse
+import com.google.cloud.pubsub.v1.AckResponse
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.AbstractConsumerSpec
+import io.micronaut.gcp.pubsub.MockPubSubEngine
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.configuration.SubscriberConfigurationProperties
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.FutureTask
+import java.util.concurrent.TimeUnit
+
+@MicronautTest
+@Property(name = "spec.name", value = "ExactlyOnceDeliverySpec")
+@Property(name = "gcp.projectId", value = "test-project")
+class ExactlyOnceDeliverySpec extends AbstractConsumerSpec {
+
+    @Inject
+    ExactlyOnceListener listener
+
+    @Inject
+    MockPubSubEngine mockPubSubEngine
+
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void "acknowledgement results are reported once confirmed by PubSub"() {
+        given:
+        SettableApiFuture<AckResponse> ackResult = SettableApiFuture.create()
+        SettableApiFuture<AckResponse> nackResult = SettableApiFuture.create()
+        AckReplyConsumerWithResponse consumer = Mock()
+        int replies = 0
+        AckResponseReplyConsumer replyConsumer = new AckResponseReplyConsumer(consumer).doOnReply { replies++ }
+
+        when:
+        CompletionStage<AckResponse> acked = new DefaultPubSubAcknowledgement(replyConsumer).ackAsync()
+
+        then:
+        1 * consumer.ack() >> ackResult
+        replies == 1
+        !acked.toCompletableFuture().isDone()
+
+        when:
+        ackResult.set(AckResponse.SUCCESSFUL)
+
+        then:
+        acked.toCompletableFuture().get(1, TimeUnit.SECONDS) == AckResponse.SUCCESSFUL
+
+        when:
+        DefaultPubSubAcknowledgement acknowledgement = new DefaultPubSubAcknowledgement(replyConsumer)
+        CompletionStage<AckResponse> nacked = acknowledgement.nackAsync()
+        nackResult.set(AckResponse.FAILED_PRECONDITION)
+
+        then:
+        1 * consumer.nack() >> nackResult
+        replies == 2
+        acknowledgement.isClientAck()
+        nacked.toCompletableFuture().get(1, TimeUnit.SECONDS) == AckResponse.FAILED_PRECONDITION
+    }
+
+    void "acknowledgement results returned as plain futures are adapted without blocking"() {
+        given:
+        AckReplyConsumerWithResponse consumer = Mock()
+        AckResponseReplyConsumer replyConsumer = new AckResponseReplyConsumer(consumer)
+        FutureTask<AckResponse> done = new FutureTask<>({ AckResponse.SUCCESSFUL } as Callable<AckResponse>)
+        done.run()
+
+        when:
+        CompletionStage<AckResponse> acked = replyConsumer.ackWithResponse()
+
+        then:
+        1 * consumer.ack() >> done
+        acked.toCompletableFuture().getNow(null) == AckResponse.SUCCESSFUL
+
+        when:
+        CompletionStage<AckResponse> nacked = replyConsumer.nackWithResponse()
+        nacked.toCompletableFuture().getNow(null)
+
+        then:
+        1 * consumer.nack() >> new FutureTask<>({ AckResponse.SUCCESSFUL } as Callable<AckResponse>)
+        CompletionException e = thrown()
+        e.cause instanceof UnsupportedOperationException
+    }
+
+    void "acknowledgements of subscriptions without exactly-once delivery complete immediately"() {
+        given:
+        PubsubMessage message = PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8("exactly-once"))
+                .putAttributes("Content-Type", "text/plain")
+                .build()
+
+        when:
+        mockPubSubEngine.publish(message, "exactly-once-sub")
+
+        then:
+        conditions.eventually {
+            listener.result != null
+            listener.result.toCompletableFuture().getNow(null) == AckResponse.SUCCESSFUL
+            mockPubSubEngine.acknowledgements.values().contains(MockPubSubEngine.ACK)
+        }
+    }
+
+    void "exactly-once delivery is enabled per subscriber configuration"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run([
+                "gcp.projectId": "test-project",
+                "gcp.pubsub.subscriber.orders.exactly-once-delivery": true,
+                "gcp.pubsub.subscriber.other.parallel-pull-count": 2
+        ])
+
+        expect:
+        ctx.getBean(SubscriberConfigurationProperties, Qualifiers.byName("orders")).isExactlyOnceDelivery()
+        !ctx.getBean(SubscriberConfigurationProperties, Qualifiers.byName("other")).isExactlyOnceDelivery()
+
+        cleanup:
+        ctx.close()
+    }
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "ExactlyOnceDeliverySpec")
+class ExactlyOnceListener {
+
+    volatile CompletionStage<AckResponse> result
+
+    @Subscription("exactly-once-sub")
+    void onMessage(String message, PubSubAcknowledgement acknowledgement) {
+        result = acknowledgement.ackAsync()
+    }
+}
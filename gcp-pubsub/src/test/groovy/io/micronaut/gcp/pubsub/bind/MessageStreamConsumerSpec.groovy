@@ -0,0 +1,120 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.AbstractConsumerSpec
+import io.micronaut.gcp.pubsub.MockPubSubEngine
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.support.Person
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Flux
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
+@MicronautTest
+@Property(name = "spec.name", value = "MessageStreamConsumerSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+class MessageStreamConsumerSpec extends AbstractConsumerSpec {
+
+    @Inject
+    MessageStreamListener listener
+
+    @Inject
+    MockPubSubEngine mockPubSubEngine
+
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void "a stream listener is invoked once and receives every message of the subscription"() {
+        given:
+        PubsubMessage first = message('{"name":"alf"}')
+        PubsubMessage second = message('{"name":"bob"}')
+
+        when:
+        mockPubSubEngine.publish(first, "stream-sub")
+        mockPubSubEngine.publish(second, "stream-sub")
+
+        then:
+        conditions.eventually {
+            listener.received*.name.containsAll(["alf", "bob"])
+            mockPubSubEngine.acknowledgements.get(first) == MockPubSubEngine.ACK
+            mockPubSubEngine.acknowledgements.get(second) == MockPubSubEngine.ACK
+        }
+        listener.streamInvocations.get() == 1
+    }
+
+    void "messages are only acknowledged by the stream consumer"() {
+        given:
+        PubsubMessage first = message('{"name":"carl"}')
+        PubsubMessage second = message('{"name":"dora"}')
+        PubsubMessage third = message('{"name":"eve"}')
+
+        when:
+        mockPubSubEngine.publish(first, "stream-buffer-sub")
+        mockPubSubEngine.publish(second, "stream-buffer-sub")
+        mockPubSubEngine.publish(third, "stream-buffer-sub")
+
+        then: 'the first two messages are acknowledged as a batch and the third is held in the buffer'
+        conditions.eventually {
+            listener.batches == [["carl", "dora"]]
+            mockPubSubEngine.acknowledgements.get(first) == MockPubSubEngine.ACK
+            mockPubSubEngine.acknowledgements.get(second) == MockPubSubEngine.ACK
+        }
+        !mockPubSubEngine.acknowledgements.containsKey(third)
+    }
+
+    void "messages that cannot be deserialized are nacked without terminating the stream"() {
+        given:
+        PubsubMessage invalid = message("not-json")
+        PubsubMessage valid = message('{"name":"fred"}')
+
+        when:
+        mockPubSubEngine.publish(invalid, "stream-sub")
+        mockPubSubEngine.publish(valid, "stream-sub")
+
+        then:
+        conditions.eventually {
+            mockPubSubEngine.acknowledgements.get(invalid) == MockPubSubEngine.NACK
+            mockPubSubEngine.acknowledgements.get(valid) == MockPubSubEngine.ACK
+            listener.received*.name.contains("fred")
+        }
+    }
+
+    private static PubsubMessage message(String data) {
+        return PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8(data))
+                .build()
+    }
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "MessageStreamConsumerSpec")
+class MessageStreamListener {
+
+    AtomicInteger streamInvocations = new AtomicInteger()
+    List<Person> received = new CopyOnWriteArrayList<>()
+    List<List<String>> batches = new CopyOnWriteArrayList<>()
+
+    @Subscription("stream-sub")
+    Publisher<Person> onMessages(Flux<AcknowledgeableMessage<Person>> messages) {
+        streamInvocations.incrementAndGet()
+        return messages.doOnNext { message ->
+            received.add(message.body)
+            message.ack()
+        }.map { it.body }
+    }
+
+    @Subscription("stream-buffer-sub")
+    void onBatches(Publisher<AcknowledgeableMessage<Person>> messages) {
+        Flux.from(messages).buffer(2).subscribe { List<AcknowledgeableMessage<Person>> batch ->
+            batches.add(batch*.body*.name)
+            batch*.ack()
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer
+import com.google.cloud.pubsub.v1.MessageReceiver
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.gcp.pubsub.configuration.SubscriberConfigurationProperties
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ParallelPullTunerSpec extends Specification {
+
+    static final long SECOND = TimeUnit.SECONDS.toNanos(1)
+
+    MessageReceiver delegate = Mock(MessageReceiver)
+    long now = System.nanoTime()
+
+    void "the initial number of concurrent pulls is derived from the available processors within bounds"() {
+        expect:
+        new ParallelPullTuner(properties(min, max), processors).parallelPullCount == expected
+
+        where:
+        min | max | processors | expected
+        1   | 8   | 16         | 4
+        1   | 8   | 2          | 1
+        1   | 2   | 64         | 2
+        3   | 8   | 4          | 3
+    }
+
+    void "streams are added while they improve the throughput and the last increase is reverted otherwise"() {
+        given:
+        ParallelPullTuner tuner = new ParallelPullTuner(properties(1, 8), 4)
+        MessageReceiver receiver = tuner.wrap(delegate)
+
+        when: 'a first stream is probed'
+        receive(receiver, 100)
+
+        then:
+        tuner.evaluate(0.1, tick()) == 2
+
+        when: 'the throughput improved'
+        receive(receiver, 180)
+
+        then: 'another stream is probed'
+        tuner.evaluate(0.1, tick()) == 3
+
+        when: 'the throughput did not improve enough'
+        receive(receiver, 185)
+
+        then: 'the last stream is removed'
+        tuner.evaluate(0.1, tick()) == 2
+
+        when:
+        List<Integer> held = (1..ParallelPullTuner.HOLD_INTERVALS).collect {
+            receive(receiver, 185)
+            tuner.evaluate(0.1, tick())
+        }
+        receive(receiver, 185)
+
+        then: 'the count is held for a while before probing again'
+        held.every { it == 2 }
+        tuner.evaluate(0.1, tick()) == 3
+    }
+
+    void "streams are not added while the executor is saturated"() {
+        given:
+        ParallelPullTuner tuner = new ParallelPullTuner(properties(1, 8), 8)
+        MessageReceiver receiver = tuner.wrap(delegate)
+
+        when:
+        receive(receiver, 100)
+
+        then:
+        tuner.evaluate(0.95, tick()) == 2
+    }
+
+    void "idle intervals do not change the number of concurrent pulls"() {
+        given:
+        ParallelPullTuner tuner = new ParallelPullTuner(properties(1, 8), 16)
+        MessageReceiver receiver = tuner.wrap(delegate)
+
+        expect:
+        tuner.evaluate(0.0, tick()) == 4
+        tuner.evaluate(0.0, tick()) == 4
+
+        when: 'messages are received again'
+        receive(receiver, 100)
+
+        then:
+        tuner.evaluate(0.1, tick()) == 5
+    }
+
+    void "received messages are delegated"() {
+        given:
+        ParallelPullTuner tuner = new ParallelPullTuner(properties(1, 8), 4)
+        PubsubMessage message = PubsubMessage.getDefaultInstance()
+        AckReplyConsumer consumer = Mock(AckReplyConsumer)
+
+        when:
+        tuner.wrap(delegate).receiveMessage(message, consumer)
+
+        then:
+        1 * delegate.receiveMessage(message, consumer)
+    }
+
+    private long tick() {
+        now += SECOND
+        return now
+    }
+
+    private void receive(MessageReceiver receiver, int count) {
+        count.times { receiver.receiveMessage(PubsubMessage.getDefaultInstance(), Mock(AckReplyConsumer)) }
+    }
+
+    private static SubscriberConfigurationProperties properties(int min, int max) {
+        SubscriberConfigurationProperties properties = new SubscriberConfigurationProperties("tuned")
+        properties.autoTune = true
+        properties.minParallelPullCount = min
+        properties.maxParallelPullCount = max
+        return properties
+    }
+}
@@ -9,6 +9,7 @@ import io.micronaut.context.annotation.Executable
 import io.micronaut.context.annotation.Requires
 import io.micronaut.core.bind.BoundExecutable
 import io.micronaut.core.bind.DefaultExecutableBinder
+import io.micronaut.core.serialize.exceptions.SerializationException
 import io.micronaut.gcp.pubsub.annotation.MessageId
 import io.micronaut.inject.BeanDefinition
 import io.micronaut.inject.ExecutableMethod
@@ -62,6 +63,8 @@ class PubSubBinderSpec extends Specification{
         "bindMonoPubsubMessageBody"     | Mono<PubsubMessage>
         "bindFluxPubsubMessageBody"     | Flux<PubsubMessage>
         "bindFlowablePubsubMessageBody" | Flowable<PubsubMessage>
+        "bindByteStringBody"            | ByteString
+        "bindInputStreamBody"           | InputStream
         "bindPojoBody"                  | Animal
         "bindMonoPojoBody"              | Mono<Animal>
         "bindFluxPojoBody"              | Flux<Animal>
@@ -80,6 +83,14 @@ class PubSubBinderSpec extends Specification{
                 byte[] message = (byte[]) unwrappedResult
                 assert animalJson == new String(message, StandardCharsets.UTF_8)
                 break
+            case ByteString:
+                ByteString message = (ByteString) unwrappedResult
+                assert animalJson == message.toStringUtf8()
+                break
+            case InputStream:
+                InputStream message = (InputStream) unwrappedResult
+                assert animalJson == message.getText(StandardCharsets.UTF_8.name())
+                break
             case PubsubMessage:
                 PubsubMessage message = (PubsubMessage) unwrappedResult
                 assert animalJson == new String(message.getData().toByteArray(), StandardCharsets.UTF_8)
@@ -130,6 +141,59 @@ class PubSubBinderSpec extends Specification{
             e.message.startsWith("Can't bind messageId to argument")
     }
 
+    void "can bind a lazily deserialized message body"() {
+        ApplicationContext applicationContext = ApplicationContext.run(["spec.name" : getClass().simpleName])
+        TestBinderBean bean = applicationContext.getBean(TestBinderBean)
+        BeanDefinition<TestBinderBean> beanDefinition = applicationContext.getBeanDefinition(TestBinderBean)
+        ExecutableMethod<?, ?> method = beanDefinition.findMethod("bindLazyBody", LazyMessageBody).get()
+        PubSubBinderRegistry binderRegistry = applicationContext.getBean(PubSubBinderRegistry)
+        DefaultExecutableBinder<PubSubConsumerState> binder = new DefaultExecutableBinder<>()
+        AckReplyConsumer ackReplyConsumer = Mock(AckReplyConsumer)
+        ProjectSubscriptionName subscriptionName = ProjectSubscriptionName.of("test-project","test-subscription")
+        PubsubMessage message = PubsubMessage.newBuilder().setData(ByteString.copyFrom(animalJson.getBytes())).setMessageId("1234").build()
+        PubSubConsumerState consumerState = new PubSubConsumerState(message, ackReplyConsumer, subscriptionName, "application/json")
+        BoundExecutable executable = binder.bind(method, binderRegistry, consumerState)
+
+        when:
+        executable.invoke(bean)
+        LazyMessageBody<Animal> body = bean.dataHolder["receive"]["body"]
+
+        then:
+        body.contentType == "application/json"
+        body.get().name == "dog"
+        body.get().is(body.get())
+        body.get(Map).name == "dog"
+        body.get(byte[]) == animalJson.getBytes()
+        body.inputStream.text == animalJson
+    }
+
+    void "lazy message body is not deserialized unless requested"() {
+        ApplicationContext applicationContext = ApplicationContext.run(["spec.name" : getClass().simpleName])
+        TestBinderBean bean = applicationContext.getBean(TestBinderBean)
+        BeanDefinition<TestBinderBean> beanDefinition = applicationContext.getBeanDefinition(TestBinderBean)
+        ExecutableMethod<?, ?> method = beanDefinition.findMethod("bindLazyBody", LazyMessageBody).get()
+        PubSubBinderRegistry binderRegistry = applicationContext.getBean(PubSubBinderRegistry)
+        DefaultExecutableBinder<PubSubConsumerState> binder = new DefaultExecutableBinder<>()
+        AckReplyConsumer ackReplyConsumer = Mock(AckReplyConsumer)
+        ProjectSubscriptionName subscriptionName = ProjectSubscriptionName.of("test-project","test-subscription")
+        PubsubMessage message = PubsubMessage.newBuilder().setData(ByteString.copyFrom("not-json".getBytes())).setMessageId("1234").build()
+        PubSubConsumerState consumerState = new PubSubConsumerState(message, ackReplyConsumer, subscriptionName, "application/json")
+        BoundExecutable executable = binder.bind(method, binderRegistry, consumerState)
+
+        when:
+        executable.invoke(bean)
+        LazyMessageBody<Animal> body = bean.dataHolder["receive"]["body"]
+
+        then:
+        body.data.toStringUtf8() == "not-json"
+
+        when:
+        body.get()
+
+        then:
+        thrown(SerializationException)
+    }
+
     void "should be possible to bind Acknowledgement"() {
         ApplicationContext applicationContext = ApplicationContext.run(["spec.name" : getClass().simpleName])
         TestBinderBean bean = applicationContext.getBean(TestBinderBean)
@@ -234,6 +298,27 @@ class TestBinderBean {
         dataHolder["receive"] = data
     }
 
+    @Executable
+    void bindLazyBody(LazyMessageBody<Animal> body) {
+        Map<String, Object> data = new HashMap<>()
+        data["body"] = body
+        dataHolder["receive"] = data
+    }
+
+    @Executable
+    void bindByteStringBody(ByteString body) {
+        Map<String, Object> data = new HashMap<>()
+        data["body"] = body
+        dataHolder["receive"] = data
+    }
+
+    @Executable
+    void bindInputStreamBody(InputStream body) {
+        Map<String, Object> data = new HashMap<>()
+        data["body"] = body
+        dataHolder["receive"] = data
+    }
+
     @Executable
     void bindPojoBody(Animal body) {
         Map<String, Object> data = new HashMap<>()
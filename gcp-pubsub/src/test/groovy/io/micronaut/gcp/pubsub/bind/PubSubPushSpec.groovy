@@ -22,6 +22,7 @@ import io.micronaut.serde.annotation.Serdeable
 import io.micronaut.test.extensions.spock.annotation.MicronautTest
 import jakarta.inject.Inject
 import spock.lang.Specification
+import spock.lang.Unroll
 
 @MicronautTest(rebuildContext = true)
 @Property(name = "spec.name", value = "PubSubPushSpec")
@@ -118,6 +119,26 @@ class PubSubPushSpec extends Specification {
         ex.response.getBody(Map).get()._embedded.errors[0].message.contains('message must contain either a non-empty data field or at least one attribute')
     }
 
+    @Unroll
+    void "a push request violating #error is rejected"() {
+        when:
+        pushClient.toBlocking().exchange(HttpRequest.POST("/push", json))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.BAD_REQUEST
+        ex.response.getBody(Map).get()._embedded.errors[0].message.contains(error)
+
+        where:
+        json                                                                                                                   | error
+        '{"message":{"data":"Zm9v","messageId":"1","publishTime":"2021-02-26T19:13:55.749Z"}}'                                 | "subscription: must not be blank"
+        '{"subscription":"","message":{"data":"Zm9v","messageId":"1","publishTime":"2021-02-26T19:13:55.749Z"}}'               | "subscription: must not be blank"
+        '{"subscription":"projects/test-project/subscriptions/foo"}'                                                           | "message: must not be null"
+        '{"subscription":"projects/test-project/subscriptions/foo","message":{"data":"Zm9v","publishTime":"2021-02-26T19:13:55.749Z"}}' | "message.messageId: must not be blank"
+        '{"subscription":"projects/test-project/subscriptions/foo","message":{"data":"Zm9v","messageId":"1"}}'                 | "message.publishTime: must not be blank"
+        '{"subscription":"projects/test-project/subscriptions/foo","message":{"messageId":"1","publishTime":"2021-02-26T19:13:55.749Z"}}' | "message must contain either a non-empty data field or at least one attribute"
+    }
+
     void "a push message with POJO data can be received"() {
         given:
         Book book = new Book()
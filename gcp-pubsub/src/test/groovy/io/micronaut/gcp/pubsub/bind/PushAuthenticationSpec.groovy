@@ -0,0 +1,241 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.sun.net.httpserver.HttpServer
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.context.exceptions.ConfigurationException
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.PushSubscription
+import io.micronaut.gcp.pubsub.push.PushRequest
+import io.micronaut.gcp.pubsub.push.PushTokenVerifier
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.charset.StandardCharsets
+import java.security.KeyPair
+import java.security.KeyPairGenerator
+import java.security.Signature
+import java.security.interfaces.RSAPublicKey
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+
+class PushAuthenticationSpec extends Specification {
+
+    static final String AUDIENCE = "https://example.com/push"
+    static final String EMAIL = "pusher@test-project.iam.gserviceaccount.com"
+
+    @Shared
+    KeyPair keyPair = generateKeyPair()
+
+    @Shared
+    AtomicInteger jwksRequests = new AtomicInteger()
+
+    @Shared
+    CountDownLatch slowJwksLatch = new CountDownLatch(1)
+
+    @Shared
+    HttpServer jwksServer
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer server
+
+    @Shared
+    @AutoCleanup
+    HttpClient pushClient
+
+    @Shared
+    PushRequest request = new PushRequest("projects/test-project/subscriptions/authenticated",
+            new PushRequest.PushMessage(null, Base64.encoder.encodeToString('"hello"'.bytes), "1", "2021-02-26T19:13:55.749Z"))
+
+    void setupSpec() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.public
+        String jwks = """{"keys":[{"kty":"RSA","alg":"RS256","use":"sig","kid":"key-1","n":"${base64Url(unsigned(publicKey.modulus))}","e":"${base64Url(unsigned(publicKey.publicExponent))}"}]}"""
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        jwksServer.createContext("/certs") { exchange ->
+            jwksRequests.incrementAndGet()
+            byte[] response = jwks.getBytes(StandardCharsets.UTF_8)
+            exchange.responseHeaders.add("Content-Type", "application/json")
+            exchange.sendResponseHeaders(200, response.length)
+            exchange.responseBody.withCloseable { it.write(response) }
+        }
+        jwksServer.createContext("/slow-certs") { exchange ->
+            slowJwksLatch.await()
+            byte[] response = jwks.getBytes(StandardCharsets.UTF_8)
+            exchange.responseHeaders.add("Content-Type", "application/json")
+            exchange.sendResponseHeaders(200, response.length)
+            exchange.responseBody.withCloseable { it.write(response) }
+        }
+        jwksServer.start()
+        server = ApplicationContext.run(EmbeddedServer, [
+                "spec.name"                                   : "PushAuthenticationSpec",
+                "gcp.projectId"                               : "test-project",
+                "gcp.pubsub.push.authentication.enabled"      : true,
+                "gcp.pubsub.push.authentication.jwks-uri"     : "http://localhost:${jwksServer.address.port}/certs".toString(),
+                "gcp.pubsub.push.authentication.audience"     : AUDIENCE,
+                "gcp.pubsub.push.authentication.service-account-email": EMAIL
+        ])
+        pushClient = server.applicationContext.createBean(HttpClient, server.URL)
+        new PollingConditions(timeout: 10).eventually {
+            assert server.applicationContext.getBean(PushTokenVerifier).keyIds == ["key-1"] as Set
+        }
+    }
+
+    void cleanupSpec() {
+        slowJwksLatch.countDown()
+        jwksServer?.stop(0)
+    }
+
+    void "push requests with a valid token are accepted and verified tokens are cached"() {
+        given:
+        String token = token(validClaims())
+
+        when:
+        HttpResponse first = pushClient.toBlocking().exchange(authenticated(token))
+        HttpResponse second = pushClient.toBlocking().exchange(authenticated(token))
+
+        then:
+        first.status() == HttpStatus.OK
+        second.status() == HttpStatus.OK
+        server.applicationContext.getBean(AuthenticatedPushConsumer).received.size() == 2
+
+        and: 'the keys are only fetched once'
+        jwksRequests.get() == 1
+    }
+
+    void "push requests with an invalid token are rejected"() {
+        when:
+        pushClient.toBlocking().exchange(authorization == null ? HttpRequest.POST("/push", request) : HttpRequest.POST("/push", request).header("Authorization", authorization))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.UNAUTHORIZED
+
+        where:
+        authorization << [
+                null,
+                "Basic dXNlcjpwYXNz",
+                "Bearer not-a-token",
+                "Bearer " + token(validClaims() + [aud: "https://example.com/other"]),
+                "Bearer " + token(validClaims() + [iss: "https://issuer.example.com"]),
+                "Bearer " + token(validClaims() + [email: "other@test-project.iam.gserviceaccount.com"]),
+                "Bearer " + token(validClaims() + [email_verified: false]),
+                "Bearer " + token(validClaims() + [exp: epochSeconds() - 600]),
+                "Bearer " + token(validClaims() + [iat: epochSeconds() + 600]),
+                "Bearer " + token(validClaims(), "unknown-key"),
+                "Bearer " + token(validClaims(), "key-1", generateKeyPair())
+        ]
+    }
+
+    void "tokens signed with a key that is not known yet are rejected without waiting for the keys"() {
+        given:
+        EmbeddedServer slowServer = ApplicationContext.run(EmbeddedServer, [
+                "spec.name"                                   : "PushAuthenticationSpec",
+                "gcp.projectId"                               : "test-project",
+                "gcp.pubsub.push.authentication.enabled"      : true,
+                "gcp.pubsub.push.authentication.jwks-uri"     : "http://localhost:${jwksServer.address.port}/slow-certs".toString(),
+                "gcp.pubsub.push.authentication.audience"     : AUDIENCE
+        ])
+        HttpClient slowClient = slowServer.applicationContext.createBean(HttpClient, slowServer.URL)
+        String token = token(validClaims())
+
+        when: 'the keys are still being fetched'
+        slowClient.toBlocking().exchange(authenticated(token))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.UNAUTHORIZED
+
+        when: 'the keys arrive'
+        slowJwksLatch.countDown()
+
+        then:
+        new PollingConditions(timeout: 10).eventually {
+            assert slowClient.toBlocking().exchange(authenticated(token)).status() == HttpStatus.OK
+        }
+
+        cleanup:
+        slowClient.close()
+        slowServer.close()
+    }
+
+    void "enabling push authentication without an audience fails the startup"() {
+        when:
+        ApplicationContext.run(EmbeddedServer, [
+                "gcp.projectId"                         : "test-project",
+                "gcp.pubsub.push.authentication.enabled": true,
+                "gcp.pubsub.push.authentication.jwks-uri": "http://localhost:${jwksServer.address.port}/certs".toString()
+        ])
+
+        then:
+        Exception e = thrown()
+        Throwable cause = e
+        while (cause.cause != null && !(cause instanceof ConfigurationException)) {
+            cause = cause.cause
+        }
+        cause instanceof ConfigurationException
+        cause.message.contains("gcp.pubsub.push.authentication.audience")
+    }
+
+    private HttpRequest<PushRequest> authenticated(String token) {
+        HttpRequest.POST("/push", request).bearerAuth(token)
+    }
+
+    private static Map<String, Object> validClaims() {
+        long now = epochSeconds()
+        [iss: "https://accounts.google.com", aud: AUDIENCE, email: EMAIL, email_verified: true, iat: now, exp: now + 3600, sub: "1234"]
+    }
+
+    private String token(Map<String, Object> claims, String keyId = "key-1", KeyPair signingKeys = keyPair) {
+        String header = base64Url(json([alg: "RS256", typ: "JWT", kid: keyId]).getBytes(StandardCharsets.UTF_8))
+        String payload = base64Url(json(claims).getBytes(StandardCharsets.UTF_8))
+        Signature signature = Signature.getInstance("SHA256withRSA")
+        signature.initSign(signingKeys.private)
+        signature.update("${header}.${payload}".getBytes(StandardCharsets.US_ASCII))
+        "${header}.${payload}.${base64Url(signature.sign())}"
+    }
+
+    private static String json(Map<String, Object> values) {
+        "{" + values.collect { name, value -> "\"${name}\":" + (value instanceof String ? "\"${value}\"" : value) }.join(",") + "}"
+    }
+
+    private static long epochSeconds() {
+        System.currentTimeMillis().intdiv(1000)
+    }
+
+    private static String base64Url(byte[] bytes) {
+        Base64.urlEncoder.withoutPadding().encodeToString(bytes)
+    }
+
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray()
+        bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes
+    }
+
+    private static KeyPair generateKeyPair() {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA")
+        generator.initialize(2048)
+        generator.generateKeyPair()
+    }
+}
+
+@Requires(property = "spec.name", value = "PushAuthenticationSpec")
+@PubSubListener
+class AuthenticatedPushConsumer {
+
+    List<String> received = new CopyOnWriteArrayList<>()
+
+    @PushSubscription("authenticated")
+    void receive(String message) {
+        received.add(message)
+    }
+}
@@ -0,0 +1,149 @@
+package io.micronaut.gcp.pubsub.bind
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.PushSubscription
+import io.micronaut.gcp.pubsub.push.PushRequest
+import io.micronaut.gcp.pubsub.support.Person
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.scheduling.annotation.ExecuteOn
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+
+@MicronautTest
+@Property(name = "spec.name", value = "PushBatchSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+@Property(name = "micronaut.executors.batch-executor.type", value = "fixed")
+@Property(name = "micronaut.executors.batch-executor.n-threads", value = "1")
+class PushBatchSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    HttpClient pushClient
+
+    @Inject
+    BatchPushConsumer consumer
+
+    void "push messages are delivered to batch listeners in batches"() {
+        when:
+        List<HttpResponse<?>> responses = exchange("batch", ["alice", "bob", "carol"])
+
+        then: 'a full batch is delivered without waiting for the linger time'
+        responses*.status() == [HttpStatus.OK] * 3
+        consumer.batches.size() == 1
+        consumer.batches[0]*.name.sort() == ["alice", "bob", "carol"]
+    }
+
+    void "partial batches are delivered after the linger time"() {
+        when:
+        List<HttpResponse<?>> responses = exchange("small-batch", ["dave"])
+
+        then:
+        responses*.status() == [HttpStatus.OK]
+        consumer.smallBatches*.size() == [1]
+    }
+
+    void "batches are executed on the blocking executor rather than on the event loop or the scheduler"() {
+        when:
+        exchange("batch", ["grace", "heidi", "ivan"])
+        exchange("small-batch", ["judy"])
+
+        then:
+        consumer.threads["batch"]
+        consumer.threads["batch"].every { !it.contains("EventLoop") && !it.contains("event-loop") }
+        consumer.threads["small-batch"]
+        consumer.threads["small-batch"].every { !it.startsWith("scheduled-executor") }
+    }
+
+    void "batches are executed on the executor selected for the method"() {
+        when:
+        List<HttpResponse<?>> responses = exchange("executor-batch", ["mallory"])
+
+        then:
+        responses*.status() == [HttpStatus.OK]
+        consumer.threads["executor-batch"]
+        consumer.threads["executor-batch"].every { it.startsWith("batch-executor") }
+    }
+
+    void "messages of a batch can be acknowledged individually"() {
+        when:
+        List<HttpStatus> statuses = Flux.fromIterable(["erin", "bad", "frank"])
+                .flatMap(name -> Mono.from(pushClient.exchange(HttpRequest.POST("/push", request("ack-batch", name))))
+                        .map(response -> response.status())
+                        .onErrorResume(HttpClientResponseException, e -> Mono.just(e.status))
+                        .map(status -> name + ":" + status))
+                .collectList()
+                .block()
+
+        then:
+        statuses.sort() == ["bad:UNPROCESSABLE_ENTITY", "erin:OK", "frank:OK"]
+    }
+
+    private List<HttpResponse<?>> exchange(String subscription, List<String> names) {
+        Flux.fromIterable(names)
+                .flatMap(name -> pushClient.exchange(HttpRequest.POST("/push", request(subscription, name))))
+                .collectList()
+                .block()
+    }
+
+    private static PushRequest request(String subscription, String name) {
+        new PushRequest("projects/test-project/subscriptions/" + subscription,
+                new PushRequest.PushMessage(null, Base64.encoder.encodeToString("{\"name\":\"${name}\"}".bytes), name, "2021-02-26T19:13:55.749Z"))
+    }
+}
+
+@Requires(property = "spec.name", value = "PushBatchSpec")
+@PubSubListener
+class BatchPushConsumer {
+
+    List<List<Person>> batches = new CopyOnWriteArrayList<>()
+
+    List<List<Person>> smallBatches = new CopyOnWriteArrayList<>()
+
+    Map<String, List<String>> threads = new ConcurrentHashMap<>()
+
+    @PushSubscription(value = "batch", maxBatchSize = 3, batchLinger = "10s")
+    void onBatch(List<Person> people) {
+        recordThread("batch")
+        batches.add(people)
+    }
+
+    @PushSubscription(value = "small-batch", maxBatchSize = 10, batchLinger = "100ms")
+    void onSmallBatch(List<Person> people) {
+        recordThread("small-batch")
+        smallBatches.add(people)
+    }
+
+    @PushSubscription(value = "executor-batch", maxBatchSize = 10, batchLinger = "100ms")
+    @ExecuteOn("batch-executor")
+    void onExecutorBatch(List<Person> people) {
+        recordThread("executor-batch")
+    }
+
+    @PushSubscription(value = "ack-batch", maxBatchSize = 3, batchLinger = "10s")
+    void onAcknowledgeableBatch(List<AcknowledgeableMessage<Person>> messages) {
+        messages.each { message ->
+            if (message.body.name == "bad") {
+                message.nack()
+            } else {
+                message.ack()
+            }
+        }
+    }
+
+    private void recordThread(String subscription) {
+        threads.computeIfAbsent(subscription, k -> new CopyOnWriteArrayList<>()).add(Thread.currentThread().name)
+    }
+}
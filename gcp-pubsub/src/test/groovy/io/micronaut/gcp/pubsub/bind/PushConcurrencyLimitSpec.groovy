@@ -0,0 +1,90 @@
+package io.micronaut.gcp.pubsub.bind
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.PushSubscription
+import io.micronaut.gcp.pubsub.push.PushRequest
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import reactor.core.publisher.Mono
+import reactor.core.publisher.Sinks
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CompletableFuture
+
+@MicronautTest
+@Property(name = "spec.name", value = "PushConcurrencyLimitSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+@Property(name = "gcp.pubsub.push.concurrency-limit.enabled", value = "true")
+@Property(name = "gcp.pubsub.push.concurrency-limit.max-concurrency-per-subscription", value = "1")
+@Property(name = "gcp.pubsub.push.concurrency-limit.rejection-status", value = "SERVICE_UNAVAILABLE")
+class PushConcurrencyLimitSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    HttpClient pushClient
+
+    @Inject
+    SlowPushConsumer consumer
+
+    void "push messages above the concurrency limit are rejected"() {
+        given:
+        PollingConditions conditions = new PollingConditions(timeout: 5)
+        PushRequest request = new PushRequest("projects/test-project/subscriptions/slow",
+                new PushRequest.PushMessage(null, Base64.encoder.encodeToString('"hello"'.bytes), "1", "2021-02-26T19:13:55.749Z"))
+
+        when: 'a first message is being processed'
+        CompletableFuture<HttpResponse<?>> first = Mono.from(pushClient.exchange(HttpRequest.POST("/push", request))).toFuture()
+
+        then:
+        conditions.eventually {
+            assert consumer.received == 1
+        }
+
+        when: 'another message of the same subscription is received'
+        pushClient.toBlocking().exchange(HttpRequest.POST("/push", request))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.SERVICE_UNAVAILABLE
+        consumer.received == 1
+
+        when: 'the first message completes'
+        consumer.completion.tryEmitEmpty()
+
+        then:
+        first.get().status() == HttpStatus.OK
+
+        when:
+        consumer.completion = Sinks.empty()
+        consumer.completion.tryEmitEmpty()
+        HttpResponse response = pushClient.toBlocking().exchange(HttpRequest.POST("/push", request))
+
+        then:
+        response.status() == HttpStatus.OK
+        consumer.received == 2
+    }
+}
+
+@Requires(property = "spec.name", value = "PushConcurrencyLimitSpec")
+@PubSubListener
+class SlowPushConsumer {
+
+    volatile int received
+
+    volatile Sinks.Empty<Void> completion = Sinks.empty()
+
+    @PushSubscription("slow")
+    Mono<Void> onMessage(String message) {
+        received++
+        return completion.asMono()
+    }
+}
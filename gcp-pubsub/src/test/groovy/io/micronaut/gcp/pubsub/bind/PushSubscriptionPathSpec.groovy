@@ -0,0 +1,80 @@
+package io.micronaut.gcp.pubsub.bind
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.PushSubscription
+import io.micronaut.gcp.pubsub.push.PushRequest
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+@MicronautTest
+@Property(name = "spec.name", value = "PushSubscriptionPathSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+class PushSubscriptionPathSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    HttpClient pushClient
+
+    @Inject
+    RoutedPushConsumer consumer
+
+    void "push messages are accepted at the dedicated path of their subscription"() {
+        given:
+        PushRequest request = new PushRequest("projects/test-project/subscriptions/routed",
+                new PushRequest.PushMessage(null, Base64.encoder.encodeToString('"hello"'.bytes), "1", "2021-02-26T19:13:55.749Z"))
+
+        when:
+        HttpResponse routed = pushClient.toBlocking().exchange(HttpRequest.POST("/push/routed", request))
+        HttpResponse shared = pushClient.toBlocking().exchange(HttpRequest.POST("/push", request))
+
+        then:
+        routed.status() == HttpStatus.OK
+        shared.status() == HttpStatus.OK
+        consumer.received == ["hello", "hello"]
+    }
+
+    void "push messages of other subscriptions are rejected at a dedicated path"() {
+        given:
+        PushRequest request = new PushRequest("projects/test-project/subscriptions/unrouted",
+                new PushRequest.PushMessage(null, Base64.encoder.encodeToString('"misrouted"'.bytes), "2", "2021-02-26T19:13:55.749Z"))
+
+        when:
+        pushClient.toBlocking().exchange(HttpRequest.POST("/push/routed", request))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.BAD_REQUEST
+        !consumer.received.contains("misrouted")
+        !consumer.unrouted.contains("misrouted")
+    }
+}
+
+@Requires(property = "spec.name", value = "PushSubscriptionPathSpec")
+@PubSubListener
+class RoutedPushConsumer {
+
+    List<String> received = new CopyOnWriteArrayList<>()
+
+    List<String> unrouted = new CopyOnWriteArrayList<>()
+
+    @PushSubscription(value = "routed", path = "/push/routed")
+    void receive(String message) {
+        received.add(message)
+    }
+
+    @PushSubscription("unrouted")
+    void receiveUnrouted(String message) {
+        unrouted.add(message)
+    }
+}
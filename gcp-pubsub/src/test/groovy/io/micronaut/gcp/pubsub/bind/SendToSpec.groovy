@@ -0,0 +1,151 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.AbstractConsumerSpec
+import io.micronaut.gcp.pubsub.MockPubSubEngine
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.support.Person
+import io.micronaut.messaging.annotation.SendTo
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import reactor.core.publisher.Flux
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+@MicronautTest
+@Property(name = "spec.name", value = "SendToSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+@Property(name = "gcp.pubsub.schema.forward-validated.definition", value = '{"type":"record","name":"Person","fields":[{"name":"name","type":"string"},{"name":"legs","type":"int"}]}')
+class SendToSpec extends AbstractConsumerSpec {
+
+    @Inject
+    ForwardingListener listener
+
+    @Inject
+    MockPubSubEngine mockPubSubEngine
+
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void "the return value of a listener is published to the target topic before the message is acknowledged"() {
+        given:
+        PubsubMessage message = message('{"name":"alf"}')
+
+        when:
+        mockPubSubEngine.publish(message, "forward-single")
+
+        then:
+        conditions.eventually {
+            listener.forwarded*.name.contains("ALF")
+            mockPubSubEngine.acknowledgements.get(message) == MockPubSubEngine.ACK
+        }
+    }
+
+    void "each element of a returned collection or publisher is published"() {
+        given:
+        PubsubMessage message = message('{"name":"bob"}')
+
+        when:
+        mockPubSubEngine.publish(message, subscription)
+
+        then:
+        conditions.eventually {
+            listener.forwarded*.name.containsAll(expected)
+            mockPubSubEngine.acknowledgements.get(message) == MockPubSubEngine.ACK
+        }
+
+        where:
+        subscription         | expected
+        "forward-collection" | ["bob-1", "bob-2"]
+        "forward-publisher"  | ["bob-3", "bob-4"]
+    }
+
+    void "the message is nacked when the returned publisher fails"() {
+        given:
+        PubsubMessage message = message('{"name":"carl"}')
+
+        when:
+        mockPubSubEngine.publish(message, "forward-error")
+
+        then:
+        conditions.eventually {
+            mockPubSubEngine.acknowledgements.get(message) == MockPubSubEngine.NACK
+        }
+    }
+
+    void "forwarded messages are validated against the schema of the target topic"() {
+        given:
+        PubsubMessage message = message('{"name":"dan"}')
+
+        when:
+        mockPubSubEngine.publish(message, "forward-invalid")
+
+        then:
+        conditions.eventually {
+            mockPubSubEngine.acknowledgements.get(message) == MockPubSubEngine.NACK
+        }
+        listener.validated.isEmpty()
+    }
+
+    void cleanup() {
+        listener.forwarded.clear()
+    }
+
+    private static PubsubMessage message(String data) {
+        return PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8(data))
+                .build()
+    }
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "SendToSpec")
+class ForwardingListener {
+
+    List<Person> forwarded = new CopyOnWriteArrayList<>()
+    List<Person> validated = new CopyOnWriteArrayList<>()
+
+    @Subscription("forward-single")
+    @SendTo("forward-target")
+    Person single(Person person) {
+        return new Person(name: person.name.toUpperCase())
+    }
+
+    @Subscription("forward-collection")
+    @SendTo("forward-target")
+    List<Person> collection(Person person) {
+        return [new Person(name: person.name + "-1"), new Person(name: person.name + "-2")]
+    }
+
+    @Subscription("forward-publisher")
+    @SendTo("forward-target")
+    Flux<Person> publisher(Person person) {
+        return Flux.just(new Person(name: person.name + "-3"), new Person(name: person.name + "-4"))
+    }
+
+    @Subscription("forward-error")
+    @SendTo("forward-target")
+    Flux<Person> error(Person person) {
+        return Flux.concat(Flux.just(person), Flux.error(new IllegalStateException("transformation failed")))
+    }
+
+    @Subscription("forward-invalid")
+    @SendTo("forward-validated")
+    Person invalid(Person person) {
+        return person
+    }
+
+    @Subscription("forward-target")
+    void target(Person person) {
+        forwarded.add(person)
+    }
+
+    @Subscription("forward-validated")
+    void validated(Person person) {
+        validated.add(person)
+    }
+}
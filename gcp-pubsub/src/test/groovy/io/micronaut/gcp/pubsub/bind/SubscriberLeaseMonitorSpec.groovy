@@ -0,0 +1,198 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer
+import com.google.cloud.pubsub.v1.MessageReceiver
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.PubsubMessage
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.micronaut.context.ApplicationContext
+import io.micronaut.core.convert.ConversionContext
+import io.micronaut.core.type.Argument
+import io.micronaut.gcp.pubsub.metrics.SubscriberLeaseMonitorMetrics
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class SubscriberLeaseMonitorSpec extends Specification {
+
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run([
+            "spec.name"                          : "SubscriberLeaseMonitorSpec",
+            "gcp.projectId"                      : "test-project",
+            "gcp.pubsub.lease-monitor.enabled"   : true,
+            "gcp.pubsub.lease-monitor.check-interval": "1h"
+    ])
+
+    ProjectSubscriptionName subscription = ProjectSubscriptionName.of("test-project", "long-running")
+
+    void "the monitor is only enabled when configured"() {
+        given:
+        ApplicationContext disabled = ApplicationContext.run(["spec.name": "SubscriberLeaseMonitorSpec"])
+
+        expect:
+        !disabled.containsBean(SubscriberLeaseMonitor)
+        context.containsBean(SubscriberLeaseMonitor)
+
+        cleanup:
+        disabled.close()
+    }
+
+    void "leases are tracked until the message is acknowledged"() {
+        given:
+        SubscriberLeaseMonitor monitor = context.getBean(SubscriberLeaseMonitor)
+        List<AckReplyConsumer> consumers = []
+        MessageReceiver receiver = monitor.register(subscription, { message, consumer -> consumers.add(consumer) } as MessageReceiver, Duration.ofMinutes(10))
+        AckReplyConsumer delegate = Mock()
+
+        when:
+        receiver.receiveMessage(message("1"), delegate)
+
+        then:
+        monitor.getInFlightCount(subscription) == 1
+        monitor.findLease(subscription, "1").isPresent()
+        monitor.findLease(subscription, "1").get().remaining > Duration.ofMinutes(9)
+
+        when:
+        consumers[0].ack()
+        consumers[0].ack()
+
+        then:
+        2 * delegate.ack()
+        monitor.getInFlightCount(subscription) == 0
+        !monitor.findLease(subscription, "1").isPresent()
+    }
+
+    void "messages close to the end of their lease are reported once"() {
+        given:
+        SubscriberLeaseMonitor monitor = context.getBean(SubscriberLeaseMonitor)
+        MessageReceiver receiver = monitor.register(subscription, { message, consumer -> } as MessageReceiver, Duration.ofMinutes(10))
+        receiver.receiveMessage(message("1"), Mock(AckReplyConsumer))
+        long now = System.nanoTime()
+
+        when:
+        monitor.check(now + TimeUnit.MINUTES.toNanos(7))
+
+        then:
+        monitor.getNearExpiryCount(subscription) == 0
+
+        when:
+        monitor.check(now + TimeUnit.MINUTES.toNanos(9))
+        monitor.check(now + TimeUnit.SECONDS.toNanos(570))
+
+        then:
+        monitor.getNearExpiryCount(subscription) == 1
+        monitor.getExpiredCount(subscription) == 0
+
+        when:
+        monitor.check(now + TimeUnit.MINUTES.toNanos(11))
+        monitor.check(now + TimeUnit.MINUTES.toNanos(12))
+
+        then: 'the expired message is no longer tracked, as it may never be acknowledged'
+        monitor.getExpiredCount(subscription) == 1
+        monitor.getInFlightCount(subscription) == 0
+        !monitor.findLease(subscription, "1").isPresent()
+    }
+
+    void "a redelivered message replaces the lease of its previous delivery"() {
+        given:
+        SubscriberLeaseMonitor monitor = context.getBean(SubscriberLeaseMonitor)
+        List<AckReplyConsumer> consumers = []
+        MessageReceiver receiver = monitor.register(subscription, { message, consumer -> consumers.add(consumer) } as MessageReceiver, Duration.ofMinutes(10))
+
+        when: 'the first delivery is never settled'
+        receiver.receiveMessage(message("1"), Mock(AckReplyConsumer))
+        SubscriberLeaseMonitor.Lease first = monitor.findLease(subscription, "1").get()
+        receiver.receiveMessage(message("1"), Mock(AckReplyConsumer))
+
+        then:
+        monitor.getInFlightCount(subscription) == 1
+        !monitor.findLease(subscription, "1").get().is(first)
+
+        when: 'a late settlement of the first delivery does not release the redelivered copy'
+        consumers[0].ack()
+
+        then:
+        monitor.getInFlightCount(subscription) == 1
+        monitor.findLease(subscription, "1").isPresent()
+
+        when:
+        consumers[1].ack()
+
+        then:
+        monitor.getInFlightCount(subscription) == 0
+    }
+
+    void "expected processing times within the lease suppress the near-expiry warning"() {
+        given:
+        SubscriberLeaseMonitor monitor = context.getBean(SubscriberLeaseMonitor)
+        MessageReceiver receiver = monitor.register(subscription, { message, consumer -> } as MessageReceiver, Duration.ofMinutes(10))
+        receiver.receiveMessage(message("1"), Mock(AckReplyConsumer))
+        receiver.receiveMessage(message("2"), Mock(AckReplyConsumer))
+        receiver.receiveMessage(message("3"), Mock(AckReplyConsumer))
+        long now = System.nanoTime()
+
+        expect:
+        monitor.findLease(subscription, "1").get().expectProcessingFor(Duration.ofMinutes(9).plusSeconds(30))
+        !monitor.findLease(subscription, "2").get().expectProcessingFor(Duration.ofMinutes(20))
+        monitor.getRejectedExtensionCount(subscription) == 1
+
+        when:
+        monitor.check(now + TimeUnit.MINUTES.toNanos(9))
+
+        then: 'only the message without an extension is reported, the rejected extension was reported already'
+        monitor.getNearExpiryCount(subscription) == 1
+    }
+
+    void "the lease of a message is bound to its acknowledgement"() {
+        given:
+        SubscriberLeaseMonitor monitor = context.getBean(SubscriberLeaseMonitor)
+        PubSubAcknowledgementResponseBinder binder = context.getBean(PubSubAcknowledgementResponseBinder)
+        PubSubAcknowledgement acknowledgement = null
+        MessageReceiver receiver = monitor.register(subscription, { message, consumer ->
+            PubSubConsumerState state = new PubSubConsumerState(message, consumer, subscription, "text/plain")
+            acknowledgement = binder.bind(ConversionContext.of(Argument.of(PubSubAcknowledgement)), state).get().get()
+        } as MessageReceiver, Duration.ofMinutes(10))
+        AckReplyConsumer delegate = Mock()
+
+        when:
+        receiver.receiveMessage(message("1"), delegate)
+
+        then:
+        acknowledgement.expectProcessingFor(Duration.ofMinutes(5))
+        !acknowledgement.expectProcessingFor(Duration.ofHours(1))
+
+        when:
+        acknowledgement.ack()
+
+        then:
+        1 * delegate.ack()
+        monitor.getInFlightCount(subscription) == 0
+        !new DefaultPubSubAcknowledgement(delegate).expectProcessingFor(Duration.ofMinutes(1))
+    }
+
+    void "lease metrics are bound per subscription"() {
+        given:
+        SubscriberLeaseMonitor monitor = context.getBean(SubscriberLeaseMonitor)
+        SimpleMeterRegistry registry = new SimpleMeterRegistry()
+        MessageReceiver receiver = monitor.register(subscription, { message, consumer -> } as MessageReceiver, Duration.ofMinutes(10))
+        receiver.receiveMessage(message("1"), Mock(AckReplyConsumer))
+
+        when:
+        new SubscriberLeaseMonitorMetrics(monitor).bindTo(registry)
+        monitor.check(System.nanoTime() + TimeUnit.MINUTES.toNanos(11))
+
+        then:
+        registry.get(SubscriberLeaseMonitorMetrics.PREFIX + ".in-flight").tag("subscription", subscription.toString()).gauge().value() == 1d
+        registry.get(SubscriberLeaseMonitorMetrics.PREFIX + ".expired").tag("subscription", subscription.toString()).functionCounter().count() == 1d
+    }
+
+    private static PubsubMessage message(String id) {
+        return PubsubMessage.newBuilder()
+                .setMessageId(id)
+                .setData(ByteString.copyFromUtf8("data"))
+                .build()
+    }
+}
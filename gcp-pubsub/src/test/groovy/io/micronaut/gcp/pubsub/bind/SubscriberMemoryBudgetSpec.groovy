@@ -0,0 +1,194 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer
+import com.google.cloud.pubsub.v1.MessageReceiver
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.PubsubMessage
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.micronaut.gcp.pubsub.configuration.SubscriberMemoryBudgetConfigurationProperties
+import io.micronaut.gcp.pubsub.metrics.SubscriberMemoryBudgetMetrics
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class SubscriberMemoryBudgetSpec extends Specification {
+
+    static final PubsubMessage MESSAGE = PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8("x" * 100)).build()
+    static final long SIZE = MESSAGE.getSerializedSize()
+
+    ProjectSubscriptionName bulk = ProjectSubscriptionName.of("test-project", "bulk")
+    ProjectSubscriptionName critical = ProjectSubscriptionName.of("test-project", "critical")
+    ExecutorService executor = Executors.newCachedThreadPool()
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void cleanup() {
+        executor.shutdownNow()
+    }
+
+    void "messages wait until enough of the budget is released"() {
+        given:
+        SubscriberMemoryBudget budget = budget(2 * SIZE)
+        RecordingReceiver receiver = new RecordingReceiver()
+        MessageReceiver budgeted = budget.register(bulk, receiver, 0, 1)
+
+        when:
+        3.times { executor.submit { budgeted.receiveMessage(MESSAGE, Mock(AckReplyConsumer)) } }
+
+        then:
+        conditions.eventually {
+            receiver.consumers.size() == 2
+            budget.waitingCount == 1
+        }
+        budget.outstandingBytes == 2 * SIZE
+
+        when:
+        receiver.consumers[0].ack()
+
+        then:
+        conditions.eventually {
+            receiver.consumers.size() == 3
+            budget.waitingCount == 0
+        }
+        budget.outstandingBytes == 2 * SIZE
+
+        when: 'a message is acknowledged more than once'
+        receiver.consumers[1].ack()
+        receiver.consumers[1].nack()
+        receiver.consumers[2].nack()
+
+        then: 'its bytes are only released once'
+        budget.outstandingBytes == 0
+        budget.getOutstandingBytes(bulk) == 0
+    }
+
+    void "messages that can not be admitted do not block the delivering thread"() {
+        given:
+        SubscriberMemoryBudget budget = budget(SIZE)
+        RecordingReceiver receiver = new RecordingReceiver()
+        MessageReceiver budgeted = budget.register(bulk, receiver, 0, 1)
+
+        when: 'messages are delivered on the calling thread while the budget is exhausted'
+        3.times { budgeted.receiveMessage(MESSAGE, Mock(AckReplyConsumer)) }
+
+        then:
+        receiver.consumers.size() == 1
+        budget.waitingCount == 2
+
+        when:
+        receiver.consumers[0].ack()
+
+        then: 'queued messages are delivered in order on the executor'
+        conditions.eventually {
+            receiver.consumers.size() == 2
+            budget.waitingCount == 1
+        }
+
+        when:
+        receiver.consumers[1].ack()
+
+        then:
+        conditions.eventually {
+            receiver.consumers.size() == 3
+            budget.waitingCount == 0
+        }
+    }
+
+    void "reserved bytes remain available when the shared budget is exhausted"() {
+        given:
+        SubscriberMemoryBudget budget = budget(4 * SIZE)
+        RecordingReceiver bulkReceiver = new RecordingReceiver()
+        RecordingReceiver criticalReceiver = new RecordingReceiver()
+        MessageReceiver budgetedBulk = budget.register(bulk, bulkReceiver, 0, 1)
+        MessageReceiver budgetedCritical = budget.register(critical, criticalReceiver, 2 * SIZE, 1)
+
+        when:
+        4.times { executor.submit { budgetedBulk.receiveMessage(MESSAGE, Mock(AckReplyConsumer)) } }
+
+        then: 'the bulk subscription can only use the unreserved bytes'
+        conditions.eventually {
+            bulkReceiver.consumers.size() == 2
+            budget.waitingCount == 2
+        }
+
+        when:
+        2.times { executor.submit { budgetedCritical.receiveMessage(MESSAGE, Mock(AckReplyConsumer)) } }
+
+        then:
+        conditions.eventually {
+            criticalReceiver.consumers.size() == 2
+        }
+        budget.getReservedBytes(critical) == 2 * SIZE
+        budget.getOutstandingBytes(critical) == 2 * SIZE
+        budget.getOutstandingBytes(bulk) == 2 * SIZE
+    }
+
+    void "a subscription is limited to its weighted share while others are waiting"() {
+        given:
+        SubscriberMemoryBudget budget = budget(4 * SIZE)
+        RecordingReceiver bulkReceiver = new RecordingReceiver()
+        RecordingReceiver criticalReceiver = new RecordingReceiver()
+        MessageReceiver budgetedBulk = budget.register(bulk, bulkReceiver, 0, 1)
+        MessageReceiver budgetedCritical = budget.register(critical, criticalReceiver, 0, 3)
+
+        when: 'the bulk subscription uses the whole budget while it is uncontended'
+        5.times { executor.submit { budgetedBulk.receiveMessage(MESSAGE, Mock(AckReplyConsumer)) } }
+
+        then:
+        conditions.eventually {
+            bulkReceiver.consumers.size() == 4
+            budget.waitingCount == 1
+        }
+
+        when: 'the critical subscription starts receiving and bulk messages are acknowledged'
+        3.times { executor.submit { budgetedCritical.receiveMessage(MESSAGE, Mock(AckReplyConsumer)) } }
+        conditions.eventually {
+            budget.waitingCount == 3
+        }
+        bulkReceiver.consumers[0..2]*.ack()
+
+        then: 'the released bytes go to the critical subscription up to its share'
+        conditions.eventually {
+            criticalReceiver.consumers.size() == 3
+        }
+        bulkReceiver.consumers.size() == 4
+    }
+
+    void "the usage of the budget is exposed as metrics"() {
+        given:
+        SubscriberMemoryBudget budget = budget(4 * SIZE)
+        SimpleMeterRegistry registry = new SimpleMeterRegistry()
+        MessageReceiver budgeted = budget.register(bulk, new RecordingReceiver(), SIZE, 1)
+        new SubscriberMemoryBudgetMetrics(budget).bindTo(registry)
+        budget.register(critical, new RecordingReceiver(), 0, 1)
+
+        when:
+        budgeted.receiveMessage(MESSAGE, Mock(AckReplyConsumer))
+
+        then:
+        registry.get("pubsub.subscriber.memory.budget.max").gauge().value() == 4 * SIZE
+        registry.get("pubsub.subscriber.memory.budget.used").gauge().value() == SIZE
+        registry.get("pubsub.subscriber.memory.budget.subscription.used").tag("subscription", bulk.toString()).gauge().value() == SIZE
+        registry.get("pubsub.subscriber.memory.budget.subscription.reserved").tag("subscription", bulk.toString()).gauge().value() == SIZE
+        registry.get("pubsub.subscriber.memory.budget.subscription.used").tag("subscription", critical.toString()).gauge().value() == 0
+    }
+
+    private SubscriberMemoryBudget budget(long maxOutstandingBytes) {
+        SubscriberMemoryBudgetConfigurationProperties configuration = new SubscriberMemoryBudgetConfigurationProperties()
+        configuration.maxOutstandingBytes = maxOutstandingBytes
+        return new SubscriberMemoryBudget(configuration, executor)
+    }
+
+    static class RecordingReceiver implements MessageReceiver {
+
+        List<AckReplyConsumer> consumers = new CopyOnWriteArrayList<>()
+
+        @Override
+        void receiveMessage(PubsubMessage message, AckReplyConsumer consumer) {
+            consumers.add(consumer)
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer
+import com.google.cloud.pubsub.v1.MessageReceiver
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.PubsubMessage
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.micronaut.context.ApplicationContext
+import io.micronaut.gcp.pubsub.metrics.SubscriberSchedulerMetrics
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class SubscriberSchedulerSpec extends Specification {
+
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run([
+            "spec.name"                       : "SubscriberSchedulerSpec",
+            "gcp.projectId"                   : "test-project",
+            "gcp.pubsub.scheduling.enabled"   : true,
+            "gcp.pubsub.scheduling.concurrency": 1
+    ])
+
+    ProjectSubscriptionName blocker = ProjectSubscriptionName.of("test-project", "blocker")
+    ProjectSubscriptionName bulk = ProjectSubscriptionName.of("test-project", "bulk")
+    ProjectSubscriptionName critical = ProjectSubscriptionName.of("test-project", "critical")
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void "the scheduler is only enabled when configured"() {
+        given:
+        ApplicationContext disabled = ApplicationContext.run(["spec.name": "SubscriberSchedulerSpec"])
+
+        expect:
+        !disabled.containsBean(SubscriberScheduler)
+        context.containsBean(SubscriberScheduler)
+
+        cleanup:
+        disabled.close()
+    }
+
+    void "queued messages are dispatched in proportion to the weight of their subscription"() {
+        given:
+        SubscriberScheduler scheduler = context.getBean(SubscriberScheduler)
+        List<String> processed = new CopyOnWriteArrayList<>()
+        CountDownLatch latch = new CountDownLatch(1)
+        MessageReceiver blocking = scheduler.register(blocker, { message, consumer -> latch.await(); consumer.ack() } as MessageReceiver, 1)
+        MessageReceiver bulkReceiver = scheduler.register(bulk, { message, consumer -> processed.add("bulk"); consumer.ack() } as MessageReceiver, 1)
+        MessageReceiver criticalReceiver = scheduler.register(critical, { message, consumer -> processed.add("critical"); consumer.ack() } as MessageReceiver, 3)
+
+        when: 'messages are queued while the only slot is busy'
+        blocking.receiveMessage(message(), Mock(AckReplyConsumer))
+        6.times { bulkReceiver.receiveMessage(message(), Mock(AckReplyConsumer)) }
+        3.times { criticalReceiver.receiveMessage(message(), Mock(AckReplyConsumer)) }
+
+        then:
+        scheduler.getQueuedCount(bulk) == 6
+        scheduler.getQueuedCount(critical) == 3
+        scheduler.runningCount == 1
+
+        when:
+        latch.countDown()
+
+        then: 'the critical subscription gets three times the share of the bulk subscription'
+        conditions.eventually {
+            processed.size() == 9
+        }
+        processed == ["bulk", "critical", "critical", "critical", "bulk", "bulk", "bulk", "bulk", "bulk"]
+        scheduler.getQueuedCount(bulk) == 0
+    }
+
+    void "a dispatched message occupies its slot until it is acknowledged"() {
+        given:
+        SubscriberScheduler scheduler = context.getBean(SubscriberScheduler)
+        List<AckReplyConsumer> consumers = new CopyOnWriteArrayList<>()
+        MessageReceiver asyncReceiver = scheduler.register(bulk, { message, consumer -> consumers.add(consumer) } as MessageReceiver, 1)
+
+        when: 'the listener returns without acknowledging the message'
+        2.times { asyncReceiver.receiveMessage(message(), Mock(AckReplyConsumer)) }
+
+        then:
+        conditions.eventually {
+            consumers.size() == 1
+        }
+        scheduler.runningCount == 1
+        scheduler.getQueuedCount(bulk) == 1
+
+        when:
+        consumers[0].nack()
+
+        then:
+        conditions.eventually {
+            consumers.size() == 2
+        }
+        scheduler.getQueuedCount(bulk) == 0
+
+        when:
+        consumers[1].ack()
+
+        then:
+        conditions.eventually {
+            scheduler.runningCount == 0
+        }
+    }
+
+    void "the slot of a message that is never acknowledged is freed once its time limit is exceeded"() {
+        given:
+        SubscriberScheduler scheduler = context.getBean(SubscriberScheduler)
+        List<String> processed = new CopyOnWriteArrayList<>()
+        MessageReceiver forgetful = scheduler.register(bulk, { message, consumer -> processed.add(message.data.toStringUtf8()) } as MessageReceiver,
+                1, Duration.ofMillis(100))
+        MessageReceiver criticalReceiver = scheduler.register(critical, { message, consumer -> processed.add("critical"); consumer.ack() } as MessageReceiver, 1)
+
+        when: 'the listener returns without ever acknowledging its messages'
+        forgetful.receiveMessage(message("a1", "a"), Mock(AckReplyConsumer))
+        forgetful.receiveMessage(message("a2", "a"), Mock(AckReplyConsumer))
+        criticalReceiver.receiveMessage(message(), Mock(AckReplyConsumer))
+
+        then: 'later messages of the same ordering key and of other subscriptions are still delivered'
+        new PollingConditions(timeout: 5).eventually {
+            processed.containsAll(["a1", "a2", "critical"])
+            scheduler.runningCount == 0
+        }
+        processed.findAll { it.startsWith("a") } == ["a1", "a2"]
+        scheduler.getQueuedCount(bulk) == 0
+    }
+
+    void "messages sharing an ordering key are dispatched one at a time in order"() {
+        given:
+        ApplicationContext concurrent = ApplicationContext.run([
+                "spec.name"                        : "SubscriberSchedulerSpec",
+                "gcp.projectId"                    : "test-project",
+                "gcp.pubsub.scheduling.enabled"    : true,
+                "gcp.pubsub.scheduling.concurrency": 4
+        ])
+        SubscriberScheduler scheduler = concurrent.getBean(SubscriberScheduler)
+        Map<String, AckReplyConsumer> consumers = new LinkedHashMap<>()
+        List<String> processed = new CopyOnWriteArrayList<>()
+        MessageReceiver orderedReceiver = scheduler.register(bulk, { message, consumer ->
+            synchronized (consumers) {
+                consumers.put(message.data.toStringUtf8(), consumer)
+            }
+            processed.add(message.data.toStringUtf8())
+        } as MessageReceiver, 1)
+
+        when:
+        ["a1", "b1", "a2", "b2", "a3", "c1"].each { orderedReceiver.receiveMessage(message(it, it[0]), Mock(AckReplyConsumer)) }
+
+        then: 'only the first message of each ordering key is dispatched'
+        conditions.eventually {
+            processed.toSet() == ["a1", "b1", "c1"] as Set
+        }
+        scheduler.getQueuedCount(bulk) == 3
+
+        when:
+        consumers["a1"].ack()
+        consumers["b1"].nack()
+
+        then:
+        conditions.eventually {
+            processed.toSet() == ["a1", "b1", "c1", "a2", "b2"] as Set
+        }
+
+        when:
+        consumers["a2"].ack()
+
+        then:
+        conditions.eventually {
+            processed.size() == 6
+        }
+        processed.findAll { it.startsWith("a") } == ["a1", "a2", "a3"]
+        processed.findAll { it.startsWith("b") } == ["b1", "b2"]
+        scheduler.getQueuedCount(bulk) == 0
+
+        cleanup:
+        concurrent.close()
+    }
+
+    void "queued messages are nacked when the scheduler is closed"() {
+        given:
+        SubscriberScheduler scheduler = context.getBean(SubscriberScheduler)
+        CountDownLatch latch = new CountDownLatch(1)
+        MessageReceiver blocking = scheduler.register(blocker, { message, consumer -> latch.await() } as MessageReceiver, 1)
+        MessageReceiver bulkReceiver = scheduler.register(bulk, { message, consumer -> consumer.ack() } as MessageReceiver, 1)
+        AckReplyConsumer queued = Mock(AckReplyConsumer)
+        AckReplyConsumer late = Mock(AckReplyConsumer)
+
+        when:
+        blocking.receiveMessage(message(), Mock(AckReplyConsumer))
+        bulkReceiver.receiveMessage(message(), queued)
+        scheduler.close()
+        bulkReceiver.receiveMessage(message(), late)
+
+        then:
+        1 * queued.nack()
+        1 * late.nack()
+        0 * queued.ack()
+
+        cleanup:
+        latch.countDown()
+    }
+
+    void "queue times are exposed as metrics"() {
+        given:
+        SubscriberScheduler scheduler = context.getBean(SubscriberScheduler)
+        SimpleMeterRegistry registry = new SimpleMeterRegistry()
+        new SubscriberSchedulerMetrics(scheduler).bindTo(registry)
+        MessageReceiver bulkReceiver = scheduler.register(bulk, { message, consumer -> consumer.ack() } as MessageReceiver, 1)
+
+        when:
+        2.times { bulkReceiver.receiveMessage(message(), Mock(AckReplyConsumer)) }
+
+        then:
+        conditions.eventually {
+            registry.get("pubsub.subscriber.scheduling.queue.time").tag("subscription", bulk.toString()).timer().count() == 2
+        }
+        registry.get("pubsub.subscriber.scheduling.queued").tag("subscription", bulk.toString()).gauge().value() == 0
+    }
+
+    private static PubsubMessage message() {
+        return PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8("payload")).build()
+    }
+
+    private static PubsubMessage message(String data, String orderingKey) {
+        return PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8(data)).setOrderingKey(orderingKey).build()
+    }
+}
@@ -0,0 +1,113 @@
+package io.micronaut.gcp.pubsub.bind
+
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.PushSubscription
+import io.micronaut.gcp.pubsub.support.Person
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.messaging.annotation.MessageHeader
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import spock.lang.Specification
+
+@MicronautTest
+@Property(name = "spec.name", value = "UnwrappedPushSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+@Property(name = "gcp.pubsub.push.unwrapped.enabled", value = "true")
+class UnwrappedPushSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    HttpClient pushClient
+
+    @Inject
+    UnwrappedPushConsumer consumer
+
+    void setup() {
+        consumer.msg = null
+        consumer.header = null
+    }
+
+    void "an unwrapped message is routed by the subscription in its path"() {
+        when:
+        HttpResponse response = pushClient.toBlocking().exchange(HttpRequest.POST("/push/unwrapped/people", '{"name":"alf"}')
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("tenant", "acme"))
+
+        then:
+        response.status() == HttpStatus.OK
+        (consumer.msg as Person).name == "alf"
+        consumer.header == "acme"
+    }
+
+    void "an unwrapped message is routed by the subscription header and carries the written metadata"() {
+        when:
+        HttpResponse response = pushClient.toBlocking().exchange(HttpRequest.POST("/push/unwrapped", "raw data")
+                .contentType(MediaType.TEXT_PLAIN)
+                .header("x-goog-pubsub-subscription-name", "projects/test-project/subscriptions/native")
+                .header("x-goog-pubsub-message-id", "42")
+                .header("x-goog-pubsub-publish-time", "2021-02-26T19:13:55.749Z")
+                .header("eventType", "created"))
+
+        then:
+        response.status() == HttpStatus.OK
+
+        when:
+        PubsubMessage message = consumer.msg as PubsubMessage
+
+        then:
+        message.data.toStringUtf8() == "raw data"
+        message.messageId == "42"
+        message.publishTime.seconds == 1614366835L
+        message.publishTime.nanos == 749000000
+        message.attributesMap.find { it.key.equalsIgnoreCase("eventType") }?.value == "created"
+        message.attributesMap["Content-Type"] == MediaType.TEXT_PLAIN
+        !message.attributesMap.keySet().any { it.toLowerCase().startsWith("x-goog-pubsub-") }
+    }
+
+    void "an unwrapped message without subscription header is rejected"() {
+        when:
+        pushClient.toBlocking().exchange(HttpRequest.POST("/push/unwrapped", "raw data").contentType(MediaType.TEXT_PLAIN))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.BAD_REQUEST
+    }
+
+    void "an unwrapped message for an unknown subscription is not found"() {
+        when:
+        pushClient.toBlocking().exchange(HttpRequest.POST("/push/unwrapped/unknown", "raw data").contentType(MediaType.TEXT_PLAIN))
+
+        then:
+        HttpClientResponseException ex = thrown()
+        ex.status == HttpStatus.NOT_FOUND
+    }
+}
+
+@Requires(property = "spec.name", value = "UnwrappedPushSpec")
+@PubSubListener
+class UnwrappedPushConsumer {
+
+    Object msg
+
+    String header
+
+    @PushSubscription("people")
+    void onPerson(Person person, @MessageHeader("tenant") String tenant) {
+        this.msg = person
+        this.header = tenant
+    }
+
+    @PushSubscription("native")
+    void onMessage(PubsubMessage message) {
+        this.msg = message
+    }
+}
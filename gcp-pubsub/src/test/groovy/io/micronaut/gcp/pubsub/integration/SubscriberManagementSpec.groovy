@@ -0,0 +1,186 @@
+package io.micronaut.gcp.pubsub.integration
+
+import com.google.cloud.pubsub.v1.SubscriberInterface
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.TopicName
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.PubSubClient
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.annotation.Topic
+import io.micronaut.gcp.pubsub.bind.SubscriberFactory
+import io.micronaut.gcp.pubsub.bind.SubscriberFactoryConfig
+import io.micronaut.gcp.pubsub.bind.SubscriberStatus
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class SubscriberManagementSpec extends IntegrationTestSpec {
+
+    void "subscribers can be paused, resumed and reconfigured at runtime"() {
+        given:
+        TopicName topicName = TopicName.of("test-project", "management-topic")
+        ProjectSubscriptionName subscriptionName = ProjectSubscriptionName.of("test-project", "management-topic-sub")
+        pubSubResourceAdmin.createTopic(topicName)
+        pubSubResourceAdmin.createSubscription(topicName, subscriptionName)
+        PollingConditions conditions = new PollingConditions(timeout: 10)
+        ApplicationContext ctx = ApplicationContext.run([
+                "spec.name" : "SubscriberManagementSpec",
+                "gcp.projectId" : "test-project"
+        ], "integration")
+
+        when:
+        SubscriberFactory subscriberFactory = ctx.getBean(SubscriberFactory)
+        ManagementTestListener listener = ctx.getBean(ManagementTestListener)
+        ManagementTestClient client = ctx.getBean(ManagementTestClient)
+
+        then:
+        conditions.eventually {
+            subscriberFactory.getSubscriber(subscriptionName).get().state() == "RUNNING"
+        }
+
+        when:
+        SubscriberStatus paused = subscriberFactory.pause(subscriptionName).get()
+        client.send("paused")
+        sleep(2000)
+
+        then:
+        paused.paused()
+        paused.state() in ["STOPPING", "TERMINATED"]
+        conditions.eventually {
+            subscriberFactory.getSubscriber(subscriptionName).get().state() == "TERMINATED"
+        }
+        listener.received.get() == 0
+
+        when:
+        SubscriberStatus updated = subscriberFactory.updateFlowControl(subscriptionName, 10L, 1024L).get()
+
+        then: 'flow control changes on a paused subscriber are applied on resume'
+        updated.paused()
+        updated.maxOutstandingElementCount() == 10L
+        updated.maxOutstandingRequestBytes() == 1024L
+
+        when:
+        SubscriberStatus resumed = subscriberFactory.resume(subscriptionName).get()
+
+        then:
+        !resumed.paused()
+        resumed.maxOutstandingElementCount() == 10L
+        conditions.eventually {
+            listener.received.get() == 1
+        }
+
+        when:
+        updated = subscriberFactory.updateFlowControl(subscriptionName, 20L, null).get()
+        client.send("updated")
+
+        then:
+        !updated.paused()
+        updated.maxOutstandingElementCount() == 20L
+        updated.maxOutstandingRequestBytes() == 1024L
+        conditions.eventually {
+            listener.received.get() == 2
+        }
+
+        and:
+        !subscriberFactory.pause(ProjectSubscriptionName.of("test-project", "unknown")).isPresent()
+
+        cleanup:
+        ctx.close()
+    }
+
+    void "factories without management support report subscribers as not found"() {
+        given:
+        SubscriberFactory subscriberFactory = new SubscriberFactory() {
+            @Override
+            SubscriberInterface createSubscriber(SubscriberFactoryConfig config) {
+                return null
+            }
+        }
+        ProjectSubscriptionName subscriptionName = ProjectSubscriptionName.of("test-project", "unmanaged")
+
+        expect:
+        !subscriberFactory.pause(subscriptionName).isPresent()
+        !subscriberFactory.resume(subscriptionName).isPresent()
+        !subscriberFactory.updateFlowControl(subscriptionName, 10L, null).isPresent()
+    }
+
+    void "subscribers can be managed via the management endpoint"() {
+        given:
+        TopicName topicName = TopicName.of("test-project", "management-endpoint-topic")
+        ProjectSubscriptionName subscriptionName = ProjectSubscriptionName.of("test-project", "management-endpoint-topic-sub")
+        pubSubResourceAdmin.createTopic(topicName)
+        pubSubResourceAdmin.createSubscription(topicName, subscriptionName)
+        EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+                "spec.name" : "SubscriberManagementEndpointSpec",
+                "gcp.projectId" : "test-project",
+                "endpoints.pubsub.enabled" : true,
+                "endpoints.pubsub.sensitive" : false
+        ], "integration")
+        HttpClient httpClient = server.applicationContext.createBean(HttpClient, server.URL)
+
+        when:
+        List<Map> subscribers = httpClient.toBlocking().retrieve(HttpRequest.GET("/pubsub"), List)
+
+        then:
+        subscribers.find { it.subscription == subscriptionName.toString() }.paused == false
+
+        when:
+        Map status = httpClient.toBlocking().retrieve(HttpRequest.POST("/pubsub/management-endpoint-topic-sub", [paused: true, maxOutstandingElementCount: 5]), Map)
+
+        then:
+        status.paused == true
+        status.maxOutstandingElementCount == 5
+
+        when:
+        status = httpClient.toBlocking().retrieve(HttpRequest.POST("/pubsub/management-endpoint-topic-sub", [paused: false]), Map)
+
+        then:
+        status.paused == false
+        status.maxOutstandingElementCount == 5
+
+        when:
+        httpClient.toBlocking().retrieve(HttpRequest.GET("/pubsub/unknown"), Map)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status.code == 404
+
+        cleanup:
+        httpClient.close()
+        server.close()
+    }
+}
+
+@PubSubClient
+@Requires(property = "spec.name", value = "SubscriberManagementSpec")
+interface ManagementTestClient {
+    @Topic("management-topic")
+    void send(String message)
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "SubscriberManagementSpec")
+class ManagementTestListener {
+
+    AtomicInteger received = new AtomicInteger()
+
+    @Subscription("management-topic-sub")
+    void onMessage(String message) {
+        received.incrementAndGet()
+    }
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "SubscriberManagementEndpointSpec")
+class ManagementEndpointTestListener {
+
+    @Subscription("management-endpoint-topic-sub")
+    void onMessage(String message) {
+    }
+}
@@ -0,0 +1,195 @@
+package io.micronaut.gcp.pubsub.intercept
+
+import com.google.cloud.pubsub.v1.AckReplyConsumer
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Executable
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Nullable
+import io.micronaut.core.bind.annotation.Bindable
+import io.micronaut.core.bind.exceptions.UnsatisfiedArgumentException
+import io.micronaut.core.convert.exceptions.ConversionErrorException
+import io.micronaut.core.type.Argument
+import io.micronaut.gcp.pubsub.annotation.MessageId
+import io.micronaut.gcp.pubsub.bind.PubSubBinderRegistry
+import io.micronaut.gcp.pubsub.bind.PubSubConsumerState
+import io.micronaut.gcp.pubsub.exception.PubSubListenerException
+import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDesRegistry
+import io.micronaut.inject.ExecutableMethod
+import io.micronaut.messaging.annotation.MessageHeader
+import jakarta.inject.Singleton
+import org.reactivestreams.Publisher
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.lang.annotation.Retention
+import java.lang.annotation.RetentionPolicy
+
+class ListenerBindingPlanSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext applicationContext = ApplicationContext.run(["spec.name": "ListenerBindingPlanSpec"])
+
+    void "binds the arguments of a method with a compiled plan"() {
+        given:
+        ListenerBindingPlan plan = compile("receive", byte[], String)
+        PlanTestBean bean = applicationContext.getBean(PlanTestBean)
+
+        when:
+        ListenerBindingPlan.Binding binding = plan.bind(consumerState(message("foo", [:])))
+        binding.executable().invoke(bean)
+
+        then:
+        binding.error() == null
+        bean.received == ["foo", "1234"]
+    }
+
+    void "unsatisfied arguments are reported without throwing"() {
+        given:
+        ListenerBindingPlan plan = compile("receiveWithHeader", byte[], Integer)
+
+        when:
+        ListenerBindingPlan.Binding missing = plan.bind(consumerState(message("foo", [:])))
+        ListenerBindingPlan.Binding invalid = plan.bind(consumerState(message("foo", ["count": "abc"])))
+        ListenerBindingPlan.Binding bound = plan.bind(consumerState(message("foo", ["count": "3"])))
+
+        then:
+        missing.executable() == null
+        missing.error() instanceof UnsatisfiedArgumentException
+
+        and:
+        invalid.executable() == null
+        invalid.error() instanceof ConversionErrorException
+
+        and:
+        bound.error() == null
+        bound.executable().boundArguments[1] == 3
+    }
+
+    void "binding errors are reported without capturing a stack trace"() {
+        given:
+        ListenerBindingPlan plan = compile("receiveWithHeader", byte[], Integer)
+
+        when:
+        ListenerBindingPlan.Binding first = plan.bind(consumerState(message("foo", [:])))
+        ListenerBindingPlan.Binding second = plan.bind(consumerState(message("bar", [:])))
+        ListenerBindingPlan.Binding invalid = plan.bind(consumerState(message("foo", ["count": "abc"])))
+
+        then:
+        first.error().is(second.error())
+        first.error().stackTrace.length == 0
+        invalid.error().stackTrace.length == 0
+    }
+
+    void "nullable arguments are bound to null when missing"() {
+        given:
+        ListenerBindingPlan plan = compile("receiveWithOptionalHeader", byte[], Integer)
+
+        when:
+        ListenerBindingPlan.Binding binding = plan.bind(consumerState(message("foo", [:])))
+
+        then:
+        binding.error() == null
+        binding.executable().boundArguments[1] == null
+    }
+
+    void "a publisher body without a type argument is rejected at startup"() {
+        given:
+        ExecutableMethod<?, ?> method = findMethod("receive", byte[], String)
+
+        when:
+        ListenerBindingPlan.validateBody(Argument.of(Publisher), method, applicationContext.getBean(PubSubMessageSerDesRegistry), "application/json")
+
+        then:
+        PubSubListenerException e = thrown()
+        e.message.startsWith("Could not determine the message body type")
+    }
+
+    void "a body without a SerDes for the declared content type is rejected at startup"() {
+        when:
+        compile("receiveText", "application/x-unknown", String)
+
+        then:
+        PubSubListenerException e = thrown()
+        e.message.startsWith("No SerDes is registered for content type application/x-unknown")
+
+        when:
+        ListenerBindingPlan plan = compile("receive", "application/x-unknown", byte[], String)
+
+        then:
+        noExceptionThrown()
+        plan.bind(consumerState(message("foo", [:]))).error() == null
+    }
+
+    void "an argument with a binding annotation that no binder handles is rejected at startup"() {
+        when:
+        compile("receiveWithUnknownAnnotation", byte[], String)
+
+        then:
+        PubSubListenerException e = thrown()
+        e.message.startsWith("No binder found for annotation @UnknownBinding of argument")
+    }
+
+    private ListenerBindingPlan compile(String name, Class<?>... argumentTypes) {
+        return compile(name, "application/json", argumentTypes)
+    }
+
+    private ListenerBindingPlan compile(String name, String contentType, Class<?>... argumentTypes) {
+        return ListenerBindingPlan.compile(findMethod(name, argumentTypes), applicationContext.getBean(PubSubBinderRegistry),
+                applicationContext.getBean(PubSubMessageSerDesRegistry), contentType)
+    }
+
+    private ExecutableMethod<?, ?> findMethod(String name, Class<?>... argumentTypes) {
+        return applicationContext.getBeanDefinition(PlanTestBean).findMethod(name, argumentTypes).get()
+    }
+
+    private PubSubConsumerState consumerState(PubsubMessage message) {
+        return new PubSubConsumerState(message, Mock(AckReplyConsumer), ProjectSubscriptionName.of("test-project", "test-subscription"), "application/json")
+    }
+
+    private static PubsubMessage message(String data, Map<String, String> attributes) {
+        return PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8(data))
+                .setMessageId("1234")
+                .putAllAttributes(attributes)
+                .build()
+    }
+}
+
+@Singleton
+@Requires(property = "spec.name", value = "ListenerBindingPlanSpec")
+class PlanTestBean {
+
+    List<Object> received = []
+
+    @Executable
+    void receive(byte[] body, @MessageId String id) {
+        received.add(new String(body))
+        received.add(id)
+    }
+
+    @Executable
+    void receiveWithHeader(byte[] body, @MessageHeader("count") Integer count) {
+    }
+
+    @Executable
+    void receiveWithOptionalHeader(byte[] body, @Nullable @MessageHeader("count") Integer count) {
+    }
+
+    @Executable
+    void receiveText(String body) {
+    }
+
+    @Executable
+    void receiveWithUnknownAnnotation(byte[] body, @UnknownBinding String value) {
+    }
+}
+
+@Bindable
+@Retention(RetentionPolicy.RUNTIME)
+@interface UnknownBinding {
+}
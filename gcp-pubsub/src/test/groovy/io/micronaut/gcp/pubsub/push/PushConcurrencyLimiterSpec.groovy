@@ -0,0 +1,91 @@
+package io.micronaut.gcp.pubsub.push
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class PushConcurrencyLimiterSpec extends Specification {
+
+    void "messages above the global limit are rejected"() {
+        given:
+        PushConcurrencyLimiter limiter = limiter(maxConcurrency: 2)
+
+        when:
+        def first = limiter.tryAcquire("projects/p/subscriptions/a")
+        def second = limiter.tryAcquire("projects/p/subscriptions/b")
+        def third = limiter.tryAcquire("projects/p/subscriptions/c")
+
+        then:
+        first != null
+        second != null
+        third == null
+        limiter.inFlight == 2
+        limiter.rejectedCount == 1
+
+        when:
+        first.release()
+        first.release()
+
+        then: 'releasing a permit twice has no effect'
+        limiter.inFlight == 1
+        limiter.tryAcquire("projects/p/subscriptions/c") != null
+    }
+
+    void "messages above the subscription limit are rejected without affecting other subscriptions"() {
+        given:
+        PushConcurrencyLimiter limiter = limiter(maxConcurrencyPerSubscription: 1)
+
+        when:
+        def first = limiter.tryAcquire("projects/p/subscriptions/a")
+        def second = limiter.tryAcquire("projects/p/subscriptions/a")
+        def other = limiter.tryAcquire("projects/p/subscriptions/b")
+
+        then:
+        first != null
+        second == null
+        other != null
+        limiter.getInFlight("projects/p/subscriptions/a") == 1
+        limiter.getRejectedCount("projects/p/subscriptions/a") == 1
+        limiter.getRejectedCount("projects/p/subscriptions/b") == 0
+        limiter.inFlight == 2
+        limiter.subscriptions == ["projects/p/subscriptions/a", "projects/p/subscriptions/b"] as Set
+    }
+
+    void "adaptive limits decrease when messages are slow and stay within the configured bounds"() {
+        given:
+        PushConcurrencyLimiter limiter = limiter(maxConcurrency: 10, adaptive: true, minConcurrency: 2, latencyThreshold: Duration.ofMinutes(1))
+        PushConcurrencyLimiter slowLimiter = limiter(maxConcurrency: 10, adaptive: true, minConcurrency: 2, latencyThreshold: Duration.ZERO)
+
+        when:
+        5.times {
+            def permit = slowLimiter.tryAcquire("projects/p/subscriptions/a")
+            sleep(1)
+            permit.release()
+        }
+
+        then:
+        slowLimiter.limit == 5
+
+        when:
+        20.times {
+            slowLimiter.tryAcquire("projects/p/subscriptions/a").release()
+        }
+
+        then:
+        slowLimiter.limit == 2
+
+        when: 'fast messages never grow the limit above the maximum'
+        List permits = (1..10).collect { limiter.tryAcquire("projects/p/subscriptions/a") }
+
+        then:
+        permits.every { it != null }
+        limiter.tryAcquire("projects/p/subscriptions/a") == null
+        limiter.limit == 10
+    }
+
+    private static PushConcurrencyLimiter limiter(Map properties) {
+        PushConcurrencyLimitConfigurationProperties configuration = new PushConcurrencyLimitConfigurationProperties()
+        properties.each { key, value -> configuration[key] = value }
+        return new PushConcurrencyLimiter(configuration)
+    }
+}
@@ -0,0 +1,118 @@
+package io.micronaut.gcp.pubsub.push
+
+import com.google.protobuf.Timestamp
+import com.google.pubsub.v1.PubsubMessage
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import java.time.ZonedDateTime
+
+class PushRequestDecoderSpec extends Specification {
+
+    void "a push envelope sent by the PubSub service is decoded"() {
+        given:
+        String data = Base64.encoder.encodeToString('{"name":"alf"}'.getBytes(StandardCharsets.UTF_8))
+        String json = """{
+            "message": {
+                "attributes": {"eventType": "created", "quoted": "a \\"b\\" \\u00e9"},
+                "data": "$data",
+                "messageId": "2070443601311540",
+                "message_id": "2070443601311540",
+                "orderingKey": "key-1",
+                "publishTime": "2021-02-26T19:13:55.749Z",
+                "publish_time": "2021-02-26T19:13:55.749Z"
+            },
+            "subscription": "projects/test-project/subscriptions/foo",
+            "deliveryAttempt": 3,
+            "extra": {"nested": [1, 2.5e3, true, null, {"a": "b"}]}
+        }"""
+
+        when:
+        PushRequestDecoder.PushEnvelope envelope = PushRequestDecoder.decode(json.getBytes(StandardCharsets.UTF_8))
+        PubsubMessage message = envelope.message()
+
+        then:
+        envelope.subscription() == "projects/test-project/subscriptions/foo"
+        message.data.toStringUtf8() == '{"name":"alf"}'
+        message.attributesMap == ["eventType": "created", "quoted": 'a "b" é']
+        message.messageId == "2070443601311540"
+        message.orderingKey == "key-1"
+        message.publishTime.seconds == 1614366835L
+        message.publishTime.nanos == 749000000
+    }
+
+    void "data containing escaped characters is decoded"() {
+        given:
+        byte[] payload = new byte[] {(byte) 0xfb, (byte) 0xff, (byte) 0xbf}
+        String data = Base64.encoder.encodeToString(payload).replace("/", "\\/")
+        String json = """{"subscription":"projects/p/subscriptions/s","message":{"data":"$data","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}}"""
+
+        when:
+        PubsubMessage message = PushRequestDecoder.decode(json.getBytes(StandardCharsets.UTF_8)).message()
+
+        then:
+        message.data.toByteArray() == payload
+        message.attributesCount == 0
+    }
+
+    @Unroll
+    void "publish time #value is parsed"() {
+        when:
+        Timestamp timestamp = PushRequestDecoder.parseTimestamp(value)
+        Instant expected = ZonedDateTime.parse(value).toInstant()
+
+        then:
+        timestamp.seconds == expected.epochSecond
+        timestamp.nanos == expected.nano
+
+        where:
+        value << [
+                "2021-02-26T19:13:55.749Z",
+                "2021-02-26T19:13:55Z",
+                "2021-02-26T19:13:55.123456789Z",
+                "2024-02-29T23:59:59.999Z",
+                "1970-01-01T00:00:00Z",
+                "1969-12-31T23:59:59.5Z",
+                "2400-03-01T00:00:00Z",
+                "2021-02-26T21:13:55.749+02:00"
+        ]
+    }
+
+    @Unroll
+    void "invalid push request #json is rejected"() {
+        when:
+        PushRequestDecoder.decode(json.getBytes(StandardCharsets.UTF_8))
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message.contains(error)
+
+        where:
+        json                                                                                                                      | error
+        '{"subscription":"s","message":{"attributes":{},"data":"","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}}'          | PushRequestDecoder.INVALID_PUSH_MESSAGE
+        '{"subscription":"s","message":{"messageId":"1","publishTime":"2021-02-26T19:13:55Z"}}'                                   | PushRequestDecoder.INVALID_PUSH_MESSAGE
+        '{"subscription":"s","message":{"data":"Zm9v","publishTime":"2021-02-26T19:13:55Z"}}'                                     | PushRequestDecoder.BLANK_MESSAGE_ID
+        '{"subscription":"s","message":{"data":"Zm9v","messageId":" ","publishTime":"2021-02-26T19:13:55Z"}}'                     | PushRequestDecoder.BLANK_MESSAGE_ID
+        '{"subscription":"s","message":{"data":"Zm9v","messageId":"1"}}'                                                          | PushRequestDecoder.BLANK_PUBLISH_TIME
+        '{"subscription":"s","message":{"data":"Zm9v","messageId":"1","publishTime":""}}'                                         | PushRequestDecoder.BLANK_PUBLISH_TIME
+        '{"subscription":"s","message":{"data":"Zm9v","messageId":"1","publishTime":"yesterday"}}'                                | PushRequestDecoder.INVALID_PUBLISH_TIME
+        '{"subscription":" ","message":{"data":"Zm9v","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}}'                     | PushRequestDecoder.BLANK_SUBSCRIPTION
+        '{"message":{"data":"Zm9v","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}}'                                        | PushRequestDecoder.BLANK_SUBSCRIPTION
+        '{"subscription":"s"}'                                                                                                    | PushRequestDecoder.NULL_MESSAGE
+        '{"subscription":"s","message":null}'                                                                                     | PushRequestDecoder.NULL_MESSAGE
+        '{"subscription":"s","message":{"data":"Zm9v","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}'                      | "Malformed"
+        '{"subscription":"s","message":{"data":"Zm9v","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}} trailing'            | "Malformed"
+        '{"subscription":"s","message":{"data":"not base64!","messageId":"1","publishTime":"2021-02-26T19:13:55Z"}}'              | "Illegal base64 character"
+    }
+
+    void "all violations of an envelope are reported together"() {
+        when:
+        PushRequestDecoder.decode('{"subscription":"","message":{"publishTime":"2021-02-26T19:13:55Z"}}'.getBytes(StandardCharsets.UTF_8))
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message == [PushRequestDecoder.BLANK_SUBSCRIPTION, PushRequestDecoder.INVALID_PUSH_MESSAGE, PushRequestDecoder.BLANK_MESSAGE_ID].join(", ")
+    }
+}
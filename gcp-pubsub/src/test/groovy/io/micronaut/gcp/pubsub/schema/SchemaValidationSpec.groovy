@@ -0,0 +1,212 @@
+package io.micronaut.gcp.pubsub.schema
+
+import com.google.protobuf.DescriptorProtos
+import com.google.pubsub.v1.ProjectTopicName
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.AbstractPublisherSpec
+import io.micronaut.gcp.pubsub.DataHolder
+import io.micronaut.gcp.pubsub.annotation.PubSubClient
+import io.micronaut.gcp.pubsub.annotation.Topic
+import io.micronaut.gcp.pubsub.exception.PubSubSchemaValidationException
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.micronaut.test.support.TestPropertyProvider
+import jakarta.inject.Inject
+import org.apache.avro.Schema
+import org.apache.avro.generic.GenericData
+import org.apache.avro.generic.GenericDatumWriter
+import org.apache.avro.generic.GenericRecord
+import org.apache.avro.io.BinaryEncoder
+import org.apache.avro.io.EncoderFactory
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+
+@MicronautTest
+@Property(name = "spec.name", value = "SchemaValidationSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+class SchemaValidationSpec extends AbstractPublisherSpec implements TestPropertyProvider {
+
+    static final String AVRO_SCHEMA = '{"type":"record","name":"Animal","fields":[{"name":"name","type":"string"},{"name":"legs","type":"int"}]}'
+
+    @Inject
+    SchemaClient client
+
+    @Inject
+    PubSubSchemaRegistry schemaRegistry
+
+    @Override
+    Map<String, String> getProperties() {
+        Path directory = Files.createTempDirectory("schemas")
+        Path avroSchema = directory.resolve("animal.avsc")
+        Files.writeString(avroSchema, AVRO_SCHEMA)
+        Path descriptorSet = directory.resolve("animal.desc")
+        Files.write(descriptorSet, DescriptorProtos.FileDescriptorSet.newBuilder().addFile(animalProto()).build().toByteArray())
+        return [
+                "gcp.pubsub.schema.animals-avro.definition"             : AVRO_SCHEMA,
+                "gcp.pubsub.schema.avro-binary.topic"                   : "animals-avro-binary",
+                "gcp.pubsub.schema.avro-binary.encoding"                : "BINARY",
+                "gcp.pubsub.schema.avro-binary.definition-path"         : "file:" + avroSchema,
+                "gcp.pubsub.schema.animals-proto.type"                  : "PROTOCOL_BUFFER",
+                "gcp.pubsub.schema.animals-proto.encoding"              : "BINARY",
+                "gcp.pubsub.schema.animals-proto.definition-path"       : "file:" + descriptorSet,
+                "gcp.pubsub.schema.animals-proto-json.type"             : "PROTOCOL_BUFFER",
+                "gcp.pubsub.schema.animals-proto-json.definition-path"  : "file:" + descriptorSet,
+                "gcp.pubsub.schema.animals-proto-json.message-type"     : "test.Animal",
+                "gcp.pubsub.schema.animals-proto-json.revision-id"      : "rev-1"
+        ]
+    }
+
+    void setup() {
+        DataHolder.getInstance().setData(null)
+    }
+
+    void "messages conforming to an Avro JSON schema are published"() {
+        when:
+        client.sendAvro([name: "dog", legs: 4])
+
+        then:
+        DataHolder.getInstance().getData() != null
+    }
+
+    void "messages not conforming to an Avro JSON schema fail before being published"() {
+        when:
+        client.sendAvro([name: "dog"])
+
+        then:
+        PubSubSchemaValidationException e = thrown()
+        e.message.contains("animals-avro")
+        DataHolder.getInstance().getData() == null
+    }
+
+    void "messages are validated against an Avro binary schema loaded from a file"() {
+        given:
+        byte[] valid = avroBinary("dog", 4)
+
+        when:
+        client.sendAvroBinary(valid)
+
+        then:
+        DataHolder.getInstance().getData() != null
+
+        when:
+        DataHolder.getInstance().setData(null)
+        client.sendAvroBinary(data)
+
+        then:
+        thrown(PubSubSchemaValidationException)
+        DataHolder.getInstance().getData() == null
+
+        where:
+        data << ["dog".getBytes(StandardCharsets.UTF_8), withTrailingByte(avroBinary("dog", 4))]
+    }
+
+    void "messages are validated against a Protocol Buffer binary schema"() {
+        when:
+        client.sendProto([0x0A, 0x03, 0x64, 0x6F, 0x67, 0x10, 0x04] as byte[])
+
+        then:
+        DataHolder.getInstance().getData() != null
+
+        when:
+        DataHolder.getInstance().setData(null)
+        client.sendProto([0x0A, 0x10, 0x64] as byte[])
+
+        then:
+        thrown(PubSubSchemaValidationException)
+        DataHolder.getInstance().getData() == null
+    }
+
+    void "validation failures of Protocol Buffer JSON messages complete asynchronous results exceptionally"() {
+        expect:
+        client.sendProtoJson('{"name":"dog","legs":4}'.getBytes(StandardCharsets.UTF_8)).get() == "1234"
+
+        when:
+        DataHolder.getInstance().setData(null)
+        client.sendProtoJson('{"name":"dog","wings":2}'.getBytes(StandardCharsets.UTF_8)).get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof PubSubSchemaValidationException
+        DataHolder.getInstance().getData() == null
+    }
+
+    void "topics without a schema are not validated"() {
+        when:
+        client.sendUnvalidated("anything".getBytes(StandardCharsets.UTF_8))
+
+        then:
+        DataHolder.getInstance().getData() != null
+        !schemaRegistry.findValidator(ProjectTopicName.of("test-project", "unvalidated")).isPresent()
+    }
+
+    void "compiled validators are cached per topic revision"() {
+        given:
+        ProjectTopicName topicName = ProjectTopicName.of("test-project", "animals-proto-json")
+
+        expect:
+        schemaRegistry.findValidator(topicName).get().is(schemaRegistry.findValidator(topicName).get())
+    }
+
+    private static byte[] avroBinary(String name, int legs) {
+        Schema schema = new Schema.Parser().parse(AVRO_SCHEMA)
+        GenericRecord record = new GenericData.Record(schema)
+        record.put("name", name)
+        record.put("legs", legs)
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null)
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder)
+        encoder.flush()
+        return out.toByteArray()
+    }
+
+    private static byte[] withTrailingByte(byte[] data) {
+        byte[] result = Arrays.copyOf(data, data.length + 1)
+        result[data.length] = 1
+        return result
+    }
+
+    private static DescriptorProtos.FileDescriptorProto animalProto() {
+        return DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("animal.proto")
+                .setPackage("test")
+                .setSyntax("proto3")
+                .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                        .setName("Animal")
+                        .addField(field("name", 1, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING))
+                        .addField(field("legs", 2, DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT32)))
+                .build()
+    }
+
+    private static DescriptorProtos.FieldDescriptorProto field(String name, int number, DescriptorProtos.FieldDescriptorProto.Type type) {
+        return DescriptorProtos.FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                .build()
+    }
+}
+
+@PubSubClient
+@Requires(property = "spec.name", value = "SchemaValidationSpec")
+interface SchemaClient {
+
+    @Topic("animals-avro")
+    String sendAvro(Map<String, Object> animal)
+
+    @Topic("animals-avro-binary")
+    String sendAvroBinary(byte[] data)
+
+    @Topic("animals-proto")
+    String sendProto(byte[] data)
+
+    @Topic("animals-proto-json")
+    CompletableFuture<String> sendProtoJson(byte[] data)
+
+    @Topic("unvalidated")
+    String sendUnvalidated(byte[] data)
+}
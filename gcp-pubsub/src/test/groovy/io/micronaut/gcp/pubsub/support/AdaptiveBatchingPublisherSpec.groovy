@@ -0,0 +1,148 @@
+package io.micronaut.gcp.pubsub.support
+
+import com.google.api.core.ApiFutures
+import com.google.api.gax.batching.BatchingSettings
+import com.google.cloud.pubsub.v1.Publisher
+import com.google.cloud.pubsub.v1.PublisherInterface
+import com.google.pubsub.v1.ProjectTopicName
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.ApplicationContext
+import io.micronaut.scheduling.TaskExecutors
+import org.threeten.bp.Duration
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class AdaptiveBatchingPublisherSpec extends Specification {
+
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run([
+            "gcp.projectId"                                        : "test-project",
+            "gcp.pubsub.publisher.adaptive.adaptive-batching"      : true,
+            "gcp.pubsub.publisher.adaptive.batching.element-count-threshold": 100,
+            "gcp.pubsub.publisher.adaptive.batching.delay-threshold": "10ms",
+            "gcp.pubsub.publisher.fixed.batching.element-count-threshold": 100
+    ])
+
+    void "messages published at a low rate are sent immediately"() {
+        given:
+        Publisher delegate = Mock()
+        AdaptiveBatchingPublisher publisher = new AdaptiveBatchingPublisher(delegate, 100, TimeUnit.MILLISECONDS.toNanos(10))
+        long now = 0
+
+        expect: 'one message every 100ms is less than one per delay threshold'
+        5.times {
+            now += TimeUnit.MILLISECONDS.toNanos(100)
+            assert publisher.onPublish(now)
+        }
+        publisher.targetElementCount == 1
+    }
+
+    void "batches grow with the publish rate up to the element count threshold"() {
+        given:
+        Publisher delegate = Mock()
+        AdaptiveBatchingPublisher publisher = new AdaptiveBatchingPublisher(delegate, 100, TimeUnit.MILLISECONDS.toNanos(10))
+        long now = 0
+        int flushes = 0
+
+        when: 'one message every 0.5ms'
+        200.times {
+            now += TimeUnit.MICROSECONDS.toNanos(500)
+            if (publisher.onPublish(now)) {
+                flushes++
+            }
+        }
+
+        then: 'about 20 messages are expected within the delay threshold'
+        publisher.targetElementCount == 20
+        flushes < 20
+
+        when: 'one message every microsecond'
+        1000.times {
+            now += TimeUnit.MICROSECONDS.toNanos(1)
+            publisher.onPublish(now)
+        }
+
+        then:
+        publisher.targetElementCount == 100
+
+        when: 'the publisher is idle again'
+        now += TimeUnit.SECONDS.toNanos(1)
+
+        then:
+        publisher.onPublish(now)
+        publisher.targetElementCount == 1
+    }
+
+    void "outstanding messages are sent once the target batch size is reached"() {
+        given:
+        Publisher delegate = Mock()
+        AdaptiveBatchingPublisher publisher = new AdaptiveBatchingPublisher(delegate, 100, TimeUnit.MILLISECONDS.toNanos(10))
+        PubsubMessage message = PubsubMessage.newBuilder().build()
+
+        when:
+        publisher.publish(message)
+
+        then: 'the first message has no rate to be batched with'
+        1 * delegate.publish(message) >> ApiFutures.immediateFuture("1")
+        1 * delegate.publishAllOutstanding()
+    }
+
+    void "messages sent by the publisher on its own are no longer outstanding"() {
+        given:
+        Publisher delegate = Mock()
+        AdaptiveBatchingPublisher publisher = new AdaptiveBatchingPublisher(delegate, 100, TimeUnit.MILLISECONDS.toNanos(100))
+        long now = 0
+
+        when: 'one message every millisecond'
+        50.times {
+            now += TimeUnit.MILLISECONDS.toNanos(1)
+            publisher.onPublish(now)
+        }
+
+        then: 'only the first message was sent right away'
+        publisher.targetElementCount == 100
+        publisher.outstandingCount == 49
+
+        when: 'the 40th message is sent, for example because the byte threshold was reached'
+        publisher.onSent(40)
+        publisher.onSent(20)
+
+        then:
+        publisher.outstandingCount == 10
+
+        when: 'the delay threshold elapsed since the outstanding messages were published'
+        now += TimeUnit.MILLISECONDS.toNanos(100)
+
+        then: 'they were sent by the delay threshold and are not counted in the next batch'
+        !publisher.onPublish(now)
+        publisher.outstandingCount == 1
+    }
+
+    void "adaptive batching is only applied to publishers configured with it"() {
+        given:
+        AdaptivePublisherBatching adaptiveBatching = context.getBean(AdaptivePublisherBatching)
+        Publisher adaptive = Mock(Publisher) {
+            getBatchingSettings() >> BatchingSettings.newBuilder()
+                    .setElementCountThreshold(100)
+                    .setDelayThreshold(Duration.ofMillis(10))
+                    .setIsEnabled(true)
+                    .build()
+        }
+        Publisher fixed = Mock(Publisher)
+        PublisherInterface other = Mock(PublisherInterface)
+
+        expect:
+        adaptiveBatching.apply(config("adaptive"), adaptive) instanceof AdaptiveBatchingPublisher
+        adaptiveBatching.apply(config("fixed"), fixed).is(fixed)
+        adaptiveBatching.apply(config(""), fixed).is(fixed)
+        adaptiveBatching.apply(config("adaptive"), other).is(other)
+    }
+
+    private static PublisherFactoryConfig config(String configuration) {
+        PubSubPublisherState.TopicState topicState = new PubSubPublisherState.TopicState("application/json",
+                ProjectTopicName.of("test-project", "topic"), configuration, "", false)
+        return new PublisherFactoryConfig(topicState, TaskExecutors.SCHEDULED)
+    }
+}
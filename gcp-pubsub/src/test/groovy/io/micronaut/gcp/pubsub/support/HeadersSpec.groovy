@@ -69,6 +69,15 @@ class HeadersSpec extends AbstractPublisherSpec {
             pubsubMessage.getAttributesMap().get("dynamic") == "foo"
     }
 
+    void "dynamic header values take precedence over static headers"(){
+        Person person = new Person()
+        person.name = "alf"
+        when:
+            clientWithoutHeaders.sendWithOverriddenHeader(person, "high", "text/plain")
+        then:
+            def pubsubMessage = (PubsubMessage)DataHolder.getInstance().getData()
+            pubsubMessage.getAttributesMap() == ["extra": "header", "priority": "high", "Content-Type": "application/json"]
+    }
 
 }
 
@@ -89,4 +98,9 @@ interface ClientWithoutHeaders {
     @Topic("test-topic")
     String sendWithHeadersAsFirstArg(@MessageHeader("dynamic") String value, Object data)
 
+    @Topic("test-topic")
+    @MessageHeader(name = "extra", value = "header")
+    @MessageHeader(name = "priority", value = "low")
+    String sendWithOverriddenHeader(Object data, @MessageHeader("priority") String priority, @MessageHeader("Content-Type") String contentType)
+
 }
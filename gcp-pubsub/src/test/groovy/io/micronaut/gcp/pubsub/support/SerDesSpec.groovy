@@ -10,6 +10,7 @@ import io.micronaut.gcp.pubsub.DataHolder
 import io.micronaut.gcp.pubsub.annotation.PubSubClient
 import io.micronaut.gcp.pubsub.annotation.Topic
 import io.micronaut.gcp.pubsub.exception.PubSubClientException
+import io.micronaut.gcp.pubsub.serdes.JsonPubSubMessageSerDes
 import io.micronaut.gcp.pubsub.serdes.PubSubMessageSerDes
 import io.micronaut.http.MediaType
 import io.micronaut.test.extensions.spock.annotation.MicronautTest
@@ -25,6 +26,9 @@ class SerDesSpec extends AbstractPublisherSpec {
     @Inject
     SerDesTestClient testClient
 
+    @Inject
+    JsonPubSubMessageSerDes jsonSerDes
+
     void "method with invalid content type"(){
         when:
             testClient.invalidMimeType("")
@@ -66,6 +70,40 @@ class SerDesSpec extends AbstractPublisherSpec {
 
     }
 
+    void "json serdes deserializes from a stream"() {
+        given:
+        InputStream data = ByteString.copyFromUtf8('{"name":"alf"}').newInput()
+
+        when:
+        Person person = (Person) jsonSerDes.deserialize(data, Argument.of(Person))
+
+        then:
+        person.name == "alf"
+    }
+
+    void "serdes without stream support deserializes from the stream contents"() {
+        given:
+        PubSubMessageSerDes serDes = new PubSubMessageSerDes() {
+            @Override
+            Object deserialize(byte[] data, Argument<?> type) {
+                return new String(data)
+            }
+
+            @Override
+            byte[] serialize(Object data) {
+                return new byte[0]
+            }
+
+            @Override
+            String supportedType() {
+                return "text/plain"
+            }
+        }
+
+        expect:
+        serDes.deserialize(ByteString.copyFromUtf8("foo").newInput(), Argument.STRING) == "foo"
+    }
+
     void "bypass serdes with pubsub type"() {
         PubsubMessage message = PubsubMessage
                 .newBuilder()
@@ -0,0 +1,161 @@
+package io.micronaut.gcp.pubsub.tracing
+
+import brave.Tracing
+import brave.handler.MutableSpan
+import brave.handler.SpanHandler
+import brave.propagation.TraceContext
+import com.google.api.core.ApiFutures
+import com.google.cloud.pubsub.v1.AckReplyConsumerWithResponse
+import com.google.cloud.pubsub.v1.AckResponse
+import com.google.cloud.pubsub.v1.MessageReceiver
+import com.google.protobuf.ByteString
+import com.google.pubsub.v1.ProjectSubscriptionName
+import com.google.pubsub.v1.PubsubMessage
+import io.micronaut.context.annotation.Bean
+import io.micronaut.context.annotation.Factory
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.AbstractConsumerSpec
+import io.micronaut.gcp.pubsub.annotation.PubSubClient
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.annotation.Topic
+import io.micronaut.gcp.pubsub.bind.AckResponseReplyConsumer
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import jakarta.inject.Singleton
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+@MicronautTest
+@Property(name = "spec.name", value = "PubSubTracingSpec")
+@Property(name = "gcp.projectId", value = "test-project")
+@Property(name = "gcp.pubsub.tracing.enabled", value = "true")
+class PubSubTracingSpec extends AbstractConsumerSpec {
+
+    @Inject
+    TracedClient client
+
+    @Inject
+    TracedListener listener
+
+    @Inject
+    RecordedSpans spans
+
+    @Inject
+    PubSubTracer tracer
+
+    PollingConditions conditions = new PollingConditions(timeout: 3)
+
+    void "the Brave tracer is used when tracing is enabled"() {
+        expect:
+        tracer instanceof BravePubSubTracer
+    }
+
+    void "the trace context is propagated from the publisher to the listener"() {
+        when:
+        client.send("traced")
+
+        then:
+        conditions.eventually {
+            spans.find("ack") != null
+        }
+        MutableSpan publish = spans.find("publish traced-topic")
+        MutableSpan receive = spans.find("receive traced-topic")
+        MutableSpan bind = spans.find("bind")
+        MutableSpan handle = spans.find("onMessage")
+        MutableSpan ack = spans.find("ack")
+
+        publish.kind() == brave.Span.Kind.PRODUCER
+        receive.kind() == brave.Span.Kind.CONSUMER
+        [receive, bind, handle, ack]*.traceId().every { it == publish.traceId() }
+        receive.parentId() == publish.id()
+        bind.parentId() == receive.id()
+        handle.parentId() == receive.id()
+        ack.parentId() == receive.id()
+        listener.received == ["traced"]
+        listener.traceIds == [publish.traceId()]
+    }
+
+    void "acknowledgements of subscriptions with exactly-once delivery are traced"() {
+        given:
+        AckReplyConsumerWithResponse consumer = Mock()
+        CompletionStage<AckResponse> result = null
+        MessageReceiver delegate = { message, replyConsumer ->
+            result = ((AckResponseReplyConsumer) replyConsumer).ackWithResponse()
+        } as MessageReceiver
+        MessageReceiver receiver = new TracingMessageReceiver(tracer, ProjectSubscriptionName.of("test-project", "exactly-once-traced"), delegate)
+
+        when:
+        receiver.receiveMessage(PubsubMessage.newBuilder().setData(ByteString.copyFromUtf8("once")).build(), new AckResponseReplyConsumer(consumer))
+
+        then:
+        1 * consumer.ack() >> ApiFutures.immediateFuture(AckResponse.SUCCESSFUL)
+        result.toCompletableFuture().get(1, TimeUnit.SECONDS) == AckResponse.SUCCESSFUL
+        MutableSpan receive = spans.find("receive exactly-once-traced")
+        receive != null
+        spans.spans.find { it.name() == "ack" && it.parentId() == receive.id() } != null
+    }
+}
+
+@Factory
+@Requires(property = "spec.name", value = "PubSubTracingSpec")
+class TracingFactory {
+
+    @Singleton
+    RecordedSpans recordedSpans() {
+        return new RecordedSpans()
+    }
+
+    @Singleton
+    @Bean(preDestroy = "close")
+    Tracing tracing(RecordedSpans recordedSpans) {
+        return Tracing.newBuilder()
+                .traceId128Bit(true)
+                .addSpanHandler(recordedSpans)
+                .build()
+    }
+}
+
+class RecordedSpans extends SpanHandler {
+
+    final List<MutableSpan> spans = new CopyOnWriteArrayList<>()
+
+    @Override
+    boolean end(TraceContext context, MutableSpan span, SpanHandler.Cause cause) {
+        spans.add(span)
+        return true
+    }
+
+    MutableSpan find(String name) {
+        return spans.find { it.name() == name }
+    }
+}
+
+@PubSubClient
+@Requires(property = "spec.name", value = "PubSubTracingSpec")
+interface TracedClient {
+
+    @Topic("traced-topic")
+    void send(String message)
+}
+
+@PubSubListener
+@Requires(property = "spec.name", value = "PubSubTracingSpec")
+class TracedListener {
+
+    @Inject
+    Tracing tracing
+
+    List<String> received = new CopyOnWriteArrayList<>()
+    List<String> traceIds = new CopyOnWriteArrayList<>()
+
+    @Subscription("traced-topic")
+    void onMessage(String message) {
+        received.add(message)
+        traceIds.add(tracing.tracer().currentSpan().context().traceIdString())
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gcp.pubsub.subscriber
+//tag::imports[]
+import io.micronaut.context.annotation.Requires
+import io.micronaut.gcp.pubsub.annotation.PubSubListener
+import io.micronaut.gcp.pubsub.annotation.Subscription
+import io.micronaut.gcp.pubsub.support.Animal
+import kotlinx.coroutines.delay
+
+// end::imports[]
+
+@Requires(property = "spec.name", value = "SuspendingSubscriberSpec")
+// tag::clazz[]
+@PubSubListener
+class SuspendingSubscriber(private val messageProcessor: MessageProcessor) {
+
+    @Subscription("animals-suspend")
+    suspend fun receive(animal: Animal) { // <1>
+        delay(100) // <2>
+        messageProcessor.handleAnimalMessage(animal)
+    }
+}
+// end::clazz[]
@@ -0,0 +1,53 @@
+package subscriber
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.gcp.pubsub.publisher.SuspendingClient
+import io.micronaut.gcp.pubsub.subscriber.MessageProcessor
+import io.micronaut.gcp.pubsub.support.Animal
+import io.micronaut.test.annotation.MockBean
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import kotlin.coroutines.EmptyCoroutineContext
+import kotlin.jvm.functions.Function2
+import kotlinx.coroutines.BuildersKt
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+@MicronautTest
+@Property(name = "spec.name", value = "SuspendingSubscriberSpec")
+class SuspendingSubscriberSpec extends Specification {
+
+    @Inject
+    SuspendingClient client
+
+    List<Animal> receivedMessages = []
+
+    void "suspend client and suspend subscriber"() {
+        given:
+        def conditions = new PollingConditions(timeout: 10)
+
+        when:
+        String messageId = BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                { scope, continuation -> client.send(new Animal("dog"), continuation) } as Function2)
+        BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                { scope, continuation -> client.sendAndForget(new Animal("cat"), continuation) } as Function2)
+
+        then:
+        messageId != null
+        conditions.eventually {
+            assert receivedMessages*.name.containsAll(["dog", "cat"])
+        }
+    }
+
+    @MockBean(MessageProcessor.class)
+    MessageProcessor mockMessageProcessor() {
+        return new MessageProcessor() {
+            @Override
+            Mono<Boolean> handleAnimalMessage(Animal message) {
+                receivedMessages.add(message)
+                return super.handleAnimalMessage(message)
+            }
+        }
+    }
+}